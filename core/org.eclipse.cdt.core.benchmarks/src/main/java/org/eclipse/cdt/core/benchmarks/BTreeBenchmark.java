@@ -0,0 +1,115 @@
+/*******************************************************************************
+ * Copyright (c) 2026 Eclipse CDT contributors and others.
+ *
+ * This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License 2.0
+ * which accompanies this distribution, and is available at
+ * https://www.eclipse.org/legal/epl-2.0/
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ *******************************************************************************/
+package org.eclipse.cdt.core.benchmarks;
+
+import java.io.File;
+import java.io.IOException;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+import org.eclipse.cdt.internal.core.pdom.db.BTree;
+import org.eclipse.cdt.internal.core.pdom.db.ChunkCache;
+import org.eclipse.cdt.internal.core.pdom.db.Database;
+import org.eclipse.cdt.internal.core.pdom.db.IBTreeVisitor;
+import org.eclipse.core.runtime.CoreException;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Measures lookups in a B-tree of strings stored in a database, the way the index looks up
+ * bindings by name. The database is accessed either through the chunk cache or through a
+ * memory mapping of the file.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Thread)
+public class BTreeBenchmark {
+	private static final int LOOKUPS = 1024;
+
+	/** The number of strings in the tree. */
+	@Param({ "10000", "100000" })
+	public int size;
+
+	/** Whether the database file is memory mapped. */
+	@Param({ "false", "true" })
+	public boolean memoryMapped;
+
+	private File fFile;
+	private Database fDatabase;
+	private BTree fBTree;
+	private char[][] fKeys;
+
+	@Setup
+	public void setup() throws IOException, CoreException {
+		fFile = File.createTempFile("btree", ".pdom");
+		fDatabase = new Database(fFile, new ChunkCache(), 0, false, memoryMapped);
+		fDatabase.setExclusiveLock();
+		final Database db = fDatabase;
+		fBTree = new BTree(db, Database.DATA_AREA,
+				(record1, record2) -> db.getString(record1).compare(db.getString(record2), true));
+
+		Random random = new Random(17);
+		String[] names = new String[size];
+		for (int i = 0; i < size; i++) {
+			names[i] = "name" + Integer.toHexString(random.nextInt()) + '_' + i;
+			fBTree.insert(db.newString(names[i]).getRecord());
+		}
+		fDatabase.flush();
+		fKeys = new char[LOOKUPS][];
+		for (int i = 0; i < LOOKUPS; i++) {
+			fKeys[i] = names[random.nextInt(size)].toCharArray();
+		}
+	}
+
+	@TearDown
+	public void tearDown() throws CoreException {
+		fDatabase.close();
+		fFile.delete();
+	}
+
+	@Benchmark
+	public int lookup() throws CoreException {
+		final Database db = fDatabase;
+		int found = 0;
+		for (final char[] key : fKeys) {
+			final long[] result = new long[1];
+			fBTree.accept(new IBTreeVisitor() {
+				@Override
+				public int compare(long record) throws CoreException {
+					return db.getString(record).compare(key, true);
+				}
+
+				@Override
+				public boolean visit(long record) throws CoreException {
+					result[0] = record;
+					return false;
+				}
+			});
+			if (result[0] != 0) {
+				found++;
+			}
+		}
+		return found;
+	}
+}
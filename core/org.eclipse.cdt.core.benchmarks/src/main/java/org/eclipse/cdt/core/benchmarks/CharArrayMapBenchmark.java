@@ -0,0 +1,163 @@
+/*******************************************************************************
+ * Copyright (c) 2026 Eclipse CDT contributors and others.
+ *
+ * This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License 2.0
+ * which accompanies this distribution, and is available at
+ * https://www.eclipse.org/legal/epl-2.0/
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ *******************************************************************************/
+package org.eclipse.cdt.core.benchmarks;
+
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+import org.eclipse.cdt.core.parser.util.CharArrayHashMap;
+import org.eclipse.cdt.core.parser.util.CharArrayMap;
+import org.eclipse.cdt.core.parser.util.CharArrayObjectMap;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+/**
+ * Compares the maps with char array keys the preprocessor can use for its macro dictionary.
+ * The lookups mimic the macro expander, which looks up every identifier of the input as a slice
+ * of the token buffer, and most identifiers are not macros.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Thread)
+public class CharArrayMapBenchmark {
+	private static final int LOOKUPS = 1024;
+
+	/** The number of macros in the dictionary. */
+	@Param({ "512", "8192" })
+	public int size;
+
+	/** The percentage of lookups for identifiers that are macros. */
+	@Param({ "10", "90" })
+	public int hitRate;
+
+	private char[][] fKeys;
+	private char[] fBuffer;
+	private int[] fOffsets;
+	private int[] fLengths;
+
+	private CharArrayHashMap<Object> fHashMap;
+	private CharArrayMap<Object> fMap;
+	private CharArrayObjectMap<Object> fObjectMap;
+
+	@Setup
+	public void setup() {
+		Random random = new Random(17);
+		fKeys = new char[size][];
+		for (int i = 0; i < size; i++) {
+			fKeys[i] = identifier(random, "M_").toCharArray();
+		}
+		fHashMap = new CharArrayHashMap<>(size);
+		fMap = new CharArrayMap<>(size);
+		fObjectMap = new CharArrayObjectMap<>(size);
+		for (char[] key : fKeys) {
+			fHashMap.put(key, key);
+			fMap.put(key, key);
+			fObjectMap.put(key, key);
+		}
+
+		// The identifiers to look up, stored in a single buffer like the tokens of a file.
+		StringBuilder buffer = new StringBuilder();
+		fOffsets = new int[LOOKUPS];
+		fLengths = new int[LOOKUPS];
+		for (int i = 0; i < LOOKUPS; i++) {
+			String id = random.nextInt(100) < hitRate ? String.valueOf(fKeys[random.nextInt(size)])
+					: identifier(random, "v_");
+			buffer.append(' ');
+			fOffsets[i] = buffer.length();
+			fLengths[i] = id.length();
+			buffer.append(id);
+		}
+		fBuffer = buffer.toString().toCharArray();
+	}
+
+	private static String identifier(Random random, String prefix) {
+		StringBuilder id = new StringBuilder(prefix);
+		int length = 4 + random.nextInt(16);
+		for (int i = 0; i < length; i++) {
+			int c = random.nextInt(37);
+			id.append(c < 26 ? (char) ('A' + c) : c < 36 ? (char) ('0' + c - 26) : '_');
+		}
+		return id.toString();
+	}
+
+	@Benchmark
+	public void lookupCharArrayHashMap(Blackhole blackhole) {
+		for (int i = 0; i < LOOKUPS; i++) {
+			blackhole.consume(fHashMap.get(fBuffer, fOffsets[i], fLengths[i]));
+		}
+	}
+
+	@Benchmark
+	public void lookupCharArrayMap(Blackhole blackhole) {
+		for (int i = 0; i < LOOKUPS; i++) {
+			blackhole.consume(fMap.get(fBuffer, fOffsets[i], fLengths[i]));
+		}
+	}
+
+	@Benchmark
+	public void lookupCharArrayObjectMap(Blackhole blackhole) {
+		for (int i = 0; i < LOOKUPS; i++) {
+			blackhole.consume(fObjectMap.get(fBuffer, fOffsets[i], fLengths[i]));
+		}
+	}
+
+	/**
+	 * Defines and undefines macros, as done by include guards and by headers that redefine macros.
+	 */
+	@Benchmark
+	public Object defineUndefineCharArrayHashMap() {
+		CharArrayHashMap<Object> map = new CharArrayHashMap<>(16);
+		for (char[] key : fKeys) {
+			map.put(key, key);
+		}
+		for (int i = 0; i < fKeys.length; i += 2) {
+			map.remove(fKeys[i]);
+		}
+		return map;
+	}
+
+	@Benchmark
+	public Object defineUndefineCharArrayMap() {
+		CharArrayMap<Object> map = new CharArrayMap<>(16);
+		for (char[] key : fKeys) {
+			map.put(key, key);
+		}
+		for (int i = 0; i < fKeys.length; i += 2) {
+			map.remove(fKeys[i]);
+		}
+		return map;
+	}
+
+	@Benchmark
+	public Object defineUndefineCharArrayObjectMap() {
+		CharArrayObjectMap<Object> map = new CharArrayObjectMap<>(16);
+		for (char[] key : fKeys) {
+			map.put(key, key);
+		}
+		for (int i = 0; i < fKeys.length; i += 2) {
+			map.remove(fKeys[i], 0, fKeys[i].length);
+		}
+		return map;
+	}
+}
@@ -0,0 +1,150 @@
+/*******************************************************************************
+ * Copyright (c) 2026 Eclipse CDT contributors and others.
+ *
+ * This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License 2.0
+ * which accompanies this distribution, and is available at
+ * https://www.eclipse.org/legal/epl-2.0/
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ *******************************************************************************/
+package org.eclipse.cdt.core.benchmarks;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+import org.eclipse.cdt.core.dom.ILinkage;
+import org.eclipse.cdt.core.dom.ast.gnu.cpp.GPPLanguage;
+import org.eclipse.cdt.core.index.IndexFilter;
+import org.eclipse.cdt.core.index.URIRelativeLocationConverter;
+import org.eclipse.cdt.core.parser.IScannerInfo;
+import org.eclipse.cdt.core.parser.NullLogService;
+import org.eclipse.cdt.core.parser.ScannerInfo;
+import org.eclipse.cdt.internal.core.index.IWritableIndex;
+import org.eclipse.cdt.internal.core.indexer.FileEncodingRegistry;
+import org.eclipse.cdt.internal.core.indexer.IStandaloneScannerInfoProvider;
+import org.eclipse.cdt.internal.core.indexer.StandaloneFastIndexer;
+import org.eclipse.cdt.internal.core.pdom.WritablePDOM;
+import org.eclipse.cdt.internal.core.pdom.dom.IPDOMLinkageFactory;
+import org.eclipse.cdt.internal.core.pdom.dom.c.PDOMCLinkageFactory;
+import org.eclipse.cdt.internal.core.pdom.dom.cpp.PDOMCPPLinkageFactory;
+import org.eclipse.core.runtime.CoreException;
+import org.eclipse.core.runtime.NullProgressMonitor;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+/**
+ * Measures the lookup of bindings by name in an index. The index is built once per trial by the
+ * standalone indexer from a generated project, such that no workspace is needed.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Thread)
+public class IndexBenchmark {
+	private static final int HEADERS = 16;
+
+	/** The number of source files of the project. */
+	@Param({ "32", "256" })
+	public int size;
+
+	private File fDirectory;
+	private IWritableIndex fIndex;
+	private char[][] fNames;
+
+	@Setup
+	public void setup() throws IOException, CoreException, InterruptedException {
+		fDirectory = Files.createTempDirectory("index").toFile();
+		List<String> files = new ArrayList<>();
+		for (int i = 0; i < HEADERS; i++) {
+			write("header" + i + ".h", SourceGenerator.projectHeader(i));
+		}
+		for (int i = 0; i < size; i++) {
+			files.add(write("source" + i + ".cpp", SourceGenerator.projectSource(i, HEADERS)));
+		}
+
+		Map<String, IPDOMLinkageFactory> factories = new HashMap<>();
+		factories.put(ILinkage.CPP_LINKAGE_NAME, new PDOMCPPLinkageFactory());
+		factories.put(ILinkage.C_LINKAGE_NAME, new PDOMCLinkageFactory());
+		final IScannerInfo scannerInfo = new ScannerInfo(Collections.<String, String>emptyMap(),
+				new String[] { fDirectory.getAbsolutePath() });
+		IStandaloneScannerInfoProvider scannerInfoProvider = new IStandaloneScannerInfoProvider() {
+			@Override
+			public IScannerInfo getScannerInformation(String path) {
+				return scannerInfo;
+			}
+
+			@Override
+			public IScannerInfo getDefaultScannerInformation(int linkageID) {
+				return scannerInfo;
+			}
+		};
+		StandaloneFastIndexer indexer = new StandaloneFastIndexer(new File(fDirectory, "index.pdom"),
+				new URIRelativeLocationConverter(fDirectory.toURI()), factories, scannerInfoProvider,
+				new FileEncodingRegistry(StandardCharsets.UTF_8.name()), file -> GPPLanguage.getDefault(),
+				new NullLogService());
+		indexer.rebuild(files, new NullProgressMonitor());
+		fIndex = indexer.getIndex();
+		fIndex.acquireReadLock();
+
+		// Look up classes, functions, members and enumerators, and names that are not in the index.
+		List<char[]> names = new ArrayList<>();
+		for (int i = 0; i < HEADERS; i++) {
+			names.add(("Class" + i + "_" + i).toCharArray());
+			names.add(("compute" + i + "_3").toCharArray());
+			names.add(("kindA" + i).toCharArray());
+			names.add(("missing" + i).toCharArray());
+		}
+		names.add("size".toCharArray());
+		names.add("update".toCharArray());
+		fNames = names.toArray(new char[names.size()][]);
+	}
+
+	private String write(String name, String content) throws IOException {
+		File file = new File(fDirectory, name);
+		Files.write(file.toPath(), content.getBytes(StandardCharsets.UTF_8));
+		return file.getAbsolutePath();
+	}
+
+	@TearDown
+	public void tearDown() throws CoreException {
+		fIndex.releaseReadLock();
+		((WritablePDOM) fIndex.getWritableFragment()).close();
+		File[] files = fDirectory.listFiles();
+		if (files != null) {
+			for (File file : files) {
+				file.delete();
+			}
+		}
+		fDirectory.delete();
+	}
+
+	@Benchmark
+	public void findBindings(Blackhole blackhole) throws CoreException {
+		final NullProgressMonitor monitor = new NullProgressMonitor();
+		for (char[] name : fNames) {
+			blackhole.consume(fIndex.findBindings(name, IndexFilter.ALL, monitor));
+		}
+	}
+}
@@ -0,0 +1,88 @@
+/*******************************************************************************
+ * Copyright (c) 2026 Eclipse CDT contributors and others.
+ *
+ * This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License 2.0
+ * which accompanies this distribution, and is available at
+ * https://www.eclipse.org/legal/epl-2.0/
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ *******************************************************************************/
+package org.eclipse.cdt.core.benchmarks;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import org.eclipse.cdt.core.dom.ast.ASTVisitor;
+import org.eclipse.cdt.core.dom.ast.IASTExpression;
+import org.eclipse.cdt.core.dom.ast.IASTFunctionCallExpression;
+import org.eclipse.cdt.core.dom.ast.IASTIdExpression;
+import org.eclipse.cdt.core.dom.ast.IASTName;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+/**
+ * Measures the resolution of calls to overloaded functions, which comprises the name lookup,
+ * template argument deduction and the ranking of the implicit conversion sequences. Every
+ * invocation operates on a fresh AST, such that no binding is cached from a previous one.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Thread)
+public class OverloadResolutionBenchmark {
+	/** The number of overload sets, each of which is called with 11 different arguments. */
+	@Param({ "10", "100" })
+	public int size;
+
+	private char[] fSource;
+	private List<IASTName> fCalledNames;
+
+	@Setup
+	public void setup() {
+		fSource = SourceGenerator.overloads(size).toCharArray();
+	}
+
+	@Setup(Level.Invocation)
+	public void parse() {
+		final List<IASTName> names = new ArrayList<>();
+		ParserBenchmark.parse(fSource).accept(new ASTVisitor() {
+			{
+				shouldVisitExpressions = true;
+			}
+
+			@Override
+			public int visit(IASTExpression expression) {
+				if (expression instanceof IASTFunctionCallExpression) {
+					IASTExpression functionName = ((IASTFunctionCallExpression) expression).getFunctionNameExpression();
+					if (functionName instanceof IASTIdExpression) {
+						names.add(((IASTIdExpression) functionName).getName());
+					}
+				}
+				return PROCESS_CONTINUE;
+			}
+		});
+		fCalledNames = names;
+	}
+
+	@Benchmark
+	public void resolveCalls(Blackhole blackhole) {
+		for (IASTName name : fCalledNames) {
+			blackhole.consume(name.resolveBinding());
+		}
+	}
+}
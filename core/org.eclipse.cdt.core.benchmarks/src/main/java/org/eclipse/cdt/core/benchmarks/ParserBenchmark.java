@@ -0,0 +1,112 @@
+/*******************************************************************************
+ * Copyright (c) 2026 Eclipse CDT contributors and others.
+ *
+ * This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License 2.0
+ * which accompanies this distribution, and is available at
+ * https://www.eclipse.org/legal/epl-2.0/
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ *******************************************************************************/
+package org.eclipse.cdt.core.benchmarks;
+
+import java.util.Collections;
+import java.util.concurrent.TimeUnit;
+
+import org.eclipse.cdt.core.dom.ast.IASTTranslationUnit;
+import org.eclipse.cdt.core.dom.parser.cpp.GPPParserExtensionConfiguration;
+import org.eclipse.cdt.core.dom.parser.cpp.GPPScannerExtensionConfiguration;
+import org.eclipse.cdt.core.parser.FileContent;
+import org.eclipse.cdt.core.parser.IParserLogService;
+import org.eclipse.cdt.core.parser.IScanner;
+import org.eclipse.cdt.core.parser.IScannerInfo;
+import org.eclipse.cdt.core.parser.IncludeFileContentProvider;
+import org.eclipse.cdt.core.parser.NullLogService;
+import org.eclipse.cdt.core.parser.ParserLanguage;
+import org.eclipse.cdt.core.parser.ParserMode;
+import org.eclipse.cdt.core.parser.ScannerInfo;
+import org.eclipse.cdt.internal.core.dom.parser.cpp.GNUCPPSourceParser;
+import org.eclipse.cdt.internal.core.parser.scanner.CPreprocessor;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Measures parsing of C++ code into an AST, including preprocessing. Names are not resolved.
+ * The inputs resemble code using the standard library and code in the style of Boost, see
+ * {@link SourceGenerator}.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Thread)
+public class ParserBenchmark {
+	private static final String FILE_NAME = "/benchmark/input.cpp";
+	private static final IParserLogService LOG = new NullLogService();
+
+	/** The kind of input, one of {@code stl} or {@code boost}. */
+	@Param({ "stl", "boost" })
+	public String input;
+
+	/** The number of generated units of the input. */
+	@Param({ "100", "1000" })
+	public int size;
+
+	private char[] fSource;
+
+	@Setup
+	public void setup() {
+		fSource = generate(input, size).toCharArray();
+	}
+
+	@Benchmark
+	public IASTTranslationUnit parse() {
+		return parse(fSource);
+	}
+
+	/**
+	 * Generates the input of the given kind and size.
+	 */
+	static String generate(String input, int size) {
+		switch (input) {
+		case "stl":
+			return SourceGenerator.stlLibrary() + SourceGenerator.stlUsage(size);
+		case "boost":
+			return SourceGenerator.boostLike(size);
+		case "macros":
+			return SourceGenerator.macroHeavy(size);
+		case "overloads":
+			return SourceGenerator.overloads(size);
+		default:
+			throw new IllegalArgumentException(input);
+		}
+	}
+
+	/**
+	 * Creates a preprocessor for the given code, which is treated as a C++ file without includes.
+	 */
+	static IScanner createScanner(char[] source) {
+		IScannerInfo info = new ScannerInfo(Collections.<String, String>emptyMap(), new String[0]);
+		return new CPreprocessor(FileContent.create(FILE_NAME, source), info, ParserLanguage.CPP, LOG,
+				GPPScannerExtensionConfiguration.getInstance(info), IncludeFileContentProvider.getEmptyFilesProvider());
+	}
+
+	/**
+	 * Parses the given code without an index.
+	 */
+	static IASTTranslationUnit parse(char[] source) {
+		GNUCPPSourceParser parser = new GNUCPPSourceParser(createScanner(source), ParserMode.COMPLETE_PARSE, LOG,
+				new GPPParserExtensionConfiguration(), null);
+		return parser.parse();
+	}
+}
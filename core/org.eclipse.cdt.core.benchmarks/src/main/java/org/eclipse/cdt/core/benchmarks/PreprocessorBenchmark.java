@@ -0,0 +1,69 @@
+/*******************************************************************************
+ * Copyright (c) 2026 Eclipse CDT contributors and others.
+ *
+ * This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License 2.0
+ * which accompanies this distribution, and is available at
+ * https://www.eclipse.org/legal/epl-2.0/
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ *******************************************************************************/
+package org.eclipse.cdt.core.benchmarks;
+
+import java.util.concurrent.TimeUnit;
+
+import org.eclipse.cdt.core.parser.EndOfFileException;
+import org.eclipse.cdt.core.parser.IScanner;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Measures the preprocessor on inputs with many macro expansions and conditionals. The tokens
+ * are fetched the way the parser does, including the recording of locations.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Thread)
+public class PreprocessorBenchmark {
+	/** The kind of input, one of {@code macros} or {@code boost}. */
+	@Param({ "macros", "boost" })
+	public String input;
+
+	/** The number of generated units of the input. */
+	@Param({ "100", "1000" })
+	public int size;
+
+	private char[] fSource;
+
+	@Setup
+	public void setup() {
+		fSource = ParserBenchmark.generate(input, size).toCharArray();
+	}
+
+	@Benchmark
+	public int preprocess() {
+		IScanner scanner = ParserBenchmark.createScanner(fSource);
+		int count = 0;
+		try {
+			while (true) {
+				scanner.nextToken();
+				count++;
+			}
+		} catch (EndOfFileException e) {
+			// The end of the input has been reached.
+		}
+		return count;
+	}
+}
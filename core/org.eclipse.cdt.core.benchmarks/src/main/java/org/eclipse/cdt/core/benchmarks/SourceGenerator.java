@@ -0,0 +1,313 @@
+/*******************************************************************************
+ * Copyright (c) 2026 Eclipse CDT contributors and others.
+ *
+ * This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License 2.0
+ * which accompanies this distribution, and is available at
+ * https://www.eclipse.org/legal/epl-2.0/
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ *******************************************************************************/
+package org.eclipse.cdt.core.benchmarks;
+
+/**
+ * Generates the C++ code the benchmarks operate on. The code is generated rather than read from
+ * files, such that the size of the input can be varied and no system headers are needed. The
+ * output for a given size is always the same, so results can be compared between runs.
+ */
+public final class SourceGenerator {
+	private SourceGenerator() {
+	}
+
+	/**
+	 * Returns a subset of a standard library, with type traits, an allocator aware vector,
+	 * a map, algorithms and perfect forwarding.
+	 */
+	public static String stlLibrary() {
+		StringBuilder buf = new StringBuilder();
+		buf.append("namespace stl {\n");
+		buf.append("typedef unsigned long size_t;\n");
+		buf.append("template<typename T> struct remove_reference { typedef T type; };\n");
+		buf.append("template<typename T> struct remove_reference<T&> { typedef T type; };\n");
+		buf.append("template<typename T> struct remove_reference<T&&> { typedef T type; };\n");
+		buf.append("template<bool B, typename T = void> struct enable_if {};\n");
+		buf.append("template<typename T> struct enable_if<true, T> { typedef T type; };\n");
+		buf.append("template<typename T> struct is_integral { static const bool value = false; };\n");
+		buf.append("template<> struct is_integral<int> { static const bool value = true; };\n");
+		buf.append("template<> struct is_integral<long> { static const bool value = true; };\n");
+		buf.append("template<typename T> T&& forward(typename remove_reference<T>::type& t) noexcept {\n");
+		buf.append("  return static_cast<T&&>(t);\n");
+		buf.append("}\n");
+		buf.append("template<typename T> typename remove_reference<T>::type&& move(T&& t) noexcept {\n");
+		buf.append("  return static_cast<typename remove_reference<T>::type&&>(t);\n");
+		buf.append("}\n");
+		buf.append("template<typename T> struct allocator {\n");
+		buf.append("  typedef T value_type;\n");
+		buf.append("  T* allocate(size_t n);\n");
+		buf.append("  void deallocate(T* p, size_t n);\n");
+		buf.append("};\n");
+		buf.append("template<typename T, typename A = allocator<T>> class vector {\n");
+		buf.append("public:\n");
+		buf.append("  typedef T value_type;\n");
+		buf.append("  typedef T* iterator;\n");
+		buf.append("  typedef const T* const_iterator;\n");
+		buf.append("  vector() : b(nullptr), e(nullptr), c(nullptr) {}\n");
+		buf.append("  template<typename... Args> T& emplace_back(Args&&... args) {\n");
+		buf.append("    if (e == c) grow();\n");
+		buf.append("    *e = T(stl::forward<Args>(args)...);\n");
+		buf.append("    return *e++;\n");
+		buf.append("  }\n");
+		buf.append("  void push_back(const T& v) { emplace_back(v); }\n");
+		buf.append("  void push_back(T&& v) { emplace_back(stl::move(v)); }\n");
+		buf.append("  iterator begin() { return b; }\n");
+		buf.append("  iterator end() { return e; }\n");
+		buf.append("  const_iterator begin() const { return b; }\n");
+		buf.append("  const_iterator end() const { return e; }\n");
+		buf.append("  size_t size() const { return e - b; }\n");
+		buf.append("  T& operator[](size_t i) { return b[i]; }\n");
+		buf.append("  const T& operator[](size_t i) const { return b[i]; }\n");
+		buf.append("private:\n");
+		buf.append("  void grow() {\n");
+		buf.append("    size_t n = size();\n");
+		buf.append("    T* p = alloc.allocate(n * 2 + 1);\n");
+		buf.append("    for (size_t i = 0; i < n; ++i) p[i] = stl::move(b[i]);\n");
+		buf.append("    alloc.deallocate(b, c - b);\n");
+		buf.append("    b = p; e = p + n; c = p + n * 2 + 1;\n");
+		buf.append("  }\n");
+		buf.append("  T* b; T* e; T* c;\n");
+		buf.append("  A alloc;\n");
+		buf.append("};\n");
+		buf.append("template<typename K, typename V> struct pair {\n");
+		buf.append("  K first; V second;\n");
+		buf.append("  pair() : first(), second() {}\n");
+		buf.append("  pair(const K& k, const V& v) : first(k), second(v) {}\n");
+		buf.append("};\n");
+		buf.append("template<typename T> struct less {\n");
+		buf.append("  bool operator()(const T& a, const T& b) const { return a < b; }\n");
+		buf.append("};\n");
+		buf.append("template<typename K, typename V, typename C = less<K>> class map {\n");
+		buf.append("public:\n");
+		buf.append("  V& operator[](const K& key) {\n");
+		buf.append("    for (auto& entry : entries) {\n");
+		buf.append("      if (!cmp(entry.first, key) && !cmp(key, entry.first)) return entry.second;\n");
+		buf.append("    }\n");
+		buf.append("    return entries.emplace_back(key, V()).second;\n");
+		buf.append("  }\n");
+		buf.append("  size_t size() const { return entries.size(); }\n");
+		buf.append("private:\n");
+		buf.append("  vector<pair<K, V>> entries;\n");
+		buf.append("  C cmp;\n");
+		buf.append("};\n");
+		buf.append("template<typename It, typename F> F for_each(It first, It last, F f) {\n");
+		buf.append("  for (; first != last; ++first) f(*first);\n");
+		buf.append("  return f;\n");
+		buf.append("}\n");
+		buf.append("template<typename It, typename T> It find(It first, It last, const T& value) {\n");
+		buf.append("  for (; first != last; ++first) if (*first == value) return first;\n");
+		buf.append("  return last;\n");
+		buf.append("}\n");
+		buf.append("template<typename T> typename enable_if<is_integral<T>::value, T>::type twice(T t) {\n");
+		buf.append("  return t + t;\n");
+		buf.append("}\n");
+		buf.append("}\n");
+		return buf.toString();
+	}
+
+	/**
+	 * Returns code using the library of {@link #stlLibrary()}, with the given number of classes
+	 * and functions instantiating the library templates.
+	 */
+	public static String stlUsage(int units) {
+		StringBuilder buf = new StringBuilder();
+		for (int i = 0; i < units; i++) {
+			buf.append("struct Item").append(i).append(" {\n");
+			buf.append("  int id;\n");
+			buf.append("  long weight;\n");
+			buf.append("  bool operator<(const Item").append(i).append("& o) const { return id < o.id; }\n");
+			buf.append("  bool operator==(const Item").append(i).append("& o) const { return id == o.id; }\n");
+			buf.append("};\n");
+			buf.append("long process").append(i).append("(const stl::vector<Item").append(i).append(">& items) {\n");
+			buf.append("  stl::map<int, Item").append(i).append("> index;\n");
+			buf.append("  long total = 0;\n");
+			buf.append("  stl::for_each(items.begin(), items.end(), [&](const Item").append(i).append("& it) {\n");
+			buf.append("    total += stl::twice(it.weight);\n");
+			buf.append("    index[it.id] = it;\n");
+			buf.append("  });\n");
+			buf.append("  if (stl::find(items.begin(), items.end(), index[0]) != items.end()) ++total;\n");
+			buf.append("  return total + stl::twice(").append(i).append(");\n");
+			buf.append("}\n");
+		}
+		return buf.toString();
+	}
+
+	/**
+	 * Returns code in the style of preprocessor and template metaprogramming libraries, with
+	 * repetition macros, compile time lists and recursive templates evaluated by static
+	 * assertions.
+	 */
+	public static String boostLike(int units) {
+		StringBuilder buf = new StringBuilder();
+		buf.append(repetitionMacros());
+		buf.append("namespace mpl {\n");
+		buf.append("template<int N> struct int_ { static constexpr int value = N; typedef int_<N + 1> next; };\n");
+		buf.append("template<typename A, typename B> struct plus : int_<A::value + B::value> {};\n");
+		buf.append("template<typename... T> struct list {};\n");
+		buf.append("template<typename L> struct size;\n");
+		buf.append("template<typename... T> struct size<list<T...>> : int_<sizeof...(T)> {};\n");
+		buf.append("template<typename L, typename T> struct push_back;\n");
+		buf.append("template<typename... Ts, typename T> struct push_back<list<Ts...>, T> {\n");
+		buf.append("  typedef list<Ts..., T> type;\n");
+		buf.append("};\n");
+		buf.append("template<typename L> struct front;\n");
+		buf.append("template<typename T, typename... Ts> struct front<list<T, Ts...>> { typedef T type; };\n");
+		buf.append("template<int N> struct fib : plus<fib<N - 1>, fib<N - 2>> {};\n");
+		buf.append("template<> struct fib<0> : int_<0> {};\n");
+		buf.append("template<> struct fib<1> : int_<1> {};\n");
+		buf.append("template<typename T, typename U> struct is_same { static constexpr bool value = false; };\n");
+		buf.append("template<typename T> struct is_same<T, T> { static constexpr bool value = true; };\n");
+		buf.append("}\n");
+		buf.append("#define BL_FIELD(i, d) d BL_CAT(field, i);\n");
+		buf.append("#define BL_PARAM(i, d) , d BL_CAT(p, i)\n");
+		for (int i = 0; i < units; i++) {
+			buf.append("struct Record").append(i).append(" { BL_REPEAT(8, BL_FIELD, int) };\n");
+			buf.append("typedef mpl::push_back<mpl::list<int, long, Record").append(i).append(">, char>::type List")
+					.append(i).append(";\n");
+			buf.append("static_assert(mpl::size<List").append(i).append(">::value == 4, \"size\");\n");
+			buf.append("static_assert(mpl::is_same<mpl::front<List").append(i)
+					.append(">::type, int>::value, \"front\");\n");
+			buf.append("static_assert(mpl::fib<").append(i % 12 + 4).append(">::value > 0, \"fib\");\n");
+			buf.append("void init").append(i).append("(Record").append(i).append("& r BL_REPEAT(4, BL_PARAM, int));\n");
+		}
+		return buf.toString();
+	}
+
+	/**
+	 * Returns code that is dominated by macro expansions and conditional compilation.
+	 */
+	public static String macroHeavy(int units) {
+		StringBuilder buf = new StringBuilder();
+		buf.append(repetitionMacros());
+		buf.append("#define OFFSET 7\n");
+		buf.append("#define MUL(a, b) ((a) * (b))\n");
+		buf.append("#define STR_I(x) #x\n");
+		buf.append("#define STR(x) STR_I(x)\n");
+		buf.append("#define SUM(i, d) + MUL(i, d)\n");
+		buf.append("#define FEATURE_1\n");
+		for (int i = 0; i < units; i++) {
+			buf.append("#define VAL_").append(i).append(" (").append(i).append(" + OFFSET)\n");
+			buf.append("#if defined(FEATURE_").append(i % 4).append(") || ").append(i).append(" % 3 == 0\n");
+			buf.append("int v").append(i).append(" = BL_CAT(VAL_, ").append(i).append(") * MUL(2, OFFSET)")
+					.append(" BL_REPEAT(8, SUM, VAL_").append(i).append(");\n");
+			buf.append("#else\n");
+			buf.append("const char* v").append(i).append(" = STR(BL_CAT(name, ").append(i).append("));\n");
+			buf.append("#endif\n");
+			if (i % 16 == 15) {
+				buf.append("#undef VAL_").append(i - 8).append('\n');
+			}
+		}
+		return buf.toString();
+	}
+
+	/**
+	 * Returns code with overloaded functions, each called with arguments that require implicit
+	 * conversions, derived-to-base conversions and template argument deduction to find the best
+	 * candidate.
+	 */
+	public static String overloads(int units) {
+		StringBuilder buf = new StringBuilder();
+		for (int i = 0; i < units; i++) {
+			buf.append("struct Base").append(i).append(" {};\n");
+			buf.append("struct Derived").append(i).append(" : Base").append(i).append(" {};\n");
+			buf.append("struct Convertible").append(i).append(" { Convertible").append(i).append("(int); };\n");
+			buf.append("void f").append(i).append("(int);\n");
+			buf.append("void f").append(i).append("(long);\n");
+			buf.append("void f").append(i).append("(double);\n");
+			buf.append("void f").append(i).append("(const char*);\n");
+			buf.append("void f").append(i).append("(Base").append(i).append("&);\n");
+			buf.append("void f").append(i).append("(const Base").append(i).append("&, int = 0);\n");
+			buf.append("void f").append(i).append("(Convertible").append(i).append(", double);\n");
+			buf.append("template<typename T> void f").append(i).append("(T*, int);\n");
+			buf.append("template<typename T> void f").append(i).append("(const T&, const T&);\n");
+			buf.append("void call").append(i).append("() {\n");
+			buf.append("  int i = 0; long l = 0; short s = 0; float fl = 0; char c = 0;\n");
+			buf.append("  Derived").append(i).append(" d; const Derived").append(i).append(" cd;\n");
+			String f = "  (void) f" + i;
+			buf.append(f).append("(i);\n");
+			buf.append(f).append("(l);\n");
+			buf.append(f).append("(s);\n");
+			buf.append(f).append("(fl);\n");
+			buf.append(f).append("(c);\n");
+			buf.append(f).append("(\"text\");\n");
+			buf.append(f).append("(d);\n");
+			buf.append(f).append("(cd, 1);\n");
+			buf.append(f).append("(1, 2.0);\n");
+			buf.append(f).append("(&i, 0);\n");
+			buf.append(f).append("(l, l);\n");
+			buf.append("}\n");
+		}
+		return buf.toString();
+	}
+
+	/**
+	 * Returns the header with the given index for a project of {@link #projectSource(int, int)}
+	 * files. Each header declares namespaces, classes with members, and free functions.
+	 */
+	public static String projectHeader(int index) {
+		StringBuilder buf = new StringBuilder();
+		buf.append("#pragma once\n");
+		buf.append("namespace module").append(index % 8).append(" {\n");
+		for (int i = 0; i < 16; i++) {
+			String name = "Class" + index + '_' + i;
+			buf.append("class ").append(name).append(" {\n");
+			buf.append("public:\n");
+			buf.append("  ").append(name).append("();\n");
+			buf.append("  int size() const;\n");
+			buf.append("  void update(int value);\n");
+			buf.append("  template<typename T> T convert() const;\n");
+			buf.append("private:\n");
+			buf.append("  int fValue").append(i).append(";\n");
+			buf.append("};\n");
+			buf.append("int compute").append(index).append('_').append(i).append("(const ").append(name)
+					.append("& c);\n");
+		}
+		buf.append("enum Kind").append(index).append(" { kindA").append(index).append(", kindB").append(index)
+				.append(" };\n");
+		buf.append("}\n");
+		return buf.toString();
+	}
+
+	/**
+	 * Returns the source file with the given index, which includes the given number of headers.
+	 */
+	public static String projectSource(int index, int headers) {
+		StringBuilder buf = new StringBuilder();
+		for (int h = 0; h < headers; h++) {
+			buf.append("#include \"header").append((index + h) % headers).append(".h\"\n");
+		}
+		buf.append("namespace module").append(index % 8).append(" {\n");
+		for (int i = 0; i < 16; i++) {
+			String name = "Class" + index % headers + '_' + i;
+			buf.append("int compute").append(index % headers).append('_').append(i).append("(const ").append(name)
+					.append("& c) { return c.size() + ").append(i).append("; }\n");
+		}
+		buf.append("}\n");
+		buf.append("int main").append(index).append("() { return 0; }\n");
+		return buf.toString();
+	}
+
+	/**
+	 * The repetition macros, modeled after the Boost preprocessor library.
+	 */
+	private static String repetitionMacros() {
+		StringBuilder buf = new StringBuilder();
+		buf.append("#define BL_CAT(a, b) BL_CAT_I(a, b)\n");
+		buf.append("#define BL_CAT_I(a, b) a ## b\n");
+		buf.append("#define BL_REPEAT(n, m, d) BL_CAT(BL_REPEAT_, n)(m, d)\n");
+		buf.append("#define BL_REPEAT_0(m, d)\n");
+		for (int i = 1; i <= 8; i++) {
+			buf.append("#define BL_REPEAT_").append(i).append("(m, d) BL_REPEAT_").append(i - 1).append("(m, d) m(")
+					.append(i - 1).append(", d)\n");
+		}
+		return buf.toString();
+	}
+}
@@ -0,0 +1,115 @@
+/*******************************************************************************
+ * Copyright (c) 2026 Eclipse CDT contributors and others.
+ *
+ * This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License 2.0
+ * which accompanies this distribution, and is available at
+ * https://www.eclipse.org/legal/epl-2.0/
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ *******************************************************************************/
+package org.eclipse.cdt.utils;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+
+import java.io.IOException;
+
+import org.junit.Test;
+
+/**
+ * Tests for {@link ItaniumDemangler} and {@link CPPDemangler}. The expected results are the
+ * output of {@code c++filt}.
+ */
+public class ItaniumDemanglerTest {
+
+	private static void assertDemangled(String expected, String mangled) {
+		assertEquals(mangled, expected, ItaniumDemangler.demangle(mangled));
+	}
+
+	@Test
+	public void testFunctions() {
+		assertDemangled("foo()", "_Z3foov");
+		assertDemangled("std::vector<int, std::allocator<int> >::size() const", "_ZNKSt6vectorIiSaIiEE4sizeEv");
+		assertDemangled("__gnu_cxx::new_allocator<char>::allocate(unsigned long, void const*)",
+				"_ZN9__gnu_cxx13new_allocatorIcE8allocateEmPKv");
+		assertDemangled(
+				"std::__cxx11::basic_string<char, std::char_traits<char>, std::allocator<char> >::basic_string(char const*, std::allocator<char> const&)",
+				"_ZNSt7__cxx1112basic_stringIcSt11char_traitsIcESaIcEEC1EPKcRKS3_");
+		assertDemangled("A::operator int()", "_ZN1AcviEv");
+		assertDemangled("operator+(A const&, A const&)", "_ZplRK1AS1_");
+		assertDemangled("operator delete(void*, unsigned long)", "_ZdlPvm");
+		assertDemangled("Outer::Inner::Inner(Outer::Inner const&)", "_ZN5Outer5InnerC2ERKS0_");
+		assertDemangled("(anonymous namespace)::foo()", "_ZN12_GLOBAL__N_13fooEv");
+		assertDemangled("A::f[abi:cxx11]()", "_ZN1A1fB5cxx11Ev");
+		assertDemangled("foo() [clone .cold]", "_Z3foov.cold");
+	}
+
+	@Test
+	public void testTypes() {
+		assertDemangled("f(int (*)(), int (*) [10])", "_Z1fPFivEPA10_i");
+		assertDemangled("f(void (A::*)() const)", "_Z1fM1AKFvvE");
+		assertDemangled("f(int&&)", "_Z1fOi");
+		assertDemangled("f(decltype(nullptr))", "_Z1fDn");
+	}
+
+	@Test
+	public void testTemplates() {
+		assertDemangled("void f<int, double>(int, double)", "_Z1fIJidEEvDpT_");
+		assertDemangled("void foo<3>(int (&) [(3)+(1)])", "_Z3fooILi3EEvRAplT_Li1E_i");
+	}
+
+	@Test
+	public void testLocalNames() {
+		assertDemangled("main::count", "_ZZ4mainE5count");
+		assertDemangled("main::{lambda()#1}::operator()() const", "_ZZ4mainENKUlvE_clEv");
+	}
+
+	@Test
+	public void testSpecialNames() {
+		assertDemangled("vtable for A", "_ZTV1A");
+		assertDemangled("typeinfo for A", "_ZTI1A");
+		assertDemangled("non-virtual thunk to B::f()", "_ZThn8_N1B1fEv");
+		assertDemangled("guard variable for main::x", "_ZGVZ4mainE1x");
+	}
+
+	@Test
+	public void testInvalidNames() {
+		assertNull(ItaniumDemangler.demangle("main"));
+		assertNull(ItaniumDemangler.demangle("_Z"));
+		assertNull(ItaniumDemangler.demangle("_Z4foo"));
+		assertNull(ItaniumDemangler.demangle("_Z1fS_"));
+		assertNull(ItaniumDemangler.demangle("_Z1fIiEvT0_"));
+		assertNull(ItaniumDemangler.demangle("_ZT"));
+		assertNull(ItaniumDemangler.demangle("_ZTh"));
+		assertNull(ItaniumDemangler.demangle("_ZTv0_"));
+		assertNull(ItaniumDemangler.demangle("_ZTc"));
+		assertNull(ItaniumDemangler.demangle("_ZTch"));
+		assertNull(ItaniumDemangler.demangle("__ZT"));
+		// c++filt does not demangle names with an additional underscore by default.
+		assertNull(ItaniumDemangler.demangle("__Z3foov"));
+	}
+
+	@Test
+	public void testCPPDemangler() throws IOException {
+		CPPDemangler demangler = new CPPDemangler();
+		assertEquals("main", demangler.getFunction("main"));
+		assertEquals("_Z4foo", demangler.getFunction("_Z4foo"));
+		assertEquals("operator delete(void*)@GLIBCXX_3.4", demangler.getFunction("_ZdlPv@GLIBCXX_3.4"));
+		assertEquals("__Z3foov", demangler.getFunction("__Z3foov"));
+		assertEquals("_ZT", demangler.getFunction("_ZT"));
+		assertArrayEquals(new String[] { "foo()", "main", "foo()" },
+				demangler.getFunctions(new String[] { "_Z3foov", "main", "_Z3foov" }));
+		demangler.dispose();
+	}
+
+	@Test
+	public void testCPPDemanglerStripUnderscore() throws IOException {
+		CPPDemangler demangler = new CPPDemangler(true);
+		assertEquals("foo()", demangler.getFunction("__Z3foov"));
+		assertEquals("_main", demangler.getFunction("_main"));
+		assertEquals("__Z4foo", demangler.getFunction("__Z4foo"));
+		demangler.dispose();
+	}
+}
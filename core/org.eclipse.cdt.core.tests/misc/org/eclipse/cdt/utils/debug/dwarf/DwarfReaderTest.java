@@ -0,0 +1,118 @@
+/*******************************************************************************
+ * Copyright (c) 2026 Eclipse CDT contributors and others.
+ *
+ * This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License 2.0
+ * which accompanies this distribution, and is available at
+ * https://www.eclipse.org/legal/epl-2.0/
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ *******************************************************************************/
+package org.eclipse.cdt.utils.debug.dwarf;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+import java.io.DataOutputStream;
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+
+import org.eclipse.cdt.core.CCorePlugin;
+import org.eclipse.cdt.utils.elf.Elf;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+/**
+ * Tests reading the source files and line tables of DWARF 5 debug information, and the cache
+ * of the source files.
+ */
+public class DwarfReaderTest {
+	/** Built with {@code gcc simple.c -gdwarf-5 -Wl,--build-id -fdebug-prefix-map=$PWD=/tmp}. */
+	private static final String DWARF5_PATH = "resources/elf/unit_test/simple-dwarf5-le64.elf";
+	private static final String DWARF5_BUILD_ID = "52cca186c413fe05a76fdaa6fad6a150586cd6dc";
+	private static final long MAIN_ADDRESS = 0x1137;
+	private static final int MAX_CACHE_ENTRIES = 100;
+
+	private Elf elf;
+	private File cacheFile;
+
+	@Before
+	public void setUp() throws IOException {
+		elf = new Elf(DWARF5_PATH);
+		cacheFile = CCorePlugin.getDefault().getStateLocation().append("dwarfSourceFiles").append(DWARF5_BUILD_ID)
+				.toFile();
+		cacheFile.delete();
+	}
+
+	@After
+	public void tearDown() {
+		elf.dispose();
+		cacheFile.delete();
+	}
+
+	@Test
+	public void testSourceFiles() throws IOException {
+		String[] sourceFiles = new DwarfReader(elf).getSourceFiles();
+		assertArrayEquals(new String[] { "/tmp/simple.c" }, sourceFiles);
+	}
+
+	@Test
+	public void testLineTable() throws IOException {
+		DwarfLineTable table = new DwarfReader(elf).getLineTable();
+		int row = table.findRow(MAIN_ADDRESS);
+		assertTrue("Main found", row >= 0);
+		assertEquals("Main line", 7, table.getLineNumber(row));
+		assertEquals("Main file", "/tmp/simple.c", table.getFileName(row));
+	}
+
+	@Test
+	public void testSourceFilesCache() throws IOException {
+		String[] sourceFiles = new DwarfReader(elf).getSourceFiles();
+		assertTrue("Cache stored", cacheFile.isFile());
+
+		// The source files are loaded from the cache, which marks the entry as recently used.
+		assertTrue(cacheFile.setLastModified(1000));
+		assertArrayEquals(sourceFiles, new DwarfReader(elf).getSourceFiles());
+		assertTrue("Cache used", cacheFile.lastModified() > 1000);
+	}
+
+	@Test
+	public void testDamagedSourceFilesCache() throws IOException {
+		String[] sourceFiles = new DwarfReader(elf).getSourceFiles();
+		// The version of the cache followed by an impossible number of files.
+		try (DataOutputStream out = new DataOutputStream(new FileOutputStream(cacheFile))) {
+			out.writeInt(1);
+			out.writeInt(Integer.MAX_VALUE);
+		}
+		assertArrayEquals(sourceFiles, new DwarfReader(elf).getSourceFiles());
+		// The damaged entry has been replaced.
+		assertTrue("Cache stored", cacheFile.length() > 8);
+		assertArrayEquals(sourceFiles, new DwarfReader(elf).getSourceFiles());
+	}
+
+	@Test
+	public void testSourceFilesCacheIsBounded() throws IOException {
+		File dir = cacheFile.getParentFile();
+		dir.mkdirs();
+		File[] stale = new File[MAX_CACHE_ENTRIES];
+		for (int i = 0; i < stale.length; i++) {
+			stale[i] = new File(dir, "stale" + i);
+			stale[i].createNewFile();
+			stale[i].setLastModified(1000 + i * 1000);
+		}
+		try {
+			new DwarfReader(elf).getSourceFiles();
+			assertTrue("Cache stored", cacheFile.isFile());
+			assertTrue("Number of entries", dir.list().length <= MAX_CACHE_ENTRIES);
+			assertFalse("Least recently used entry removed", stale[0].exists());
+		} finally {
+			for (File file : stale) {
+				file.delete();
+			}
+		}
+	}
+}
@@ -10,9 +10,11 @@
  *******************************************************************************/
 package org.eclipse.cdt.utils.elf;
 
+import static org.junit.Assert.assertArrayEquals;
 import static org.junit.Assert.assertEquals;
 import static org.junit.Assert.assertNotNull;
 import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertSame;
 import static org.junit.Assert.assertTrue;
 
 import java.io.IOException;
@@ -22,7 +24,11 @@ import java.util.Collection;
 import java.util.List;
 import java.util.stream.Collectors;
 
+import org.eclipse.cdt.core.IAddress;
 import org.eclipse.cdt.core.ISymbolReader;
+import org.eclipse.cdt.utils.DwarfAddr2line;
+import org.eclipse.cdt.utils.debug.dwarf.DwarfLineTable;
+import org.eclipse.cdt.utils.debug.dwarf.DwarfReader;
 import org.eclipse.cdt.utils.elf.Elf.Attribute;
 import org.eclipse.cdt.utils.elf.Elf.Section;
 import org.eclipse.cdt.utils.elf.Elf.Symbol;
@@ -44,13 +50,13 @@ public class ElfTest {
 	public static Collection<Object[]> elfArchitectures() {
 		return Arrays.asList(new Object[][] {
 				{ "BE32", "ppc", "resources/elf/unit_test/simple-be32.elf", 35, "0x00000000", "0x100001a8", 75,
-						"0x10000518" },
+						"0x10000518", "0x10000518" },
 				{ "BE64", "ppc64", "resources/elf/unit_test/simple-be64.elf", 34, "0x0000000000000000",
-						"0x0000000010000240", 69, "0x000000001001fea0" },
+						"0x0000000010000240", 69, "0x000000001001fea0", "0x100005d4" },
 				{ "LE32", "x86", "resources/elf/unit_test/simple-le32.elf", 36, "0x00000000", "0x080481cc", 70,
-						"0x080483e5" },
+						"0x080483e5", "0x080483e5" },
 				{ "LE64", "x86_64", "resources/elf/unit_test/simple-le64.elf", 36, "0x0000000000000000",
-						"0x00000000004002b8", 68, "0x00000000004004e4" }, });
+						"0x00000000004002b8", 68, "0x00000000004004e4", "0x00000000004004e4" }, });
 	}
 
 	private static final Collection<String> functions = Arrays.asList("", "crtstuff.c", "simple.c", "crtstuff.c",
@@ -68,17 +74,22 @@ public class ElfTest {
 	private final String dynsymBaseAddress;
 	private final int nbSymbols;
 	private final String mainAddress;
+	/** The address of the code of main, which differs from the symbol for function descriptors. */
+	private final String mainCodeAddress;
+	private final String path;
 
 	public ElfTest(String mArch, String architecture, String path, int sections, String symBaseAddress,
-			String dynBaseAddress, int symbolCount, String mainAddr) throws IOException {
+			String dynBaseAddress, int symbolCount, String mainAddr, String mainCodeAddr) throws IOException {
 		memoryArchitecture = mArch;
 		nbSections = sections;
+		this.path = path;
 		elf = new Elf(path);
 		arch = architecture;
 		symtabBaseAddress = symBaseAddress;
 		dynsymBaseAddress = dynBaseAddress;
 		nbSymbols = symbolCount;
 		mainAddress = mainAddr;
+		mainCodeAddress = mainCodeAddr;
 	}
 
 	/**
@@ -129,6 +140,22 @@ public class ElfTest {
 		assertEquals(arch + ": " + "Main address", mainAddress, symbol.st_value.toHexAddressString());
 	}
 
+	@Test
+	public void testSymbolTable() throws IOException {
+		ElfSymbolTable table = elf.getSymbolTable(elf.getSectionByName(SYMTAB_NAME));
+		assertTrue(arch + ": " + "Number of entries", table.getSymbolCount() >= nbSymbols);
+		int index = table.findSymbol(Long.decode(mainAddress));
+		assertTrue(arch + ": " + "Main found", index > 0);
+		assertEquals(arch + ": " + "Main name", "main", table.getName(index));
+		assertEquals(arch + ": " + "Main type", Symbol.STT_FUNC, table.getType(index));
+		assertEquals(arch + ": " + "Main address", mainAddress, table.getSymbol(index).st_value.toHexAddressString());
+
+		elf.loadSymbols();
+		Symbol symbol = elf.getSymbol(table.getSymbol(index).st_value.add(1));
+		assertNotNull(symbol);
+		assertEquals(arch + ": " + "Symbol containing address", "main", symbol.toString());
+	}
+
 	@Test
 	public void testGetAttributes() throws IOException {
 		Attribute attributes = elf.getAttributes();
@@ -161,4 +188,52 @@ public class ElfTest {
 		assertTrue(arch + ": " + "Source file name", sourceFiles[0].endsWith("simple.c"));
 	}
 
+	@Test
+	public void testLineTable() throws IOException {
+		DwarfLineTable table = new DwarfReader(elf).getLineTable();
+		long address = Long.decode(mainCodeAddress);
+		int row = table.findRow(address);
+		assertTrue(arch + ": " + "Main found", row >= 0);
+		assertEquals(arch + ": " + "Main line", 7, table.getLineNumber(row));
+		assertTrue(arch + ": " + "Main file", table.getFileName(row).endsWith("simple.c"));
+		assertEquals(arch + ": " + "Address of main", address, table.getAddress(row));
+
+		int[] rows = table.findRows(new long[] { address, address + 1, 0 });
+		assertEquals(arch + ": " + "Main found", row, rows[0]);
+		assertEquals(arch + ": " + "Within main", row, rows[1]);
+		assertEquals(arch + ": " + "No line", -1, rows[2]);
+	}
+
+	@Test
+	public void testAddr2line() throws IOException {
+		DwarfAddr2line addr2line = new DwarfAddr2line(path);
+		try {
+			IAddress address = elf.getAttributes().getAddressFactory()
+					.createAddress(BigInteger.valueOf(Long.decode(mainCodeAddress)));
+			assertEquals(arch + ": " + "Main line", 7, addr2line.getLineNumber(address));
+			assertTrue(arch + ": " + "Main file", addr2line.getFileName(address).endsWith("simple.c"));
+			assertTrue(arch + ": " + "Main line", addr2line.getLine(address).endsWith("simple.c:7"));
+			assertArrayEquals(arch + ": " + "Main lines", new int[] { 7, 7 },
+					addr2line.getLineNumbers(new IAddress[] { address, address.add(1) }));
+			assertTrue(arch + ": " + "Main files",
+					addr2line.getFileNames(new IAddress[] { address })[0].endsWith("simple.c"));
+			if (mainCodeAddress.equals(mainAddress))
+				assertEquals(arch + ": " + "Main function", "main", addr2line.getFunction(address));
+		} finally {
+			addr2line.dispose();
+		}
+	}
+
+	@Test
+	public void testAddr2lineSharesLineTable() throws IOException {
+		DwarfAddr2line addr2line = new DwarfAddr2line(path);
+		DwarfAddr2line other = new DwarfAddr2line(path);
+		try {
+			assertSame(arch + ": " + "Line table", addr2line.getLineTable(), other.getLineTable());
+		} finally {
+			addr2line.dispose();
+			other.dispose();
+		}
+	}
+
 }
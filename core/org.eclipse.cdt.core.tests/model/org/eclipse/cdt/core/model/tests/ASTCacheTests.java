@@ -16,12 +16,17 @@ package org.eclipse.cdt.core.model.tests;
 
 import org.eclipse.cdt.core.CCorePlugin;
 import org.eclipse.cdt.core.dom.IPDOMManager;
+import org.eclipse.cdt.core.dom.ast.IASTDeclaration;
+import org.eclipse.cdt.core.dom.ast.IASTFunctionDefinition;
+import org.eclipse.cdt.core.dom.ast.IASTName;
 import org.eclipse.cdt.core.dom.ast.IASTTranslationUnit;
+import org.eclipse.cdt.core.dom.ast.IFunction;
 import org.eclipse.cdt.core.index.IIndex;
 import org.eclipse.cdt.core.model.CoreModel;
 import org.eclipse.cdt.core.model.ICProject;
 import org.eclipse.cdt.core.model.ILanguage;
 import org.eclipse.cdt.core.model.ITranslationUnit;
+import org.eclipse.cdt.core.model.IWorkingCopy;
 import org.eclipse.cdt.core.testplugin.CProjectHelper;
 import org.eclipse.cdt.core.testplugin.util.BaseTestCase;
 import org.eclipse.cdt.core.testplugin.util.TestSourceReader;
@@ -318,6 +323,93 @@ public class ASTCacheTests extends BaseTestCase {
 		}
 	}
 
+	public void testUpdateOfFunctionBody() throws Exception {
+		final String source = "void f() {\n  int a;\n}\nint b;\n";
+		IFile file = createFile(fProject.getProject(), "source3.cpp", source);
+		ITranslationUnit tu = (ITranslationUnit) CoreModel.getDefault().create(file);
+		IWorkingCopy workingCopy = tu.getWorkingCopy();
+		try {
+			ASTCache cache = new ASTCache();
+			cache.setActiveElement(workingCopy);
+			IASTTranslationUnit ast = reconcile(cache, workingCopy, source);
+
+			// A change within the body of a function updates the AST.
+			String newSource = "void f() {\n  int a, c;\n  c = a;\n}\nint b;\n";
+			IASTTranslationUnit newAST = reconcile(cache, workingCopy, newSource);
+			assertSame(ast, newAST);
+			IASTDeclaration[] declarations = newAST.getDeclarations();
+			assertEquals(2, declarations.length);
+			IASTFunctionDefinition function = (IASTFunctionDefinition) declarations[0];
+			assertEquals("{\n  int a, c;\n  c = a;\n}", function.getBody().getRawSignature());
+			assertEquals("int b;", declarations[1].getRawSignature());
+			assertEquals(newSource.indexOf("int b;"), declarations[1].getFileLocation().getNodeOffset());
+			assertEquals(newSource.length(), newAST.getFileLocation().getNodeLength());
+
+			// Other changes require parsing the file.
+			newSource = "void f() {\n  int a, c;\n  c = a;\n}\nint d;\n";
+			newAST = reconcile(cache, workingCopy, newSource);
+			assertNotSame(ast, newAST);
+			assertEquals("int d;", newAST.getDeclarations()[1].getRawSignature());
+		} finally {
+			workingCopy.destroy();
+		}
+	}
+
+	public void testNoUpdateAfterIndexChange() throws Exception {
+		final String header = "int g(int x);\n";
+		final String source = "#include \"header4.h\"\nvoid f() {\n  g(1);\n}\n";
+		fIndex.releaseReadLock();
+		IFile headerFile;
+		IFile file;
+		try {
+			headerFile = createFile(fProject.getProject(), "header4.h", header);
+			file = createFile(fProject.getProject(), "source4.cpp", source);
+			waitForIndexer(fProject);
+		} finally {
+			fIndex.acquireReadLock();
+		}
+		ITranslationUnit tu = (ITranslationUnit) CoreModel.getDefault().create(file);
+		IWorkingCopy workingCopy = tu.getWorkingCopy();
+		try {
+			ASTCache cache = new ASTCache();
+			cache.setActiveElement(workingCopy);
+			IASTTranslationUnit ast = reconcile(cache, workingCopy, source);
+			assertEquals(1, getCalledFunction(ast, source).getParameters().length);
+
+			// The declaration in the header changes.
+			fIndex.releaseReadLock();
+			try {
+				createFile(fProject.getProject(), "header4.h", "int g(int x, int y = 0);\n");
+				waitUntilFileIsIndexed(fIndex, headerFile);
+			} finally {
+				fIndex.acquireReadLock();
+			}
+
+			// A change within the body of a function does not update the outdated AST.
+			String newSource = "#include \"header4.h\"\nvoid f() {\n  g(2);\n}\n";
+			IASTTranslationUnit newAST = reconcile(cache, workingCopy, newSource);
+			assertNotSame(ast, newAST);
+			assertEquals(2, getCalledFunction(newAST, newSource).getParameters().length);
+		} finally {
+			workingCopy.destroy();
+		}
+	}
+
+	private IFunction getCalledFunction(IASTTranslationUnit ast, String source) {
+		IASTName name = ast.getNodeSelector(null).findName(source.indexOf("g("), 1);
+		assertNotNull(name);
+		return assertInstance(name.resolveBinding(), IFunction.class);
+	}
+
+	private IASTTranslationUnit reconcile(ASTCache cache, IWorkingCopy workingCopy, String source) throws Exception {
+		workingCopy.getBuffer().setContents(source);
+		cache.aboutToBeReconciled(workingCopy);
+		IASTTranslationUnit ast = cache.createAST(workingCopy, fIndex, null);
+		assertNotNull(ast);
+		cache.reconciled(ast, workingCopy);
+		return ast;
+	}
+
 	private void waitForAST(ASTCache cache, ITranslationUnit tUnit, ASTRunnable runnable) {
 		if (DEBUG)
 			System.out.println("waiting for " + tUnit.getElementName());
@@ -17,10 +17,12 @@ import java.io.ByteArrayInputStream;
 import java.io.File;
 import java.io.FileInputStream;
 import java.io.FileNotFoundException;
+import java.nio.file.Files;
 import java.util.Arrays;
 import java.util.List;
 
 import org.eclipse.cdt.core.CCProjectNature;
+import org.eclipse.cdt.core.CCorePlugin;
 import org.eclipse.cdt.core.CProjectNature;
 import org.eclipse.cdt.core.dom.IPDOMManager;
 import org.eclipse.cdt.core.model.CoreModel;
@@ -43,6 +45,7 @@ import org.eclipse.cdt.core.testplugin.CTestPlugin;
 import org.eclipse.core.resources.IFile;
 import org.eclipse.core.resources.IFolder;
 import org.eclipse.core.resources.IProject;
+import org.eclipse.core.resources.IProjectDescription;
 import org.eclipse.core.resources.IResource;
 import org.eclipse.core.resources.IWorkspace;
 import org.eclipse.core.resources.IWorkspaceDescription;
@@ -557,6 +560,63 @@ public class CModelTests extends TestCase {
 		}
 	}
 
+	public void testBinariesOfUnchangedProject() throws Exception {
+		ICProject testProject;
+		testProject = CProjectHelper.createCProject("binaryTypes", "none", IPDOMManager.ID_NO_INDEXER);
+		if (testProject == null) {
+			fail("Unable to create project");
+		}
+		IProject project = testProject.getProject();
+		CProjectHelper.addDefaultBinaryParser(project);
+		importSourcesFromPlugin(testProject, CTestPlugin.getDefault().getBundle(), "resources/exe/x86");
+		IResource exe = testProject.getBinaryContainer().getBinaries()[0].getResource();
+		byte[] exeContents = Files.readAllBytes(exe.getLocation().toFile().toPath());
+		// A file without an extension that is not a binary.
+		IFile data = project.getFile("data");
+		data.create(new ByteArrayInputStream(new byte[exeContents.length]), true, monitor);
+
+		// The binary runner classifies the files when the project is opened and stores the types.
+		project.close(monitor);
+		project.open(monitor);
+		testProject = CoreModel.getDefault().create(project);
+		assertEquals(2, testProject.getBinaryContainer().getBinaries().length);
+		File cache = CCorePlugin.getDefault().getStateLocation().append("binaryTypes").append(project.getName())
+				.toFile();
+		assertTrue(cache.isFile());
+
+		// Turn the data file into a binary without changing its size and modification time.
+		final long timeStamp = data.getLocalTimeStamp();
+		data.setContents(new ByteArrayInputStream(exeContents), true, false, monitor);
+		data.setLocalTimeStamp(timeStamp);
+
+		// The files have not changed as far as the binary runner can tell, the second run uses the
+		// stored types rather than passing the data file to the binary parser.
+		project.close(monitor);
+		project.open(monitor);
+		testProject = CoreModel.getDefault().create(project);
+		assertEquals(2, testProject.getBinaryContainer().getBinaries().length);
+		assertTrue(cache.isFile());
+
+		// Once the modification time changes, the data file is classified again.
+		data.setLocalTimeStamp(timeStamp + 2000);
+		project.close(monitor);
+		project.open(monitor);
+		testProject = CoreModel.getDefault().create(project);
+		assertEquals(3, testProject.getBinaryContainer().getBinaries().length);
+
+		// The stored types move along with a renamed project.
+		IProjectDescription description = project.getDescription();
+		description.setName("binaryTypesRenamed");
+		project.move(description, true, monitor);
+		assertFalse(cache.exists());
+		project = ResourcesPlugin.getWorkspace().getRoot().getProject("binaryTypesRenamed");
+		cache = CCorePlugin.getDefault().getStateLocation().append("binaryTypes").append(project.getName()).toFile();
+		assertTrue(cache.isFile());
+
+		project.delete(true, true, monitor);
+		assertFalse(cache.exists());
+	}
+
 	// same as CprojectHelper.importSourcesFromPlugin(), but preserving folder structure
 	private static void importSourcesFromPlugin(ICProject project, Bundle bundle, String sources) throws CoreException {
 		try {
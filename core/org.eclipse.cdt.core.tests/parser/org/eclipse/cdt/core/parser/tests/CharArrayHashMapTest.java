@@ -0,0 +1,85 @@
+/*******************************************************************************
+ * Copyright (c) 2026 Eclipse CDT contributors and others.
+ *
+ * This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License 2.0
+ * which accompanies this distribution, and is available at
+ * https://www.eclipse.org/legal/epl-2.0/
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ *******************************************************************************/
+package org.eclipse.cdt.core.parser.tests;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Random;
+
+import org.eclipse.cdt.core.parser.util.CharArrayHashMap;
+
+import junit.framework.TestCase;
+
+/**
+ * Tests for {@link CharArrayHashMap}.
+ */
+public class CharArrayHashMapTest extends TestCase {
+
+	public void testPutAndGet() {
+		CharArrayHashMap<Integer> map = new CharArrayHashMap<>(1);
+		assertNull(map.put("key1".toCharArray(), 43));
+		assertEquals(43, (int) map.get("key1".toCharArray()));
+		assertEquals(43, (int) map.put("key1".toCharArray(), 44));
+		assertEquals(1, map.size());
+
+		for (int i = 0; i < 100; ++i) {
+			map.put(("ikey" + i).toCharArray(), i);
+		}
+		assertEquals(101, map.size());
+		for (int i = 0; i < 100; ++i) {
+			assertEquals(i, (int) map.get(("ikey" + i).toCharArray()));
+		}
+		assertNull(map.get("ikey100".toCharArray()));
+	}
+
+	public void testSlices() {
+		CharArrayHashMap<Integer> map = new CharArrayHashMap<>();
+		char[] buffer = "one two three".toCharArray();
+		map.put(buffer, 4, 3, 99);
+		assertEquals(99, (int) map.get("two".toCharArray()));
+		assertEquals(99, (int) map.get(buffer, 4, 3));
+		assertTrue(map.containsKey(buffer, 4, 3));
+		assertFalse(map.containsKey(buffer, 0, 3));
+
+		// The slice has been copied.
+		buffer[4] = 'x';
+		assertEquals("two", String.valueOf(map.keyAt(0)));
+		assertEquals(99, (int) map.remove("xtwo".toCharArray(), 1, 3));
+		assertTrue(map.isEmpty());
+	}
+
+	public void testRemove() {
+		Random random = new Random(239);
+		CharArrayHashMap<Integer> map = new CharArrayHashMap<>();
+		Map<String, Integer> expected = new HashMap<>();
+		for (int i = 0; i < 20000; i++) {
+			String key = "key" + random.nextInt(500);
+			if (random.nextBoolean()) {
+				assertEquals(expected.put(key, i), map.put(key.toCharArray(), i));
+			} else {
+				assertEquals(expected.remove(key), map.remove(key.toCharArray()));
+			}
+			assertEquals(expected.size(), map.size());
+		}
+		for (Map.Entry<String, Integer> entry : expected.entrySet()) {
+			assertEquals(entry.getValue(), map.get(entry.getKey().toCharArray()));
+		}
+		for (int i = 0; i < map.size(); i++) {
+			assertEquals(expected.get(String.valueOf(map.keyAt(i))), map.getAt(i));
+		}
+		assertEquals(expected.size(), map.keys().length);
+		assertEquals(expected.size(), map.values().size());
+
+		map.clear();
+		assertEquals(0, map.size());
+		assertNull(map.get("key1".toCharArray()));
+	}
+}
@@ -38,6 +38,7 @@ public class ParserTestSuite extends TestCase {
 		suite.addTestSuite(CModelElementsTests.class);
 		suite.addTestSuite(StructuralCModelElementsTests.class);
 		suite.addTestSuite(CharArrayObjectMapTest.class);
+		suite.addTestSuite(CharArrayHashMapTest.class);
 		suite.addTestSuite(ObjectMapTest.class);
 		suite.addTestSuite(SemanticsTests.class);
 		suite.addTest(ScannerTestSuite.suite());
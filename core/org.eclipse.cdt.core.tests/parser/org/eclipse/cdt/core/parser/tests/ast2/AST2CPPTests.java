@@ -148,6 +148,7 @@ import org.eclipse.cdt.core.parser.ParserLanguage;
 import org.eclipse.cdt.core.parser.util.AttributeUtil;
 import org.eclipse.cdt.core.parser.util.CharArrayUtils;
 import org.eclipse.cdt.internal.core.dom.parser.cpp.CPPASTNameBase;
+import org.eclipse.cdt.internal.core.dom.parser.cpp.CPPASTTranslationUnit;
 import org.eclipse.cdt.internal.core.dom.parser.cpp.CPPBasicType;
 import org.eclipse.cdt.internal.core.dom.parser.cpp.CPPClassInstance;
 import org.eclipse.cdt.internal.core.dom.parser.cpp.CPPClassTemplate;
@@ -164,6 +165,7 @@ import org.eclipse.cdt.internal.core.dom.parser.cpp.ICPPInternalBinding;
 import org.eclipse.cdt.internal.core.dom.parser.cpp.OverloadableOperator;
 import org.eclipse.cdt.internal.core.dom.parser.cpp.semantics.CPPSemantics;
 import org.eclipse.cdt.internal.core.dom.parser.cpp.semantics.CPPVisitor;
+import org.eclipse.cdt.internal.core.dom.parser.cpp.semantics.NameLookupCache;
 import org.eclipse.cdt.internal.core.index.IndexCPPSignatureUtil;
 import org.eclipse.cdt.internal.core.parser.ParserException;
 
@@ -13574,4 +13576,28 @@ public class AST2CPPTests extends AST2CPPTestBase {
 	public void testExplicitSpecPointerType_562697() throws Exception {
 		parseAndCheckBindings();
 	}
+
+	//	struct A { int m; };
+	//	struct B : A {};
+	//	struct C : B {};
+	//	struct D : C {
+	//	  int f() { return m + m + m; }
+	//	};
+	public void testNameLookupCache() throws Exception {
+		IASTTranslationUnit tu = parseAndCheckBindings();
+		NameCollector collector = new NameCollector();
+		tu.accept(collector);
+		ICPPField m = (ICPPField) collector.getName(1).resolveBinding();
+		int count = 0;
+		for (IASTName name : collector.nameList) {
+			if (name.isReference() && name.toString().equals("m")) {
+				assertSame(m, name.resolveBinding());
+				count++;
+			}
+		}
+		assertEquals(3, count);
+		NameLookupCache cache = ((CPPASTTranslationUnit) tu).getNameLookupCache();
+		assertTrue(cache.getMissCount() > 0);
+		assertTrue(cache.getHitCount() > 0);
+	}
 }
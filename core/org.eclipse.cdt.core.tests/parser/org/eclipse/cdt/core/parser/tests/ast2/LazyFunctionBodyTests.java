@@ -0,0 +1,126 @@
+/*******************************************************************************
+ * Copyright (c) 2026 Eclipse CDT contributors and others.
+ *
+ * This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License 2.0
+ * which accompanies this distribution, and is available at
+ * https://www.eclipse.org/legal/epl-2.0/
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ *******************************************************************************/
+package org.eclipse.cdt.core.parser.tests.ast2;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import org.eclipse.cdt.core.dom.ast.ASTVisitor;
+import org.eclipse.cdt.core.dom.ast.IASTCompoundStatement;
+import org.eclipse.cdt.core.dom.ast.IASTFileLocation;
+import org.eclipse.cdt.core.dom.ast.IASTFunctionDefinition;
+import org.eclipse.cdt.core.dom.ast.IASTName;
+import org.eclipse.cdt.core.dom.ast.IASTTranslationUnit;
+import org.eclipse.cdt.core.dom.ast.IBinding;
+import org.eclipse.cdt.core.dom.ast.IFunction;
+import org.eclipse.cdt.core.dom.ast.IVariable;
+import org.eclipse.cdt.core.dom.parser.cpp.GPPParserExtensionConfiguration;
+import org.eclipse.cdt.core.parser.FileContent;
+import org.eclipse.cdt.core.parser.IScanner;
+import org.eclipse.cdt.core.parser.ParserLanguage;
+import org.eclipse.cdt.core.parser.ParserMode;
+import org.eclipse.cdt.internal.core.dom.parser.cpp.GNUCPPSourceParser;
+
+import junit.framework.TestSuite;
+
+/**
+ * Tests for function bodies that are parsed on demand.
+ */
+public class LazyFunctionBodyTests extends AST2TestBase {
+
+	public static TestSuite suite() {
+		return suite(LazyFunctionBodyTests.class);
+	}
+
+	public LazyFunctionBodyTests() {
+		super();
+	}
+
+	public LazyFunctionBodyTests(String name) {
+		super(name);
+	}
+
+	private IASTTranslationUnit parseLazily(String code) {
+		IScanner scanner = createScanner(FileContent.create(TEST_CODE, code.toCharArray()), ParserLanguage.CPP,
+				ParserMode.COMPLETE_PARSE, createScannerInfo(true));
+		GNUCPPSourceParser parser = new GNUCPPSourceParser(scanner, ParserMode.COMPLETE_PARSE, NULL_LOG,
+				new GPPParserExtensionConfiguration(), null);
+		parser.setParseFunctionBodiesLazily(true);
+		IASTTranslationUnit tu = parser.parse();
+		assertTrue(tu.isFrozen());
+		assertFalse(tu.hasNodesOmitted());
+		return tu;
+	}
+
+	private List<String> collectNames(IASTTranslationUnit tu) {
+		final List<String> names = new ArrayList<>();
+		tu.accept(new ASTVisitor() {
+			{
+				shouldVisitNames = true;
+			}
+
+			@Override
+			public int visit(IASTName name) {
+				IASTFileLocation loc = name.getFileLocation();
+				names.add(name + "@" + (loc == null ? -1 : loc.getNodeOffset()));
+				return PROCESS_CONTINUE;
+			}
+		});
+		return names;
+	}
+
+	//	#define ONE 1
+	//	int g(int);
+	//	struct A {
+	//	  int m() { return g(ONE) + n(); }
+	//	  int n() { return 0; }
+	//	};
+	//	template<typename T> T h(T t) { return t < ONE ? t : T(); }
+	//	int f(int p) {
+	//	  int x = p;
+	//	  if (x > 1) goto end;
+	//	  return g(x) + h(x);
+	//	end:
+	//	  return 0;
+	//	}
+	public void testVisitorReachesLazyBodies() throws Exception {
+		String code = getAboveComment();
+		IASTTranslationUnit eager = parse(code, ParserLanguage.CPP, true, true);
+		IASTTranslationUnit lazy = parseLazily(code);
+		assertEquals(collectNames(eager), collectNames(lazy));
+	}
+
+	//	int g(int);
+	//	int f(int p) {
+	//	  int x = p;
+	//	  return g(x);
+	//	}
+	public void testNodeSelectorReachesLazyBody() throws Exception {
+		String code = getAboveComment();
+		IASTTranslationUnit tu = parseLazily(code);
+
+		IASTName x = tu.getNodeSelector(null).findName(code.indexOf("x)"), 1);
+		assertNotNull(x);
+		IBinding binding = x.resolveBinding();
+		assertInstance(binding, IVariable.class);
+		assertEquals(code.indexOf("x = p"), tu.getDeclarationsInAST(binding)[0].getFileLocation().getNodeOffset());
+
+		IASTName g = tu.getNodeSelector(null).findName(code.indexOf("g(x)"), 1);
+		assertInstance(g.resolveBinding(), IFunction.class);
+
+		IASTFunctionDefinition f = (IASTFunctionDefinition) tu.getDeclarations()[1];
+		IASTCompoundStatement body = (IASTCompoundStatement) f.getBody();
+		assertTrue(body.isFrozen());
+		assertSame(f, body.getParent());
+		assertEquals(2, body.getStatements().length);
+		assertEquals(code.indexOf('{'), body.getFileLocation().getNodeOffset());
+	}
+}
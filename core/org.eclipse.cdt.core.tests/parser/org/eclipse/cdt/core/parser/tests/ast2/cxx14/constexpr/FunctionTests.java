@@ -15,6 +15,7 @@ import org.eclipse.cdt.core.dom.ast.IASTFunctionCallExpression;
 import org.eclipse.cdt.core.dom.ast.IASTIdExpression;
 import org.eclipse.cdt.core.dom.ast.IASTInitializerClause;
 import org.eclipse.cdt.core.dom.ast.cpp.ICPPFunction;
+import org.eclipse.cdt.internal.core.dom.parser.cpp.CPPASTTranslationUnit;
 import org.eclipse.cdt.internal.core.dom.parser.cpp.CPPFunction;
 import org.eclipse.cdt.internal.core.dom.parser.cpp.ICPPExecution;
 
@@ -290,4 +291,19 @@ public class FunctionTests extends TestBase {
 	public void testLambdaExpression2_560483() throws Exception {
 		assertEvaluationEquals(58);
 	}
-}
\ No newline at end of file
+
+	//	constexpr int fib(int n) {
+	//	  return n < 2 ? n : fib(n - 1) + fib(n - 2);
+	//	}
+
+	//	constexpr int x = fib(25);
+	public void testRepeatedCallsAreMemoized() throws Exception {
+		CPPASTTranslationUnit tu = (CPPASTTranslationUnit) strategy.getAst(0);
+		tu.getConstexprCallCache().clear();
+		final int hits = tu.getConstexprCallCacheHits();
+		assertEvaluationEquals(75025);
+		// fib(0) to fib(25) are evaluated once, the calls of fib(n - 2) for n > 2 are served from the cache.
+		assertEquals(26, tu.getConstexprCallCache().size());
+		assertEquals(23, tu.getConstexprCallCacheHits() - hits);
+	}
+}
@@ -14,14 +14,20 @@
  *******************************************************************************/
 package org.eclipse.cdt.core.parser.tests.scanner;
 
+import java.io.File;
+
 import org.eclipse.cdt.core.parser.IGCCToken;
 import org.eclipse.cdt.core.parser.IProblem;
 import org.eclipse.cdt.core.parser.IToken;
 import org.eclipse.cdt.core.parser.tests.ast2.TestLexerLog;
 import org.eclipse.cdt.core.testplugin.util.BaseTestCase;
+import org.eclipse.cdt.internal.core.parser.scanner.AbstractCharArray;
+import org.eclipse.cdt.internal.core.parser.scanner.CharArray;
+import org.eclipse.cdt.internal.core.parser.scanner.ILexerLog;
 import org.eclipse.cdt.internal.core.parser.scanner.Lexer;
 import org.eclipse.cdt.internal.core.parser.scanner.Lexer.LexerOptions;
 import org.eclipse.cdt.internal.core.parser.scanner.Token;
+import org.eclipse.cdt.internal.core.parser.scanner.TokenCache;
 
 import junit.framework.TestSuite;
 
@@ -861,4 +867,81 @@ public class LexerTests extends BaseTestCase {
 		token(IToken.tPOUND);
 		eof();
 	}
+
+	public void testTokenCache() throws Exception {
+		StringBuilder buf = new StringBuilder();
+		for (int i = 0; buf.length() < 4096; i++) {
+			buf.append("#include <vector> // comment\n");
+			buf.append("#  include \"a/*b.h\" /* block\n comment */\n");
+			buf.append("int x").append(i).append(" = 0x1F + 'c' + \"str\\\ning\" ??- 1; <% %> %:%: a\\\nb\n");
+			buf.append("#if 0\n @ ` 'x\n#endif\n");
+		}
+		final AbstractCharArray input = new CharArray(buf.toString());
+		final String expected = lex(input, null);
+
+		File dir = File.createTempFile("tokens", "dir");
+		dir.delete();
+		try {
+			TokenCache cache = new TokenCache();
+			cache.setStorageLocation(dir);
+			assertEquals(expected, lex(input, cache));
+			assertNull(cache.getTokens(input, DEFAULT_OPTIONS));
+			// The tokens are recorded while lexing the input for the second time.
+			assertEquals(expected, lex(input, cache));
+			assertNotNull(cache.getTokens(input, DEFAULT_OPTIONS));
+			assertNull(cache.getTokens(input, CPP_OPTIONS));
+			assertEquals(expected, lex(input, cache));
+			cache.flush();
+
+			// The tokens are read from disk.
+			cache = new TokenCache();
+			cache.setStorageLocation(dir);
+			assertNotNull(cache.getTokens(input, DEFAULT_OPTIONS));
+			assertEquals(expected, lex(input, cache));
+
+			cache.clear();
+			assertEquals(0, dir.list().length);
+
+			// A header name that does not end at a token boundary is not recorded.
+			buf.insert(0, "#include <a/*b>\n*/\n");
+			final AbstractCharArray input2 = new CharArray(buf.toString());
+			final String expected2 = lex(input2, null);
+			assertEquals(expected2, lex(input2, cache));
+			assertEquals(expected2, lex(input2, cache));
+			assertNull(cache.getTokens(input2, DEFAULT_OPTIONS));
+		} finally {
+			for (File file : dir.listFiles()) {
+				file.delete();
+			}
+			dir.delete();
+		}
+	}
+
+	private String lex(AbstractCharArray input, TokenCache cache) throws Exception {
+		final StringBuilder buf = new StringBuilder();
+		Lexer lexer = new Lexer(input, DEFAULT_OPTIONS, new ILexerLog() {
+			@Override
+			public void handleComment(boolean isBlockComment, int offset, int endOffset, AbstractCharArray input) {
+				buf.append("comment ").append(offset).append('-').append(endOffset).append('\n');
+			}
+
+			@Override
+			public void handleProblem(int problemID, char[] arg, int offset, int endOffset) {
+				buf.append("problem ").append(problemID).append(' ').append(arg).append('\n');
+			}
+		}, null);
+		if (cache != null) {
+			cache.attach(lexer, DEFAULT_OPTIONS);
+		}
+		boolean include = false;
+		Token t;
+		do {
+			lexer.setInsideIncludeDirective(include);
+			t = lexer.nextToken();
+			include = t.getType() == IToken.tIDENTIFIER && t.getImage().equals("include");
+			buf.append(t.getType()).append(' ').append(t.getOffset()).append('-').append(t.getEndOffset());
+			buf.append(' ').append(t.getCharImage()).append('\n');
+		} while (t.getType() != IToken.tEND_OF_INPUT);
+		return buf.toString();
+	}
 }
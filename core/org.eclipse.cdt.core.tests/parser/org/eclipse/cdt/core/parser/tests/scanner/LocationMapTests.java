@@ -14,15 +14,18 @@
 package org.eclipse.cdt.core.parser.tests.scanner;
 
 import java.io.IOException;
+import java.lang.reflect.Method;
 
 import org.eclipse.cdt.core.dom.IName;
 import org.eclipse.cdt.core.dom.ast.ASTNodeProperty;
 import org.eclipse.cdt.core.dom.ast.IASTComment;
 import org.eclipse.cdt.core.dom.ast.IASTFileLocation;
 import org.eclipse.cdt.core.dom.ast.IASTFunctionStyleMacroParameter;
+import org.eclipse.cdt.core.dom.ast.IASTMacroExpansionLocation;
 import org.eclipse.cdt.core.dom.ast.IASTName;
 import org.eclipse.cdt.core.dom.ast.IASTNameOwner;
 import org.eclipse.cdt.core.dom.ast.IASTNode;
+import org.eclipse.cdt.core.dom.ast.IASTNodeLocation;
 import org.eclipse.cdt.core.dom.ast.IASTPreprocessorElifStatement;
 import org.eclipse.cdt.core.dom.ast.IASTPreprocessorElseStatement;
 import org.eclipse.cdt.core.dom.ast.IASTPreprocessorEndifStatement;
@@ -550,6 +553,49 @@ public class LocationMapTests extends BaseTestCase {
 				ROLE_REFERENCE, FN, 110, 15, 2, 2, new String(LONGDIGITS, 110, 15));
 	}
 
+	public void testMacroExpansionContexts() throws Exception {
+		IMacroBinding macro1 = new TestMacro("n1", "exp1", null);
+		IMacroBinding macro2 = new TestMacro("n2", "exp2", null);
+		init(DIGITS);
+		// number: [4,9)
+		ILocationCtx me1 = fLocationMap.pushMacroExpansion(2, 4, 4, 5, macro1, new IASTName[0],
+				ImageLocationInfo.NO_LOCATION_INFOS);
+		fLocationMap.popContext(me1);
+		// number: [17,20)
+		ILocationCtx me2 = fLocationMap.pushMacroExpansion(8, 10, 12, 3, macro2, new IASTName[0],
+				ImageLocationInfo.NO_LOCATION_INFOS);
+		fLocationMap.popContext(me2);
+		fLocationMap.endTranslationUnit(16, null);
+
+		IASTPreprocessorMacroExpansion[] expansions = fLocationMap
+				.getMacroExpansions(fLocationMap.getMappedFileLocation(0, 24));
+		assertEquals(2, expansions.length);
+		assertSame(macro1, expansions[0].getMacroReference().getBinding());
+		assertSame(macro2, expansions[1].getMacroReference().getBinding());
+		// The contexts of the expansions are found through the location map.
+		assertEquals(me1, getContext(expansions[0]));
+		assertEquals(me2, getContext(expansions[1]));
+		assertFalse(me1.equals(me2));
+
+		checkLocation(fLocationMap.getMappedFileLocation(5, 2), FN, 2, 2, 1, 1);
+		checkLocation(fLocationMap.getMappedFileLocation(17, 3), FN, 8, 4, 1, 1);
+		assertEquals(FN, fLocationMap.getContainingFilePath(18));
+
+		IASTNodeLocation[] locations = fLocationMap.getLocations(0, 24);
+		assertEquals(5, locations.length);
+		checkLocation((IASTFileLocation) locations[0], FN, 0, 2, 1, 1);
+		assertSame(expansions[0], ((IASTMacroExpansionLocation) locations[1]).getExpansion());
+		checkLocation((IASTFileLocation) locations[2], FN, 4, 4, 1, 1);
+		assertSame(expansions[1], ((IASTMacroExpansionLocation) locations[3]).getExpansion());
+		checkLocation((IASTFileLocation) locations[4], FN, 12, 4, 1, 1);
+	}
+
+	private ILocationCtx getContext(IASTPreprocessorMacroExpansion expansion) throws Exception {
+		Method getContext = expansion.getClass().getMethod("getContext");
+		getContext.setAccessible(true);
+		return (ILocationCtx) getContext.invoke(expansion);
+	}
+
 	public void testContexts() {
 		init(DIGITS);
 		assertEquals(FN, fLocationMap.getTranslationUnitPath());
@@ -1363,4 +1363,25 @@ public class PreprocessorTests extends PreprocessorTestsBase {
 		validateProblem(0, IProblem.SCANNER_CONSTANT_WITH_BAD_SUFFIX, "ASDF");
 		validateProblem(1, IProblem.SCANNER_CONSTANT_WITH_BAD_SUFFIX, "xU");
 	}
+
+	// #define A 1
+	// int x = A; # define B
+	// #if A
+	// #define C 2
+	// #else
+	// #define D 3
+	// #endif
+	// A(
+	// #undef A
+	// )
+	public void testPreprocessOnly() throws Exception {
+		initializeScanner();
+		fScanner.setPreprocessOnly(true);
+		validateEOF();
+		validateProblemCount(0);
+		validateAsUndefined("A");
+		validateAsUndefined("B");
+		validateDefinition("C", 2);
+		validateAsUndefined("D");
+	}
 }
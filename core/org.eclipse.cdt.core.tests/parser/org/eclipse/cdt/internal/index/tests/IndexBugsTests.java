@@ -55,6 +55,7 @@ import org.eclipse.cdt.core.dom.ast.ITypedef;
 import org.eclipse.cdt.core.dom.ast.IVariable;
 import org.eclipse.cdt.core.dom.ast.cpp.ICPPBase;
 import org.eclipse.cdt.core.dom.ast.cpp.ICPPClassType;
+import org.eclipse.cdt.core.dom.ast.cpp.ICPPField;
 import org.eclipse.cdt.core.dom.ast.cpp.ICPPFunction;
 import org.eclipse.cdt.core.dom.ast.cpp.ICPPFunctionTemplate;
 import org.eclipse.cdt.core.dom.ast.cpp.ICPPMethod;
@@ -2637,4 +2638,64 @@ public class IndexBugsTests extends BaseTestCase {
 		}
 	}
 
+	// template<typename T> int f(T t) { return 0; }
+	// template<typename T> int g(T t) { return 0; }
+	// template<typename T> struct X { int a; };
+
+	// #include "header.h"
+
+	// #include "header.h"
+	// template<> int f(int t) { return 1; }
+	// template<> struct X<int> { int b; };
+	// int x = f(1) + g(2.0) + X<int>().b;
+
+	// #include "header.h"
+	// int y = f(1) + g(2.0) + X<int>().a;
+	public void testInstancesOfTwoTranslationUnits() throws Exception {
+		String[] contents = getContentsForTest(4);
+		TestSourceReader.createFile(fCProject.getProject(), "header.h", contents[0]);
+		TestSourceReader.createFile(fCProject.getProject(), "index.cpp", contents[1]);
+		CCorePlugin.getIndexManager().reindex(fCProject);
+		waitForIndexer();
+		// Keep the instances out of the index, they are created by the parser.
+		IndexerPreferences.setUpdatePolicy(fCProject.getProject(), IndexerPreferences.UPDATE_POLICY_MANUAL);
+		try {
+			IFile special = TestSourceReader.createFile(fCProject.getProject(), "special.cpp", contents[2]);
+			IFile plain = TestSourceReader.createFile(fCProject.getProject(), "plain.cpp", contents[3]);
+			ITranslationUnit tu1 = (ITranslationUnit) CoreModel.getDefault().create(special);
+			ITranslationUnit tu2 = (ITranslationUnit) CoreModel.getDefault().create(plain);
+			fIndex.acquireReadLock();
+			try {
+				IASTTranslationUnit ast1 = tu1.getAST(fIndex, ITranslationUnit.AST_SKIP_INDEXED_HEADERS);
+				ICPPTemplateInstance f1 = getBindingFromASTName(ast1, contents[2], "f(1)", 1,
+						ICPPTemplateInstance.class);
+				assertTrue(f1.isExplicitSpecialization());
+				ICPPTemplateInstance x1 = getBindingFromASTName(ast1, contents[2], "X<int>()", 6,
+						ICPPTemplateInstance.class);
+				assertTrue(x1.isExplicitSpecialization());
+				ICPPTemplateInstance g1 = getBindingFromASTName(ast1, contents[2], "g(2.0)", 1,
+						ICPPTemplateInstance.class);
+
+				// The explicit specializations of the first translation unit are not visible in
+				// the second one.
+				IASTTranslationUnit ast2 = tu2.getAST(fIndex, ITranslationUnit.AST_SKIP_INDEXED_HEADERS);
+				ICPPTemplateInstance f2 = getBindingFromASTName(ast2, contents[3], "f(1)", 1,
+						ICPPTemplateInstance.class);
+				assertFalse(f2.isExplicitSpecialization());
+				ICPPTemplateInstance x2 = getBindingFromASTName(ast2, contents[3], "X<int>()", 6,
+						ICPPTemplateInstance.class);
+				assertFalse(x2.isExplicitSpecialization());
+				getBindingFromASTName(ast2, contents[3], "a;", 1, ICPPField.class);
+				// The implicit instance of the function template is shared.
+				ICPPTemplateInstance g2 = getBindingFromASTName(ast2, contents[3], "g(2.0)", 1,
+						ICPPTemplateInstance.class);
+				assertSame(g1, g2);
+			} finally {
+				fIndex.releaseReadLock();
+			}
+		} finally {
+			IndexerPreferences.setUpdatePolicy(fCProject.getProject(), IndexerPreferences.getDefaultUpdatePolicy());
+		}
+	}
+
 }
@@ -289,6 +289,37 @@ public class IndexIncludeTest extends IndexTestBase {
 		}
 	}
 
+	public void testParallelParsing() throws Exception {
+		final int count = 8;
+		TestSourceReader.createFile(fProject.getProject(), "shared_parallel.h",
+				"struct Shared_parallel {};\nint shared_parallel;\n");
+		for (int i = 0; i < count; i++) {
+			TestSourceReader.createFile(fProject.getProject(), "source" + i + "_parallel.cpp",
+					"#include \"shared_parallel.h\"\nShared_parallel source" + i + "_parallel;\n");
+		}
+		IndexerPreferences.set(fProject.getProject(), IndexerPreferences.KEY_PARSER_THREADS, "4");
+		try {
+			CCorePlugin.getIndexManager().reindex(fProject);
+			waitForIndexer();
+
+			fIndex.acquireReadLock();
+			try {
+				assertEquals(1, fIndex.findBindings("Shared_parallel".toCharArray(), IndexFilter.ALL, npm()).length);
+				assertEquals(1, fIndex.findBindings("shared_parallel".toCharArray(), IndexFilter.ALL, npm()).length);
+				for (int i = 0; i < count; i++) {
+					IBinding[] bindings = fIndex.findBindings(("source" + i + "_parallel").toCharArray(),
+							IndexFilter.ALL, npm());
+					assertEquals(1, bindings.length);
+					assertTrue(bindings[0] instanceof IVariable);
+				}
+			} finally {
+				fIndex.releaseReadLock();
+			}
+		} finally {
+			IndexerPreferences.set(fProject.getProject(), IndexerPreferences.KEY_PARSER_THREADS, "1");
+		}
+	}
+
 	// #define SOME_MACRO1 ok_1_220358
 	// #define SOME_MACRO2 ok_2_220358
 
@@ -13,7 +13,11 @@
  *******************************************************************************/
 package org.eclipse.cdt.internal.index.tests;
 
+import java.util.ArrayList;
+import java.util.HashSet;
 import java.util.LinkedList;
+import java.util.List;
+import java.util.Set;
 import java.util.regex.Pattern;
 
 import org.eclipse.cdt.core.CCorePlugin;
@@ -35,6 +39,7 @@ import org.eclipse.cdt.core.testplugin.CProjectHelper;
 import org.eclipse.cdt.internal.core.index.CIndex;
 import org.eclipse.cdt.internal.core.pdom.PDOM;
 import org.eclipse.cdt.internal.core.pdom.dom.PDOMBinding;
+import org.eclipse.cdt.internal.core.pdom.indexer.IndexerPreferences;
 import org.eclipse.core.runtime.CoreException;
 
 import junit.framework.TestSuite;
@@ -289,6 +294,52 @@ public class IndexSearchTest extends IndexTestBase {
 		checkIsVariable(bindings[1]);
 	}
 
+	public void testFindWithNameTrigramIndex() throws Exception {
+		Pattern[] patterns = { Pattern.compile("C.*160913"), Pattern.compile("c.*913", Pattern.CASE_INSENSITIVE),
+				Pattern.compile("static.*2006.+"), Pattern.compile("ns16091?3"), Pattern.compile("x.*160913") };
+		List<Set<String>> expected = new ArrayList<>();
+		for (Pattern pattern : patterns) {
+			expected.add(getQualifiedNames(fIndex.findBindings(pattern, false, INDEX_FILTER, npm())));
+			expected.add(getQualifiedNames(fIndex.findBindings(pattern, true, INDEX_FILTER, npm())));
+		}
+		assertFalse(expected.get(0).isEmpty());
+		assertTrue(expected.get(expected.size() - 1).isEmpty());
+
+		fIndex.releaseReadLock();
+		try {
+			IndexerPreferences.set(fProject.getProject(), IndexerPreferences.KEY_INDEX_NAME_TRIGRAMS, "true");
+			CCorePlugin.getIndexManager().reindex(fProject);
+			waitForIndexer(fProject);
+			fIndex.acquireReadLock();
+			try {
+				PDOM pdom = (PDOM) ((CIndex) fIndex).getFragments()[0];
+				assertNotNull(pdom.getNameTrigramIndex());
+				int i = 0;
+				for (Pattern pattern : patterns) {
+					assertEquals(pattern.pattern(), expected.get(i++),
+							getQualifiedNames(fIndex.findBindings(pattern, false, INDEX_FILTER, npm())));
+					assertEquals(pattern.pattern(), expected.get(i++),
+							getQualifiedNames(fIndex.findBindings(pattern, true, INDEX_FILTER, npm())));
+				}
+			} finally {
+				fIndex.releaseReadLock();
+			}
+		} finally {
+			IndexerPreferences.set(fProject.getProject(), IndexerPreferences.KEY_INDEX_NAME_TRIGRAMS, "false");
+			CCorePlugin.getIndexManager().reindex(fProject);
+			waitForIndexer(fProject);
+			fIndex.acquireReadLock();
+		}
+	}
+
+	private Set<String> getQualifiedNames(IIndexBinding[] bindings) throws CoreException {
+		Set<String> result = new HashSet<>();
+		for (IIndexBinding binding : bindings) {
+			result.add(String.join("::", binding.getQualifiedName()) + (binding.isFileLocal() ? " (local)" : ""));
+		}
+		return result;
+	}
+
 	public void testSanityOfMayHaveChildren() throws CoreException {
 		PDOM pdom = (PDOM) ((CIndex) fIndex).getFragments()[0];
 		pdom.accept(new IPDOMVisitor() {
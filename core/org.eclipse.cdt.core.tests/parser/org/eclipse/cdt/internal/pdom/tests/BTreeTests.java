@@ -119,6 +119,75 @@ public class BTreeTests extends BaseTestCase {
 		}
 	}
 
+	/**
+	 * Test bulk insertion into empty and non-empty B-trees and use TreeSet as a reference
+	 * implementation to check behaviour against.
+	 */
+	public void testInsertAll() throws Exception {
+		Random random = new Random(4711);
+		for (int degree = 2; degree <= 10; degree += 4) {
+			for (int n : new int[] { 0, 1, 2 * degree - 1, 2 * degree, 1000, 20000 }) {
+				init(degree);
+				try {
+					SortedSet<Integer> expected = new TreeSet<>();
+					for (int i = 0; i < n / 3; i++) {
+						int value = random.nextInt(n + 1);
+						if (expected.add(value)) {
+							btree.insert(new BTMockRecord(db, value).getRecord());
+						}
+					}
+					long[] records = new long[n + 1];
+					for (int i = 0; i < n; i++) {
+						int value = random.nextInt(n + 1);
+						expected.add(value);
+						records[i] = new BTMockRecord(db, value).getRecord();
+					}
+					btree.insertAll(records, n);
+					assertBTreeMatchesSortedSet("[degree " + degree + ", " + n + " records] ", btree, expected);
+					assertBTreeInvariantsHold("[degree " + degree + ", " + n + " records] ");
+
+					btree.compact();
+					assertBTreeMatchesSortedSet("[compacted] ", btree, expected);
+					assertBTreeInvariantsHold("[compacted] ");
+				} finally {
+					finish();
+				}
+			}
+		}
+	}
+
+	/**
+	 * Test compacting a B-tree in small steps, the tree has to remain intact between the steps.
+	 */
+	public void testCompactionInSteps() throws Exception {
+		Random random = new Random(4711);
+		for (int degree = 2; degree <= 10; degree += 4) {
+			for (int n : new int[] { 0, 1, 2 * degree - 1, 1000 }) {
+				init(degree);
+				try {
+					SortedSet<Integer> expected = new TreeSet<>();
+					for (int i = 0; i < n; i++) {
+						int value = random.nextInt(n + 1);
+						if (expected.add(value)) {
+							btree.insert(new BTMockRecord(db, value).getRecord());
+						}
+					}
+					BTree.Compaction compaction = btree.startCompaction();
+					int steps = 0;
+					while (!compaction.step(3)) {
+						steps++;
+						assertBTreeMatchesSortedSet("[degree " + degree + ", step " + steps + "] ", btree, expected);
+						assertBTreeInvariantsHold("[degree " + degree + ", step " + steps + "] ");
+					}
+					assertBTreeMatchesSortedSet("[compacted] ", btree, expected);
+					assertBTreeInvariantsHold("[compacted] ");
+				} finally {
+					finish();
+				}
+			}
+		}
+	}
+
 	/**
 	 * Insert/Delete a random number of records into/from the B-tree
 	 * @param seed the seed for obtaining the deterministic random testing
@@ -147,6 +147,251 @@ public class DatabaseTest extends BaseTestCase {
 		assertEquals(mem2, mem1);
 	}
 
+	public void testCompact() throws Exception {
+		Random random = new Random(42);
+		long[] records = new long[20000];
+		for (int i = 0; i < records.length; i++) {
+			records[i] = db.malloc(1 + random.nextInt(200));
+			db.putInt(records[i], i);
+		}
+		db.flush();
+		// Free every other record and all records at the end of the database.
+		for (int i = 0; i < records.length; i++) {
+			if (i % 2 == 0 || i >= records.length / 2) {
+				db.free(records[i]);
+			}
+		}
+		assertTrue(db.estimateFreeSpaceRatio(100) > 0.5);
+		long size = db.getSizeBytes();
+		long shrunk = db.compact();
+		db.flush();
+		assertTrue(shrunk > 0);
+		assertEquals(size - shrunk, db.getSizeBytes());
+		for (int i = 1; i < records.length / 2; i += 2) {
+			assertEquals(i, db.getInt(records[i]));
+		}
+
+		// The free blocks are reused before the file is extended.
+		long mem = db.malloc(150);
+		assertTrue(mem <= records[records.length / 2]);
+		assertEquals(size - shrunk, db.getSizeBytes());
+	}
+
+	public void testJournal() throws Exception {
+		File file = getTestDir().append(getName() + System.currentTimeMillis() + "-journal.dat").toFile();
+		File journal = new File(file.getPath() + Database.JOURNAL_SUFFIX);
+		// A small cache makes the database write uncommitted chunks to the journal.
+		Database crashed = new Database(file, new ChunkCache(64 * Database.CHUNK_SIZE, 4), 42, false);
+		try {
+			crashed.setExclusiveLock();
+			long[] records = new long[20000];
+			for (int i = 0; i < records.length; i++) {
+				records[i] = crashed.malloc(42);
+				crashed.putInt(records[i], i);
+			}
+			crashed.flush();
+			long size = crashed.getSizeBytes();
+			assertEquals(size, file.length());
+
+			for (int i = 0; i < records.length; i++) {
+				crashed.putInt(records[i], -i);
+				crashed.malloc(42);
+			}
+			crashed.giveUpExclusiveLock(false);
+			crashed.setExclusiveLock();
+			for (int i = 0; i < records.length; i++) {
+				assertEquals(-i, crashed.getInt(records[i]));
+			}
+			assertTrue(journal.length() > 0);
+			assertEquals(size, file.length());
+
+			// Open the database again without closing it, the changes that were not flushed get lost.
+			Database reopened = new Database(file, new ChunkCache(), 0, false);
+			try {
+				reopened.setExclusiveLock();
+				assertEquals(42, reopened.getVersion());
+				assertEquals(size, reopened.getSizeBytes());
+				assertEquals(0, journal.length());
+				for (int i = 0; i < records.length; i++) {
+					assertEquals(i, reopened.getInt(records[i]));
+				}
+			} finally {
+				reopened.close();
+			}
+			assertFalse(journal.exists());
+		} finally {
+			if (!file.delete()) {
+				file.deleteOnExit();
+			}
+		}
+	}
+
+	public void testPointerAlignmentAndPages() throws Exception {
+		assertEquals(Database.MAX_DB_SIZE, db.getMaxSize());
+		db.setMaxSizeAfterClear(Database.MAX_DB_SIZE * 2);
+		assertEquals(Database.MAX_DB_SIZE, db.getMaxSize());
+		db.clear(42);
+		assertEquals(Database.MAX_DB_SIZE * 2, db.getMaxSize());
+
+		long[] records = new long[10000];
+		for (int i = 0; i < records.length; i++) {
+			records[i] = db.malloc(1 + i % 100);
+			assertEquals(0, (records[i] - Database.BLOCK_HEADER_SIZE) % (Database.BLOCK_SIZE_DELTA * 2));
+			db.putInt(records[i], i);
+			db.putRecPtr(records[i] + 4, i == 0 ? 0 : records[i - 1]);
+		}
+		db.flush();
+
+		Database reopened = new Database(db.getLocation(), new ChunkCache(64 * Database.CHUNK_SIZE, 4), 0, true);
+		try {
+			reopened.setPageSize(64 * 1024);
+			reopened.setLocked(true);
+			assertEquals(Database.MAX_DB_SIZE * 2, reopened.getMaxSize());
+			for (int i = 1; i < records.length; i++) {
+				assertEquals(i, reopened.getInt(records[i]));
+				assertEquals(records[i - 1], reopened.getRecPtr(records[i] + 4));
+			}
+			// The chunks are read in pages of 16.
+			assertTrue(reopened.getCacheMisses() * 8 < reopened.getSizeBytes() / Database.CHUNK_SIZE);
+		} finally {
+			reopened.setExclusiveLock();
+			reopened.close();
+		}
+	}
+
+	public void testMemoryMappedDatabase() throws Exception {
+		File file = getTestDir().append(getName() + System.currentTimeMillis() + "-mapped.dat").toFile();
+		Database mapped = new Database(file, new ChunkCache(), 0, false, true);
+		try {
+			mapped.setExclusiveLock();
+			long[] records = new long[3000];
+			for (int i = 0; i < records.length; i++) {
+				records[i] = mapped.malloc(42);
+				mapped.putInt(records[i], i);
+				mapped.putRecPtr(records[i] + 4, records[i]);
+			}
+			mapped.flush();
+			IString string = mapped.newString("memory mapped");
+			for (int i = 0; i < records.length; i++) {
+				mapped.putLong(records[i] + 8, -i);
+			}
+			mapped.giveUpExclusiveLock(true);
+			mapped.setLocked(false);
+
+			// Reopen the file, existing chunks are now views onto mapped regions.
+			Database reopened = new Database(file, new ChunkCache(), 0, true, true);
+			try {
+				reopened.setLocked(true);
+				assertTrue(reopened.isMemoryMapped());
+				for (int i = 0; i < records.length; i++) {
+					assertEquals(i, reopened.getInt(records[i]));
+					assertEquals(records[i], reopened.getRecPtr(records[i] + 4));
+					assertEquals(-i, reopened.getLong(records[i] + 8));
+				}
+				assertTrue(reopened.getString(string.getRecord()).equals("memory mapped"));
+			} finally {
+				reopened.setExclusiveLock();
+				reopened.close();
+			}
+		} finally {
+			mapped.setExclusiveLock();
+			mapped.close();
+			if (!file.delete()) {
+				file.deleteOnExit();
+			}
+		}
+	}
+
+	public void testClearMemoryMappedDatabase() throws Exception {
+		File file = getTestDir().append(getName() + System.currentTimeMillis() + "-mapped.dat").toFile();
+		Database mapped = new Database(file, new ChunkCache(), 0, false, true);
+		try {
+			mapped.setExclusiveLock();
+			long[] records = new long[3000];
+			for (int i = 0; i < records.length; i++) {
+				records[i] = mapped.malloc(42);
+				mapped.putInt(records[i], i);
+			}
+			mapped.flush();
+			mapped.giveUpExclusiveLock(true);
+			mapped.setExclusiveLock();
+			assertEquals(1, mapped.getInt(records[1]));
+			final long length = file.length();
+
+			// The file is not truncated, its space is reused.
+			mapped.clear(1);
+			assertEquals(length, file.length());
+			for (int i = 0; i < records.length; i++) {
+				records[i] = mapped.malloc(42);
+				mapped.putInt(records[i], -i);
+			}
+			mapped.flush();
+			mapped.giveUpExclusiveLock(true);
+			mapped.setExclusiveLock();
+			for (int i = 0; i < records.length; i++) {
+				assertEquals(-i, mapped.getInt(records[i]));
+			}
+			assertEquals(length, file.length());
+		} finally {
+			mapped.setExclusiveLock();
+			mapped.close();
+			if (!file.delete()) {
+				file.deleteOnExit();
+			}
+		}
+	}
+
+	public void testConcurrentReadersWithSmallCache() throws Exception {
+		File file = getTestDir().append(getName() + System.currentTimeMillis() + "-small.dat").toFile();
+		ChunkCache cache = new ChunkCache(64 * Database.CHUNK_SIZE, 4);
+		final Database small = new Database(file, cache, 0, false);
+		try {
+			small.setExclusiveLock();
+			final long[] records = new long[20000];
+			for (int i = 0; i < records.length; i++) {
+				records[i] = small.malloc(42);
+				small.putInt(records[i], i);
+			}
+			small.giveUpExclusiveLock(true);
+			small.resetCacheCounters();
+
+			final Throwable[] failure = { null };
+			Thread[] readers = new Thread[4];
+			for (int t = 0; t < readers.length; t++) {
+				final Random random = new Random(t);
+				readers[t] = new Thread() {
+					@Override
+					public void run() {
+						try {
+							for (int k = 0; k < 20000; k++) {
+								int i = random.nextInt(records.length);
+								assertEquals(i, small.getInt(records[i]));
+							}
+						} catch (Throwable e) {
+							failure[0] = e;
+						}
+					}
+				};
+				readers[t].start();
+			}
+			for (Thread reader : readers) {
+				reader.join();
+			}
+			if (failure[0] != null) {
+				throw new Exception(failure[0]);
+			}
+			assertEquals(80000, small.getCacheHits() + small.getCacheMisses());
+			assertTrue(small.getCacheEvictions() > 0);
+			assertTrue(cache.getMaxSize() == 64 * Database.CHUNK_SIZE);
+		} finally {
+			small.setExclusiveLock();
+			small.close();
+			if (!file.delete()) {
+				file.deleteOnExit();
+			}
+		}
+	}
+
 	private static class FindVisitor implements IBTreeVisitor {
 		private Database db;
 		private String key;
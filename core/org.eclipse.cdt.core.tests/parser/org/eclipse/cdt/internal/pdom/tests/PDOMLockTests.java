@@ -0,0 +1,192 @@
+/*******************************************************************************
+ * Copyright (c) 2026 Eclipse CDT contributors and others.
+ *
+ * This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License 2.0
+ * which accompanies this distribution, and is available at
+ * https://www.eclipse.org/legal/epl-2.0/
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ *******************************************************************************/
+package org.eclipse.cdt.internal.pdom.tests;
+
+import java.io.File;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.eclipse.cdt.core.index.IIndexLocationConverter;
+import org.eclipse.cdt.core.index.URIRelativeLocationConverter;
+import org.eclipse.cdt.core.model.LanguageManager;
+import org.eclipse.cdt.core.testplugin.util.BaseTestCase;
+import org.eclipse.cdt.internal.core.pdom.PDOMLockStatistics;
+import org.eclipse.cdt.internal.core.pdom.WritablePDOM;
+import org.eclipse.cdt.internal.core.pdom.db.ChunkCache;
+
+import junit.framework.Test;
+
+/**
+ * Tests for the read and write locks of the PDOM.
+ */
+public class PDOMLockTests extends BaseTestCase {
+	private File fFile;
+	private WritablePDOM fPDOM;
+
+	public static Test suite() {
+		return suite(PDOMLockTests.class);
+	}
+
+	@Override
+	protected void setUp() throws Exception {
+		super.setUp();
+		fFile = nonExistentTempFile("locks", ".pdom");
+		IIndexLocationConverter converter = new URIRelativeLocationConverter(fFile.getParentFile().toURI());
+		fPDOM = new WritablePDOM(fFile, converter, new ChunkCache(),
+				LanguageManager.getInstance().getPDOMLinkageFactoryMappings());
+	}
+
+	@Override
+	protected void tearDown() throws Exception {
+		fPDOM.acquireWriteLock(null);
+		try {
+			fPDOM.close();
+		} finally {
+			fPDOM.releaseWriteLock();
+		}
+		fFile.delete();
+		super.tearDown();
+	}
+
+	public void testWriterWaitsForReaders() throws Exception {
+		fPDOM.acquireReadLock();
+		final CountDownLatch started = new CountDownLatch(1);
+		final AtomicInteger acquired = new AtomicInteger();
+		Thread writer = new Thread() {
+			@Override
+			public void run() {
+				try {
+					started.countDown();
+					fPDOM.acquireWriteLock(null);
+					acquired.incrementAndGet();
+					fPDOM.releaseWriteLock();
+				} catch (InterruptedException e) {
+				}
+			}
+		};
+		writer.start();
+		started.await();
+		Thread.sleep(100);
+		assertEquals(0, acquired.get());
+		fPDOM.releaseReadLock();
+		writer.join(10000);
+		assertEquals(1, acquired.get());
+	}
+
+	public void testReadersWaitForWriter() throws Exception {
+		fPDOM.acquireWriteLock(null);
+		final AtomicInteger acquired = new AtomicInteger();
+		Thread reader = new Thread() {
+			@Override
+			public void run() {
+				try {
+					fPDOM.acquireReadLock();
+					acquired.incrementAndGet();
+					fPDOM.releaseReadLock();
+				} catch (InterruptedException e) {
+				}
+			}
+		};
+		reader.start();
+		long timeout = System.currentTimeMillis() + 10000;
+		while (!fPDOM.hasWaitingReaders() && System.currentTimeMillis() < timeout) {
+			Thread.sleep(10);
+		}
+		assertTrue(fPDOM.hasWaitingReaders());
+		assertEquals(0, acquired.get());
+		fPDOM.releaseWriteLock();
+		reader.join(10000);
+		assertEquals(1, acquired.get());
+		assertFalse(fPDOM.hasWaitingReaders());
+	}
+
+	public void testWaitingWriterGoesBeforeNextReader() throws Exception {
+		fPDOM.acquireReadLock();
+		final AtomicInteger order = new AtomicInteger();
+		final AtomicInteger writerOrder = new AtomicInteger();
+		final AtomicInteger readerOrder = new AtomicInteger();
+		Thread writer = new Thread() {
+			@Override
+			public void run() {
+				try {
+					fPDOM.acquireWriteLock(null);
+					writerOrder.set(order.incrementAndGet());
+					fPDOM.releaseWriteLock();
+				} catch (InterruptedException e) {
+				}
+			}
+		};
+		writer.start();
+		Thread.sleep(100);
+		Thread reader = new Thread() {
+			@Override
+			public void run() {
+				try {
+					fPDOM.awaitWaitingWriter();
+					fPDOM.acquireReadLock();
+					readerOrder.set(order.incrementAndGet());
+					fPDOM.releaseReadLock();
+				} catch (InterruptedException e) {
+				}
+			}
+		};
+		reader.start();
+		Thread.sleep(100);
+		assertEquals(0, order.get());
+		fPDOM.releaseReadLock();
+		writer.join(10000);
+		reader.join(10000);
+		assertEquals(1, writerOrder.get());
+		assertEquals(2, readerOrder.get());
+	}
+
+	public void testUpgradeAndDowngrade() throws Exception {
+		fPDOM.acquireReadLock();
+		fPDOM.acquireReadLock();
+		fPDOM.acquireWriteLock(2, null);
+		fPDOM.releaseWriteLock(2, false);
+		fPDOM.releaseReadLock();
+		fPDOM.releaseReadLock();
+		// No locks are held, a writer must not block.
+		fPDOM.acquireWriteLock(null);
+		fPDOM.releaseWriteLock();
+	}
+
+	public void testResultCacheOutlivesReadLocks() throws Exception {
+		Object key = new Object();
+		Object value = new Object();
+		fPDOM.acquireReadLock();
+		fPDOM.putCachedResult(key, value);
+		fPDOM.releaseReadLock();
+		fPDOM.acquireReadLock();
+		assertSame(value, fPDOM.getCachedResult(key));
+		fPDOM.releaseReadLock();
+		fPDOM.acquireWriteLock(null);
+		fPDOM.releaseWriteLock();
+		assertNull(fPDOM.getCachedResult(key));
+	}
+
+	public void testLockStatistics() throws Exception {
+		PDOMLockStatistics statistics = fPDOM.getLockStatistics();
+		long readLocks = statistics.getReadLockCount();
+		long writeLocks = statistics.getWriteLockCount();
+		fPDOM.acquireReadLock();
+		Thread.sleep(10);
+		fPDOM.releaseReadLock();
+		fPDOM.acquireWriteLock(null);
+		Thread.sleep(10);
+		fPDOM.releaseWriteLock();
+		assertEquals(readLocks + 1, statistics.getReadLockCount());
+		assertEquals(writeLocks + 1, statistics.getWriteLockCount());
+		assertTrue(statistics.getReadLockHoldTime() >= 10000000);
+		assertTrue(statistics.getWriteLockHoldTime() >= 10000000);
+	}
+}
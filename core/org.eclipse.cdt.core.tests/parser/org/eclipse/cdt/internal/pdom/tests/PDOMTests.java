@@ -29,6 +29,7 @@ public class PDOMTests extends TestSuite {
 
 		suite.addTest(DatabaseTest.suite());
 		suite.addTest(DBPropertiesTests.suite());
+		suite.addTest(PDOMLockTests.suite());
 		suite.addTest(PDOMCBugsTest.suite());
 		suite.addTest(PDOMCPPBugsTest.suite());
 		suite.addTest(PDOMSearchTest.suite());
@@ -41,9 +41,11 @@ import org.eclipse.cdt.utils.ByteUtilsTest;
 import org.eclipse.cdt.utils.CdtVariableResolverTest;
 import org.eclipse.cdt.utils.CommandLineUtilTest;
 import org.eclipse.cdt.utils.FindProgramLocationTest;
+import org.eclipse.cdt.utils.ItaniumDemanglerTest;
 import org.eclipse.cdt.utils.StorableCdtVariablesTest;
 import org.eclipse.cdt.utils.UNCPathConverterTest;
 import org.eclipse.cdt.utils.WeakHashSetTest;
+import org.eclipse.cdt.utils.debug.dwarf.DwarfReaderTest;
 import org.eclipse.cdt.utils.elf.ElfParserTest;
 import org.eclipse.cdt.utils.elf.ElfTest;
 
@@ -105,6 +107,8 @@ public class AutomatedIntegrationSuite extends TestSuite {
 		suite.addTest(TestScopeOfBuildConfigResourceChangesPreference.suite());
 		suite.addTest(ElfParserTest.suite());
 		suite.addTest(new JUnit4TestAdapter(ElfTest.class));
+		suite.addTest(new JUnit4TestAdapter(DwarfReaderTest.class));
+		suite.addTest(new JUnit4TestAdapter(ItaniumDemanglerTest.class));
 
 		// Add in PDOM tests
 		suite.addTest(PDOMTests.suite());
@@ -84,6 +84,26 @@ public interface ILanguage extends IAdaptable {
 	 */
 	public final static int OPTION_PARSE_INACTIVE_CODE = 0x20;
 
+	/**
+	 * Option for {@link #getASTTranslationUnit(FileContent, IScannerInfo, IncludeFileContentProvider, IIndex, int, IParserLogService)}
+	 * Instructs the preprocessor to process the directives, only. The tokens in between are skipped
+	 * without expanding macros, such that the resulting ast contains the preprocessor statements
+	 * (includes, macro definitions, etc.) but no declarations.
+	 *
+	 * @since 7.0
+	 */
+	public final static int OPTION_PREPROCESS_ONLY = 0x40;
+
+	/**
+	 * Option for {@link #getASTTranslationUnit(FileContent, IScannerInfo, IncludeFileContentProvider, IIndex, int, IParserLogService)}
+	 * Instructs the parser to skip function bodies by matching braces and to parse a body when it is
+	 * first accessed, e.g. by a visitor or a node selector. Has no effect in combination with
+	 * {@link #OPTION_SKIP_FUNCTION_BODIES} and for languages that do not support it.
+	 *
+	 * @since 7.0
+	 */
+	public final static int OPTION_LAZY_FUNCTION_BODIES = 0x80;
+
 	/**
 	 * Return the language id for this language.
 	 * This is to differentiate languages from each other.
@@ -117,6 +117,15 @@ public interface ITranslationUnit extends ICElement, IParent, IOpenable, ISource
 	 */
 	public final static int AST_PARSE_INACTIVE_CODE = 0x80;
 
+	/**
+	 * Style constant for {@link #getAST(IIndex, int)}.
+	 * Instructs the parser to skip function bodies and to parse a body when it is first accessed,
+	 * e.g. by a visitor or a node selector.
+	 *
+	 * @since 7.0
+	 */
+	public final static int AST_LAZY_FUNCTION_BODIES = 0x100;
+
 	/**
 	 * Creates and returns an include declaration in this translation unit
 	 * with the given name.
@@ -49,7 +49,7 @@ public class ASTCache {
 	public static int PARSE_MODE = ITranslationUnit.AST_SKIP_ALL_HEADERS
 			| ITranslationUnit.AST_CONFIGURE_USING_SOURCE_CONTEXT
 			| ITranslationUnit.AST_SKIP_TRIVIAL_EXPRESSIONS_IN_AGGREGATE_INITIALIZERS
-			| ITranslationUnit.AST_PARSE_INACTIVE_CODE;
+			| ITranslationUnit.AST_PARSE_INACTIVE_CODE | ITranslationUnit.AST_LAZY_FUNCTION_BODIES;
 
 	/**
 	 * Do something with an AST.
@@ -408,7 +408,8 @@ public class ASTCache {
 
 	/**
 	 * Informs that reconciling (computation of the AST) for the given element
-	 * is about to be started.
+	 * is about to be started. The cached AST is no longer shared and may be updated
+	 * by the reconciler.
 	 *
 	 * @param tUnit  the translation unit
 	 */
@@ -425,6 +426,13 @@ public class ASTCache {
 				System.out.println(DEBUG_PREFIX + getThreadName() + "about to reconcile: " + toString(tUnit)); //$NON-NLS-1$
 
 			fIsReconciling = true;
+			if (tUnit instanceof TranslationUnit) {
+				// The shared AST is about to be replaced, allow for updating it rather than parsing the file,
+				// unless it has been invalidated by a write access to the index.
+				final boolean isValid = fAST != null
+						&& (fAST.getIndex() == null || fLastWriteOnIndex >= fAST.getIndex().getLastWriteAccess());
+				((TranslationUnit) tUnit).setReusableAST(isValid ? fAST : null);
+			}
 			cache(null, tUnit);
 		}
 	}
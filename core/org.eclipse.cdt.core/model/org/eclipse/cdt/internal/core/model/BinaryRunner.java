@@ -16,6 +16,13 @@
  *******************************************************************************/
 package org.eclipse.cdt.internal.core.model;
 
+import java.io.File;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveAction;
+
 import org.eclipse.cdt.core.CCorePlugin;
 import org.eclipse.cdt.core.IBinaryParser.IBinaryFile;
 import org.eclipse.cdt.core.model.CModelException;
@@ -81,6 +88,10 @@ public class BinaryRunner {
 
 	}
 
+	/** The maximum number of threads that classify files. */
+	private static final int MAX_CLASSIFY_THREADS = 8;
+	private static ForkJoinPool classifyPool; // access must be synchronized on BinaryRunner.class
+
 	private final ICProject cproject;
 	private final Job runnerJob; // final fields don't need synchronization
 	private IOutputEntry[] entries = new IOutputEntry[0];
@@ -118,7 +129,11 @@ public class BinaryRunner {
 						BinaryParserConfig[] parsers = CModelManager.getDefault()
 								.getBinaryParser(cproject.getProject());
 						if (parsers.length > 0) {
-							cproject.getProject().accept(new Visitor(monitor), IContainer.INCLUDE_PHANTOMS);
+							Visitor visitor = new Visitor(monitor);
+							cproject.getProject().accept(visitor, IContainer.INCLUDE_PHANTOMS);
+							if (!monitor.isCanceled()) {
+								createBinaries(visitor.candidates, parsers, monitor);
+							}
 						}
 
 						if (!monitor.isCanceled()) {
@@ -172,10 +187,133 @@ public class BinaryRunner {
 		}
 	}
 
+	/**
+	 * Returns the pool the files are classified in. The classification blocks on file reads, so
+	 * the pool is separate from the common pool and its size is bounded.
+	 */
+	private static synchronized ForkJoinPool getClassifyPool() {
+		if (classifyPool == null) {
+			classifyPool = new ForkJoinPool(
+					Math.max(1, Math.min(Runtime.getRuntime().availableProcessors(), MAX_CLASSIFY_THREADS)));
+		}
+		return classifyPool;
+	}
+
+	/**
+	 * Classifies the candidates in parallel and creates the binaries found, in the order of the
+	 * candidates. Files that were found not to be binaries by a previous run, and have not changed
+	 * since, are not read again.
+	 */
+	private void createBinaries(List<Candidate> candidates, BinaryParserConfig[] parsers, IProgressMonitor monitor) {
+		for (BinaryParserConfig parser : parsers) {
+			try {
+				// Create the parsers before they are used by multiple threads.
+				parser.getBinaryParser();
+			} catch (CoreException e) {
+			}
+		}
+		final String parserIds = BinaryTypeCache.getParserIds(parsers);
+		final File cacheFile = BinaryTypeCache.getCacheFile(cproject.getProject());
+		final BinaryTypeCache cache = cacheFile != null ? BinaryTypeCache.load(cacheFile, parserIds) : null;
+
+		Candidate[] array = candidates.toArray(new Candidate[candidates.size()]);
+		getClassifyPool().invoke(new ClassifyTask(array, 0, array.length, cache, monitor));
+		if (monitor.isCanceled()) {
+			return;
+		}
+
+		CModelManager factory = CModelManager.getDefault();
+		BinaryTypeCache newCache = new BinaryTypeCache(parserIds);
+		for (Candidate candidate : array) {
+			if (candidate.binary != null) {
+				// Create the file will add it to the {Archive,Binary}Container.
+				factory.create(candidate.file, candidate.binary, cproject);
+			}
+			if (candidate.location != null) {
+				newCache.put(candidate.location, candidate.size, candidate.modified, candidate.binary != null);
+			}
+		}
+		if (cacheFile != null) {
+			try {
+				newCache.store(cacheFile);
+			} catch (IOException e) {
+				CCorePlugin.log(e);
+			}
+		}
+	}
+
+	/**
+	 * A file on an output entry that may be a binary.
+	 */
+	private static final class Candidate {
+		final IFile file;
+		/** The location of the file, or {@code null} if the result is not to be cached. */
+		String location;
+		long size;
+		long modified;
+		IBinaryFile binary;
+
+		Candidate(IFile file) {
+			this.file = file;
+		}
+
+		void classify(BinaryTypeCache cache) {
+			IPath path = file.getLocation();
+			if (path != null) {
+				File f = path.toFile();
+				size = f.length();
+				modified = f.lastModified();
+				if (modified != 0) {
+					location = path.toOSString();
+					if (cache != null && Boolean.FALSE.equals(cache.get(location, size, modified))) {
+						return;
+					}
+				}
+			}
+			binary = CModelManager.getDefault().createBinaryFile(file);
+		}
+	}
+
+	/**
+	 * Classifies a range of candidates, splitting the range into subtasks when it is large.
+	 */
+	private static final class ClassifyTask extends RecursiveAction {
+		private static final long serialVersionUID = 1L;
+		private static final int SPLIT_THRESHOLD = 16;
+		private final Candidate[] fCandidates;
+		private final int fFrom;
+		private final int fTo;
+		private final BinaryTypeCache fCache;
+		private final IProgressMonitor fMonitor;
+
+		ClassifyTask(Candidate[] candidates, int from, int to, BinaryTypeCache cache, IProgressMonitor monitor) {
+			fCandidates = candidates;
+			fFrom = from;
+			fTo = to;
+			fCache = cache;
+			fMonitor = monitor;
+		}
+
+		@Override
+		protected void compute() {
+			if (fTo - fFrom <= SPLIT_THRESHOLD) {
+				for (int i = fFrom; i < fTo && !fMonitor.isCanceled(); i++) {
+					fCandidates[i].classify(fCache);
+				}
+			} else {
+				final int mid = (fFrom + fTo) >>> 1;
+				invokeAll(new ClassifyTask(fCandidates, fFrom, mid, fCache, fMonitor),
+						new ClassifyTask(fCandidates, mid, fTo, fCache, fMonitor));
+			}
+		}
+	}
+
 	private class Visitor implements IResourceProxyVisitor {
 		private final IProgressMonitor vMonitor;
 		private final IProject project;
 		private final IContentType textContentType;
+		/** The files on output entries, in the order they are visited. */
+		final List<Candidate> candidates = new ArrayList<>();
 
 		public Visitor(IProgressMonitor monitor) {
 			vMonitor = monitor;
@@ -221,13 +359,7 @@ public class BinaryRunner {
 			if (path != null) {
 				for (IOutputEntry entrie : entries) {
 					if (isOnOutputEntry(entrie, path)) {
-						IFile file = (IFile) proxy.requestResource();
-						CModelManager factory = CModelManager.getDefault();
-						IBinaryFile bin = factory.createBinaryFile(file);
-						if (bin != null) {
-							// Create the file will add it to the {Archive,Binary}Container.
-							factory.create(file, bin, cproject);
-						}
+						candidates.add(new Candidate((IFile) proxy.requestResource()));
 						return true;
 					}
 				}
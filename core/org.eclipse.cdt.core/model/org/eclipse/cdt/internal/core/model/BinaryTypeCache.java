@@ -0,0 +1,175 @@
+/*******************************************************************************
+ * Copyright (c) 2026 Eclipse CDT contributors and others.
+ *
+ * This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License 2.0
+ * which accompanies this distribution, and is available at
+ * https://www.eclipse.org/legal/epl-2.0/
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ *******************************************************************************/
+package org.eclipse.cdt.internal.core.model;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.util.HashMap;
+import java.util.Map;
+
+import org.eclipse.cdt.core.CCorePlugin;
+import org.eclipse.core.resources.IProject;
+
+/**
+ * The results of the binary parser detection of the files of a project, by the location, size
+ * and modification time of the files. Used by the {@link BinaryRunner} to classify the files of
+ * an unchanged build tree without reading them.
+ * <p>
+ * The cache is bound to the binary parsers of the project, it is discarded when they change.
+ * A loaded cache may be read by multiple threads, {@link #put(String, long, long, boolean)} is
+ * not thread-safe.
+ */
+class BinaryTypeCache {
+	private static final int CACHE_VERSION = 1;
+	private static final String CACHE_DIRECTORY = "binaryTypes"; //$NON-NLS-1$
+
+	private static final class Entry {
+		final long size;
+		final long modified;
+		final boolean binary;
+
+		Entry(long size, long modified, boolean binary) {
+			this.size = size;
+			this.modified = modified;
+			this.binary = binary;
+		}
+	}
+
+	private final String parserIds;
+	private final Map<String, Entry> entries;
+
+	/**
+	 * Creates an empty cache.
+	 *
+	 * @param parserIds the ids of the binary parsers the files are classified with.
+	 */
+	BinaryTypeCache(String parserIds) {
+		this(parserIds, new HashMap<String, Entry>());
+	}
+
+	private BinaryTypeCache(String parserIds, Map<String, Entry> entries) {
+		this.parserIds = parserIds;
+		this.entries = entries;
+	}
+
+	/**
+	 * Returns the ids of the given binary parsers, in the form stored with a cache.
+	 */
+	static String getParserIds(BinaryParserConfig[] parsers) {
+		StringBuilder ids = new StringBuilder();
+		for (BinaryParserConfig parser : parsers) {
+			if (ids.length() > 0)
+				ids.append(',');
+			ids.append(parser.getId());
+		}
+		return ids.toString();
+	}
+
+	/**
+	 * Returns whether the file was a binary file when it had the given size and modification time,
+	 * or {@code null} if it is not known.
+	 */
+	Boolean get(String location, long size, long modified) {
+		Entry entry = entries.get(location);
+		if (entry == null || entry.size != size || entry.modified != modified)
+			return null;
+		return Boolean.valueOf(entry.binary);
+	}
+
+	void put(String location, long size, long modified, boolean binary) {
+		entries.put(location, new Entry(size, modified, binary));
+	}
+
+	/**
+	 * Returns the file the cache of the given project is stored in, or {@code null} if there is no
+	 * state location.
+	 */
+	static File getCacheFile(IProject project) {
+		CCorePlugin plugin = CCorePlugin.getDefault();
+		if (plugin == null)
+			return null;
+		try {
+			return plugin.getStateLocation().append(CACHE_DIRECTORY).append(project.getName()).toFile();
+		} catch (IllegalStateException e) {
+			// No instance location.
+			return null;
+		}
+	}
+
+	/**
+	 * Moves the cache of a renamed project, such that it is not left behind under the old name.
+	 */
+	static void moveCacheFile(IProject project, IProject renamedProject) {
+		File file = getCacheFile(project);
+		File renamedFile = getCacheFile(renamedProject);
+		if (file == null || renamedFile == null || !file.isFile())
+			return;
+		renamedFile.delete();
+		if (!file.renameTo(renamedFile)) {
+			file.delete();
+		}
+	}
+
+	/**
+	 * Reads a cache stored with {@link #store(File)}, returns {@code null} if the file does not
+	 * exist, cannot be read, or was stored for other binary parsers.
+	 */
+	static BinaryTypeCache load(File file, String parserIds) {
+		if (!file.isFile())
+			return null;
+		try (DataInputStream in = new DataInputStream(new BufferedInputStream(new FileInputStream(file)))) {
+			if (in.readInt() != CACHE_VERSION || !parserIds.equals(in.readUTF()))
+				return null;
+			final int count = in.readInt();
+			Map<String, Entry> entries = new HashMap<>(count * 4 / 3 + 1);
+			for (int i = 0; i < count; i++) {
+				String location = in.readUTF();
+				entries.put(location, new Entry(in.readLong(), in.readLong(), in.readBoolean()));
+			}
+			return new BinaryTypeCache(parserIds, entries);
+		} catch (IOException e) {
+			return null;
+		}
+	}
+
+	/**
+	 * Stores the cache, such that it can be read by {@link #load(File, String)}.
+	 */
+	void store(File file) throws IOException {
+		File dir = file.getParentFile();
+		if (!dir.isDirectory() && !dir.mkdirs())
+			throw new IOException("Cannot create " + dir); //$NON-NLS-1$
+		// Write to a temporary file first, such that readers never see a partial file.
+		File tmp = new File(dir, file.getName() + ".tmp"); //$NON-NLS-1$
+		try (DataOutputStream out = new DataOutputStream(new BufferedOutputStream(new FileOutputStream(tmp)))) {
+			out.writeInt(CACHE_VERSION);
+			out.writeUTF(parserIds);
+			out.writeInt(entries.size());
+			for (Map.Entry<String, Entry> entry : entries.entrySet()) {
+				out.writeUTF(entry.getKey());
+				out.writeLong(entry.getValue().size);
+				out.writeLong(entry.getValue().modified);
+				out.writeBoolean(entry.getValue().binary);
+			}
+		}
+		file.delete();
+		if (!tmp.renameTo(file)) {
+			tmp.delete();
+			throw new IOException("Cannot rename " + tmp + " to " + file); //$NON-NLS-1$ //$NON-NLS-2$
+		}
+	}
+}
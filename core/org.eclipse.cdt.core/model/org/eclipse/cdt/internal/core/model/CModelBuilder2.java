@@ -144,7 +144,9 @@ public class CModelBuilder2 implements IContributedModelBuilder {
 			if (!(elementInfo instanceof ASTHolderTUInfo)) {
 				parseFlags |= ITranslationUnit.AST_SKIP_FUNCTION_BODIES;
 			} else {
+				// The AST is shared with the editor, function bodies are parsed when needed.
 				parseFlags |= ITranslationUnit.AST_CONFIGURE_USING_SOURCE_CONTEXT;
+				parseFlags |= ITranslationUnit.AST_LAZY_FUNCTION_BODIES;
 			}
 			parseFlags |= ITranslationUnit.AST_SKIP_TRIVIAL_EXPRESSIONS_IN_AGGREGATE_INITIALIZERS;
 			parseFlags |= ITranslationUnit.AST_PARSE_INACTIVE_CODE;
@@ -1404,6 +1404,8 @@ public class CModelManager implements IResourceChangeListener, IContentTypeChang
 				IPath movedTo = null;
 				if ((delta.getFlags() & IResourceDelta.MOVED_TO) != 0) {
 					movedTo = delta.getMovedToPath();
+					IProject renamed = ResourcesPlugin.getWorkspace().getRoot().getProject(movedTo.lastSegment());
+					BinaryTypeCache.moveCacheFile((IProject) res, renamed);
 				}
 				LocalProjectScope.deletePreferences(res.getFullPath(), movedTo);
 			}
@@ -1417,6 +1419,11 @@ public class CModelManager implements IResourceChangeListener, IContentTypeChang
 		binaryParsersMap.remove(project);
 		// Stop the binary runner for this project
 		removeBinaryRunner(project);
+		// Remove the cached binary types of the project
+		File binaryTypes = BinaryTypeCache.getCacheFile(project);
+		if (binaryTypes != null) {
+			binaryTypes.delete();
+		}
 	}
 
 	private void preCloseProject(IProject project) {
@@ -22,6 +22,7 @@ package org.eclipse.cdt.internal.core.model;
 import java.io.FileInputStream;
 import java.io.IOException;
 import java.io.InputStream;
+import java.lang.ref.WeakReference;
 import java.net.URI;
 import java.util.ArrayList;
 import java.util.Arrays;
@@ -34,6 +35,7 @@ import org.eclipse.cdt.core.CCorePlugin;
 import org.eclipse.cdt.core.dom.ILinkage;
 import org.eclipse.cdt.core.dom.ast.IASTCompletionNode;
 import org.eclipse.cdt.core.dom.ast.IASTTranslationUnit;
+import org.eclipse.cdt.core.dom.parser.AbstractCLikeLanguage;
 import org.eclipse.cdt.core.index.IIndex;
 import org.eclipse.cdt.core.index.IIndexFile;
 import org.eclipse.cdt.core.index.IIndexFileLocation;
@@ -73,6 +75,7 @@ import org.eclipse.cdt.core.settings.model.ICConfigurationDescription;
 import org.eclipse.cdt.core.settings.model.ICProjectDescription;
 import org.eclipse.cdt.internal.core.dom.parser.ASTTranslationUnit;
 import org.eclipse.cdt.internal.core.dom.parser.CompositeValue;
+import org.eclipse.cdt.internal.core.dom.parser.cpp.ICPPEvaluation.ConstexprEvaluationContext;
 import org.eclipse.cdt.internal.core.index.IndexBasedFileContentProvider;
 import org.eclipse.cdt.internal.core.parser.InternalParserUtil;
 import org.eclipse.cdt.internal.core.parser.ParserLogService;
@@ -105,6 +108,8 @@ public class TranslationUnit extends Openable implements ITranslationUnit {
 	static {
 		CompositeValue.sDEBUG = Boolean
 				.parseBoolean(Platform.getDebugOption(CCorePlugin.PLUGIN_ID + "/debug/parser/CompositeValue")); //$NON-NLS-1$
+		ConstexprEvaluationContext.sDEBUG = Boolean
+				.parseBoolean(Platform.getDebugOption(CCorePlugin.PLUGIN_ID + "/debug/parser/constexpr")); //$NON-NLS-1$
 	}
 
 	private URI location;
@@ -119,6 +124,15 @@ public class TranslationUnit extends Openable implements ITranslationUnit {
 	SourceManipulationInfo sourceManipulationInfo;
 	private ILanguage fLanguageOfContext;
 
+	// The last AST created for this translation unit, together with the language and the style
+	// it was created with, and the last write access to the index before it was created.
+	private WeakReference<IASTTranslationUnit> fLastAST;
+	private ILanguage fLastASTLanguage;
+	private int fLastASTStyle;
+	private long fLastASTIndexWrite;
+	// An AST that may be updated rather than parsing the file.
+	private IASTTranslationUnit fReusableAST;
+
 	public TranslationUnit(ICElement parent, IFile file, String idType) {
 		super(parent, file, ICElement.C_UNIT);
 		setContentTypeID(idType);
@@ -844,6 +858,7 @@ public class TranslationUnit extends Openable implements ITranslationUnit {
 	}
 
 	public IASTTranslationUnit getAST(IIndex index, int style, IProgressMonitor monitor) throws CoreException {
+		final long lastIndexWrite = index != null ? index.getLastWriteAccess() : 0;
 		boolean incompleteIndex = index != null && !index.isFullyInitialized();
 		IIndexFile[] contextToHeader = getContextToHeader(index, style);
 		ITranslationUnit configureWith = getConfigureWith(contextToHeader);
@@ -877,21 +892,66 @@ public class TranslationUnit extends Openable implements ITranslationUnit {
 		if ((style & AST_PARSE_INACTIVE_CODE) != 0) {
 			options |= ILanguage.OPTION_PARSE_INACTIVE_CODE;
 		}
+		if ((style & AST_LAZY_FUNCTION_BODIES) != 0) {
+			options |= ILanguage.OPTION_LAZY_FUNCTION_BODIES;
+		}
 		final IParserLogService log;
 		if (monitor instanceof ICanceler) {
 			log = new ParserLogService(DebugLogConstants.PARSER, (ICanceler) monitor);
 		} else {
 			log = ParserUtil.getParserLogService();
 		}
-		ASTTranslationUnit ast = (ASTTranslationUnit) ((AbstractLanguage) language).getASTTranslationUnit(fileContent,
-				scanInfo, crf, index, options, log);
+		ASTTranslationUnit ast = null;
+		IASTTranslationUnit reusableAST = takeReusableAST(language, style, index);
+		if (reusableAST != null && !incompleteIndex) {
+			ast = (ASTTranslationUnit) ((AbstractCLikeLanguage) language).updateASTTranslationUnit(reusableAST,
+					fileContent, scanInfo, crf, index, options, log);
+		}
+		if (ast == null) {
+			ast = (ASTTranslationUnit) ((AbstractLanguage) language).getASTTranslationUnit(fileContent, scanInfo, crf,
+					index, options, log);
+		}
 		if (ast == null)
 			return null;
 		ast.setOriginatingTranslationUnit(this);
 		ast.setBasedOnIncompleteIndex(incompleteIndex);
+		synchronized (this) {
+			fLastAST = new WeakReference<>(ast);
+			fLastASTLanguage = language;
+			fLastASTStyle = style;
+			fLastASTIndexWrite = lastIndexWrite;
+		}
 		return ast;
 	}
 
+	/**
+	 * Offers the given AST for being updated by the next call to {@link #getAST(IIndex, int, IProgressMonitor)},
+	 * instead of parsing the file. Only the last AST created by this translation unit is accepted, the caller
+	 * must no longer share it with other clients.
+	 */
+	public synchronized void setReusableAST(IASTTranslationUnit ast) {
+		fReusableAST = ast != null && fLastAST != null && fLastAST.get() == ast ? ast : null;
+	}
+
+	/**
+	 * Returns the reusable AST, if it has been created with the given language and style and the
+	 * index has not been changed since.
+	 */
+	private synchronized IASTTranslationUnit takeReusableAST(ILanguage language, int style, IIndex index) {
+		final IASTTranslationUnit ast = fReusableAST;
+		fReusableAST = null;
+		if (ast == null || language != fLastASTLanguage || style != fLastASTStyle
+				|| !(language instanceof AbstractCLikeLanguage) || ast.isBasedOnIncompleteIndex()) {
+			return null;
+		}
+		final IIndex astIndex = ast.getIndex();
+		if (astIndex == null || index == null) {
+			return astIndex == index ? ast : null;
+		}
+		// The index is live, the names of the AST may have been resolved against an older state.
+		return fLastASTIndexWrite == index.getLastWriteAccess() ? ast : null;
+	}
+
 	private IncludeFileContentProvider getIncludeFileContentProvider(int style, IIndex index, int linkageID,
 			IIndexFile[] contextToHeader) {
 		final ICProject cprj = getCProject();
@@ -129,6 +129,9 @@ public class GPPLanguage extends AbstractCLikeLanguage {
 				parser.setMaximumTrivialExpressionsInAggregateInitializers(maximumTrivialExpressions);
 			}
 		}
+		if ((options & OPTION_LAZY_FUNCTION_BODIES) != 0) {
+			parser.setParseFunctionBodiesLazily(true);
+		}
 		return parser;
 	}
 
@@ -42,6 +42,8 @@ import org.eclipse.cdt.core.parser.ParseError;
 import org.eclipse.cdt.core.parser.ParseError.ParseErrorKind;
 import org.eclipse.cdt.core.parser.ParserLanguage;
 import org.eclipse.cdt.core.parser.ParserMode;
+import org.eclipse.cdt.internal.core.dom.parser.AbstractGNUSourceCodeParser;
+import org.eclipse.cdt.internal.core.dom.parser.FunctionBodyReparser;
 import org.eclipse.cdt.internal.core.parser.scanner.CPreprocessor;
 import org.eclipse.cdt.internal.core.util.ICancelable;
 import org.eclipse.cdt.internal.core.util.ICanceler;
@@ -143,45 +145,54 @@ public abstract class AbstractCLikeLanguage extends AbstractLanguage implements
 			IncludeFileContentProvider fileCreator, IIndex index, int options, IParserLogService log)
 			throws CoreException {
 		final IScanner scanner = createScanner(reader, scanInfo, fileCreator, log);
-		scanner.setComputeImageLocations((options & OPTION_NO_IMAGE_LOCATIONS) == 0);
-		scanner.setProcessInactiveCode((options & OPTION_PARSE_INACTIVE_CODE) != 0);
-
-		IParserSettings parserSettings = null;
-		if (scanInfo instanceof ExtendedScannerInfo) {
-			ExtendedScannerInfo extendedScannerInfo = (ExtendedScannerInfo) scanInfo;
-			parserSettings = extendedScannerInfo.getParserSettings();
-		}
-		final ISourceCodeParser parser = createParser(scanner, log, index, false, options, parserSettings);
-
-		// Make it possible to cancel parser by reconciler - http://bugs.eclipse.org/226682
-		ICanceler canceler = null;
-		if (log instanceof ICanceler) {
-			canceler = (ICanceler) log;
-			canceler.setCancelable(new ICancelable() {
-				@Override
-				public void cancel() {
-					scanner.cancel();
-					parser.cancel();
-				}
-			});
-		}
-
+		configureScanner(scanner, options);
+		final ISourceCodeParser parser = createParser(scanner, log, index, false, options,
+				getParserSettings(scanInfo));
+		final ICanceler canceler = setCancelable(log, scanner, parser);
 		try {
 			// Parse
 			return parser.parse();
 		} catch (ParseError e) {
-			// Only the TOO_MANY_TOKENS error can be handled here.
-			if (e.getErrorKind() != ParseErrorKind.TOO_MANY_TOKENS)
-				throw e;
+			handleParseError(e, scanner, log);
+			return null;
+		} finally {
+			if (canceler != null) {
+				canceler.setCancelable(null);
+			}
+		}
+	}
 
-			// Otherwise generate a log because parsing was stopped because of a user preference.
-			if (log != null) {
-				String tuName = null;
-				if (scanner.getLocationResolver() != null)
-					tuName = scanner.getLocationResolver().getTranslationUnitPath();
+	/**
+	 * Updates a translation unit previously created by this language for the given file, in case
+	 * the file has been changed only within the body of a single function. The arguments have
+	 * to be the same as the ones the translation unit was created with, except for the content of
+	 * the file.
+	 *
+	 * @param ast the translation unit to update, it must not be accessed while it is updated.
+	 * @return the updated translation unit, or <code>null</code> if the translation unit cannot
+	 *     be updated and the file needs to be parsed.
+	 * @noreference This method is not intended to be referenced by clients.
+	 * @since 7.0
+	 */
+	public IASTTranslationUnit updateASTTranslationUnit(IASTTranslationUnit ast, FileContent reader,
+			IScannerInfo scanInfo, IncludeFileContentProvider fileCreator, IIndex index, int options,
+			IParserLogService log) throws CoreException {
+		final FunctionBodyReparser reparser = FunctionBodyReparser.create(ast, reader);
+		if (reparser == null)
+			return null;
 
-				log.traceLog(e.getMessage() + (tuName == null ? "" : (" while parsing " + tuName))); //$NON-NLS-1$ //$NON-NLS-2$
-			}
+		final IScanner scanner = createScanner(reader, scanInfo, fileCreator, log);
+		configureScanner(scanner, options);
+		final ISourceCodeParser parser = createParser(scanner, log, index, false, options,
+				getParserSettings(scanInfo));
+		if (!(parser instanceof AbstractGNUSourceCodeParser))
+			return null;
+
+		final ICanceler canceler = setCancelable(log, scanner, parser);
+		try {
+			return reparser.reparse(scanner, (AbstractGNUSourceCodeParser) parser) ? ast : null;
+		} catch (ParseError e) {
+			handleParseError(e, scanner, log);
 			return null;
 		} finally {
 			if (canceler != null) {
@@ -190,6 +201,55 @@ public abstract class AbstractCLikeLanguage extends AbstractLanguage implements
 		}
 	}
 
+	private static void configureScanner(IScanner scanner, int options) {
+		scanner.setComputeImageLocations((options & OPTION_NO_IMAGE_LOCATIONS) == 0);
+		final boolean preprocessOnly = (options & OPTION_PREPROCESS_ONLY) != 0;
+		scanner.setPreprocessOnly(preprocessOnly);
+		scanner.setProcessInactiveCode(!preprocessOnly && (options & OPTION_PARSE_INACTIVE_CODE) != 0);
+	}
+
+	private static IParserSettings getParserSettings(IScannerInfo scanInfo) {
+		if (scanInfo instanceof ExtendedScannerInfo) {
+			ExtendedScannerInfo extendedScannerInfo = (ExtendedScannerInfo) scanInfo;
+			return extendedScannerInfo.getParserSettings();
+		}
+		return null;
+	}
+
+	/**
+	 * Makes it possible to cancel the parser by the reconciler - http://bugs.eclipse.org/226682
+	 */
+	private static ICanceler setCancelable(IParserLogService log, final IScanner scanner,
+			final ISourceCodeParser parser) {
+		if (!(log instanceof ICanceler))
+			return null;
+
+		ICanceler canceler = (ICanceler) log;
+		canceler.setCancelable(new ICancelable() {
+			@Override
+			public void cancel() {
+				scanner.cancel();
+				parser.cancel();
+			}
+		});
+		return canceler;
+	}
+
+	private static void handleParseError(ParseError e, IScanner scanner, IParserLogService log) {
+		// Only the TOO_MANY_TOKENS error can be handled here.
+		if (e.getErrorKind() != ParseErrorKind.TOO_MANY_TOKENS)
+			throw e;
+
+		// Otherwise generate a log because parsing was stopped because of a user preference.
+		if (log != null) {
+			String tuName = null;
+			if (scanner.getLocationResolver() != null)
+				tuName = scanner.getLocationResolver().getTranslationUnitPath();
+
+			log.traceLog(e.getMessage() + (tuName == null ? "" : (" while parsing " + tuName))); //$NON-NLS-1$ //$NON-NLS-2$
+		}
+	}
+
 	@Deprecated
 	@Override
 	public IASTCompletionNode getCompletionNode(org.eclipse.cdt.core.parser.CodeReader reader, IScannerInfo scanInfo,
@@ -186,6 +186,15 @@ public interface IIndexManager extends IPDOMManager {
 	 */
 	public static final int UPDATE_UNRESOLVED_INCLUDES = 0x80;
 
+	/**
+	 * This flag modifies the behavior of the other update flags. The files are preprocessed, only,
+	 * such that the index stores the includes and macros of the files but none of the names. The
+	 * versions of the files stored this way are marked as includes-only and are parsed by the next
+	 * update without this flag.
+	 * @since 7.0
+	 */
+	public static final int UPDATE_INCLUDES_ONLY = 0x100;
+
 	/**
 	 * Returns the index for the given project.
 	 *
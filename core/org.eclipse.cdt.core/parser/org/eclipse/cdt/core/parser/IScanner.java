@@ -74,6 +74,17 @@ public interface IScanner {
 	 */
 	public void setSplitShiftROperator(boolean val);
 
+	/**
+	 * Instructs the scanner to process the preprocessor directives, only. The tokens between the
+	 * directives are skipped, such that the parser sees an empty translation unit that contains
+	 * the preprocessor statements, only. Macros are not expanded outside of directives.
+	 *
+	 * @noreference This method is not intended to be referenced by clients.
+	 * @since 7.0
+	 */
+	public default void setPreprocessOnly(boolean val) {
+	}
+
 	/**
 	 * Turns on/off creation of image locations.
 	 * @see org.eclipse.cdt.core.dom.ast.IASTName#getImageLocation()
@@ -0,0 +1,344 @@
+/*******************************************************************************
+ * Copyright (c) 2026 Eclipse CDT contributors and others.
+ *
+ * This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License 2.0
+ * which accompanies this distribution, and is available at
+ * https://www.eclipse.org/legal/epl-2.0/
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ *******************************************************************************/
+package org.eclipse.cdt.core.parser.util;
+
+import java.util.AbstractList;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * A map with char arrays or slices of char arrays as keys, implemented with open addressing.
+ * <p>
+ * The entries are kept in dense arrays in the order they were added, together with the hash
+ * codes of their keys. A separate table of ints, probed linearly, refers to the entries. Lookups
+ * therefore neither allocate nor follow chains of objects, and the keys are only compared when
+ * the hash codes match. Unlike {@link CharArrayMap} no key object is created per lookup, and
+ * unlike {@link CharArrayObjectMap} no chains of entries have to be maintained.
+ * <p>
+ * Entries can be accessed by index, from 0 to {@code size() - 1}. Removing an entry moves the
+ * last entry to the index of the removed one.
+ * <p>
+ * The map is not synchronized and does not permit {@code null} keys.
+ *
+ * <pre>
+ * char[] key = "one two three".toCharArray();
+ * map.put(key, 4, 3, Integer.valueOf(99));
+ * map.get(key, 4, 3); // returns 99
+ * map.get("two".toCharArray()); // returns 99
+ * </pre>
+ *
+ * @param <V> the type of the values
+ * @since 7.0
+ */
+public final class CharArrayHashMap<V> {
+	private static final int MIN_CAPACITY = 4;
+
+	private char[][] fKeys;
+	private Object[] fValues;
+	private int[] fHashes;
+	private int fSize;
+	/** Indexes of the entries plus one, or zero for free slots. */
+	private int[] fSlots;
+
+	/**
+	 * Constructs an empty map with a default initial capacity.
+	 */
+	public CharArrayHashMap() {
+		this(MIN_CAPACITY);
+	}
+
+	/**
+	 * Constructs an empty map that can hold the given number of entries without growing.
+	 */
+	public CharArrayHashMap(int initialCapacity) {
+		int capacity = Math.max(initialCapacity, MIN_CAPACITY);
+		fKeys = new char[capacity][];
+		fValues = new Object[capacity];
+		fHashes = new int[capacity];
+		fSlots = new int[slotCount(capacity)];
+	}
+
+	/**
+	 * Returns the number of slots for the given number of entries, such that the table of slots
+	 * is at most half full.
+	 */
+	private static int slotCount(int capacity) {
+		int n = Integer.highestOneBit(capacity) << 1;
+		return n < capacity * 2 ? n << 1 : n;
+	}
+
+	/**
+	 * Spreads the bits of the hash code such that keys that differ only in the last characters
+	 * are not placed into adjacent slots.
+	 */
+	private static int slotFor(int hash, int mask) {
+		int h = hash * 0x9E3779B9;
+		return (h ^ (h >>> 16)) & mask;
+	}
+
+	/**
+	 * Returns the slot for the given key, which either refers to the entry with the key or is free.
+	 */
+	private int findSlot(char[] key, int start, int length, int hash) {
+		final int[] slots = fSlots;
+		final int mask = slots.length - 1;
+		for (int slot = slotFor(hash, mask);; slot = (slot + 1) & mask) {
+			int entry = slots[slot] - 1;
+			if (entry < 0)
+				return slot;
+			if (fHashes[entry] == hash && CharArrayUtils.equals(key, start, length, fKeys[entry]))
+				return slot;
+		}
+	}
+
+	private int indexOf(char[] key, int start, int length) {
+		return fSlots[findSlot(key, start, length, CharArrayUtils.hash(key, start, length))] - 1;
+	}
+
+	/**
+	 * Returns the number of entries.
+	 */
+	public int size() {
+		return fSize;
+	}
+
+	/**
+	 * Returns {@code true} if the map contains no entries.
+	 */
+	public boolean isEmpty() {
+		return fSize == 0;
+	}
+
+	/**
+	 * Returns the value for the given key, or {@code null} if the map does not contain the key.
+	 */
+	public V get(char[] key) {
+		return get(key, 0, key.length);
+	}
+
+	/**
+	 * Returns the value for the given slice of a char array, or {@code null} if the map does not
+	 * contain the key.
+	 */
+	public V get(char[] key, int start, int length) {
+		return getAt(indexOf(key, start, length));
+	}
+
+	/**
+	 * Returns {@code true} if the map contains the given key.
+	 */
+	public boolean containsKey(char[] key) {
+		return containsKey(key, 0, key.length);
+	}
+
+	/**
+	 * Returns {@code true} if the map contains the given slice of a char array as a key.
+	 */
+	public boolean containsKey(char[] key, int start, int length) {
+		return indexOf(key, start, length) >= 0;
+	}
+
+	/**
+	 * Associates the value with the given key. The array is used as the key, it must not be
+	 * modified while it is part of the map.
+	 *
+	 * @return the value previously associated with the key, or {@code null}.
+	 */
+	public V put(char[] key, V value) {
+		return put(key, 0, key.length, value, false);
+	}
+
+	/**
+	 * Associates the value with the given slice of a char array. The slice is copied when it is
+	 * added to the map.
+	 *
+	 * @return the value previously associated with the key, or {@code null}.
+	 */
+	public V put(char[] key, int start, int length, V value) {
+		return put(key, start, length, value, true);
+	}
+
+	private V put(char[] key, int start, int length, V value, boolean copyKey) {
+		final int hash = CharArrayUtils.hash(key, start, length);
+		int slot = findSlot(key, start, length, hash);
+		int entry = fSlots[slot] - 1;
+		if (entry >= 0) {
+			@SuppressWarnings("unchecked")
+			V oldValue = (V) fValues[entry];
+			fValues[entry] = value;
+			return oldValue;
+		}
+
+		if (fSize == fKeys.length) {
+			grow();
+			slot = findSlot(key, start, length, hash);
+		}
+		entry = fSize++;
+		fKeys[entry] = copyKey || start != 0 || length != key.length ? CharArrayUtils.extract(key, start, length)
+				: key;
+		fValues[entry] = value;
+		fHashes[entry] = hash;
+		fSlots[slot] = entry + 1;
+		return null;
+	}
+
+	private void grow() {
+		final int capacity = fKeys.length * 2;
+		fKeys = Arrays.copyOf(fKeys, capacity);
+		fValues = Arrays.copyOf(fValues, capacity);
+		fHashes = Arrays.copyOf(fHashes, capacity);
+		final int[] slots = new int[slotCount(capacity)];
+		final int mask = slots.length - 1;
+		for (int i = 0; i < fSize; i++) {
+			int slot = slotFor(fHashes[i], mask);
+			while (slots[slot] != 0) {
+				slot = (slot + 1) & mask;
+			}
+			slots[slot] = i + 1;
+		}
+		fSlots = slots;
+	}
+
+	/**
+	 * Removes the entry for the given key.
+	 *
+	 * @return the value that was associated with the key, or {@code null}.
+	 */
+	public V remove(char[] key) {
+		return remove(key, 0, key.length);
+	}
+
+	/**
+	 * Removes the entry for the given slice of a char array.
+	 *
+	 * @return the value that was associated with the key, or {@code null}.
+	 */
+	public V remove(char[] key, int start, int length) {
+		final int slot = findSlot(key, start, length, CharArrayUtils.hash(key, start, length));
+		final int entry = fSlots[slot] - 1;
+		if (entry < 0)
+			return null;
+
+		@SuppressWarnings("unchecked")
+		V value = (V) fValues[entry];
+		freeSlot(slot);
+
+		// Move the last entry into the gap.
+		final int last = --fSize;
+		if (entry != last) {
+			fSlots[findSlotOfEntry(last)] = entry + 1;
+			fKeys[entry] = fKeys[last];
+			fValues[entry] = fValues[last];
+			fHashes[entry] = fHashes[last];
+		}
+		fKeys[last] = null;
+		fValues[last] = null;
+		return value;
+	}
+
+	private int findSlotOfEntry(int entry) {
+		final int mask = fSlots.length - 1;
+		int slot = slotFor(fHashes[entry], mask);
+		while (fSlots[slot] != entry + 1) {
+			slot = (slot + 1) & mask;
+		}
+		return slot;
+	}
+
+	/**
+	 * Frees the given slot and moves subsequent slots of the same probe sequence backwards,
+	 * such that no lookup is stopped by the free slot prematurely.
+	 */
+	private void freeSlot(int hole) {
+		final int[] slots = fSlots;
+		final int mask = slots.length - 1;
+		for (int slot = (hole + 1) & mask; slots[slot] != 0; slot = (slot + 1) & mask) {
+			int home = slotFor(fHashes[slots[slot] - 1], mask);
+			// Move the entry if its home slot is not between the hole and its current slot.
+			if (((slot - home) & mask) >= ((slot - hole) & mask)) {
+				slots[hole] = slots[slot];
+				hole = slot;
+			}
+		}
+		slots[hole] = 0;
+	}
+
+	/**
+	 * Removes all entries.
+	 */
+	public void clear() {
+		Arrays.fill(fKeys, 0, fSize, null);
+		Arrays.fill(fValues, 0, fSize, null);
+		Arrays.fill(fSlots, 0);
+		fSize = 0;
+	}
+
+	/**
+	 * Returns the key of the entry with the given index, or {@code null} if the index is out
+	 * of range.
+	 */
+	public char[] keyAt(int i) {
+		if (i < 0 || i >= fSize)
+			return null;
+		return fKeys[i];
+	}
+
+	/**
+	 * Returns the value of the entry with the given index, or {@code null} if the index is out
+	 * of range.
+	 */
+	@SuppressWarnings("unchecked")
+	public V getAt(int i) {
+		if (i < 0 || i >= fSize)
+			return null;
+		return (V) fValues[i];
+	}
+
+	/**
+	 * Returns the keys of the map.
+	 */
+	public char[][] keys() {
+		return Arrays.copyOf(fKeys, fSize);
+	}
+
+	/**
+	 * Returns an unmodifiable view of the values in the map. The view reflects subsequent
+	 * changes of the map.
+	 */
+	public List<V> values() {
+		return new AbstractList<V>() {
+			@Override
+			public V get(int index) {
+				if (index < 0 || index >= fSize)
+					throw new IndexOutOfBoundsException(String.valueOf(index));
+				return getAt(index);
+			}
+
+			@Override
+			public int size() {
+				return fSize;
+			}
+		};
+	}
+
+	@Override
+	public String toString() {
+		StringBuilder buf = new StringBuilder();
+		buf.append('{');
+		for (int i = 0; i < fSize; i++) {
+			if (i != 0)
+				buf.append(", "); //$NON-NLS-1$
+			buf.append(fKeys[i]).append('=').append(fValues[i]);
+		}
+		buf.append('}');
+		return buf.toString();
+	}
+}
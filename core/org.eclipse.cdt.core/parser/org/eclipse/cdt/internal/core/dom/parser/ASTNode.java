@@ -76,6 +76,13 @@ public abstract class ASTNode implements IASTNode {
 		frozen = true;
 	}
 
+	/**
+	 * Allows for modifying a frozen node, the caller has to have exclusive access to the AST.
+	 */
+	void setIsMutable() {
+		frozen = false;
+	}
+
 	public void setInactive() {
 		assertNotFrozen();
 		active = false;
@@ -137,17 +144,26 @@ public abstract class ASTNode implements IASTNode {
 	@Override
 	public IASTNodeLocation[] getNodeLocations() {
 		if (locations == null) {
+			IASTNodeLocation[] result = null;
 			if (length != 0) {
 				final IASTTranslationUnit tu = getTranslationUnit();
 				if (tu != null) {
 					ILocationResolver l = tu.getAdapter(ILocationResolver.class);
 					if (l != null) {
-						locations = l.getLocations(getOffset(), length);
+						result = l.getLocations(getOffset(), length);
 					}
 				}
 			}
-			if (locations == null)
-				locations = IASTNodeLocation.EMPTY_ARRAY;
+			if (result == null) {
+				result = IASTNodeLocation.EMPTY_ARRAY;
+			} else if (result.length == 1 && result[0] instanceof IASTFileLocation) {
+				// The node keeps a single object for its file location.
+				final IASTFileLocation floc = getFileLocation();
+				if (floc != null && floc.equals(result[0])) {
+					result[0] = floc;
+				}
+			}
+			locations = result;
 		}
 		return locations;
 	}
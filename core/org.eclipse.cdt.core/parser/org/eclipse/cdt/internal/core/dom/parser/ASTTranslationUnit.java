@@ -476,13 +476,7 @@ public abstract class ASTTranslationUnit extends ASTNode implements IASTTranslat
 
 	@Override
 	public final void freeze() {
-		accept(new ASTGenericVisitor(true) {
-			@Override
-			protected int genericVisit(IASTNode node) {
-				((ASTNode) node).setIsFrozen();
-				return PROCESS_CONTINUE;
-			}
-		});
+		freeze(this);
 
 		if (IndexFileSet.sDEBUG && fIndexFileSet != null && fASTFileSet != null) {
 			long t = ((IndexFileSet) fIndexFileSet).getTimingContainsDeclarationNanos()
@@ -493,6 +487,23 @@ public abstract class ASTTranslationUnit extends ASTNode implements IASTTranslat
 		}
 	}
 
+	/**
+	 * Makes the given subtree of this translation unit immutable. The root of the subtree is frozen
+	 * after its descendants, such that a frozen translation unit indicates a complete AST.
+	 */
+	public final void freeze(IASTNode node) {
+		node.accept(new ASTGenericVisitor(true) {
+			@Override
+			protected int genericVisit(IASTNode n) {
+				if (n != node) {
+					((ASTNode) n).setIsFrozen();
+				}
+				return PROCESS_CONTINUE;
+			}
+		});
+		((ASTNode) node).setIsFrozen();
+	}
+
 	@Override
 	public ITranslationUnit getOriginatingTranslationUnit() {
 		return fOriginatingTranslationUnit;
@@ -701,6 +701,46 @@ public abstract class AbstractGNUSourceCodeParser implements ISourceCodeParser {
 		return ast;
 	}
 
+	/**
+	 * Parses the body of a function definition of an existing translation unit. The scanner
+	 * has to provide the same tokens as the ones the translation unit was created from, up to
+	 * the opening brace of the body. Preprocessor nodes are added to the given translation unit.
+	 * <p>
+	 * Ambiguities of the body are not resolved.
+	 *
+	 * @param ast the translation unit containing the function definition.
+	 * @param offset the sequence number of the opening brace of the body.
+	 * @return the body, or <code>null</code> if the opening brace is not found at the given offset
+	 *     or the body cannot be parsed.
+	 */
+	public IASTCompoundStatement parseFunctionBody(IASTTranslationUnit ast, int offset) {
+		try {
+			setupTranslationUnit();
+			getTranslationUnit().getAdapter(ILocationResolver.class).setRootNode(ast);
+
+			// Inactive code is not skipped, such that the same preprocessor nodes are
+			// created as when parsing the translation unit.
+			IToken t = nextToken(false);
+			while (t.getOffset() < offset) {
+				checkForEOI(t);
+				nextToken = t.getNext();
+				t = nextToken(false);
+			}
+			if (t.getOffset() != offset || t.getType() != IToken.tLBRACE)
+				return null;
+			return functionBody();
+		} catch (EndOfFileException e) {
+			return null;
+		} catch (BacktrackException e) {
+			return null;
+		} catch (Exception e) {
+			logException("parseFunctionBody", e); //$NON-NLS-1$
+			return null;
+		} finally {
+			nullifyTranslationUnit();
+		}
+	}
+
 	protected void resolveAmbiguities() {
 		final IASTTranslationUnit translationUnit = getTranslationUnit();
 		if (translationUnit instanceof ASTTranslationUnit) {
@@ -0,0 +1,553 @@
+/*******************************************************************************
+ * Copyright (c) 2026 Eclipse CDT contributors and others.
+ *
+ * This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License 2.0
+ * which accompanies this distribution, and is available at
+ * https://www.eclipse.org/legal/epl-2.0/
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ *******************************************************************************/
+package org.eclipse.cdt.internal.core.dom.parser;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Objects;
+
+import org.eclipse.cdt.core.dom.ast.ASTGenericVisitor;
+import org.eclipse.cdt.core.dom.ast.ASTVisitor;
+import org.eclipse.cdt.core.dom.ast.IASTCompoundStatement;
+import org.eclipse.cdt.core.dom.ast.IASTDeclSpecifier;
+import org.eclipse.cdt.core.dom.ast.IASTDeclaration;
+import org.eclipse.cdt.core.dom.ast.IASTDeclarationListOwner;
+import org.eclipse.cdt.core.dom.ast.IASTDeclarationStatement;
+import org.eclipse.cdt.core.dom.ast.IASTDeclarator;
+import org.eclipse.cdt.core.dom.ast.IASTFileLocation;
+import org.eclipse.cdt.core.dom.ast.IASTFunctionDeclarator;
+import org.eclipse.cdt.core.dom.ast.IASTLabelStatement;
+import org.eclipse.cdt.core.dom.ast.IASTName;
+import org.eclipse.cdt.core.dom.ast.IASTNode;
+import org.eclipse.cdt.core.dom.ast.IASTPreprocessorElifStatement;
+import org.eclipse.cdt.core.dom.ast.IASTPreprocessorElseStatement;
+import org.eclipse.cdt.core.dom.ast.IASTPreprocessorIfStatement;
+import org.eclipse.cdt.core.dom.ast.IASTPreprocessorIfdefStatement;
+import org.eclipse.cdt.core.dom.ast.IASTPreprocessorIfndefStatement;
+import org.eclipse.cdt.core.dom.ast.IASTPreprocessorIncludeStatement;
+import org.eclipse.cdt.core.dom.ast.IASTPreprocessorMacroDefinition;
+import org.eclipse.cdt.core.dom.ast.IASTPreprocessorMacroExpansion;
+import org.eclipse.cdt.core.dom.ast.IASTPreprocessorStatement;
+import org.eclipse.cdt.core.dom.ast.IASTSimpleDeclSpecifier;
+import org.eclipse.cdt.core.dom.ast.IASTSimpleDeclaration;
+import org.eclipse.cdt.core.dom.ast.IASTStatement;
+import org.eclipse.cdt.core.dom.ast.IASTTranslationUnit;
+import org.eclipse.cdt.core.dom.ast.cpp.ICPPASTDeclSpecifier;
+import org.eclipse.cdt.core.dom.ast.cpp.ICPPASTFunctionDefinition;
+import org.eclipse.cdt.core.dom.ast.cpp.ICPPASTFunctionWithTryBlock;
+import org.eclipse.cdt.core.dom.ast.cpp.ICPPASTLinkageSpecification;
+import org.eclipse.cdt.core.dom.ast.cpp.ICPPASTNamespaceDefinition;
+import org.eclipse.cdt.core.parser.EndOfFileException;
+import org.eclipse.cdt.core.parser.FileContent;
+import org.eclipse.cdt.core.parser.IScanner;
+import org.eclipse.cdt.core.parser.ISignificantMacros;
+import org.eclipse.cdt.core.parser.util.CharArrayUtils;
+import org.eclipse.cdt.internal.core.dom.parser.cpp.CPPASTTranslationUnit;
+import org.eclipse.cdt.internal.core.parser.scanner.AbstractCharArray;
+import org.eclipse.cdt.internal.core.parser.scanner.ILocationResolver;
+import org.eclipse.cdt.internal.core.parser.scanner.InternalFileContent;
+
+/**
+ * Updates a C++ translation unit after an edit that is confined to the body of a single function
+ * definition. The file is preprocessed again, but only the body of the function is parsed. The nodes
+ * following the body are moved by the change of the sequence numbers and the location resolver of
+ * the translation unit is replaced by the one of the new preprocessor run.
+ * <p>
+ * The update is rejected whenever the result could differ from the AST obtained by parsing the
+ * file, in that case the caller has to parse the file.
+ */
+public class FunctionBodyReparser {
+	private static final char[] COUNTER = "__COUNTER__".toCharArray(); //$NON-NLS-1$
+	private static final char[] LINE = "__LINE__".toCharArray(); //$NON-NLS-1$
+
+	private final CPPASTTranslationUnit fAST;
+	private final ILocationResolver fOldMap;
+	private final String fFilePath;
+	// The changed region of the file, the end offset refers to the old source.
+	private final int fChangeOffset;
+	private final int fChangeEndOffset;
+	private final int fDelta;
+	private final boolean fLineCountChanged;
+	// The function containing the change, or null if the content is unchanged.
+	private final ICPPASTFunctionDefinition fFunction;
+	private final ASTNode fOldBody;
+	private final int fBodyOffset;
+	private final int fBodyEndOffset;
+
+	private FunctionBodyReparser(CPPASTTranslationUnit ast, ILocationResolver map, int changeOffset,
+			int changeEndOffset, int delta, boolean lineCountChanged, ICPPASTFunctionDefinition function,
+			int bodyOffset, int bodyEndOffset) {
+		fAST = ast;
+		fOldMap = map;
+		fFilePath = map.getTranslationUnitPath();
+		fChangeOffset = changeOffset;
+		fChangeEndOffset = changeEndOffset;
+		fDelta = delta;
+		fLineCountChanged = lineCountChanged;
+		fFunction = function;
+		fOldBody = function == null ? null : (ASTNode) function.getBody();
+		fBodyOffset = bodyOffset;
+		fBodyEndOffset = bodyEndOffset;
+	}
+
+	/**
+	 * Creates a reparser for updating the given translation unit to the given content of its file.
+	 * @return a reparser, or <code>null</code> if the change is not confined to the body of a function
+	 *     that can be parsed separately.
+	 */
+	public static FunctionBodyReparser create(IASTTranslationUnit ast, FileContent content) {
+		if (!(ast instanceof CPPASTTranslationUnit) || !(content instanceof InternalFileContent))
+			return null;
+
+		final ILocationResolver map = ast.getAdapter(ILocationResolver.class);
+		final AbstractCharArray newSource = ((InternalFileContent) content).getSource();
+		if (map == null || newSource == null || newSource.hasError()
+				|| !Objects.equals(map.getTranslationUnitPath(), content.getFileLocation())) {
+			return null;
+		}
+		final AbstractCharArray oldSource = map.getTranslationUnitSource();
+		if (oldSource == null || oldSource.hasError())
+			return null;
+
+		final int oldLength = oldSource.getLength();
+		final int newLength = newSource.getLength();
+		final int minLength = Math.min(oldLength, newLength);
+		int prefix = 0;
+		while (prefix < minLength && oldSource.get(prefix) == newSource.get(prefix)) {
+			prefix++;
+		}
+		int suffix = 0;
+		while (suffix < minLength - prefix
+				&& oldSource.get(oldLength - suffix - 1) == newSource.get(newLength - suffix - 1)) {
+			suffix++;
+		}
+		final CPPASTTranslationUnit tu = (CPPASTTranslationUnit) ast;
+		if (prefix == oldLength && prefix == newLength) {
+			// The content is unchanged, still the preprocessor has to be run to check the includes.
+			return new FunctionBodyReparser(tu, map, oldLength, oldLength, 0, false, null, 0, 0);
+		}
+
+		final int changeEndOffset = oldLength - suffix;
+		final int newChangeEndOffset = newLength - suffix;
+		IASTDeclaration decl = findDeclaration(ast, map, prefix, changeEndOffset);
+		if (!(decl instanceof ICPPASTFunctionDefinition) || decl instanceof ICPPASTFunctionWithTryBlock)
+			return null;
+
+		final ICPPASTFunctionDefinition function = (ICPPASTFunctionDefinition) decl;
+		if (!function.isActive() || !canReparse(function.getDeclSpecifier()))
+			return null;
+		final IASTStatement body = function.getBody();
+		if (!(body instanceof IASTCompoundStatement) || !canReparse(body))
+			return null;
+
+		final ASTNode bodyNode = (ASTNode) body;
+		final IASTFileLocation loc = map.getMappedFileLocation(bodyNode.getOffset(), bodyNode.getLength());
+		if (loc == null || !Objects.equals(loc.getFileName(), map.getTranslationUnitPath()))
+			return null;
+		final int bodyOffset = loc.getNodeOffset();
+		final int bodyEndOffset = bodyOffset + loc.getNodeLength();
+		if (bodyOffset >= prefix || changeEndOffset >= bodyEndOffset || oldSource.get(bodyOffset) != '{'
+				|| oldSource.get(bodyEndOffset - 1) != '}') {
+			return null;
+		}
+
+		final boolean lineCountChanged = countLines(oldSource, prefix, changeEndOffset) != countLines(newSource,
+				prefix, newChangeEndOffset);
+		return new FunctionBodyReparser(tu, map, prefix, changeEndOffset, newLength - oldLength, lineCountChanged,
+				function, bodyOffset, bodyEndOffset);
+	}
+
+	/**
+	 * Returns the declaration of the root file that encloses the given range, nested declarations
+	 * of namespaces and linkage specifications are searched.
+	 */
+	private static IASTDeclaration findDeclaration(IASTDeclarationListOwner owner, ILocationResolver map, int offset,
+			int endOffset) {
+		for (IASTDeclaration decl : owner.getDeclarations(true)) {
+			final ASTNode node = (ASTNode) decl;
+			final IASTFileLocation loc = map.getMappedFileLocation(node.getOffset(), node.getLength());
+			if (loc == null || !Objects.equals(loc.getFileName(), map.getTranslationUnitPath()))
+				continue;
+			final int declOffset = loc.getNodeOffset();
+			if (declOffset > offset)
+				return null;
+			if (declOffset + loc.getNodeLength() < endOffset)
+				continue;
+			if (decl instanceof ICPPASTNamespaceDefinition || decl instanceof ICPPASTLinkageSpecification) {
+				if (!decl.isActive())
+					return null;
+				return findDeclaration((IASTDeclarationListOwner) decl, map, offset, endOffset);
+			}
+			return decl;
+		}
+		return null;
+	}
+
+	/**
+	 * Checks whether the body of a function with the given declaration specifier can be replaced
+	 * without affecting the rest of the translation unit. The body of a constexpr function may
+	 * be evaluated and the one of a function with deduced return type determines its type.
+	 */
+	private static boolean canReparse(IASTDeclSpecifier declSpec) {
+		if (declSpec instanceof ICPPASTDeclSpecifier && ((ICPPASTDeclSpecifier) declSpec).isConstexpr())
+			return false;
+		if (declSpec instanceof IASTSimpleDeclSpecifier) {
+			final int type = ((IASTSimpleDeclSpecifier) declSpec).getType();
+			return type != IASTSimpleDeclSpecifier.t_auto && type != IASTSimpleDeclSpecifier.t_decltype_auto;
+		}
+		return true;
+	}
+
+	/**
+	 * Checks whether the given function body can be replaced without affecting the rest of the
+	 * translation unit. Labels are cached by the function scope, block scope declarations of
+	 * functions and external variables are added to bindings outside of the body.
+	 */
+	private static boolean canReparse(IASTStatement body) {
+		final boolean[] result = { true };
+		body.accept(new ASTVisitor() {
+			{
+				includeInactiveNodes = true;
+				shouldVisitStatements = true;
+				shouldVisitDeclarations = true;
+			}
+
+			@Override
+			public int visit(IASTStatement statement) {
+				if (statement instanceof IASTLabelStatement) {
+					result[0] = false;
+					return PROCESS_ABORT;
+				}
+				return PROCESS_CONTINUE;
+			}
+
+			@Override
+			public int visit(IASTDeclaration declaration) {
+				if (declaration instanceof IASTSimpleDeclaration
+						&& declaration.getParent() instanceof IASTDeclarationStatement) {
+					final IASTSimpleDeclaration decl = (IASTSimpleDeclaration) declaration;
+					if (decl.getDeclSpecifier().getStorageClass() == IASTDeclSpecifier.sc_extern) {
+						result[0] = false;
+						return PROCESS_ABORT;
+					}
+					for (IASTDeclarator dtor : decl.getDeclarators()) {
+						if (ASTQueries.findTypeRelevantDeclarator(dtor) instanceof IASTFunctionDeclarator) {
+							result[0] = false;
+							return PROCESS_ABORT;
+						}
+					}
+				}
+				return PROCESS_CONTINUE;
+			}
+		});
+		return result[0];
+	}
+
+	private static int countLines(AbstractCharArray source, int offset, int endOffset) {
+		int count = 0;
+		for (int i = offset; i < endOffset; i++) {
+			if (source.get(i) == '\n')
+				count++;
+		}
+		return count;
+	}
+
+	/**
+	 * Preprocesses the file with the given scanner, parses the body of the changed function with the
+	 * given parser and updates the translation unit. The scanner and the parser need to be configured
+	 * the same way as the ones that created the translation unit.
+	 *
+	 * @return whether the translation unit has been updated, if not it has been left unchanged.
+	 */
+	public boolean reparse(IScanner scanner, AbstractGNUSourceCodeParser parser) {
+		try {
+			if (!fAST.tryBeginExclusiveAccess(0))
+				return false;
+		} catch (InterruptedException e) {
+			return false;
+		}
+
+		final int oldLength = fAST.getLength();
+		final ISignificantMacros oldSignificantMacros = fAST.getSignificantMacros();
+		boolean updated = false;
+		// The preprocessor reports the length and the significant macros to the translation unit.
+		((ASTNode) fAST).setIsMutable();
+		try {
+			final ILocationResolver newMap = scanner.getLocationResolver();
+			ASTNode newBody = null;
+			if (fFunction != null) {
+				newBody = (ASTNode) parser.parseFunctionBody(fAST, fOldBody.getOffset());
+				if (newBody == null)
+					return false;
+			} else {
+				newMap.setRootNode(fAST);
+			}
+			try {
+				while (true) {
+					scanner.nextToken();
+				}
+			} catch (EndOfFileException e) {
+				// The file has been preprocessed.
+			}
+
+			final int newLength = fAST.getLength();
+			final ISignificantMacros newSignificantMacros = fAST.getSignificantMacros();
+			fAST.setLength(oldLength);
+			fAST.setSignificantMacros(oldSignificantMacros);
+
+			final int oldBodyEnd = fOldBody == null ? oldLength : fOldBody.getOffset() + fOldBody.getLength();
+			final int shift = newBody == null ? 0 : newBody.getOffset() + newBody.getLength() - oldBodyEnd;
+			if (newLength != oldLength + shift || !matches(newMap, newBody, oldBodyEnd, shift))
+				return false;
+
+			if (newBody != null) {
+				replaceBody(newMap, newBody, oldBodyEnd, shift);
+				fAST.setLength(newLength);
+				fAST.setSignificantMacros(newSignificantMacros);
+			}
+			updated = true;
+			return true;
+		} finally {
+			if (!updated) {
+				fAST.setLength(oldLength);
+				fAST.setSignificantMacros(oldSignificantMacros);
+			}
+			((ASTNode) fAST).setIsFrozen();
+			fAST.endExclusiveAccess();
+		}
+	}
+
+	/**
+	 * Checks whether the new run of the preprocessor yields the same result outside of the function
+	 * body as the one the translation unit was created from.
+	 */
+	private boolean matches(ILocationResolver newMap, ASTNode newBody, int oldBodyEnd, int shift) {
+		if (newBody != null) {
+			final IASTFileLocation loc = newMap.getMappedFileLocation(newBody.getOffset(), newBody.getLength());
+			if (loc == null || !fFilePath.equals(loc.getFileName()) || loc.getNodeOffset() != fBodyOffset
+					|| loc.getNodeLength() != fBodyEndOffset + fDelta - fBodyOffset) {
+				return false;
+			}
+			if (!canReparse((IASTStatement) newBody))
+				return false;
+		}
+
+		final IASTPreprocessorMacroDefinition[] oldBuiltins = fOldMap.getBuiltinMacroDefinitions();
+		final IASTPreprocessorMacroDefinition[] newBuiltins = newMap.getBuiltinMacroDefinitions();
+		if (oldBuiltins.length != newBuiltins.length)
+			return false;
+		for (int i = 0; i < oldBuiltins.length; i++) {
+			if (!CharArrayUtils.equals(oldBuiltins[i].getName().toCharArray(), newBuiltins[i].getName().toCharArray())
+					|| !Objects.equals(oldBuiltins[i].getExpansion(), newBuiltins[i].getExpansion())) {
+				return false;
+			}
+		}
+
+		final IASTPreprocessorStatement[] oldDirectives = fOldMap.getAllPreprocessorStatements();
+		final IASTPreprocessorStatement[] newDirectives = newMap.getAllPreprocessorStatements();
+		if (oldDirectives.length != newDirectives.length)
+			return false;
+		final int changeSequenceNumber = fFunction == null ? Integer.MAX_VALUE
+				: fOldMap.getSequenceNumberForFileOffset(null, fChangeOffset);
+		if (changeSequenceNumber < 0)
+			return false;
+		for (int i = 0; i < oldDirectives.length; i++) {
+			final IASTPreprocessorStatement oldDirective = oldDirectives[i];
+			final IASTPreprocessorStatement newDirective = newDirectives[i];
+			if (oldDirective.getClass() != newDirective.getClass()
+					|| oldDirective.isActive() != newDirective.isActive()
+					|| isTaken(oldDirective) != isTaken(newDirective)
+					|| !matches(newMap, (ASTNode) oldDirective, (ASTNode) newDirective, changeSequenceNumber,
+							oldBodyEnd, shift)) {
+				return false;
+			}
+			if (oldDirective instanceof IASTPreprocessorIncludeStatement) {
+				final IASTPreprocessorIncludeStatement oldInclude = (IASTPreprocessorIncludeStatement) oldDirective;
+				final IASTPreprocessorIncludeStatement newInclude = (IASTPreprocessorIncludeStatement) newDirective;
+				if (!Objects.equals(oldInclude.getPath(), newInclude.getPath())
+						|| oldInclude.isResolved() != newInclude.isResolved()
+						|| oldInclude.createsAST() != newInclude.createsAST()
+						|| oldInclude.getIncludedFileContentsHash() != newInclude.getIncludedFileContentsHash()
+						|| !Objects.equals(oldInclude.getImportedIndexFile(), newInclude.getImportedIndexFile())) {
+					return false;
+				}
+			}
+		}
+
+		final int oldLength = fAST.getLength();
+		final List<IASTPreprocessorMacroExpansion> oldExpansions = getMacroExpansions(fOldMap, oldLength, 0);
+		final List<IASTPreprocessorMacroExpansion> newExpansions = getMacroExpansions(newMap, oldLength + shift,
+				fDelta);
+		if (oldExpansions == null || newExpansions == null || oldExpansions.size() != newExpansions.size())
+			return false;
+		for (int i = 0; i < oldExpansions.size(); i++) {
+			final IASTPreprocessorMacroExpansion oldExpansion = oldExpansions.get(i);
+			final IASTPreprocessorMacroExpansion newExpansion = newExpansions.get(i);
+			if (!CharArrayUtils.equals(oldExpansion.getMacroReference().toCharArray(),
+					newExpansion.getMacroReference().toCharArray())
+					|| !matches(newMap, (ASTNode) oldExpansion, (ASTNode) newExpansion, changeSequenceNumber,
+							oldBodyEnd, shift)) {
+				return false;
+			}
+		}
+		return true;
+	}
+
+	/**
+	 * Checks whether a preprocessor node of the new run corresponds to the one of the old run.
+	 */
+	private boolean matches(ILocationResolver newMap, ASTNode oldNode, ASTNode newNode, int changeSequenceNumber,
+			int oldBodyEnd, int shift) {
+		final int oldOffset = oldNode.getOffset();
+		final int newOffset = newNode.getOffset();
+		if (oldOffset < changeSequenceNumber) {
+			if (newOffset != oldOffset)
+				return false;
+		} else if (oldOffset >= oldBodyEnd) {
+			if (newOffset != oldOffset + shift)
+				return false;
+		}
+
+		final IASTFileLocation oldLoc = fOldMap.getMappedFileLocation(oldOffset, oldNode.getLength());
+		final IASTFileLocation newLoc = newMap.getMappedFileLocation(newOffset, newNode.getLength());
+		if (oldLoc == null || newLoc == null || !Objects.equals(oldLoc.getFileName(), newLoc.getFileName())
+				|| oldLoc.getNodeLength() != newLoc.getNodeLength()) {
+			return false;
+		}
+		int expectedOffset = oldLoc.getNodeOffset();
+		if (fFilePath.equals(oldLoc.getFileName())) {
+			if (expectedOffset >= fChangeEndOffset) {
+				expectedOffset += fDelta;
+			} else if (expectedOffset + oldLoc.getNodeLength() > fChangeOffset) {
+				return false;
+			}
+		}
+		return newLoc.getNodeOffset() == expectedOffset;
+	}
+
+	/**
+	 * Returns the macro expansions of the root file outside of the changed function body, or
+	 * <code>null</code> if the change of the body may affect the expansions.
+	 */
+	private List<IASTPreprocessorMacroExpansion> getMacroExpansions(ILocationResolver map, int sequenceLength,
+			int delta) {
+		final IASTFileLocation fileLoc = map.getMappedFileLocation(0, sequenceLength);
+		final List<IASTPreprocessorMacroExpansion> result = new ArrayList<>();
+		if (fileLoc == null)
+			return result;
+		final int bodyEndOffset = fBodyEndOffset + delta;
+		for (IASTPreprocessorMacroExpansion expansion : map.getMacroExpansions(fileLoc)) {
+			final ASTNode node = (ASTNode) expansion;
+			final IASTFileLocation loc = map.getMappedFileLocation(node.getOffset(), node.getLength());
+			if (loc == null)
+				return null;
+			final int offset = loc.getNodeOffset();
+			final boolean inBody = fFunction != null && offset >= fBodyOffset && offset < bodyEndOffset;
+			if (inBody) {
+				if (references(expansion, COUNTER))
+					return null;
+			} else {
+				if (fLineCountChanged && offset >= bodyEndOffset && references(expansion, LINE))
+					return null;
+				result.add(expansion);
+			}
+		}
+		return result;
+	}
+
+	private static boolean references(IASTPreprocessorMacroExpansion expansion, char[] macro) {
+		if (CharArrayUtils.equals(expansion.getMacroReference().toCharArray(), macro))
+			return true;
+		for (IASTName name : expansion.getNestedMacroReferences()) {
+			if (CharArrayUtils.equals(name.toCharArray(), macro))
+				return true;
+		}
+		return false;
+	}
+
+	private static boolean isTaken(IASTPreprocessorStatement statement) {
+		if (statement instanceof IASTPreprocessorIfStatement)
+			return ((IASTPreprocessorIfStatement) statement).taken();
+		if (statement instanceof IASTPreprocessorIfdefStatement)
+			return ((IASTPreprocessorIfdefStatement) statement).taken();
+		if (statement instanceof IASTPreprocessorIfndefStatement)
+			return ((IASTPreprocessorIfndefStatement) statement).taken();
+		if (statement instanceof IASTPreprocessorElifStatement)
+			return ((IASTPreprocessorElifStatement) statement).taken();
+		if (statement instanceof IASTPreprocessorElseStatement)
+			return ((IASTPreprocessorElseStatement) statement).taken();
+		return false;
+	}
+
+	/**
+	 * Replaces the body of the function, moves the nodes following it by the given shift of sequence
+	 * numbers and installs the new location resolver.
+	 */
+	private void replaceBody(ILocationResolver newMap, ASTNode newBody, final int oldBodyEnd, final int shift) {
+		// Implicit names are computed lazily from the offsets of the nodes, compute them before the
+		// nodes are moved.
+		fAST.accept(new NodesAfterBodyVisitor(oldBodyEnd) {
+			@Override
+			protected int visitNode(ASTNode node) {
+				return PROCESS_CONTINUE;
+			}
+		});
+		fAST.accept(new NodesAfterBodyVisitor(oldBodyEnd) {
+			@Override
+			protected int visitNode(ASTNode node) {
+				final int offset = node.getOffset();
+				final int length = node.getLength();
+				if (offset >= oldBodyEnd) {
+					node.setOffsetAndLength(offset + shift, length);
+				} else {
+					node.setOffsetAndLength(offset, length + shift);
+				}
+				return PROCESS_CONTINUE;
+			}
+		});
+		fAST.setLocationResolver(newMap);
+
+		final ASTNode function = (ASTNode) fFunction;
+		function.setIsMutable();
+		fFunction.setBody((IASTStatement) newBody);
+		function.setIsFrozen();
+		fAST.resolveAmbiguities(newBody);
+		fAST.freeze(newBody);
+	}
+
+	/**
+	 * Visits the nodes of the translation unit that end at or after the old function body,
+	 * except for the nodes of the body.
+	 */
+	private abstract class NodesAfterBodyVisitor extends ASTGenericVisitor {
+		private final int fOldBodyEnd;
+
+		NodesAfterBodyVisitor(int oldBodyEnd) {
+			super(true);
+			fOldBodyEnd = oldBodyEnd;
+			includeInactiveNodes = true;
+			shouldVisitImplicitNames = true;
+			shouldVisitImplicitNameAlternates = true;
+			shouldVisitImplicitDestructorNames = true;
+			shouldVisitTokens = true;
+		}
+
+		@Override
+		protected int genericVisit(IASTNode n) {
+			final ASTNode node = (ASTNode) n;
+			if (node == fOldBody || node.getOffset() + node.getLength() < fOldBodyEnd)
+				return PROCESS_SKIP;
+			return visitNode(node);
+		}
+
+		protected abstract int visitNode(ASTNode node);
+	}
+}
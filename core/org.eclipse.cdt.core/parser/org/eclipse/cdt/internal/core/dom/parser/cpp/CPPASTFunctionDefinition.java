@@ -19,6 +19,7 @@ import java.util.HashSet;
 import java.util.Set;
 
 import org.eclipse.cdt.core.dom.ast.ASTVisitor;
+import org.eclipse.cdt.core.dom.ast.IASTCompoundStatement;
 import org.eclipse.cdt.core.dom.ast.IASTDeclSpecifier;
 import org.eclipse.cdt.core.dom.ast.IASTDeclarator;
 import org.eclipse.cdt.core.dom.ast.IASTFunctionDeclarator;
@@ -27,6 +28,7 @@ import org.eclipse.cdt.core.dom.ast.IASTImplicitNameOwner;
 import org.eclipse.cdt.core.dom.ast.IASTName;
 import org.eclipse.cdt.core.dom.ast.IASTNode;
 import org.eclipse.cdt.core.dom.ast.IASTStatement;
+import org.eclipse.cdt.core.dom.ast.IASTTranslationUnit;
 import org.eclipse.cdt.core.dom.ast.IBinding;
 import org.eclipse.cdt.core.dom.ast.IScope;
 import org.eclipse.cdt.core.dom.ast.IType;
@@ -50,6 +52,8 @@ public class CPPASTFunctionDefinition extends CPPASTAttributeOwner
 	private IASTDeclSpecifier declSpecifier;
 	private IASTFunctionDeclarator declarator;
 	private IASTStatement bodyStatement;
+	private volatile LazyFunctionBody lazyBody;
+	private boolean parsingLazyBody;
 	private ICPPASTConstructorChainInitializer[] memInits;
 	private IASTImplicitName[] implicitNames; // for constructors: base constructors called implicitly
 	private int memInitPos = -1;
@@ -82,7 +86,8 @@ public class CPPASTFunctionDefinition extends CPPASTAttributeOwner
 			copy.setDeclarator((IASTFunctionDeclarator) ASTQueries.findTypeRelevantDeclarator(outer));
 		}
 
-		copy.setBody(bodyStatement == null ? null : bodyStatement.copy(style));
+		IASTStatement body = getBody();
+		copy.setBody(body == null ? null : body.copy(style));
 
 		for (ICPPASTConstructorChainInitializer initializer : getMemberInitializers()) {
 			copy.addMemberInitializer(initializer == null ? null : initializer.copy(style));
@@ -126,12 +131,15 @@ public class CPPASTFunctionDefinition extends CPPASTAttributeOwner
 
 	@Override
 	public IASTStatement getBody() {
+		if (lazyBody != null)
+			parseLazyBody();
 		return bodyStatement;
 	}
 
 	@Override
 	public void setBody(IASTStatement statement) {
 		assertNotFrozen();
+		lazyBody = null;
 		bodyStatement = statement;
 		if (statement != null) {
 			statement.setParent(this);
@@ -139,6 +147,44 @@ public class CPPASTFunctionDefinition extends CPPASTAttributeOwner
 		}
 	}
 
+	/**
+	 * Sets a placeholder for a function body that is parsed on demand.
+	 */
+	void setLazyBody(IASTCompoundStatement placeholder, LazyFunctionBody body) {
+		setBody(placeholder);
+		lazyBody = body;
+	}
+
+	/**
+	 * Replaces the placeholder of a lazily parsed body with the actual body. This is done once the
+	 * translation unit is complete and frozen, until then the placeholder is used.
+	 */
+	private synchronized void parseLazyBody() {
+		final LazyFunctionBody body = lazyBody;
+		// Name resolution in the body may ask for the body while its ambiguities are resolved.
+		if (body == null || parsingLazyBody)
+			return;
+		final IASTTranslationUnit tu = getTranslationUnit();
+		if (!(tu instanceof CPPASTTranslationUnit) || !tu.isFrozen())
+			return;
+
+		final CPPASTTranslationUnit ast = (CPPASTTranslationUnit) tu;
+		parsingLazyBody = true;
+		try {
+			final IASTCompoundStatement statement = body.parse(ast, ((ASTNode) bodyStatement).getOffset());
+			if (statement != null) {
+				statement.setParent(this);
+				statement.setPropertyInParent(FUNCTION_BODY);
+				bodyStatement = statement;
+				ast.resolveAmbiguities(statement);
+				ast.freeze(statement);
+			}
+		} finally {
+			parsingLazyBody = false;
+			lazyBody = null;
+		}
+	}
+
 	@Override
 	public void addMemberInitializer(ICPPASTConstructorChainInitializer initializer) {
 		assertNotFrozen();
@@ -222,7 +268,8 @@ public class CPPASTFunctionDefinition extends CPPASTAttributeOwner
 			}
 		}
 
-		if (bodyStatement != null && !bodyStatement.accept(action))
+		final IASTStatement body = getBody();
+		if (body != null && !body.accept(action))
 			return false;
 
 		if (!acceptCatchHandlers(action))
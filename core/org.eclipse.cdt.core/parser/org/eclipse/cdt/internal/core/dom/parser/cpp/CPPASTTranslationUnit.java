@@ -44,6 +44,7 @@ import org.eclipse.cdt.internal.core.dom.parser.ASTTranslationUnit;
 import org.eclipse.cdt.internal.core.dom.parser.IASTAmbiguityParent;
 import org.eclipse.cdt.internal.core.dom.parser.cpp.semantics.CPPInheritance.FinalOverriderMap;
 import org.eclipse.cdt.internal.core.dom.parser.cpp.semantics.CPPVisitor;
+import org.eclipse.cdt.internal.core.dom.parser.cpp.semantics.NameLookupCache;
 import org.eclipse.cdt.internal.core.dom.parser.cpp.semantics.TypeInstantiationRequest;
 import org.eclipse.cdt.internal.core.index.IIndexScope;
 import org.eclipse.cdt.internal.core.parser.scanner.InternalFileContent;
@@ -65,6 +66,10 @@ public class CPPASTTranslationUnit extends ASTTranslationUnit implements ICPPAST
 	// template definition, so we wouldn't want to double-cache those. (But we could e.g.
 	// cache instantiations of function types if we found it worthwhile.)
 	private final Map<TypeInstantiationRequest, IType> fInstantiationCache = new HashMap<>();
+	// Cache for the results of calls to constexpr functions without side effects, see EvalFunctionCall.
+	private final Map<Object, ICPPEvaluation> fConstexprCallCache = new HashMap<>();
+	private int fConstexprCallCacheHits;
+	private final NameLookupCache fNameLookupCache = new NameLookupCache();
 
 	public CPPASTTranslationUnit() {
 		fScopeMapper = new CPPScopeMapper(this);
@@ -241,13 +246,27 @@ public class CPPASTTranslationUnit extends ASTTranslationUnit implements ICPPAST
 
 	@Override
 	public void resolveAmbiguities() {
+		resolveAmbiguities(this);
+	}
+
+	/**
+	 * Resolves the ambiguities of the given subtree of this translation unit. Used for nodes that
+	 * are added to the translation unit after it has been parsed.
+	 */
+	public void resolveAmbiguities(IASTNode node) {
+		// Subtrees may be resolved while the ambiguities of another one are being resolved,
+		// e.g. when a deferred function body is parsed.
+		final CPPASTAmbiguityResolver outerResolver = fAmbiguityResolver;
 		fAmbiguityResolver = new CPPASTAmbiguityResolver();
-		accept(fAmbiguityResolver);
-		// During ambiguity resolution, names can incorrectly get stuck with ProblemBindings.
-		// To prevent this, clear all ProblemBindings here, allowing name resolution for
-		// the affected names to be attempted again with a fully ambiguity-resolved AST.
-		accept(new ProblemBindingClearer());
-		fAmbiguityResolver = null;
+		try {
+			node.accept(fAmbiguityResolver);
+			// During ambiguity resolution, names can incorrectly get stuck with ProblemBindings.
+			// To prevent this, clear all ProblemBindings here, allowing name resolution for
+			// the affected names to be attempted again with a fully ambiguity-resolved AST.
+			node.accept(new ProblemBindingClearer());
+		} finally {
+			fAmbiguityResolver = outerResolver;
+		}
 	}
 
 	@Override
@@ -270,6 +289,25 @@ public class CPPASTTranslationUnit extends ASTTranslationUnit implements ICPPAST
 		return fInstantiationCache;
 	}
 
+	public Map<Object, ICPPEvaluation> getConstexprCallCache() {
+		return fConstexprCallCache;
+	}
+
+	public void recordConstexprCallCacheHit() {
+		fConstexprCallCacheHits++;
+	}
+
+	/**
+	 * Returns the number of constexpr function calls whose result has been taken from the cache.
+	 */
+	public int getConstexprCallCacheHits() {
+		return fConstexprCallCacheHits;
+	}
+
+	public NameLookupCache getNameLookupCache() {
+		return fNameLookupCache;
+	}
+
 	public void recordPartialSpecialization(ICPPClassTemplatePartialSpecialization indexSpec,
 			ICPPClassTemplatePartialSpecialization astSpec) {
 		fScopeMapper.recordPartialSpecialization(indexSpec, astSpec);
@@ -263,6 +263,7 @@ public class CPPClassScope extends CPPScope implements ICPPClassScope {
 	private void addConstructor(Object constructor) {
 		if (bindings == null)
 			bindings = new CharArrayObjectMap(1);
+		bindingsModified();
 
 		Object o = bindings.get(CONSTRUCTOR_KEY);
 		if (o != null) {
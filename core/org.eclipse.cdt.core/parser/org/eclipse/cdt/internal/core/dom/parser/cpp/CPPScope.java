@@ -65,6 +65,7 @@ abstract public class CPPScope implements ICPPASTInternalScope {
 	private final IASTNode physicalNode;
 	private boolean isCached = false;
 	protected CharArrayObjectMap<Object> bindings;
+	private int fModificationCount;
 	private ICPPNamespace fIndexNamespace = UNINITIALIZED;
 
 	public static class CPPScopeProblem extends ProblemBinding implements ICPPScope {
@@ -109,6 +110,7 @@ abstract public class CPPScope implements ICPPASTInternalScope {
 		final char[] c = name.getLookupKey();
 		if (c.length == 0)
 			return;
+		bindingsModified();
 		Object o = bindings.get(c);
 		if (o != null) {
 			if (o instanceof ObjectSet) {
@@ -318,6 +320,19 @@ abstract public class CPPScope implements ICPPASTInternalScope {
 		return result;
 	}
 
+	/**
+	 * Returns a counter that changes whenever names or bindings are added to or removed from
+	 * this scope. Used to invalidate the results of name lookups cached for the scope, see
+	 * {@link org.eclipse.cdt.internal.core.dom.parser.cpp.semantics.NameLookupCache}.
+	 */
+	public final int getModificationCount() {
+		return fModificationCount;
+	}
+
+	protected final void bindingsModified() {
+		fModificationCount++;
+	}
+
 	@Override
 	public final void populateCache() {
 		if (!isCached) {
@@ -329,6 +344,7 @@ abstract public class CPPScope implements ICPPASTInternalScope {
 	@Override
 	public void removeNestedFromCache(IASTNode container) {
 		if (bindings != null) {
+			bindingsModified();
 			removeFromMap(bindings, container);
 		}
 	}
@@ -381,6 +397,7 @@ abstract public class CPPScope implements ICPPASTInternalScope {
 		if (c.length == 0) {
 			return;
 		}
+		bindingsModified();
 		Object o = bindings.get(c);
 		if (o != null) {
 			if (o instanceof ObjectSet) {
@@ -185,6 +185,7 @@ import org.eclipse.cdt.internal.core.dom.parser.IASTAmbiguousStatement;
 import org.eclipse.cdt.internal.core.dom.parser.cpp.NameOrTemplateIDVariants.BranchPoint;
 import org.eclipse.cdt.internal.core.dom.parser.cpp.NameOrTemplateIDVariants.Variant;
 import org.eclipse.cdt.internal.core.dom.parser.cpp.semantics.CPPVisitor;
+import org.eclipse.cdt.internal.core.parser.scanner.Token;
 
 /**
  * This is our implementation of the IParser interface, serving as a parser for
@@ -209,9 +210,11 @@ public class GNUCPPSourceParser extends AbstractGNUSourceCodeParser {
 	private final boolean supportGCCStyleDesignators;
 
 	private final IIndex index;
+	private final ICPPParserExtensionConfiguration config;
 	protected ICPPASTTranslationUnit translationUnit;
 
 	private int functionBodyCount;
+	private boolean parseFunctionBodiesLazily;
 	private int templateArgumentNestingDepth = 0;
 	private char[] currentClassName;
 	private char[] additionalNumericalSuffixes;
@@ -241,11 +244,21 @@ public class GNUCPPSourceParser extends AbstractGNUSourceCodeParser {
 		supportAutoTypeSpecifier = true;
 		supportUserDefinedLiterals = config.supportUserDefinedLiterals();
 		this.index = index;
+		this.config = config;
 		scanner.setSplitShiftROperator(true);
 		fContextSensitiveTokens = createContextSensitiveTokenMap(config);
 		additionalNumericalSuffixes = scanner.getAdditionalNumericLiteralSuffixes();
 	}
 
+	/**
+	 * Instructs the parser to skip the bodies of functions by matching braces. The tokens of a skipped
+	 * body are kept with the function definition, the body is parsed when it is first accessed after
+	 * the translation unit has been parsed. Has an effect in {@link ParserMode#COMPLETE_PARSE}, only.
+	 */
+	public void setParseFunctionBodiesLazily(boolean value) {
+		parseFunctionBodiesLazily = value;
+	}
+
 	@Override
 	protected ICPPNodeFactory getNodeFactory() {
 		return (ICPPNodeFactory) super.getNodeFactory();
@@ -3149,8 +3162,13 @@ public class GNUCPPSourceParser extends AbstractGNUSourceCodeParser {
 		}
 
 		try {
-			IASTStatement body = handleFunctionBody();
-			fdef.setBody(body);
+			final IASTStatement body;
+			if (canParseFunctionBodyLazily(fdef)) {
+				body = skipFunctionBodyForLazyParsing((CPPASTFunctionDefinition) fdef);
+			} else {
+				body = handleFunctionBody();
+				fdef.setBody(body);
+			}
 			setRange(fdef, firstOffset, calculateEndOffset(body));
 		} catch (BacktrackException bt) {
 			final IASTNode n = bt.getNodeBeforeProblem();
@@ -5617,6 +5635,74 @@ public class GNUCPPSourceParser extends AbstractGNUSourceCodeParser {
 		return result;
 	}
 
+	/**
+	 * Checks whether the body of the given function definition can be parsed on demand. Bodies of
+	 * constexpr functions and of functions with deduced return types are needed while resolving the
+	 * ambiguities of the translation unit, nested function bodies are parsed with the outer one.
+	 */
+	private boolean canParseFunctionBodyLazily(ICPPASTFunctionDefinition fdef) {
+		if (!parseFunctionBodiesLazily || mode != ParserMode.COMPLETE_PARSE || functionBodyCount > 0
+				|| !isActiveCode() || !(fdef instanceof CPPASTFunctionDefinition)) {
+			return false;
+		}
+		final IASTDeclSpecifier declSpec = fdef.getDeclSpecifier();
+		if (declSpec instanceof ICPPASTDeclSpecifier && ((ICPPASTDeclSpecifier) declSpec).isConstexpr())
+			return false;
+		if (declSpec instanceof IASTSimpleDeclSpecifier) {
+			final int type = ((IASTSimpleDeclSpecifier) declSpec).getType();
+			return type != IASTSimpleDeclSpecifier.t_auto && type != IASTSimpleDeclSpecifier.t_decltype_auto;
+		}
+		return true;
+	}
+
+	/**
+	 * Skips over the function body and stores copies of its tokens with the function definition.
+	 * An empty compound statement is returned as a placeholder for the body.
+	 */
+	private IASTStatement skipFunctionBodyForLazyParsing(CPPASTFunctionDefinition fdef)
+			throws EndOfFileException, BacktrackException {
+		declarationMark = null;
+		final IToken first = LA(1);
+		final IToken last = skipOverCompoundStatement(false);
+		final List<Token> tokens = new ArrayList<>();
+		for (IToken t = first;; t = t.getNext()) {
+			// The copies are not linked to the tokens following the body.
+			final Token copy = ((Token) t).clone();
+			copy.setNext(null);
+			tokens.add(copy);
+			if (t == last)
+				break;
+		}
+		IASTCompoundStatement cs = getNodeFactory().newCompoundStatement();
+		setRange(cs, first.getOffset(), last.getEndOffset());
+		fdef.setLazyBody(cs, new LazyFunctionBody(config, additionalNumericalSuffixes,
+				tokens.toArray(new Token[tokens.size()])));
+		return cs;
+	}
+
+	/**
+	 * Parses a function body from the tokens provided by the scanner, the nodes are created for
+	 * the given translation unit.
+	 *
+	 * @return the function body, or {@code null} if it cannot be parsed.
+	 * @see LazyFunctionBody
+	 */
+	IASTCompoundStatement parseLazyFunctionBody(ICPPASTTranslationUnit ast) {
+		translationUnit = ast;
+		try {
+			return functionBody();
+		} catch (EndOfFileException e) {
+			return null;
+		} catch (BacktrackException e) {
+			return null;
+		} catch (Exception e) {
+			logException("parseLazyFunctionBody", e); //$NON-NLS-1$
+			return null;
+		} finally {
+			nullifyTranslationUnit();
+		}
+	}
+
 	@Override
 	protected IASTCompoundStatement functionBody() throws EndOfFileException, BacktrackException {
 		++functionBodyCount;
@@ -16,12 +16,15 @@
 package org.eclipse.cdt.internal.core.dom.parser.cpp;
 
 import org.eclipse.cdt.core.dom.ast.IASTExpression.ValueCategory;
+import org.eclipse.cdt.core.dom.ast.IASTFileLocation;
+import org.eclipse.cdt.core.dom.ast.IASTNode;
 import org.eclipse.cdt.core.dom.ast.IBinding;
 import org.eclipse.cdt.core.dom.ast.IType;
 import org.eclipse.cdt.core.dom.ast.IValue;
 import org.eclipse.cdt.core.dom.ast.cpp.ICPPTemplateParameterMap;
 import org.eclipse.cdt.internal.core.dom.parser.ITypeMarshalBuffer;
 import org.eclipse.cdt.internal.core.dom.parser.cpp.semantics.ActivationRecord;
+import org.eclipse.cdt.internal.core.dom.parser.cpp.semantics.CPPSemantics;
 import org.eclipse.core.runtime.CoreException;
 
 /**
@@ -100,13 +103,23 @@ public interface ICPPEvaluation {
 	 */
 	public final class ConstexprEvaluationContext {
 		/**
-		 * The maximum number of steps allowed in a single constexpr evaluation.
-		 * This is used to prevent a buggy constexpr function from causing the
-		 * IDE to hang.
+		 * The default for the maximum number of steps allowed in a single constexpr evaluation.
+		 * This is used to prevent a buggy constexpr function from causing the IDE to hang.
 		 */
 		public static final int MAX_CONSTEXPR_EVALUATION_STEPS = 1024;
 
+		/**
+		 * Name of the system property that overrides {@link #MAX_CONSTEXPR_EVALUATION_STEPS}.
+		 */
+		public static final String STEP_LIMIT_PROPERTY = "org.eclipse.cdt.core.parser.constexprStepLimit"; //$NON-NLS-1$
+
+		private static final int sStepLimit = Integer.getInteger(STEP_LIMIT_PROPERTY,
+				MAX_CONSTEXPR_EVALUATION_STEPS);
+
+		public static boolean sDEBUG; // Initialized in the TranslationUnit.
+
 		private int fStepsPerformed;
+		private boolean fStepLimitReported;
 
 		/**
 		 * Constructs a ConstexprEvaluationContext for a new constexpr evaluation.
@@ -131,6 +144,27 @@ public interface ICPPEvaluation {
 		public int getStepsPerformed() {
 			return fStepsPerformed;
 		}
+
+		/**
+		 * Returns whether the evaluation has used up its budget of steps and has to be abandoned.
+		 * With tracing enabled, the first failing check of an evaluation is reported together
+		 * with the given origin, i.e. the function being called or the loop being executed.
+		 */
+		public boolean isStepLimitReached(Object origin) {
+			if (fStepsPerformed < sStepLimit)
+				return false;
+			if (sDEBUG && !fStepLimitReported) {
+				fStepLimitReported = true;
+				String what = origin instanceof IBinding ? origin.toString() : origin.getClass().getSimpleName();
+				IASTNode point = CPPSemantics.getCurrentLookupPoint();
+				IASTFileLocation loc = point != null ? point.getFileLocation() : null;
+				String where = loc != null ? loc.getFileName() + ':' + loc.getStartingLineNumber() : "?"; //$NON-NLS-1$
+				System.out.println("Constexpr evaluation exceeded " + sStepLimit //$NON-NLS-1$
+						+ " steps in " + what + ", evaluated at " + where); //$NON-NLS-1$ //$NON-NLS-2$
+				System.out.flush();
+			}
+			return true;
+		}
 	}
 
 	/**
@@ -0,0 +1,146 @@
+/*******************************************************************************
+ * Copyright (c) 2026 Eclipse CDT contributors and others.
+ *
+ * This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License 2.0
+ * which accompanies this distribution, and is available at
+ * https://www.eclipse.org/legal/epl-2.0/
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ *******************************************************************************/
+package org.eclipse.cdt.internal.core.dom.parser.cpp;
+
+import java.util.Collections;
+import java.util.Map;
+
+import org.eclipse.cdt.core.dom.ast.IASTCompoundStatement;
+import org.eclipse.cdt.core.dom.ast.IMacroBinding;
+import org.eclipse.cdt.core.dom.ast.cpp.ICPPASTTranslationUnit;
+import org.eclipse.cdt.core.dom.parser.cpp.ICPPParserExtensionConfiguration;
+import org.eclipse.cdt.core.parser.EndOfFileException;
+import org.eclipse.cdt.core.parser.IScanner;
+import org.eclipse.cdt.core.parser.IToken;
+import org.eclipse.cdt.core.parser.IncludeExportPatterns;
+import org.eclipse.cdt.core.parser.NullLogService;
+import org.eclipse.cdt.core.parser.ParserMode;
+import org.eclipse.cdt.internal.core.parser.scanner.ILocationResolver;
+import org.eclipse.cdt.internal.core.parser.scanner.Token;
+
+/**
+ * The tokens of a function body that was skipped while parsing the translation unit. The body
+ * is parsed when it is first requested from the function definition, see
+ * {@link GNUCPPSourceParser#setParseFunctionBodiesLazily(boolean)}.
+ */
+final class LazyFunctionBody {
+	private final ICPPParserExtensionConfiguration fConfig;
+	private final char[] fAdditionalNumericLiteralSuffixes;
+	private Token[] fTokens;
+
+	LazyFunctionBody(ICPPParserExtensionConfiguration config, char[] additionalNumericLiteralSuffixes,
+			Token[] tokens) {
+		fConfig = config;
+		fAdditionalNumericLiteralSuffixes = additionalNumericLiteralSuffixes;
+		fTokens = tokens;
+	}
+
+	/**
+	 * Parses the body for the given translation unit. The nodes following the body may have been
+	 * moved since it was skipped, therefore the tokens are adjusted to the offset of the node that
+	 * has been used as a placeholder for the body. The tokens are released, such that the body is
+	 * parsed at most once.
+	 *
+	 * @return the function body, or {@code null} if it has already been parsed or cannot be parsed.
+	 */
+	IASTCompoundStatement parse(ICPPASTTranslationUnit ast, int offset) {
+		final Token[] tokens = fTokens;
+		if (tokens == null)
+			return null;
+		fTokens = null;
+
+		final int shift = offset - tokens[0].getOffset();
+		if (shift != 0) {
+			for (Token token : tokens) {
+				token.shiftOffset(shift);
+			}
+		}
+		GNUCPPSourceParser parser = new GNUCPPSourceParser(new TokenReplay(ast, tokens), ParserMode.COMPLETE_PARSE,
+				new NullLogService(), fConfig, ast.getIndex());
+		return parser.parseLazyFunctionBody(ast);
+	}
+
+	/**
+	 * Provides the tokens of the function body to the parser.
+	 */
+	private final class TokenReplay implements IScanner {
+		private final ICPPASTTranslationUnit fAST;
+		private final Token[] fReplayedTokens;
+		private int fNext;
+
+		TokenReplay(ICPPASTTranslationUnit ast, Token[] tokens) {
+			fAST = ast;
+			fReplayedTokens = tokens;
+		}
+
+		@Override
+		public Map<String, IMacroBinding> getMacroDefinitions() {
+			return Collections.emptyMap();
+		}
+
+		@Override
+		public IToken nextToken() throws EndOfFileException {
+			if (fNext < fReplayedTokens.length)
+				return fReplayedTokens[fNext++];
+			throw new EndOfFileException(fReplayedTokens[fReplayedTokens.length - 1].getEndOffset());
+		}
+
+		@Override
+		public boolean isOnTopContext() {
+			return true;
+		}
+
+		@Override
+		public void cancel() {
+		}
+
+		@Override
+		public ILocationResolver getLocationResolver() {
+			return fAST.getAdapter(ILocationResolver.class);
+		}
+
+		@Override
+		public void setContentAssistMode(int offset) {
+		}
+
+		@Override
+		public void setSplitShiftROperator(boolean val) {
+			// The tokens have been split when the translation unit was parsed.
+		}
+
+		@Override
+		public void setComputeImageLocations(boolean val) {
+		}
+
+		@Override
+		public void setTrackIncludeExport(IncludeExportPatterns patterns) {
+		}
+
+		@Override
+		public void setProcessInactiveCode(boolean val) {
+		}
+
+		@Override
+		public void skipInactiveCode() {
+			// Inactive code is never part of the tokens of a function body.
+		}
+
+		@Override
+		public int getCodeBranchNesting() {
+			return 0;
+		}
+
+		@Override
+		public char[] getAdditionalNumericLiteralSuffixes() {
+			return fAdditionalNumericLiteralSuffixes;
+		}
+	}
+}
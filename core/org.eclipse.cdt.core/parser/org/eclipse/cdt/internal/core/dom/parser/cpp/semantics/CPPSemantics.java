@@ -1390,6 +1390,14 @@ public class CPPSemantics {
 	}
 
 	static IBinding[] getBindingsFromScope(ICPPScope scope, LookupData data) throws DOMException {
+		CPPASTTranslationUnit tu = data.getTranslationUnit();
+		if (tu != null && !tu.isForContentAssist()) {
+			return tu.getNameLookupCache().getBindings(scope, data);
+		}
+		return computeBindingsFromScope(scope, data);
+	}
+
+	static IBinding[] computeBindingsFromScope(ICPPScope scope, LookupData data) throws DOMException {
 		IBinding[] bindings = scope.getBindings(data);
 
 		if (scope instanceof ICPPASTInternalScope && scope instanceof ICPPClassScope) {
@@ -22,6 +22,7 @@ import static org.eclipse.cdt.internal.core.dom.parser.cpp.semantics.SemanticUti
 import static org.eclipse.cdt.internal.core.dom.parser.cpp.semantics.SemanticUtil.TDEF;
 
 import java.util.Arrays;
+import java.util.Map;
 
 import org.eclipse.cdt.core.dom.ast.IASTExpression.ValueCategory;
 import org.eclipse.cdt.core.dom.ast.IASTNode;
@@ -42,7 +43,10 @@ import org.eclipse.cdt.core.dom.ast.cpp.ICPPTemplateInstance;
 import org.eclipse.cdt.core.dom.ast.cpp.ICPPTemplateParameterMap;
 import org.eclipse.cdt.internal.core.dom.parser.CompositeValue;
 import org.eclipse.cdt.internal.core.dom.parser.DependentValue;
+import org.eclipse.cdt.internal.core.dom.parser.FloatingPointValue;
 import org.eclipse.cdt.internal.core.dom.parser.ITypeMarshalBuffer;
+import org.eclipse.cdt.internal.core.dom.parser.IntegralValue;
+import org.eclipse.cdt.internal.core.dom.parser.cpp.CPPASTTranslationUnit;
 import org.eclipse.cdt.internal.core.dom.parser.cpp.CPPClosureType;
 import org.eclipse.cdt.internal.core.dom.parser.cpp.CPPFunction;
 import org.eclipse.cdt.internal.core.dom.parser.cpp.ICPPEvaluation;
@@ -54,6 +58,72 @@ import org.eclipse.core.runtime.Assert;
 import org.eclipse.core.runtime.CoreException;
 
 public final class EvalFunctionCall extends CPPDependentEvaluation {
+	private static final int MAX_MEMOIZED_CONSTEXPR_CALLS = 10000;
+
+	/**
+	 * A call of a constexpr function that is known to have no side effects, such that its result
+	 * can be reused for calls with the same arguments. Results are memoized per translation unit.
+	 */
+	static final class ConstexprCall {
+		private final ICPPFunction fFunction;
+		private final IValue[] fArguments;
+
+		private ConstexprCall(ICPPFunction function, IValue[] arguments) {
+			fFunction = function;
+			fArguments = arguments;
+		}
+
+		/**
+		 * Returns the call for the given function and arguments, or {@code null} if the result of the
+		 * call cannot be memoized. That is the case for calls of non-static member functions, for
+		 * parameters that allow the function to modify objects of the caller and for arguments that
+		 * are not numbers.
+		 */
+		static ConstexprCall create(ICPPFunction function, ICPPEvaluation[] arguments,
+				ICPPEvaluation implicitThis) {
+			if (implicitThis != null || (function instanceof ICPPMethod && !((ICPPMethod) function).isStatic()))
+				return null;
+			for (ICPPParameter param : function.getParameters()) {
+				if (isReference(param))
+					return null;
+			}
+			// arguments[0] is the function's evaluation.
+			IValue[] values = new IValue[arguments.length - 1];
+			for (int i = 1; i < arguments.length; i++) {
+				IValue value = arguments[i].getValue();
+				if (!isNumber(value))
+					return null;
+				values[i - 1] = value;
+			}
+			return new ConstexprCall(function, values);
+		}
+
+		/**
+		 * Checks whether the given result of a call can be shared by other calls.
+		 */
+		static boolean isMemoizable(ICPPEvaluation result) {
+			return result instanceof EvalFixed && result != EvalFixed.INCOMPLETE && isNumber(result.getValue());
+		}
+
+		private static boolean isNumber(IValue value) {
+			return (value instanceof IntegralValue || value instanceof FloatingPointValue)
+					&& value.numberValue() != null;
+		}
+
+		@Override
+		public int hashCode() {
+			return fFunction.hashCode() * 31 + Arrays.hashCode(fArguments);
+		}
+
+		@Override
+		public boolean equals(Object obj) {
+			if (!(obj instanceof ConstexprCall))
+				return false;
+			final ConstexprCall other = (ConstexprCall) obj;
+			return fFunction.equals(other.fFunction) && Arrays.equals(fArguments, other.fArguments);
+		}
+	}
+
 	private final ICPPEvaluation[] fArguments;
 	private ICPPFunction fOverload = CPPFunction.UNINITIALIZED_FUNCTION;
 	private IType fType;
@@ -264,14 +334,13 @@ public final class EvalFunctionCall extends CPPDependentEvaluation {
 
 	@Override
 	public ICPPEvaluation computeForFunctionCall(ActivationRecord record, ConstexprEvaluationContext context) {
-		if (context.getStepsPerformed() >= ConstexprEvaluationContext.MAX_CONSTEXPR_EVALUATION_STEPS) {
-			return EvalFixed.INCOMPLETE;
-		}
-
 		ICPPFunction functionBinding = resolveFunctionBinding();
 		if (functionBinding == null)
 			return EvalFixed.INCOMPLETE;
 
+		if (context.isStepLimitReached(functionBinding))
+			return EvalFixed.INCOMPLETE;
+
 		ICPPEvaluation[] args = new ICPPEvaluation[fArguments.length];
 		System.arraycopy(fArguments, 0, args, 0, fArguments.length);
 
@@ -333,6 +402,33 @@ public final class EvalFunctionCall extends CPPDependentEvaluation {
 		if (!function.isConstexpr())
 			return EvalFixed.INCOMPLETE;
 
+		final ConstexprCall call = ConstexprCall.create(function, fArguments, getImplicitThis());
+		final CPPASTTranslationUnit tu = call != null ? getLookupTranslationUnit() : null;
+		final Map<Object, ICPPEvaluation> cache = tu != null ? tu.getConstexprCallCache() : null;
+		if (cache != null) {
+			ICPPEvaluation result = cache.get(call);
+			if (result != null) {
+				tu.recordConstexprCallCacheHit();
+				context.recordStep();
+				return result;
+			}
+		}
+		ICPPEvaluation result = executeFunctionBody(function, context);
+		if (cache != null && ConstexprCall.isMemoizable(result) && cache.size() < MAX_MEMOIZED_CONSTEXPR_CALLS) {
+			cache.put(call, result);
+		}
+		return result;
+	}
+
+	private static CPPASTTranslationUnit getLookupTranslationUnit() {
+		IASTNode point = CPPSemantics.getCurrentLookupPoint();
+		if (point != null && point.getTranslationUnit() instanceof CPPASTTranslationUnit) {
+			return (CPPASTTranslationUnit) point.getTranslationUnit();
+		}
+		return null;
+	}
+
+	private ICPPEvaluation executeFunctionBody(ICPPFunction function, ConstexprEvaluationContext context) {
 		ActivationRecord record = createActivationRecord(function.getParameters(), fArguments, getImplicitThis());
 		ICPPExecution bodyExec = CPPFunction.getFunctionBodyExecution(function);
 		if (bodyExec == null) {
@@ -397,7 +493,7 @@ public final class EvalFunctionCall extends CPPDependentEvaluation {
 		return function;
 	}
 
-	private boolean isReference(IBinding binding) {
+	private static boolean isReference(IBinding binding) {
 		return binding instanceof IVariable && (((IVariable) binding).getType() instanceof ICPPReferenceType
 				|| ((IVariable) binding).getType() instanceof IPointerType);
 	}
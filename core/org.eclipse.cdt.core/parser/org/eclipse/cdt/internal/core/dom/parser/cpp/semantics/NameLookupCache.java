@@ -0,0 +1,193 @@
+/*******************************************************************************
+ * Copyright (c) 2026 Eclipse CDT contributors and others.
+ *
+ * This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License 2.0
+ * which accompanies this distribution, and is available at
+ * https://www.eclipse.org/legal/epl-2.0/
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ *******************************************************************************/
+package org.eclipse.cdt.internal.core.dom.parser.cpp.semantics;
+
+import java.util.HashMap;
+import java.util.Map;
+
+import org.eclipse.cdt.core.dom.ast.DOMException;
+import org.eclipse.cdt.core.dom.ast.IASTName;
+import org.eclipse.cdt.core.dom.ast.IBinding;
+import org.eclipse.cdt.core.dom.ast.cpp.ICPPASTNamespaceDefinition;
+import org.eclipse.cdt.core.dom.ast.cpp.ICPPClassScope;
+import org.eclipse.cdt.core.dom.ast.cpp.ICPPScope;
+import org.eclipse.cdt.core.parser.util.CharArrayUtils;
+import org.eclipse.cdt.internal.core.dom.parser.IRecursionResolvingBinding;
+import org.eclipse.cdt.internal.core.dom.parser.cpp.CPPASTTranslationUnit;
+import org.eclipse.cdt.internal.core.dom.parser.cpp.CPPClassScope;
+import org.eclipse.cdt.internal.core.dom.parser.cpp.CPPScope;
+import org.eclipse.cdt.internal.core.dom.parser.cpp.ICPPASTInternalScope;
+import org.eclipse.cdt.internal.core.index.IIndexScope;
+
+/**
+ * Caches the bindings found in a scope for a name, such that the repeated lookups performed
+ * during ambiguity and overload resolution are answered without searching the scope again.
+ * The cache belongs to a translation unit, see {@link CPPASTTranslationUnit#getNameLookupCache()}.
+ * <p>
+ * Only lookups whose result does not depend on the point of lookup are cached. The results
+ * cached for a scope of the AST are discarded when names are added to or removed from the scope,
+ * which happens when the scope is populated lazily and when ambiguities are resolved.
+ */
+public final class NameLookupCache {
+	private static final int MAX_SIZE = 50000;
+
+	private static final int RESOLVE = 0x01;
+	private static final int TYPES_ONLY = 0x02;
+	private static final int NAMESPACES_ONLY = 0x04;
+	private static final int ARGUMENT_DEPENDENT = 0x08;
+	private static final int IGNORE_RECURSION_RESOLVING_BINDINGS = 0x10;
+	private static final int CONSTRUCTORS = 0x20;
+
+	private static final class Key {
+		final ICPPScope fScope;
+		final char[] fName;
+		final int fFlags;
+		final int fHashCode;
+
+		Key(ICPPScope scope, char[] name, int flags) {
+			fScope = scope;
+			fName = name;
+			fFlags = flags;
+			fHashCode = (scope.hashCode() * 31 + CharArrayUtils.hash(name)) * 31 + flags;
+		}
+
+		@Override
+		public int hashCode() {
+			return fHashCode;
+		}
+
+		@Override
+		public boolean equals(Object obj) {
+			if (!(obj instanceof Key))
+				return false;
+			Key other = (Key) obj;
+			return fHashCode == other.fHashCode && fFlags == other.fFlags && fScope.equals(other.fScope)
+					&& CharArrayUtils.equals(fName, other.fName);
+		}
+	}
+
+	private static final class Entry {
+		final IBinding[] fBindings;
+		final int fModificationCount;
+
+		Entry(IBinding[] bindings, int modificationCount) {
+			fBindings = bindings;
+			fModificationCount = modificationCount;
+		}
+	}
+
+	private final Map<Key, Entry> fMap = new HashMap<>();
+	private int fHits;
+	private int fMisses;
+
+	/**
+	 * Returns the number of lookups that were answered from the cache.
+	 */
+	public int getHitCount() {
+		return fHits;
+	}
+
+	/**
+	 * Returns the number of cacheable lookups that had to search the scope.
+	 */
+	public int getMissCount() {
+		return fMisses;
+	}
+
+	/**
+	 * Returns the bindings found in the given scope for the given lookup. The bindings are
+	 * taken from the cache if possible, otherwise they are computed by
+	 * {@link CPPSemantics#computeBindingsFromScope(ICPPScope, LookupData)}.
+	 */
+	IBinding[] getBindings(ICPPScope scope, LookupData data) throws DOMException {
+		final Key key = createKey(scope, data);
+		if (key == null)
+			return CPPSemantics.computeBindingsFromScope(scope, data);
+
+		if (scope instanceof CPPScope) {
+			((CPPScope) scope).populateCache();
+		}
+		final int modificationCount = getModificationCount(scope);
+		Entry entry = fMap.get(key);
+		if (entry != null && entry.fModificationCount == modificationCount) {
+			fHits++;
+			return entry.fBindings.length == 0 ? entry.fBindings : entry.fBindings.clone();
+		}
+		fMisses++;
+		IBinding[] bindings = CPPSemantics.computeBindingsFromScope(scope, data);
+		// Don't cache results computed while the scope was modified or a binding was being resolved.
+		if (bindings != null && getModificationCount(scope) == modificationCount
+				&& !containsRecursionResolvingBinding(bindings)) {
+			if (fMap.size() >= MAX_SIZE) {
+				fMap.clear();
+			}
+			fMap.put(key, new Entry(bindings.clone(), modificationCount));
+		}
+		return bindings;
+	}
+
+	private static int getModificationCount(ICPPScope scope) {
+		return scope instanceof CPPScope ? ((CPPScope) scope).getModificationCount() : 0;
+	}
+
+	private static boolean containsRecursionResolvingBinding(IBinding[] bindings) {
+		for (IBinding binding : bindings) {
+			if (binding instanceof IRecursionResolvingBinding)
+				return true;
+		}
+		return false;
+	}
+
+	private static boolean isNamespaceWithIndex(CPPScope scope, LookupData data) {
+		// Bindings of the index are filtered by the point of declaration, see CPPScope.getBindings().
+		return scope.getPhysicalNode() instanceof ICPPASTNamespaceDefinition
+				&& data.getTranslationUnit().getIndex() != null;
+	}
+
+	/**
+	 * Creates the key for caching the result of the given lookup, or returns {@code null} if
+	 * the result may depend on the point of lookup.
+	 */
+	private static Key createKey(ICPPScope scope, LookupData data) {
+		if (data.isPrefixLookup() || !data.isResolve())
+			return null;
+		final IASTName lookupName = data.getLookupName();
+		if (lookupName != null && !lookupName.isReference())
+			return null;
+
+		int flags = RESOLVE;
+		if (scope instanceof ICPPASTInternalScope) {
+			if (!(scope instanceof CPPScope))
+				return null;
+			if (scope instanceof ICPPClassScope) {
+				if (!data.isIgnorePointOfDeclaration() && !LookupData.checkWholeClassScope(lookupName))
+					return null;
+				if (scope instanceof CPPClassScope && CPPClassScope.shallReturnConstructors(lookupName, false))
+					flags |= CONSTRUCTORS;
+			} else if (!data.isIgnorePointOfDeclaration() || isNamespaceWithIndex((CPPScope) scope, data)) {
+				return null;
+			}
+		} else if (!(scope instanceof IIndexScope)) {
+			return null;
+		} else if (scope instanceof ICPPClassScope && CPPClassScope.shallReturnConstructors(lookupName, false)) {
+			flags |= CONSTRUCTORS;
+		}
+		if (data.typesOnly)
+			flags |= TYPES_ONLY;
+		if (data.namespacesOnly)
+			flags |= NAMESPACES_ONLY;
+		if (data.isArgumentDependent())
+			flags |= ARGUMENT_DEPENDENT;
+		if (data.ignoreRecursionResolvingBindings())
+			flags |= IGNORE_RECURSION_RESOLVING_BINDINGS;
+		return new Key(scope, data.getLookupKey(), flags);
+	}
+}
@@ -414,6 +414,9 @@ public class CIndex implements IIndex {
 	@Override
 	public synchronized void releaseReadLock() {
 		if (--fReadLock == 0) {
+			// The composite bindings cached by the factories may reference objects of the AST the
+			// lock was held for.
+			clearCompositesCaches();
 			for (IIndexFragment fragment : fFragments) {
 				fragment.releaseReadLock();
 			}
@@ -741,11 +744,20 @@ public class CIndex implements IIndex {
 	}
 
 	protected void clearResultCache() {
+		clearCompositesCaches();
 		for (IIndexFragment frag : fFragments) {
 			frag.clearResultCache();
 		}
 	}
 
+	private void clearCompositesCaches() {
+		for (ICompositesFactory factory : new ICompositesFactory[] { cppCF, cCF, fCF }) {
+			if (factory != null) {
+				factory.clearResultCache();
+			}
+		}
+	}
+
 	@Override
 	public IIndexFileSet createFileSet() {
 		return new IndexFileSet();
@@ -335,16 +335,16 @@ public interface IIndexFragment {
 	IIndexFragmentFile[] getFilesWithUnresolvedIncludes() throws CoreException;
 
 	/**
-	 * Caches an object with the key, the cache must be cleared at latest when the fragment no
-	 * longer holds a locks.
+	 * Caches an object with the key, the cache is cleared at latest when the fragment is modified.
+	 * The cache outlives the read locks, it must not be used for objects that reference an AST.
 	 * @param replace if <code>false</code> an existing entry will not be replaced.
 	 * @return the value that is actually stored.
 	 */
 	Object putCachedResult(Object key, Object value, boolean replace);
 
 	/**
-	 * Returns a previously cached object, the cache is cleared at latest when the fragment no
-	 * longer holds a locks.
+	 * Returns a previously cached object, the cache is cleared at latest when the fragment is
+	 * modified.
 	 */
 	Object getCachedResult(Object key);
 
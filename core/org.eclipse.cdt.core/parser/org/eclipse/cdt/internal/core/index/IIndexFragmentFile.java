@@ -59,6 +59,19 @@ public interface IIndexFragmentFile extends IIndexFile {
 	 */
 	void setPragmaOnceSemantics(boolean value) throws CoreException;
 
+	/**
+	 * Returns whether the file was stored from a translation unit that was preprocessed, only.
+	 * Such a file contains the includes and macros but no names, it is replaced when the file is
+	 * parsed.
+	 */
+	boolean isIncludesOnly() throws CoreException;
+
+	/**
+	 * Sets the flag that determines whether the file was stored from a translation unit that was
+	 * preprocessed, only.
+	 */
+	void setIncludesOnly(boolean value) throws CoreException;
+
 	/**
 	 * Sets the name of the replacement header.
 	 * @param replacementHeader the name of the replacement header, may be {@code null} or an empty
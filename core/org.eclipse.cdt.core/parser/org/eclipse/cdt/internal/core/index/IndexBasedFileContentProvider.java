@@ -176,12 +176,19 @@ public final class IndexBasedFileContentProvider extends InternalFileContentProv
 			return fRelatedIndexerTask.selectIndexFile(fLinkage, ifl, macroDictionary);
 
 		for (IIndexFile file : fIndex.getFiles(fLinkage, ifl)) {
-			if (macroDictionary.satisfies(file.getSignificantMacros()))
+			if (!isIncludesOnly(file) && macroDictionary.satisfies(file.getSignificantMacros()))
 				return file;
 		}
 		return null;
 	}
 
+	/**
+	 * Files that were preprocessed, only, lack the names and cannot replace parsing the file.
+	 */
+	private static boolean isIncludesOnly(IIndexFile file) throws CoreException {
+		return file instanceof IIndexFragmentFile && ((IIndexFragmentFile) file).isIncludesOnly();
+	}
+
 	@Override
 	public InternalFileContent getContentForInclusion(IIndexFileLocation ifl, String astPath) {
 		if (fFallBackFactory != null) {
@@ -219,6 +226,8 @@ public final class IndexBasedFileContentProvider extends InternalFileContentProv
 			uds = content.getUsingDirectives();
 			pds = content.getPreprocessingDirectives();
 		} else {
+			if (isIncludesOnly(file))
+				throw new DependsOnOutdatedFileException(null, (IIndexFragmentFile) file);
 			uds = file.getUsingDirectives();
 			pds = IndexFileContent.merge(file.getIncludes(), file.getMacros());
 		}
@@ -15,6 +15,8 @@
 package org.eclipse.cdt.internal.core.index.composite;
 
 import java.util.Comparator;
+import java.util.HashMap;
+import java.util.Map;
 import java.util.TreeSet;
 
 import org.eclipse.cdt.core.CCorePlugin;
@@ -35,6 +37,7 @@ import org.eclipse.core.runtime.CoreException;
 public abstract class AbstractCompositeFactory implements ICompositesFactory {
 	protected IIndex index;
 	private final Comparator<IIndexFragmentBinding> fragmentComparator;
+	private final Map<Object, Object> fResultCache = new HashMap<>();
 
 	public AbstractCompositeFactory(IIndex index) {
 		this.index = index;
@@ -42,6 +45,32 @@ public abstract class AbstractCompositeFactory implements ICompositesFactory {
 				new PDOMFragmentBindingComparator(), new DefaultFragmentBindingComparator() });
 	}
 
+	@Override
+	public Object putCachedResult(Object key, Object value, boolean replace) {
+		synchronized (fResultCache) {
+			Object old = fResultCache.put(key, value);
+			if (old != null && !replace) {
+				fResultCache.put(key, old);
+				return old;
+			}
+			return value;
+		}
+	}
+
+	@Override
+	public Object getCachedResult(Object key) {
+		synchronized (fResultCache) {
+			return fResultCache.get(key);
+		}
+	}
+
+	@Override
+	public void clearResultCache() {
+		synchronized (fResultCache) {
+			fResultCache.clear();
+		}
+	}
+
 	protected final IType[] getCompositeTypes(IType[] types) {
 		// Don't create a new array until it's really needed.
 		IType[] result = types;
@@ -54,4 +54,23 @@ public interface ICompositesFactory {
 	 * Converts values.
 	 */
 	public IValue getCompositeValue(IValue v);
+
+	/**
+	 * Caches an object with the key. Unlike the result caches of the index fragments, this cache
+	 * may hold objects of the client of the index, it is cleared when the index releases its last
+	 * read lock.
+	 * @param replace if <code>false</code> an existing entry will not be replaced.
+	 * @return the value that is actually stored.
+	 */
+	public Object putCachedResult(Object key, Object value, boolean replace);
+
+	/**
+	 * Returns an object previously cached with {@link #putCachedResult(Object, Object, boolean)}.
+	 */
+	public Object getCachedResult(Object key);
+
+	/**
+	 * Clears the result cache.
+	 */
+	public void clearResultCache();
 }
@@ -115,12 +115,12 @@ import org.eclipse.cdt.internal.core.dom.parser.cpp.semantics.InitializerListTyp
 import org.eclipse.cdt.internal.core.dom.parser.cpp.semantics.TypeOfDependentExpression;
 import org.eclipse.cdt.internal.core.dom.parser.cpp.semantics.TypeOfUnknownMember;
 import org.eclipse.cdt.internal.core.index.CIndex;
+import org.eclipse.cdt.internal.core.index.IIndexFragment;
 import org.eclipse.cdt.internal.core.index.IIndexFragmentBinding;
 import org.eclipse.cdt.internal.core.index.IIndexScope;
 import org.eclipse.cdt.internal.core.index.composite.AbstractCompositeFactory;
 import org.eclipse.cdt.internal.core.index.composite.CompositeMacroContainer;
 import org.eclipse.cdt.internal.core.index.composite.CompositingNotImplementedError;
-import org.eclipse.cdt.internal.core.index.composite.ICompositesFactory;
 import org.eclipse.core.runtime.CoreException;
 
 public class CPPCompositesFactory extends AbstractCompositeFactory {
@@ -834,10 +834,10 @@ public class CPPCompositesFactory extends AbstractCompositeFactory {
 
 	private static class Key {
 		final long i;
-		final int j;
+		final IIndexFragment j;
 		final long k;
 
-		public Key(long id1, int id2, long id3) {
+		public Key(long id1, IIndexFragment id2, long id3) {
 			i = id1;
 			j = id2;
 			k = id3;
@@ -848,7 +848,7 @@ public class CPPCompositesFactory extends AbstractCompositeFactory {
 			final int prime = 31;
 			int result = 1;
 			result = prime * result + (int) (i ^ (i >>> 32));
-			result = prime * result + j;
+			result = prime * result + j.hashCode();
 			result = prime * result + (int) k;
 			return result;
 		}
@@ -863,11 +863,11 @@ public class CPPCompositesFactory extends AbstractCompositeFactory {
 		}
 	}
 
-	public static Object createInstanceCacheKey(ICompositesFactory cf, IIndexFragmentBinding rbinding) {
-		return new Key(Thread.currentThread().getId(), cf.hashCode(), rbinding.getBindingID());
+	public static Object createInstanceCacheKey(IIndexFragmentBinding rbinding) {
+		return new Key(Thread.currentThread().getId(), rbinding.getFragment(), rbinding.getBindingID());
 	}
 
-	public static Object createSpecializationKey(ICompositesFactory cf, IIndexFragmentBinding rbinding) {
-		return new Key(Thread.currentThread().getId(), cf.hashCode(), rbinding.getBindingID() + 1);
+	public static Object createSpecializationKey(IIndexFragmentBinding rbinding) {
+		return new Key(Thread.currentThread().getId(), rbinding.getFragment(), rbinding.getBindingID() + 1);
 	}
 }
@@ -38,7 +38,6 @@ import org.eclipse.cdt.internal.core.dom.parser.cpp.CPPTemplateParameterMap;
 import org.eclipse.cdt.internal.core.dom.parser.cpp.ClassTypeHelper;
 import org.eclipse.cdt.internal.core.dom.parser.cpp.ICPPClassSpecializationScope;
 import org.eclipse.cdt.internal.core.dom.parser.cpp.semantics.CPPTemplates;
-import org.eclipse.cdt.internal.core.index.IIndexFragment;
 import org.eclipse.cdt.internal.core.index.IIndexFragmentBinding;
 import org.eclipse.cdt.internal.core.index.IIndexScope;
 import org.eclipse.cdt.internal.core.index.composite.ICompositesFactory;
@@ -78,9 +77,8 @@ public class CompositeCPPClassSpecialization extends CompositeCPPClassType imple
 	@Override
 	public IBinding specializeMember(IBinding original) {
 		if (specializationMap == null) {
-			final Object key = CPPCompositesFactory.createSpecializationKey(cf, rbinding);
-			final IIndexFragment frag = rbinding.getFragment();
-			Object cached = frag.getCachedResult(key);
+			final Object key = CPPCompositesFactory.createSpecializationKey(rbinding);
+			Object cached = cf.getCachedResult(key);
 			if (cached != null) {
 				specializationMap = (ObjectMap) cached;
 			} else {
@@ -104,7 +102,7 @@ public class CompositeCPPClassSpecialization extends CompositeCPPClassType imple
 						}
 					}
 				}
-				specializationMap = (ObjectMap) frag.putCachedResult(key, newMap, false);
+				specializationMap = (ObjectMap) cf.putCachedResult(key, newMap, false);
 			}
 		}
 		synchronized (specializationMap) {
@@ -22,7 +22,6 @@ import org.eclipse.cdt.core.dom.ast.cpp.ICPPTemplateInstance;
 import org.eclipse.cdt.internal.core.dom.parser.cpp.ICPPDeferredClassInstance;
 import org.eclipse.cdt.internal.core.dom.parser.cpp.ICPPInstanceCache;
 import org.eclipse.cdt.internal.core.index.CIndex;
-import org.eclipse.cdt.internal.core.index.IIndexFragment;
 import org.eclipse.cdt.internal.core.index.IIndexFragmentBinding;
 import org.eclipse.cdt.internal.core.index.IndexCPPSignatureUtil;
 import org.eclipse.cdt.internal.core.index.composite.ICompositesFactory;
@@ -31,16 +30,15 @@ import org.eclipse.core.runtime.CoreException;
 public class CompositeInstanceCache {
 
 	public static CompositeInstanceCache getCache(ICompositesFactory cf, IIndexFragmentBinding fb) {
-		final IIndexFragment frag = fb.getFragment();
-		final Object key = CPPCompositesFactory.createInstanceCacheKey(cf, fb);
-		Object cache = frag.getCachedResult(key);
+		final Object key = CPPCompositesFactory.createInstanceCacheKey(fb);
+		Object cache = cf.getCachedResult(key);
 		if (cache != null) {
 			return (CompositeInstanceCache) cache;
 		}
 
 		CompositeInstanceCache newCache = new CompositeInstanceCache();
 		newCache.populate(cf, fb);
-		return (CompositeInstanceCache) frag.putCachedResult(key, newCache, false);
+		return (CompositeInstanceCache) cf.putCachedResult(key, newCache, false);
 	}
 
 	private final HashMap<String, ICPPTemplateInstance> fMap;
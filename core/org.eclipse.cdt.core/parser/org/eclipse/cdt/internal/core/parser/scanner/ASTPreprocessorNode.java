@@ -818,33 +818,42 @@ class ASTFileLocation implements IASTFileLocation {
 }
 
 class ASTMacroExpansion extends ASTPreprocessorNode implements IASTPreprocessorMacroExpansion {
-	private LocationCtxMacroExpansion fContext;
+	private LocationMap fLocationMap;
+	private ASTMacroReferenceName fMacroReference;
 
 	public ASTMacroExpansion(IASTNode parent, int startNumber, int endNumber) {
 		super(parent, IASTTranslationUnit.MACRO_EXPANSION, startNumber, endNumber);
 	}
 
-	void setContext(LocationCtxMacroExpansion expansionCtx) {
-		fContext = expansionCtx;
+	void setMacroReference(LocationMap map, ASTMacroReferenceName macroReference) {
+		fLocationMap = map;
+		fMacroReference = macroReference;
+	}
+
+	LocationMap getLocationMap() {
+		return fLocationMap;
 	}
 
 	@Override
 	public ASTMacroReferenceName getMacroReference() {
-		return fContext.getMacroReference();
+		return fMacroReference;
 	}
 
 	@Override
 	public IASTPreprocessorMacroDefinition getMacroDefinition() {
-		return fContext.getMacroDefinition();
+		return fLocationMap.getMacroDefinition((IMacroBinding) fMacroReference.getBinding());
 	}
 
 	@Override
 	public ASTPreprocessorName[] getNestedMacroReferences() {
-		return fContext.getNestedMacroReferences();
+		return fLocationMap.getNestedMacroReferences(this);
 	}
 
+	/**
+	 * Returns a flyweight for the location context of this expansion.
+	 */
 	public LocationCtxMacroExpansion getContext() {
-		return fContext;
+		return fLocationMap.findMacroExpansionContext(this);
 	}
 }
 
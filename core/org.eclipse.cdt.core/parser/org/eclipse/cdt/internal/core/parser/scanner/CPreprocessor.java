@@ -56,9 +56,8 @@ import org.eclipse.cdt.core.parser.Keywords;
 import org.eclipse.cdt.core.parser.OffsetLimitReachedException;
 import org.eclipse.cdt.core.parser.ParseError;
 import org.eclipse.cdt.core.parser.ParserLanguage;
+import org.eclipse.cdt.core.parser.util.CharArrayHashMap;
 import org.eclipse.cdt.core.parser.util.CharArrayIntMap;
-import org.eclipse.cdt.core.parser.util.CharArrayMap;
-import org.eclipse.cdt.core.parser.util.CharArrayObjectMap;
 import org.eclipse.cdt.core.parser.util.CharArraySet;
 import org.eclipse.cdt.core.parser.util.CharArrayUtils;
 import org.eclipse.cdt.internal.core.dom.IIncludeFileResolutionHeuristics;
@@ -275,9 +274,10 @@ public class CPreprocessor implements ILexerLog, IScanner, IAdaptable {
 	private int fContentAssistLimit = -1;
 	private boolean fHandledCompletion = false;
 	private boolean fSplitShiftRightOperator = false;
+	private boolean fPreprocessOnly = false;
 
 	// State information
-	private final CharArrayMap<PreprocessorMacro> fMacroDictionary = new CharArrayMap<>(512);
+	private final CharArrayHashMap<PreprocessorMacro> fMacroDictionary = new CharArrayHashMap<>(512);
 	private final IMacroDictionary fMacroDictionaryFacade = new MacroDictionary();
 	private final LocationMap fLocationMap;
 	private CharArraySet fPreventInclusion;
@@ -384,6 +384,11 @@ public class CPreprocessor implements ILexerLog, IScanner, IAdaptable {
 		fSplitShiftRightOperator = val;
 	}
 
+	@Override
+	public void setPreprocessOnly(boolean val) {
+		fPreprocessOnly = val;
+	}
+
 	@Override
 	public void setComputeImageLocations(boolean val) {
 		fLexOptions.fCreateImageLocations = val;
@@ -916,6 +921,14 @@ public class CPreprocessor implements ILexerLog, IScanner, IAdaptable {
 
 		Token ppToken = fCurrentContext.currentLexerToken();
 		while (true) {
+			if (fPreprocessOnly && (options & STOP_AT_NL) == 0 && ppToken.getType() != IToken.tEND_OF_INPUT) {
+				// Only the directives are of interest, skip the tokens in between.
+				final Lexer lexer = fCurrentContext.getLexer();
+				if (lexer != null && (ppToken.getType() != IToken.tPOUND || !lexer.currentTokenIsFirstOnLine())) {
+					ppToken = lexer.nextDirective();
+					continue;
+				}
+			}
 			switch (ppToken.getType()) {
 			case Lexer.tBEFORE_INPUT:
 				ppToken = fCurrentContext.nextPPToken();
@@ -1004,7 +1017,7 @@ public class CPreprocessor implements ILexerLog, IScanner, IAdaptable {
 
 	private void completeInclusion(ASTInclusionStatement inc) {
 		final ISignificantMacros sig;
-		CharArrayObjectMap<char[]> sigMacros = fCurrentContext.getSignificantMacros();
+		CharArrayHashMap<char[]> sigMacros = fCurrentContext.getSignificantMacros();
 		if (sigMacros == null || sigMacros.isEmpty()) {
 			sig = ISignificantMacros.NONE;
 		} else {
@@ -1760,8 +1773,9 @@ public class CPreprocessor implements ILexerLog, IScanner, IAdaptable {
 			if (source != null) {
 				ILocationCtx ctx = fLocationMap.pushInclusion(poundOffset, nameOffsets[0], nameOffsets[1],
 						condEndOffset, source, path, headerName, userInclude, isHeuristic, fi.isSource());
-				ScannerContext fctx = new ScannerContext(ctx, fCurrentContext,
-						new Lexer(source, fLexOptions, this, this));
+				final Lexer includedLexer = new Lexer(source, fLexOptions, this, this);
+				TokenCache.getDefault().attach(includedLexer, fLexOptions);
+				ScannerContext fctx = new ScannerContext(ctx, fCurrentContext, includedLexer);
 				fctx.setFoundOnPath(fi.getFoundOnPath(), includeDirective);
 				detectIncludeGuard(path, source, fctx);
 				fCurrentContext = fctx;
@@ -82,6 +82,11 @@ public interface ILocationResolver {
 	 */
 	String getTranslationUnitPath();
 
+	/**
+	 * Returns the source of the root file of the translation unit.
+	 */
+	AbstractCharArray getTranslationUnitSource();
+
 	/**
 	 * @see IASTTranslationUnit#getContainingFilename()
 	 */
@@ -110,6 +110,21 @@ final public class Lexer implements ITokenSequence {
 	private boolean fMarkInsideIncludeDirective;
 	private Token fMarkToken;
 	private Token fMarkLastToken;
+	private TokenCache.Tokens fMarkReplay;
+	private TokenCache.Tokens fMarkSuspendedReplay;
+	private int fMarkReplayIndex;
+	private int fMarkReplayEvent;
+
+	// Tokens replayed instead of scanning the input, see replay(TokenCache.Tokens).
+	private TokenCache.Tokens fReplay;
+	private TokenCache.Tokens fSuspendedReplay;
+	private int fReplayIndex;
+	private int fReplayEvent;
+
+	// Records the scanned tokens, see record(TokenCache.Recorder).
+	private TokenCache.Recorder fRecorder;
+	private int fRecordedOffset;
+	private boolean fRecording;
 
 	public Lexer(char[] input, LexerOptions options, ILexerLog log, Object source) {
 		this(new CharArray(input), 0, input.length, options, log, source);
@@ -149,6 +164,8 @@ final public class Lexer implements ITokenSequence {
 	 */
 	public void setContentAssistMode(int offset) {
 		fSupportContentAssist = true;
+		fReplay = fSuspendedReplay = null;
+		fRecorder = null;
 		if (isValidOffset(offset)) {
 			fLimit = offset;
 		}
@@ -166,9 +183,92 @@ final public class Lexer implements ITokenSequence {
 	 * tokens to be created.
 	 */
 	public void setInsideIncludeDirective(boolean val) {
+		if (val && fReplay != null) {
+			suspendReplay();
+		}
 		fInsideIncludeDirective = val;
 	}
 
+	/**
+	 * Makes the lexer replay the given tokens rather than scanning the input. The tokens must have
+	 * been recorded from the same input with the same options and the lexer must not have advanced
+	 * yet. Header names are not part of the recorded tokens, inside of an include directive the
+	 * lexer scans the input up to the end of the line.
+	 */
+	void replay(TokenCache.Tokens tokens) {
+		assert fToken.getType() == tBEFORE_INPUT && fStart == 0;
+		fReplay = tokens;
+		fSuspendedReplay = null;
+		fReplayIndex = 0;
+		fReplayEvent = 0;
+	}
+
+	/**
+	 * Makes the lexer record the tokens it scans, the recorder gets the tokens once the end of input
+	 * has been reached. The lexer must not have advanced yet. Tokens scanned again after
+	 * {@link #restoreState()} are recorded just once. Header names are not recorded, after the
+	 * include directive the recorder scans its input once more as ordinary tokens.
+	 */
+	void record(TokenCache.Recorder recorder) {
+		assert fToken.getType() == tBEFORE_INPUT && fStart == 0;
+		fRecorder = recorder;
+		fRecordedOffset = fStart;
+	}
+
+	private void suspendReplay() {
+		fSuspendedReplay = fReplay;
+		fReplay = null;
+		// Continue scanning after the current token.
+		fEndOffset = fToken.getEndOffset();
+		nextCharPhase3();
+	}
+
+	private void resumeReplay(int newlineOffset) {
+		final int idx = fSuspendedReplay.findNewline(newlineOffset);
+		if (idx >= 0) {
+			fReplay = fSuspendedReplay;
+			fSuspendedReplay = null;
+			fReplayIndex = idx + 1;
+			fReplayEvent = fReplay.findEventAfter(idx);
+		}
+	}
+
+	private Token recordToken() throws OffsetLimitReachedException {
+		final int start = fOffset;
+		if (start < fRecordedOffset || fInsideIncludeDirective)
+			return lexToken();
+
+		if (start > fRecordedOffset && !fRecorder.addRange(fInput, fRecordedOffset, start)) {
+			// The include directive cannot be recorded.
+			fRecorder = null;
+			return lexToken();
+		}
+		final Token t;
+		fRecording = true;
+		try {
+			t = lexToken();
+		} finally {
+			fRecording = false;
+		}
+		fRecorder.addToken(t);
+		fRecordedOffset = fOffset;
+		if (t.getType() == IToken.tEND_OF_INPUT) {
+			fRecorder.finish();
+			fRecorder = null;
+		}
+		return t;
+	}
+
+	private Token replayToken() {
+		final TokenCache.Tokens tokens = fReplay;
+		final int idx = fReplayIndex;
+		if (idx < tokens.size() - 1) {
+			fReplayIndex++;
+		}
+		fReplayEvent = tokens.replayEvents(fReplayEvent, idx, fLog, fInput);
+		return tokens.createToken(idx, fSource, fInput);
+	}
+
 	/**
 	 * Returns the current preprocessor token, does not advance.
 	 */
@@ -261,9 +361,25 @@ final public class Lexer implements ITokenSequence {
 	}
 
 	/**
-	 * Computes the next token.
+	 * Replays or computes the next token.
 	 */
 	private Token fetchToken() throws OffsetLimitReachedException {
+		if (fReplay != null)
+			return replayToken();
+		if (fRecorder != null)
+			return recordToken();
+
+		final Token t = lexToken();
+		if (fSuspendedReplay != null && t.getType() == tNEWLINE) {
+			resumeReplay(t.getOffset());
+		}
+		return t;
+	}
+
+	/**
+	 * Computes the next token.
+	 */
+	private Token lexToken() throws OffsetLimitReachedException {
 		while (true) {
 			final int start = fOffset;
 			final int c = fCharPhase3;
@@ -735,9 +851,19 @@ final public class Lexer implements ITokenSequence {
 	}
 
 	private void handleProblem(int problemID, char[] arg, int offset) {
+		if (fRecording) {
+			fRecorder.handleProblem(problemID, arg, offset, fOffset);
+		}
 		fLog.handleProblem(problemID, arg, offset, fOffset);
 	}
 
+	private void handleComment(boolean isBlockComment, int offset, int endOffset) {
+		if (fRecording) {
+			fRecorder.handleComment(isBlockComment, offset, endOffset, fInput);
+		}
+		fLog.handleComment(isBlockComment, offset, endOffset, fInput);
+	}
+
 	private Token headerName(final int start, final boolean expectQuotes) throws OffsetLimitReachedException {
 		int length = 1;
 		boolean done = false;
@@ -775,14 +901,14 @@ final public class Lexer implements ITokenSequence {
 				fEndOffset = pos;
 				if (nextCharPhase3() == '/') {
 					nextCharPhase3();
-					fLog.handleComment(true, start, fOffset, fInput);
+					handleComment(true, start, fOffset);
 					return;
 				}
 			}
 		}
 		fCharPhase3 = END_OF_INPUT;
 		fOffset = fEndOffset = pos;
-		fLog.handleComment(true, start, pos, fInput);
+		handleComment(true, start, pos);
 	}
 
 	private void lineComment(final int start) {
@@ -791,7 +917,7 @@ final public class Lexer implements ITokenSequence {
 			switch (c) {
 			case END_OF_INPUT:
 			case '\n':
-				fLog.handleComment(false, start, fOffset, fInput);
+				handleComment(false, start, fOffset);
 				return;
 			}
 			c = nextCharPhase3();
@@ -1469,6 +1595,10 @@ final public class Lexer implements ITokenSequence {
 		fMarkInsideIncludeDirective = fInsideIncludeDirective;
 		fMarkToken = fToken;
 		fMarkLastToken = fLastToken;
+		fMarkReplay = fReplay;
+		fMarkSuspendedReplay = fSuspendedReplay;
+		fMarkReplayIndex = fReplayIndex;
+		fMarkReplayEvent = fReplayEvent;
 	}
 
 	public void restoreState() {
@@ -1478,5 +1608,9 @@ final public class Lexer implements ITokenSequence {
 		fInsideIncludeDirective = fMarkInsideIncludeDirective;
 		fToken = fMarkToken;
 		fLastToken = fMarkLastToken;
+		fReplay = fMarkReplay;
+		fSuspendedReplay = fMarkSuspendedReplay;
+		fReplayIndex = fMarkReplayIndex;
+		fReplayEvent = fMarkReplayEvent;
 	}
 }
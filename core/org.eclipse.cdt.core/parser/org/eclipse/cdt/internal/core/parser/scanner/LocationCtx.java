@@ -43,11 +43,21 @@ abstract class LocationCtx implements ILocationCtx {
 	final int fEndOffsetInParent;
 
 	public LocationCtx(LocationCtxContainer parent, int parentOffset, int parentEndOffset, int sequenceNumber) {
+		this(parent, parentOffset, parentEndOffset, sequenceNumber, true);
+	}
+
+	/**
+	 * @param addToParent whether the new context is added to the children of the parent. Subclasses
+	 *     that need to be initialized before they can be added pass {@code false}, as do flyweights
+	 *     for existing children.
+	 */
+	LocationCtx(LocationCtxContainer parent, int parentOffset, int parentEndOffset, int sequenceNumber,
+			boolean addToParent) {
 		fParent = parent;
 		fOffsetInParent = parentOffset;
 		fEndOffsetInParent = parentEndOffset;
 		fSequenceNumber = sequenceNumber;
-		if (parent != null) {
+		if (parent != null && addToParent) {
 			parent.addChild(this);
 		}
 	}
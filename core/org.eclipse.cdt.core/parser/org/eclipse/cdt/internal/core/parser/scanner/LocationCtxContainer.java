@@ -14,6 +14,7 @@
  *******************************************************************************/
 package org.eclipse.cdt.internal.core.parser.scanner;
 
+import java.util.AbstractList;
 import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.Collection;
@@ -31,12 +32,30 @@ import org.eclipse.cdt.core.parser.util.IntArray;
  * @since 5.0
  */
 class LocationCtxContainer extends LocationCtx {
+	private static final int INITIAL_CHILD_CAPACITY = 8;
+
 	/**
 	 * The total length of all children in terms of sequence numbers.
 	 */
 	private int fChildSequenceLength;
 
-	private ArrayList<LocationCtx> fChildren;
+	/*
+	 * The children are stored in parallel arrays, such that searching a child does not need to
+	 * visit an object per child. Macro expansions are by far the most frequent children, they are
+	 * not kept as objects. Instead the name of the expanded macro is stored, and a flyweight
+	 * context is created on demand, see getChild(int).
+	 */
+	private int fChildCount;
+	private int[] fChildSequenceNumbers;
+	private int[] fChildOffsets;
+	private int[] fChildEndOffsets;
+	/** The sequence lengths of macro expansions, other children compute their length. */
+	private int[] fChildSequenceLengths;
+	/** Child contexts, or the names of the macros for expansions. */
+	private Object[] fChildren;
+	/** The image locations of macro expansions, allocated when the first one is added. */
+	private ImageLocationInfo[][] fChildImageLocations;
+
 	private final AbstractCharArray fSource;
 	private int[] fLineOffsets;
 
@@ -48,17 +67,154 @@ class LocationCtxContainer extends LocationCtx {
 
 	@Override
 	public Collection<LocationCtx> getChildren() {
-		if (fChildren == null) {
+		if (fChildCount == 0) {
 			return Collections.emptyList();
 		}
-		return fChildren;
+		return new AbstractList<LocationCtx>() {
+			@Override
+			public LocationCtx get(int index) {
+				return getChild(index);
+			}
+
+			@Override
+			public int size() {
+				return fChildCount;
+			}
+		};
 	}
 
 	public void addChild(LocationCtx locationCtx) {
+		final int idx = appendChild(locationCtx.fSequenceNumber, locationCtx.fOffsetInParent,
+				locationCtx.fEndOffsetInParent);
+		if (locationCtx instanceof LocationCtxMacroExpansion) {
+			final LocationCtxMacroExpansion expansion = (LocationCtxMacroExpansion) locationCtx;
+			fChildren[idx] = expansion.getMacroReference();
+			fChildSequenceLengths[idx] = expansion.getSequenceLength();
+			final ImageLocationInfo[] imageLocations = expansion.getImageLocationInfos();
+			if (imageLocations.length > 0) {
+				if (fChildImageLocations == null) {
+					fChildImageLocations = new ImageLocationInfo[fChildren.length][];
+				}
+				fChildImageLocations[idx] = imageLocations;
+			}
+		} else {
+			fChildren[idx] = locationCtx;
+		}
+	}
+
+	private int appendChild(int sequenceNumber, int offsetInParent, int endOffsetInParent) {
 		if (fChildren == null) {
-			fChildren = new ArrayList<>();
+			fChildSequenceNumbers = new int[INITIAL_CHILD_CAPACITY];
+			fChildOffsets = new int[INITIAL_CHILD_CAPACITY];
+			fChildEndOffsets = new int[INITIAL_CHILD_CAPACITY];
+			fChildSequenceLengths = new int[INITIAL_CHILD_CAPACITY];
+			fChildren = new Object[INITIAL_CHILD_CAPACITY];
+		} else if (fChildCount == fChildren.length) {
+			setChildCapacity(Math.max(fChildCount * 2, INITIAL_CHILD_CAPACITY));
+		}
+		final int idx = fChildCount++;
+		fChildSequenceNumbers[idx] = sequenceNumber;
+		fChildOffsets[idx] = offsetInParent;
+		fChildEndOffsets[idx] = endOffsetInParent;
+		return idx;
+	}
+
+	private void setChildCapacity(int capacity) {
+		fChildSequenceNumbers = Arrays.copyOf(fChildSequenceNumbers, capacity);
+		fChildOffsets = Arrays.copyOf(fChildOffsets, capacity);
+		fChildEndOffsets = Arrays.copyOf(fChildEndOffsets, capacity);
+		fChildSequenceLengths = Arrays.copyOf(fChildSequenceLengths, capacity);
+		fChildren = Arrays.copyOf(fChildren, capacity);
+		if (fChildImageLocations != null) {
+			fChildImageLocations = Arrays.copyOf(fChildImageLocations, capacity);
 		}
-		fChildren.add(locationCtx);
+	}
+
+	/**
+	 * Releases the unused capacity of the tables of children, called when no more children
+	 * will be added.
+	 */
+	void trimChildren() {
+		if (fChildren != null && fChildCount < fChildren.length) {
+			setChildCapacity(fChildCount);
+		}
+	}
+
+	final int getChildCount() {
+		return fChildCount;
+	}
+
+	/**
+	 * Returns the child with the given index. For macro expansions a new flyweight context is
+	 * returned on every call.
+	 */
+	final LocationCtx getChild(int idx) {
+		final Object child = fChildren[idx];
+		if (child instanceof LocationCtx) {
+			return (LocationCtx) child;
+		}
+		return new LocationCtxMacroExpansion(this, idx, (ASTMacroReferenceName) child);
+	}
+
+	final int getChildSequenceNumber(int idx) {
+		return fChildSequenceNumbers[idx];
+	}
+
+	final int getChildOffset(int idx) {
+		return fChildOffsets[idx];
+	}
+
+	final int getChildEndOffset(int idx) {
+		return fChildEndOffsets[idx];
+	}
+
+	final int getChildSequenceLength(int idx) {
+		final Object child = fChildren[idx];
+		if (child instanceof LocationCtx) {
+			return ((LocationCtx) child).getSequenceLength();
+		}
+		return fChildSequenceLengths[idx];
+	}
+
+	final ImageLocationInfo[] getChildImageLocations(int idx) {
+		if (fChildImageLocations != null) {
+			final ImageLocationInfo[] imageLocations = fChildImageLocations[idx];
+			if (imageLocations != null) {
+				return imageLocations;
+			}
+		}
+		return ImageLocationInfo.NO_LOCATION_INFOS;
+	}
+
+	/**
+	 * Returns the macro expansion for the child with the given index, or {@code null} if the child
+	 * is not a macro expansion.
+	 */
+	final ASTMacroExpansion getMacroExpansion(int idx) {
+		final Object child = fChildren[idx];
+		if (child instanceof ASTMacroReferenceName) {
+			return (ASTMacroExpansion) ((ASTMacroReferenceName) child).getParent();
+		}
+		return null;
+	}
+
+	/**
+	 * Returns the index of the macro expansion with the given name, or -1.
+	 */
+	final int findMacroExpansionIdx(ASTMacroReferenceName expansionName, int sequenceNumber) {
+		for (int i = findChildIdxLessOrEqualThan(sequenceNumber, false); i >= 0; i--) {
+			if (fChildren[i] == expansionName) {
+				return i;
+			}
+			if (fChildSequenceNumbers[i] != sequenceNumber) {
+				break;
+			}
+		}
+		return -1;
+	}
+
+	public AbstractCharArray getSource() {
+		return fSource;
 	}
 
 	public char[] getSource(int offset, int length) {
@@ -78,11 +234,10 @@ class LocationCtxContainer extends LocationCtx {
 	@Override
 	public final int getSequenceNumberForOffset(int offset, boolean checkChildren) {
 		int result = fSequenceNumber + fChildSequenceLength + offset;
-		if (checkChildren && fChildren != null) {
-			for (int i = fChildren.size(); --i >= 0;) {
-				final LocationCtx child = fChildren.get(i);
-				if (child.fEndOffsetInParent > offset) { // Child was inserted behind the offset, adjust sequence number
-					result -= child.getSequenceLength();
+		if (checkChildren) {
+			for (int i = fChildCount; --i >= 0;) {
+				if (fChildEndOffsets[i] > offset) { // Child was inserted behind the offset, adjust sequence number
+					result -= getChildSequenceLength(i);
 				} else {
 					return result;
 				}
@@ -91,6 +246,19 @@ class LocationCtxContainer extends LocationCtx {
 		return result;
 	}
 
+	/**
+	 * Same as {@link LocationCtx#convertToSequenceEndNumber(int)} for the child with the given
+	 * index, avoids creating a flyweight for macro expansions.
+	 */
+	private int convertChildToSequenceEndNumber(int childIdx, int sequenceNumber) {
+		final Object child = fChildren[childIdx];
+		if (child instanceof LocationCtx)
+			return ((LocationCtx) child).convertToSequenceEndNumber(sequenceNumber);
+		if (sequenceNumber == fChildSequenceNumbers[childIdx])
+			return sequenceNumber - fChildEndOffsets[childIdx] + fChildOffsets[childIdx];
+		return sequenceNumber;
+	}
+
 	@Override
 	public void addChildSequenceLength(int childLength) {
 		fChildSequenceLength += childLength;
@@ -99,9 +267,9 @@ class LocationCtxContainer extends LocationCtx {
 	@Override
 	public final LocationCtx findSurroundingContext(int sequenceNumber, int length) {
 		int testEnd = length > 1 ? sequenceNumber + length - 1 : sequenceNumber;
-		final LocationCtx child = findChildLessOrEqualThan(sequenceNumber, false);
-		if (child != null && child.fSequenceNumber + child.getSequenceLength() > testEnd) {
-			return child.findSurroundingContext(sequenceNumber, length);
+		final int childIdx = findChildIdxLessOrEqualThan(sequenceNumber, false);
+		if (childIdx >= 0 && fChildSequenceNumbers[childIdx] + getChildSequenceLength(childIdx) > testEnd) {
+			return getChild(childIdx).findSurroundingContext(sequenceNumber, length);
 		}
 		return this;
 	}
@@ -109,9 +277,9 @@ class LocationCtxContainer extends LocationCtx {
 	@Override
 	public final LocationCtxMacroExpansion findEnclosingMacroExpansion(int sequenceNumber, int length) {
 		int testEnd = length > 1 ? sequenceNumber + length - 1 : sequenceNumber;
-		final LocationCtx child = findChildLessOrEqualThan(sequenceNumber, true);
-		if (child != null && child.fSequenceNumber + child.getSequenceLength() > testEnd) {
-			return child.findEnclosingMacroExpansion(sequenceNumber, length);
+		final int childIdx = findChildIdxLessOrEqualThan(sequenceNumber, true);
+		if (childIdx >= 0 && fChildSequenceNumbers[childIdx] + getChildSequenceLength(childIdx) > testEnd) {
+			return getChild(childIdx).findEnclosingMacroExpansion(sequenceNumber, length);
 		}
 		return null;
 	}
@@ -119,9 +287,9 @@ class LocationCtxContainer extends LocationCtx {
 	@Override
 	public int convertToSequenceEndNumber(int sequenceNumber) {
 		// try to delegate to a child.
-		final LocationCtx child = findChildLessOrEqualThan(sequenceNumber, false);
-		if (child != null)
-			sequenceNumber = child.convertToSequenceEndNumber(sequenceNumber);
+		final int childIdx = findChildIdxLessOrEqualThan(sequenceNumber, false);
+		if (childIdx >= 0)
+			sequenceNumber = convertChildToSequenceEndNumber(childIdx, sequenceNumber);
 
 		// if the potentially converted sequence number is the beginning of this context,
 		// skip the denotation of this context in the parent.
@@ -135,9 +303,9 @@ class LocationCtxContainer extends LocationCtx {
 	public ASTFileLocation findMappedFileLocation(int sequenceNumber, int length) {
 		// try to delegate to a child.
 		int testEnd = length > 1 ? sequenceNumber + length - 1 : sequenceNumber;
-		final LocationCtx child = findChildLessOrEqualThan(sequenceNumber, false);
-		if (child != null && child.fSequenceNumber + child.getSequenceLength() > testEnd) {
-			return child.findMappedFileLocation(sequenceNumber, length);
+		final int childIdx = findChildIdxLessOrEqualThan(sequenceNumber, false);
+		if (childIdx >= 0 && fChildSequenceNumbers[childIdx] + getChildSequenceLength(childIdx) > testEnd) {
+			return getChild(childIdx).findMappedFileLocation(sequenceNumber, length);
 		}
 		return super.findMappedFileLocation(sequenceNumber, length);
 	}
@@ -148,35 +316,37 @@ class LocationCtxContainer extends LocationCtx {
 			return;
 
 		final int endSequenceNumber = sequenceNumber + length;
-		if (fChildren != null) {
+		if (fChildCount > 0) {
 			int childIdx = Math.max(0, findChildIdxLessOrEqualThan(sequenceNumber, false));
-			for (; childIdx < fChildren.size(); childIdx++) {
-				final LocationCtx child = fChildren.get(childIdx);
+			for (; childIdx < fChildCount; childIdx++) {
+				final int childSequenceNumber = fChildSequenceNumbers[childIdx];
+				final int childOffset = fChildOffsets[childIdx];
 
 				// Create the location between start and the child
-				if (sequenceNumber < child.fSequenceNumber) {
+				if (sequenceNumber < childSequenceNumber) {
 					// Compute offset backwards from the child's offset in this location
-					final int offset = child.fEndOffsetInParent - (child.fSequenceNumber - sequenceNumber);
+					final int offset = fChildEndOffsets[childIdx] - (childSequenceNumber - sequenceNumber);
 
 					// Requested range ends before the child.
-					if (endSequenceNumber <= child.fSequenceNumber) {
+					if (endSequenceNumber <= childSequenceNumber) {
 						addFileLocation(offset, endSequenceNumber - sequenceNumber, locations);
 						return;
 					}
 
-					final int gapLen = child.fOffsetInParent - offset;
+					final int gapLen = childOffset - offset;
 					if (gapLen > 0)
-						addFileLocation(offset, child.fOffsetInParent - offset, locations);
+						addFileLocation(offset, childOffset - offset, locations);
 
-					sequenceNumber = child.fSequenceNumber;
+					sequenceNumber = childSequenceNumber;
 					assert sequenceNumber < endSequenceNumber;
 				}
 
 				// Let the child create locations
-				final int childEndSequenceNumber = child.fSequenceNumber + child.getSequenceLength();
+				final int childEndSequenceNumber = childSequenceNumber + getChildSequenceLength(childIdx);
 				if (sequenceNumber < childEndSequenceNumber
 						|| (sequenceNumber == childEndSequenceNumber && !locations.isEmpty())) {
-					child.collectLocations(sequenceNumber, endSequenceNumber - sequenceNumber, locations);
+					getChild(childIdx).collectLocations(sequenceNumber, endSequenceNumber - sequenceNumber,
+							locations);
 					sequenceNumber = childEndSequenceNumber;
 					if (sequenceNumber >= endSequenceNumber)
 						return;
@@ -207,17 +377,14 @@ class LocationCtxContainer extends LocationCtx {
 	}
 
 	final int findChildIdxLessOrEqualThan(int sequenceNumber, boolean beforeReplacedChars) {
-		if (fChildren == null) {
-			return -1;
-		}
-		int upper = fChildren.size();
+		final int[] sequenceNumbers = fChildSequenceNumbers;
+		int upper = fChildCount;
 		int lower = 0;
 		while (upper > lower) {
 			int middle = (upper + lower) >>> 1;
-			LocationCtx child = fChildren.get(middle);
-			int childSequenceNumber = child.fSequenceNumber;
+			int childSequenceNumber = sequenceNumbers[middle];
 			if (beforeReplacedChars) {
-				childSequenceNumber -= child.fEndOffsetInParent - child.fOffsetInParent;
+				childSequenceNumber -= fChildEndOffsets[middle] - fChildOffsets[middle];
 			}
 			if (childSequenceNumber <= sequenceNumber) {
 				lower = middle + 1;
@@ -230,13 +397,15 @@ class LocationCtxContainer extends LocationCtx {
 
 	final LocationCtx findChildLessOrEqualThan(final int sequenceNumber, boolean beforeReplacedChars) {
 		final int idx = findChildIdxLessOrEqualThan(sequenceNumber, beforeReplacedChars);
-		return idx >= 0 ? fChildren.get(idx) : null;
+		return idx >= 0 ? getChild(idx) : null;
 	}
 
 	@Override
 	public void getInclusions(ArrayList<IASTInclusionNode> result) {
-		if (fChildren != null) {
-			for (LocationCtx ctx : fChildren) {
+		for (int i = 0; i < fChildCount; i++) {
+			// Macro expansions contain no inclusions.
+			if (fChildren[i] instanceof LocationCtx) {
+				final LocationCtx ctx = (LocationCtx) fChildren[i];
 				if (ctx.getInclusionStatement() != null) {
 					result.add(new ASTInclusionNode(ctx));
 				} else {
@@ -15,9 +15,7 @@
 package org.eclipse.cdt.internal.core.parser.scanner;
 
 import java.util.ArrayList;
-import java.util.Collection;
 
-import org.eclipse.cdt.core.dom.ast.IASTNode;
 import org.eclipse.cdt.core.dom.ast.IASTPreprocessorMacroExpansion;
 
 /**
@@ -54,35 +52,36 @@ class LocationCtxFile extends LocationCtxContainer {
 		// Try to delegate to a child.
 		final int testEnd = length > 1 ? sequenceNumber + length - 1 : sequenceNumber;
 		final int sequenceEnd = sequenceNumber + length;
-		final LocationCtx child1 = findChildLessOrEqualThan(sequenceNumber, false);
-		final LocationCtx child2 = testEnd == sequenceNumber ? child1 : findChildLessOrEqualThan(testEnd, false);
+		final int child1 = findChildIdxLessOrEqualThan(sequenceNumber, false);
+		final int child2 = testEnd == sequenceNumber ? child1 : findChildIdxLessOrEqualThan(testEnd, false);
 
-		if (child1 == child2 && child1 != null && child1.fSequenceNumber + child1.getSequenceLength() > testEnd) {
-			return child1.findMappedFileLocation(sequenceNumber, length);
+		if (child1 == child2 && child1 >= 0
+				&& getChildSequenceNumber(child1) + getChildSequenceLength(child1) > testEnd) {
+			return getChild(child1).findMappedFileLocation(sequenceNumber, length);
 		}
 
 		// Handle here.
 		int startOffset;
 		int endOffset;
 
-		if (child1 == null) {
+		if (child1 < 0) {
 			startOffset = sequenceNumber - fSequenceNumber;
 		} else {
-			int childSequenceEnd = child1.fSequenceNumber + child1.getSequenceLength();
+			int childSequenceEnd = getChildSequenceNumber(child1) + getChildSequenceLength(child1);
 			if (sequenceNumber < childSequenceEnd) {
-				startOffset = child1.fOffsetInParent;
+				startOffset = getChildOffset(child1);
 			} else { // Start beyond child1
-				startOffset = child1.fEndOffsetInParent + sequenceNumber - childSequenceEnd;
+				startOffset = getChildEndOffset(child1) + sequenceNumber - childSequenceEnd;
 			}
 		}
-		if (child2 == null) {
+		if (child2 < 0) {
 			endOffset = sequenceEnd - fSequenceNumber;
 		} else {
-			int childSequenceEnd = child2.fSequenceNumber + child2.getSequenceLength();
+			int childSequenceEnd = getChildSequenceNumber(child2) + getChildSequenceLength(child2);
 			if (childSequenceEnd < sequenceEnd) { // Beyond child2
-				endOffset = child2.fEndOffsetInParent + sequenceEnd - childSequenceEnd;
+				endOffset = getChildEndOffset(child2) + sequenceEnd - childSequenceEnd;
 			} else {
-				endOffset = child2.fEndOffsetInParent;
+				endOffset = getChildEndOffset(child2);
 			}
 		}
 		return new ASTFileLocation(this, startOffset, endOffset - startOffset);
@@ -113,17 +112,17 @@ class LocationCtxFile extends LocationCtxContainer {
 	}
 
 	public void collectMacroExpansions(int offset, int length, ArrayList<IASTPreprocessorMacroExpansion> list) {
-		Collection<LocationCtx> children = getChildren();
-		for (LocationCtx ctx : children) {
+		final int count = getChildCount();
+		for (int i = 0; i < count; i++) {
 			// Context must start before the end of the search range.
-			if (ctx.fOffsetInParent >= offset + length) {
+			if (getChildOffset(i) >= offset + length) {
 				break;
 			}
-			if (ctx instanceof LocationCtxMacroExpansion) {
-				// Expansion must end after the search start.
-				if (ctx.fEndOffsetInParent > offset) {
-					IASTNode macroExpansion = ((LocationCtxMacroExpansion) ctx).getMacroReference().getParent();
-					list.add((IASTPreprocessorMacroExpansion) macroExpansion);
+			// Expansion must end after the search start.
+			if (getChildEndOffset(i) > offset) {
+				IASTPreprocessorMacroExpansion macroExpansion = getMacroExpansion(i);
+				if (macroExpansion != null) {
+					list.add(macroExpansion);
 				}
 			}
 		}
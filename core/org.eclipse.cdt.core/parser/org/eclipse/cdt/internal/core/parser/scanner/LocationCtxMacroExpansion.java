@@ -22,6 +22,10 @@ import org.eclipse.cdt.core.dom.ast.IMacroBinding;
 
 /**
  * A location context representing macro expansions.
+ * <p>
+ * The parent does not keep the contexts for macro expansions, it stores their data in tables.
+ * Contexts are created on demand as flyweights, two flyweights of the same macro expansion are
+ * equal but not identical.
  * @since 5.0
  */
 class LocationCtxMacroExpansion extends LocationCtx {
@@ -33,7 +37,7 @@ class LocationCtxMacroExpansion extends LocationCtx {
 	public LocationCtxMacroExpansion(LocationMap map, LocationCtxContainer parent, int parentOffset,
 			int parentEndOffset, int sequenceNumber, int length, ImageLocationInfo[] imageLocations,
 			ASTMacroReferenceName expansionName) {
-		super(parent, parentOffset, parentEndOffset, sequenceNumber);
+		super(parent, parentOffset, parentEndOffset, sequenceNumber, false);
 		fLocationMap = map;
 		fLength = length;
 		fLocationInfos = imageLocations;
@@ -41,6 +45,19 @@ class LocationCtxMacroExpansion extends LocationCtx {
 		if (!(expansionName.getParent() instanceof ASTMacroExpansion)) {
 			throw new IllegalArgumentException(expansionName.toString() + " is not a macro expansion name"); //$NON-NLS-1$
 		}
+		parent.addChild(this);
+	}
+
+	/**
+	 * Creates a flyweight for the child of the given parent with the given index.
+	 */
+	LocationCtxMacroExpansion(LocationCtxContainer parent, int childIdx, ASTMacroReferenceName expansionName) {
+		super(parent, parent.getChildOffset(childIdx), parent.getChildEndOffset(childIdx),
+				parent.getChildSequenceNumber(childIdx), false);
+		fExpansionName = expansionName;
+		fLocationMap = getExpansion().getLocationMap();
+		fLength = parent.getChildSequenceLength(childIdx);
+		fLocationInfos = parent.getChildImageLocations(childIdx);
 	}
 
 	@Override
@@ -104,10 +121,25 @@ class LocationCtxMacroExpansion extends LocationCtx {
 		return null;
 	}
 
+	ImageLocationInfo[] getImageLocationInfos() {
+		return fLocationInfos;
+	}
+
 	public ASTPreprocessorName[] getNestedMacroReferences() {
 		return fLocationMap.getNestedMacroReferences((ASTMacroExpansion) fExpansionName.getParent());
 	}
 
+	@Override
+	public int hashCode() {
+		return fExpansionName.hashCode();
+	}
+
+	@Override
+	public boolean equals(Object obj) {
+		return obj instanceof LocationCtxMacroExpansion
+				&& ((LocationCtxMacroExpansion) obj).fExpansionName == fExpansionName;
+	}
+
 	@Override
 	public String toString() {
 		return "Expansion of " + fExpansionName.toString(); //$NON-NLS-1$
@@ -40,7 +40,7 @@ import org.eclipse.cdt.core.dom.ast.IFileNomination;
 import org.eclipse.cdt.core.dom.ast.IMacroBinding;
 import org.eclipse.cdt.core.parser.ISignificantMacros;
 import org.eclipse.cdt.core.parser.IncludeExportPatterns;
-import org.eclipse.cdt.core.parser.util.CharArrayObjectMap;
+import org.eclipse.cdt.core.parser.util.CharArrayHashMap;
 import org.eclipse.cdt.core.parser.util.CharArrayUtils;
 import org.eclipse.cdt.internal.core.dom.parser.ASTNode;
 import org.eclipse.cdt.internal.core.dom.parser.ASTNodeSpecification;
@@ -199,6 +199,7 @@ public class LocationMap implements ILocationResolver {
 		ASTMacroExpansion expansion = new ASTMacroExpansion(fTranslationUnit, nameNumber, endNumber);
 		ASTMacroReferenceName explicitRef = new ASTMacroReferenceName(expansion,
 				IASTPreprocessorMacroExpansion.EXPANSION_NAME, nameNumber, nameEndNumber, macro, null);
+		expansion.setMacroReference(this, explicitRef);
 		addMacroReference(explicitRef);
 		for (IASTName implicitMacroReference : implicitMacroReferences) {
 			ASTMacroReferenceName name = (ASTMacroReferenceName) implicitMacroReference;
@@ -210,7 +211,6 @@ public class LocationMap implements ILocationResolver {
 		LocationCtxMacroExpansion expansionCtx = new LocationCtxMacroExpansion(this,
 				(LocationCtxContainer) fCurrentContext, nameOffset, endOffset, endNumber, contextLength, imageLocations,
 				explicitRef);
-		expansion.setContext(expansionCtx);
 		fCurrentContext = expansionCtx;
 		fLastChildInsertionOffset = 0;
 		return fCurrentContext;
@@ -234,6 +234,9 @@ public class LocationMap implements ILocationResolver {
 			fCurrentContext = parent;
 			fLastChildInsertionOffset = child.fEndOffsetInParent;
 			parent.addChildSequenceLength(child.getSequenceLength());
+			if (child instanceof LocationCtxContainer) {
+				((LocationCtxContainer) child).trimChildren();
+			}
 		}
 	}
 
@@ -457,6 +460,11 @@ public class LocationMap implements ILocationResolver {
 		return fTranslationUnitPath;
 	}
 
+	@Override
+	public AbstractCharArray getTranslationUnitSource() {
+		return fRootContext.getSource();
+	}
+
 	/**
 	 * Line number of offset in current context.
 	 * @param offset in current context.
@@ -622,7 +630,7 @@ public class LocationMap implements ILocationResolver {
 					nodeSpec.visit(expansion);
 					if (!nodeSpec.requiresClass(IASTPreprocessorMacroExpansion.class)) {
 						LocationCtxMacroExpansion ctx = expansion.getContext();
-						if (fTranslationUnit != null) {
+						if (ctx != null && fTranslationUnit != null) {
 							FindNodeByImageLocation visitor = new FindNodeByImageLocation(ctx.fSequenceNumber,
 									ctx.getSequenceLength(), nodeSpec);
 							fTranslationUnit.accept(visitor);
@@ -685,7 +693,10 @@ public class LocationMap implements ILocationResolver {
 				fFileContexts.put(fRootContext.getFilePath(), fRootContext);
 				ArrayDeque<LocationCtxContainer> queue = new ArrayDeque<>();
 				for (LocationCtxContainer c = fRootContext; c != null; c = queue.pollFirst()) {
-					for (LocationCtx child : c.getChildren()) {
+					for (int i = 0; i < c.getChildCount(); i++) {
+						if (c.getMacroExpansion(i) != null)
+							continue; // Avoid creating flyweights for macro expansions.
+						final LocationCtx child = c.getChild(i);
 						if (child instanceof LocationCtxFile) {
 							LocationCtxFile childFileContext = (LocationCtxFile) child;
 							String path = childFileContext.getFilePath();
@@ -844,6 +855,24 @@ public class LocationMap implements ILocationResolver {
 		return result.toArray(new ASTPreprocessorName[result.size()]);
 	}
 
+	/**
+	 * Returns the location context for the given macro expansion.
+	 */
+	LocationCtxMacroExpansion findMacroExpansionContext(ASTMacroExpansion expansion) {
+		// The name of the macro and its arguments are part of the parent of the context.
+		final int startNumber = expansion.getOffset();
+		final int endNumber = startNumber + expansion.getLength();
+		final LocationCtx parent = fRootContext.findSurroundingContext(startNumber, endNumber - startNumber);
+		if (parent instanceof LocationCtxContainer) {
+			final LocationCtxContainer container = (LocationCtxContainer) parent;
+			final int idx = container.findMacroExpansionIdx(expansion.getMacroReference(), endNumber);
+			if (idx >= 0) {
+				return (LocationCtxMacroExpansion) container.getChild(idx);
+			}
+		}
+		return null;
+	}
+
 	@Override
 	public IDependencyTree getDependencyTree() {
 		return new DependencyTree(fRootContext);
@@ -880,7 +909,8 @@ public class LocationMap implements ILocationResolver {
 		return null;
 	}
 
-	public void endTranslationUnit(int endOffset, CharArrayObjectMap<char[]> sigMacros) {
+	public void endTranslationUnit(int endOffset, CharArrayHashMap<char[]> sigMacros) {
+		fRootContext.trimChildren();
 		if (fTranslationUnit != null) {
 			int offset = getSequenceNumberForOffset(endOffset);
 			((ASTNode) fTranslationUnit).setLength(offset);
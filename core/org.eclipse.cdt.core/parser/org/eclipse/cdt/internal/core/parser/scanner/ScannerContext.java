@@ -19,7 +19,7 @@ import org.eclipse.cdt.core.dom.ast.IMacroBinding;
 import org.eclipse.cdt.core.parser.ISignificantMacros;
 import org.eclipse.cdt.core.parser.IToken;
 import org.eclipse.cdt.core.parser.OffsetLimitReachedException;
-import org.eclipse.cdt.core.parser.util.CharArrayObjectMap;
+import org.eclipse.cdt.core.parser.util.CharArrayHashMap;
 import org.eclipse.cdt.core.parser.util.CharArraySet;
 
 /**
@@ -65,7 +65,7 @@ final class ScannerContext {
 	private IncludeSearchPathElement fFoundOnPath;
 	private String fFoundViaDirective;
 	private CharArraySet fInternalModifications;
-	private CharArrayObjectMap<char[]> fSignificantMacros;
+	private CharArrayHashMap<char[]> fSignificantMacros;
 	private boolean fPragmaOnce;
 	private int fLoadedVersionCount;
 
@@ -325,7 +325,7 @@ final class ScannerContext {
 
 	public void trackSignificantMacros() {
 		fInternalModifications = new CharArraySet(5);
-		fSignificantMacros = new CharArrayObjectMap<>(5);
+		fSignificantMacros = new CharArrayHashMap<>(5);
 	}
 
 	public void setPragmaOnce(boolean val) {
@@ -388,7 +388,7 @@ final class ScannerContext {
 		}
 	}
 
-	public CharArrayObjectMap<char[]> getSignificantMacros() {
+	public CharArrayHashMap<char[]> getSignificantMacros() {
 		return fSignificantMacros;
 	}
 
@@ -17,7 +17,7 @@ import java.util.Arrays;
 import java.util.Comparator;
 
 import org.eclipse.cdt.core.parser.ISignificantMacros;
-import org.eclipse.cdt.core.parser.util.CharArrayObjectMap;
+import org.eclipse.cdt.core.parser.util.CharArrayHashMap;
 import org.eclipse.cdt.core.parser.util.CharArrayUtils;
 
 /**
@@ -48,11 +48,11 @@ public class SignificantMacros implements ISignificantMacros {
 		fEncoded = encoded;
 	}
 
-	public SignificantMacros(CharArrayObjectMap<char[]> sigMacros) {
+	public SignificantMacros(CharArrayHashMap<char[]> sigMacros) {
 		fEncoded = encode(sigMacros);
 	}
 
-	private char[] encode(CharArrayObjectMap<char[]> sigMacros) {
+	private char[] encode(CharArrayHashMap<char[]> sigMacros) {
 		StringBuilder buffer = new StringBuilder();
 		char[][] keys = sigMacros.keys();
 		Arrays.sort(keys, SORTER);
@@ -20,7 +20,7 @@ import org.eclipse.cdt.core.dom.ast.IASTName;
 import org.eclipse.cdt.core.dom.ast.IBinding;
 import org.eclipse.cdt.core.dom.ast.IMacroBinding;
 import org.eclipse.cdt.core.dom.rewrite.MacroExpansionExplorer;
-import org.eclipse.cdt.core.parser.util.CharArrayMap;
+import org.eclipse.cdt.core.parser.util.CharArrayHashMap;
 import org.eclipse.cdt.internal.core.parser.scanner.Lexer.LexerOptions;
 import org.eclipse.text.edits.ReplaceEdit;
 
@@ -30,7 +30,7 @@ import org.eclipse.text.edits.ReplaceEdit;
  */
 public class SingleMacroExpansionExplorer extends MacroExpansionExplorer {
 	private final String fInput;
-	private final CharArrayMap<PreprocessorMacro> fDictionary;
+	private final CharArrayHashMap<PreprocessorMacro> fDictionary;
 	private MacroExpansionStep fFullExpansion;
 	private int fExpansionCount;
 	private final String fFilePath;
@@ -52,15 +52,15 @@ public class SingleMacroExpansionExplorer extends MacroExpansionExplorer {
 		fLexerOptions.fCreateImageLocations = false;
 	}
 
-	private CharArrayMap<PreprocessorMacro> createDictionary(IASTName[] refs) {
-		CharArrayMap<PreprocessorMacro> map = new CharArrayMap<>(refs.length);
+	private CharArrayHashMap<PreprocessorMacro> createDictionary(IASTName[] refs) {
+		CharArrayHashMap<PreprocessorMacro> map = new CharArrayHashMap<>(refs.length);
 		for (IASTName name : refs) {
 			addMacroDefinition(map, name);
 		}
 		return map;
 	}
 
-	private void addMacroDefinition(CharArrayMap<PreprocessorMacro> map, IASTName name) {
+	private void addMacroDefinition(CharArrayHashMap<PreprocessorMacro> map, IASTName name) {
 		IBinding binding = name.getBinding();
 		if (binding instanceof PreprocessorMacro) {
 			map.put(name.getSimpleID(), (PreprocessorMacro) binding);
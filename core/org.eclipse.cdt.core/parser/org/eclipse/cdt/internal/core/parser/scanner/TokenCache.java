@@ -0,0 +1,629 @@
+/*******************************************************************************
+ * Copyright (c) 2026 Eclipse CDT contributors and others.
+ *
+ * This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License 2.0
+ * which accompanies this distribution, and is available at
+ * https://www.eclipse.org/legal/epl-2.0/
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ *******************************************************************************/
+package org.eclipse.cdt.internal.core.parser.scanner;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Set;
+
+import org.eclipse.cdt.core.CCorePlugin;
+import org.eclipse.cdt.core.parser.IToken;
+import org.eclipse.cdt.core.parser.OffsetLimitReachedException;
+import org.eclipse.cdt.internal.core.parser.scanner.Lexer.LexerOptions;
+import org.eclipse.core.runtime.IProgressMonitor;
+import org.eclipse.core.runtime.IStatus;
+import org.eclipse.core.runtime.Status;
+import org.eclipse.core.runtime.jobs.Job;
+
+/**
+ * Caches the preprocessor tokens of files that are included over and over again, such that the
+ * lexer can replay them instead of scanning the characters of the file (see
+ * {@link Lexer#replay(Tokens)}). The tokens are looked up by the hash of the contents of a file
+ * together with the lexer options. They are kept in memory and, when a storage location is set,
+ * are also written to disk by a background job, such that they survive a restart.
+ * <p>
+ * The lexer records the tokens of a file while it scans the file for the second time, files that
+ * are included just once are not worth the overhead (see {@link Lexer#record(Recorder)}).
+ */
+public final class TokenCache {
+	private static final int VERSION = 1;
+	private static final String FILE_EXTENSION = ".tokens"; //$NON-NLS-1$
+	private static final int MIN_LENGTH = 1024;
+	private static final int MAX_CACHED_TOKENS = 1 << 20;
+	private static final int MAX_ENCOUNTERED = 10000;
+	private static final int MAX_FILES = 4000;
+
+	private static final TokenCache INSTANCE = new TokenCache();
+
+	public static TokenCache getDefault() {
+		return INSTANCE;
+	}
+
+	private File fLocation;
+	private final LinkedHashMap<Key, Tokens> fTokens = new LinkedHashMap<>(16, 0.75f, true);
+	private final Set<Key> fEncountered = new HashSet<>();
+	private final Map<Key, Tokens> fPendingWrites = new LinkedHashMap<>();
+	private final Object fWriteLock = new Object();
+	private final Job fWriteJob;
+	private int fTokenCount;
+
+	/**
+	 * Creates a cache that is independent of the default one.
+	 */
+	public TokenCache() {
+		fWriteJob = new Job("Writing tokens") { //$NON-NLS-1$
+			@Override
+			protected IStatus run(IProgressMonitor monitor) {
+				flush();
+				return Status.OK_STATUS;
+			}
+		};
+		fWriteJob.setSystem(true);
+	}
+
+	/**
+	 * Sets the directory for storing the tokens on disk, or <code>null</code> to keep them in
+	 * memory only. Removes the least recently used files, if there are too many of them.
+	 */
+	public synchronized void setStorageLocation(File location) {
+		fLocation = location;
+		if (location == null)
+			return;
+
+		location.mkdirs();
+		File[] files = location.listFiles((dir, name) -> name.endsWith(FILE_EXTENSION));
+		if (files != null && files.length > MAX_FILES) {
+			Arrays.sort(files, Comparator.comparingLong(File::lastModified));
+			for (int i = 0; i < files.length - MAX_FILES / 2; i++) {
+				files[i].delete();
+			}
+		}
+	}
+
+	/**
+	 * Discards the tokens held in memory and on disk.
+	 */
+	public void clear() {
+		final File location;
+		synchronized (this) {
+			fTokens.clear();
+			fEncountered.clear();
+			fPendingWrites.clear();
+			fTokenCount = 0;
+			location = fLocation;
+		}
+		if (location != null) {
+			// Wait for a write that is in progress.
+			synchronized (fWriteLock) {
+				File[] files = location.listFiles((dir, name) -> name.endsWith(FILE_EXTENSION));
+				if (files != null) {
+					for (File file : files) {
+						file.delete();
+					}
+				}
+			}
+		}
+	}
+
+	/**
+	 * Writes the recorded tokens that have not been written to disk yet. Called by the background
+	 * job, returns when the tokens recorded so far are on disk.
+	 */
+	public void flush() {
+		synchronized (fWriteLock) {
+			while (true) {
+				final Key key;
+				final Tokens tokens;
+				final File location;
+				synchronized (this) {
+					Iterator<Map.Entry<Key, Tokens>> it = fPendingWrites.entrySet().iterator();
+					if (!it.hasNext())
+						return;
+					Map.Entry<Key, Tokens> entry = it.next();
+					it.remove();
+					key = entry.getKey();
+					tokens = entry.getValue();
+					location = fLocation;
+				}
+				if (location != null) {
+					write(new File(location, key.getFileName()), tokens, key.fLength);
+				}
+			}
+		}
+	}
+
+	/**
+	 * Lets the lexer replay the tokens of its input, if they are cached, or record them, if the
+	 * input has been encountered before. The lexer must be positioned at the beginning of an input
+	 * that covers an entire file.
+	 */
+	public void attach(Lexer lexer, LexerOptions options) {
+		final Key key = getKey(lexer.getInput(), options);
+		if (key == null)
+			return;
+
+		Tokens tokens = getTokens(key);
+		if (tokens != null) {
+			lexer.replay(tokens);
+			return;
+		}
+		synchronized (this) {
+			if (fEncountered.size() >= MAX_ENCOUNTERED) {
+				fEncountered.clear();
+			}
+			if (fEncountered.add(key))
+				return;
+		}
+		lexer.record(new Recorder(this, key, options));
+	}
+
+	/**
+	 * Returns the tokens of the given input, or <code>null</code> if they are not cached.
+	 */
+	public Tokens getTokens(AbstractCharArray input, LexerOptions options) {
+		final Key key = getKey(input, options);
+		return key == null ? null : getTokens(key);
+	}
+
+	private static Key getKey(AbstractCharArray input, LexerOptions options) {
+		if (input.hasError() || input.getLength() < MIN_LENGTH)
+			return null;
+		return new Key(input.getContentsHash(), input.getLength(), getOptionBits(options));
+	}
+
+	private Tokens getTokens(Key key) {
+		final File file;
+		synchronized (this) {
+			Tokens tokens = fTokens.get(key);
+			if (tokens != null)
+				return tokens;
+			file = fLocation == null ? null : new File(fLocation, key.getFileName());
+		}
+
+		if (file == null || !file.isFile())
+			return null;
+		Tokens tokens = read(file, key.fLength);
+		if (tokens == null)
+			return null;
+		file.setLastModified(System.currentTimeMillis());
+		put(key, tokens, false);
+		return tokens;
+	}
+
+	private void put(Key key, Tokens tokens, boolean write) {
+		synchronized (this) {
+			fEncountered.remove(key);
+			if (fTokens.put(key, tokens) == null) {
+				fTokenCount += tokens.fCount;
+			}
+			// Evict the least recently used tokens.
+			Iterator<Tokens> it = fTokens.values().iterator();
+			while (fTokenCount > MAX_CACHED_TOKENS && it.hasNext()) {
+				fTokenCount -= it.next().fCount;
+				it.remove();
+			}
+			if (!write || fLocation == null)
+				return;
+			fPendingWrites.put(key, tokens);
+		}
+		fWriteJob.schedule();
+	}
+
+	private static int getOptionBits(LexerOptions options) {
+		int bits = 0;
+		if (options.fSupportDollarInIdentifiers)
+			bits |= 0x01;
+		if (options.fSupportAtSignInIdentifiers)
+			bits |= 0x02;
+		if (options.fSupportMinAndMax)
+			bits |= 0x04;
+		if (options.fSupportSlashPercentComments)
+			bits |= 0x08;
+		if (options.fSupportUTFLiterals)
+			bits |= 0x10;
+		if (options.fSupportRawStringLiterals)
+			bits |= 0x20;
+		if (options.fSupportUserDefinedLiterals)
+			bits |= 0x40;
+		if (options.fSupportDigitSeparators)
+			bits |= 0x80;
+		return bits;
+	}
+
+	private static Tokens read(File file, int length) {
+		try (DataInputStream in = new DataInputStream(new BufferedInputStream(new FileInputStream(file)))) {
+			if (in.readInt() != VERSION || in.readInt() != length)
+				return null;
+			return Tokens.read(in);
+		} catch (IOException e) {
+			// The file is corrupt, the tokens will be recorded again.
+			file.delete();
+			return null;
+		}
+	}
+
+	private static void write(File file, Tokens tokens, int length) {
+		File tmp = new File(file.getPath() + ".tmp"); //$NON-NLS-1$
+		try (DataOutputStream out = new DataOutputStream(new BufferedOutputStream(new FileOutputStream(tmp)))) {
+			out.writeInt(VERSION);
+			out.writeInt(length);
+			tokens.write(out);
+		} catch (IOException e) {
+			CCorePlugin.log(e);
+			tmp.delete();
+			return;
+		}
+		file.delete();
+		if (!tmp.renameTo(file)) {
+			tmp.delete();
+		}
+	}
+
+	private static final class Key {
+		final long fHash;
+		final int fLength;
+		final int fOptions;
+
+		Key(long hash, int length, int options) {
+			fHash = hash;
+			fLength = length;
+			fOptions = options;
+		}
+
+		String getFileName() {
+			return Long.toHexString(fHash) + '-' + Integer.toHexString(fOptions) + FILE_EXTENSION;
+		}
+
+		@Override
+		public int hashCode() {
+			return (int) (fHash ^ (fHash >>> 32)) * 31 + fOptions;
+		}
+
+		@Override
+		public boolean equals(Object obj) {
+			if (!(obj instanceof Key))
+				return false;
+			Key other = (Key) obj;
+			return fHash == other.fHash && fLength == other.fLength && fOptions == other.fOptions;
+		}
+	}
+
+	/**
+	 * Records the tokens scanned by a lexer together with the comments and problems it reports, see
+	 * {@link Lexer#record(Recorder)}.
+	 */
+	static final class Recorder implements ILexerLog {
+		private final TokenCache fCache;
+		private final Key fKey;
+		private final LexerOptions fOptions;
+		private final Tokens fTokens = new Tokens(1024, 64);
+
+		Recorder(TokenCache cache, Key key, LexerOptions options) {
+			fCache = cache;
+			fKey = key;
+			fOptions = options;
+		}
+
+		void addToken(Token t) {
+			fTokens.addToken(t);
+		}
+
+		@Override
+		public void handleComment(boolean isBlockComment, int offset, int endOffset, AbstractCharArray input) {
+			fTokens.addEvent(fTokens.fCount, isBlockComment ? Tokens.BLOCK_COMMENT : Tokens.LINE_COMMENT, 0,
+					offset, endOffset, null);
+		}
+
+		@Override
+		public void handleProblem(int problemID, char[] info, int offset, int endOffset) {
+			fTokens.addEvent(fTokens.fCount, Tokens.PROBLEM, problemID, offset, endOffset, info);
+		}
+
+		/**
+		 * Scans the given range of the input, which the lexer has scanned as an include directive,
+		 * and records the tokens. Returns <code>false</code> if the end of the range is not a token
+		 * boundary outside of the include directive.
+		 */
+		boolean addRange(AbstractCharArray input, int offset, int endOffset) {
+			final Tokens tokens = fTokens;
+			final int firstEvent = tokens.fEventCount;
+			Lexer lexer = new Lexer(input, offset, input.tryGetLength(), fOptions, this, null);
+			try {
+				for (Token t = lexer.nextToken(); t.getOffset() < endOffset; t = lexer.nextToken()) {
+					if (t.getEndOffset() > endOffset)
+						return false;
+					tokens.addToken(t);
+				}
+			} catch (OffsetLimitReachedException e) {
+				return false;
+			}
+			// The comments following the range are reported by the lexer.
+			while (tokens.fEventCount > firstEvent && tokens.fEventOffsets[tokens.fEventCount - 1] >= endOffset) {
+				tokens.fEventCount--;
+			}
+			for (int i = firstEvent; i < tokens.fEventCount; i++) {
+				if (tokens.fEventEndOffsets[i] > endOffset)
+					return false;
+			}
+			return true;
+		}
+
+		/**
+		 * Called when the lexer has reached the end of input, adds the tokens to the cache.
+		 */
+		void finish() {
+			fCache.put(fKey, fTokens, true);
+		}
+	}
+
+	/**
+	 * The tokens of a file together with the comments and problems reported while lexing it.
+	 * Instances are immutable and can be shared among lexers.
+	 */
+	public static final class Tokens {
+		private static final byte PLAIN = 0;
+		private static final byte DIGRAPH = 1;
+		private static final byte INPUT_IMAGE = 2;
+		private static final byte OWN_IMAGE = 3;
+
+		private static final byte LINE_COMMENT = 0;
+		private static final byte BLOCK_COMMENT = 1;
+		private static final byte PROBLEM = 2;
+
+		int fCount;
+		private int[] fKinds;
+		private int[] fOffsets;
+		private int[] fEndOffsets;
+		private byte[] fFlags;
+		private char[][] fImages;
+
+		// Comments and problems, each of them is reported before the token it precedes.
+		private int fEventCount;
+		private int[] fEventTokens;
+		private byte[] fEventTypes;
+		private int[] fEventIDs;
+		private int[] fEventOffsets;
+		private int[] fEventEndOffsets;
+		private char[][] fEventArgs;
+
+		private Tokens(int tokenCapacity, int eventCapacity) {
+			fKinds = new int[tokenCapacity];
+			fOffsets = new int[tokenCapacity];
+			fEndOffsets = new int[tokenCapacity];
+			fFlags = new byte[tokenCapacity];
+			fEventTokens = new int[eventCapacity];
+			fEventTypes = new byte[eventCapacity];
+			fEventIDs = new int[eventCapacity];
+			fEventOffsets = new int[eventCapacity];
+			fEventEndOffsets = new int[eventCapacity];
+			fEventArgs = new char[eventCapacity][];
+		}
+
+		private void addToken(Token t) {
+			if (fCount == fKinds.length) {
+				final int capacity = fCount * 2;
+				fKinds = Arrays.copyOf(fKinds, capacity);
+				fOffsets = Arrays.copyOf(fOffsets, capacity);
+				fEndOffsets = Arrays.copyOf(fEndOffsets, capacity);
+				fFlags = Arrays.copyOf(fFlags, capacity);
+				if (fImages != null) {
+					fImages = Arrays.copyOf(fImages, capacity);
+				}
+			}
+			final int offset = t.getOffset();
+			final int endOffset = t.getEndOffset();
+			byte flag = PLAIN;
+			if (t instanceof TokenForDigraph) {
+				flag = DIGRAPH;
+			} else if (t instanceof TokenWithImage) {
+				final char[] image = t.getCharImage();
+				if (image.length == endOffset - offset) {
+					flag = INPUT_IMAGE;
+				} else {
+					// The image differs from the input because of trigraphs or line-splices.
+					flag = OWN_IMAGE;
+					if (fImages == null) {
+						fImages = new char[fKinds.length][];
+					}
+					fImages[fCount] = image;
+				}
+			}
+			fKinds[fCount] = t.getType();
+			fOffsets[fCount] = offset;
+			fEndOffsets[fCount] = endOffset;
+			fFlags[fCount] = flag;
+			fCount++;
+		}
+
+		private void addEvent(int token, byte type, int id, int offset, int endOffset, char[] arg) {
+			if (fEventCount == fEventTokens.length) {
+				final int capacity = fEventCount * 2;
+				fEventTokens = Arrays.copyOf(fEventTokens, capacity);
+				fEventTypes = Arrays.copyOf(fEventTypes, capacity);
+				fEventIDs = Arrays.copyOf(fEventIDs, capacity);
+				fEventOffsets = Arrays.copyOf(fEventOffsets, capacity);
+				fEventEndOffsets = Arrays.copyOf(fEventEndOffsets, capacity);
+				fEventArgs = Arrays.copyOf(fEventArgs, capacity);
+			}
+			fEventTokens[fEventCount] = token;
+			fEventTypes[fEventCount] = type;
+			fEventIDs[fEventCount] = id;
+			fEventOffsets[fEventCount] = offset;
+			fEventEndOffsets[fEventCount] = endOffset;
+			fEventArgs[fEventCount] = arg;
+			fEventCount++;
+		}
+
+		/**
+		 * Returns the number of tokens, including the end of input.
+		 */
+		public int size() {
+			return fCount;
+		}
+
+		/**
+		 * Creates the token with the given index.
+		 */
+		Token createToken(int idx, Object source, AbstractCharArray input) {
+			final int kind = fKinds[idx];
+			final int offset = fOffsets[idx];
+			final int endOffset = fEndOffsets[idx];
+			switch (fFlags[idx]) {
+			case DIGRAPH:
+				return new TokenForDigraph(kind, source, offset, endOffset);
+			case INPUT_IMAGE:
+				final char[] image = new char[endOffset - offset];
+				input.arraycopy(offset, image, 0, image.length);
+				return new TokenWithImage(kind, source, offset, endOffset, image);
+			case OWN_IMAGE:
+				return new TokenWithImage(kind, source, offset, endOffset, fImages[idx]);
+			default:
+				return new Token(kind, source, offset, endOffset);
+			}
+		}
+
+		/**
+		 * Reports the comments and problems preceding the token with the given index, starting with
+		 * the given event. Returns the index of the first event that has not been reported.
+		 */
+		int replayEvents(int event, int idx, ILexerLog log, AbstractCharArray input) {
+			for (; event < fEventCount && fEventTokens[event] <= idx; event++) {
+				final int offset = fEventOffsets[event];
+				final int endOffset = fEventEndOffsets[event];
+				switch (fEventTypes[event]) {
+				case PROBLEM:
+					log.handleProblem(fEventIDs[event], fEventArgs[event], offset, endOffset);
+					break;
+				default:
+					log.handleComment(fEventTypes[event] == BLOCK_COMMENT, offset, endOffset, input);
+					break;
+				}
+			}
+			return event;
+		}
+
+		/**
+		 * Returns the index of the newline token at the given offset, or -1 if there is none.
+		 */
+		int findNewline(int offset) {
+			final int idx = Arrays.binarySearch(fOffsets, 0, fCount, offset);
+			if (idx >= 0 && fKinds[idx] == Lexer.tNEWLINE)
+				return idx;
+			return -1;
+		}
+
+		/**
+		 * Returns the index of the first event that follows the token with the given index.
+		 */
+		int findEventAfter(int idx) {
+			int low = 0;
+			int high = fEventCount;
+			while (low < high) {
+				final int mid = (low + high) >>> 1;
+				if (fEventTokens[mid] <= idx) {
+					low = mid + 1;
+				} else {
+					high = mid;
+				}
+			}
+			return low;
+		}
+
+		private void write(DataOutputStream out) throws IOException {
+			out.writeInt(fCount);
+			for (int i = 0; i < fCount; i++) {
+				out.writeInt(fKinds[i]);
+				out.writeInt(fOffsets[i]);
+				out.writeInt(fEndOffsets[i]);
+				out.writeByte(fFlags[i]);
+				if (fFlags[i] == OWN_IMAGE) {
+					writeChars(out, fImages[i]);
+				}
+			}
+			out.writeInt(fEventCount);
+			for (int i = 0; i < fEventCount; i++) {
+				out.writeInt(fEventTokens[i]);
+				out.writeByte(fEventTypes[i]);
+				out.writeInt(fEventIDs[i]);
+				out.writeInt(fEventOffsets[i]);
+				out.writeInt(fEventEndOffsets[i]);
+				writeChars(out, fEventArgs[i]);
+			}
+		}
+
+		private static Tokens read(DataInputStream in) throws IOException {
+			final int count = in.readInt();
+			if (count <= 0 || count > MAX_CACHED_TOKENS)
+				throw new IOException("Invalid token count"); //$NON-NLS-1$
+			Tokens tokens = new Tokens(count, 1);
+			for (int i = 0; i < count; i++) {
+				tokens.fKinds[i] = in.readInt();
+				tokens.fOffsets[i] = in.readInt();
+				tokens.fEndOffsets[i] = in.readInt();
+				final byte flag = in.readByte();
+				tokens.fFlags[i] = flag;
+				if (flag == OWN_IMAGE) {
+					if (tokens.fImages == null) {
+						tokens.fImages = new char[count][];
+					}
+					tokens.fImages[i] = readChars(in);
+				}
+			}
+			tokens.fCount = count;
+			final int eventCount = in.readInt();
+			for (int i = 0; i < eventCount; i++) {
+				int token = in.readInt();
+				byte type = in.readByte();
+				int id = in.readInt();
+				int offset = in.readInt();
+				int endOffset = in.readInt();
+				tokens.addEvent(token, type, id, offset, endOffset, readChars(in));
+			}
+			if (tokens.fKinds[count - 1] != IToken.tEND_OF_INPUT)
+				throw new IOException("Incomplete token stream"); //$NON-NLS-1$
+			return tokens;
+		}
+
+		private static void writeChars(DataOutputStream out, char[] chars) throws IOException {
+			if (chars == null) {
+				out.writeInt(-1);
+				return;
+			}
+			out.writeInt(chars.length);
+			for (char c : chars) {
+				out.writeChar(c);
+			}
+		}
+
+		private static char[] readChars(DataInputStream in) throws IOException {
+			final int length = in.readInt();
+			if (length < 0)
+				return null;
+			char[] chars = new char[length];
+			for (int i = 0; i < length; i++) {
+				chars[i] = in.readChar();
+			}
+			return chars;
+		}
+	}
+}
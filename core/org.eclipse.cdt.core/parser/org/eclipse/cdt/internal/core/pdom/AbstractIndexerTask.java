@@ -33,19 +33,24 @@ import java.util.LinkedList;
 import java.util.List;
 import java.util.Map;
 import java.util.Set;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
 import java.util.regex.Matcher;
 import java.util.regex.Pattern;
 
 import org.eclipse.cdt.core.CCorePlugin;
 import org.eclipse.cdt.core.dom.ILinkage;
 import org.eclipse.cdt.core.dom.IPDOMIndexerTask;
+import org.eclipse.cdt.core.dom.ast.ASTVisitor;
 import org.eclipse.cdt.core.dom.ast.IASTComment;
 import org.eclipse.cdt.core.dom.ast.IASTFileLocation;
+import org.eclipse.cdt.core.dom.ast.IASTName;
 import org.eclipse.cdt.core.dom.ast.IASTPreprocessorIncludeStatement;
 import org.eclipse.cdt.core.dom.ast.IASTTranslationUnit;
 import org.eclipse.cdt.core.dom.ast.IASTTranslationUnit.IDependencyTree;
 import org.eclipse.cdt.core.dom.ast.IASTTranslationUnit.IDependencyTree.IASTInclusionNode;
 import org.eclipse.cdt.core.dom.ast.cpp.ICPPUsingDirective;
+import org.eclipse.cdt.core.index.IIndex;
 import org.eclipse.cdt.core.index.IIndexFile;
 import org.eclipse.cdt.core.index.IIndexFileLocation;
 import org.eclipse.cdt.core.index.IIndexInclude;
@@ -64,6 +69,7 @@ import org.eclipse.cdt.core.parser.ISignificantMacros;
 import org.eclipse.cdt.core.parser.IncludeExportPatterns;
 import org.eclipse.cdt.core.parser.IncludeFileContentProvider;
 import org.eclipse.cdt.internal.core.dom.IIncludeFileResolutionHeuristics;
+import org.eclipse.cdt.internal.core.index.CIndex;
 import org.eclipse.cdt.internal.core.index.FileContentKey;
 import org.eclipse.cdt.internal.core.index.IIndexFragment;
 import org.eclipse.cdt.internal.core.index.IIndexFragmentFile;
@@ -133,6 +139,17 @@ public abstract class AbstractIndexerTask extends PDOMWriter {
 		LocationTask find(IIndexFileLocation ifl) {
 			return fLocationTasks.get(ifl);
 		}
+
+		/**
+		 * Returns whether an existing version of a file in the index has to be updated.
+		 */
+		boolean hasVersionTasks() {
+			for (LocationTask locTask : fLocationTasks.values()) {
+				if (!locTask.fVersionTasks.isEmpty())
+					return true;
+			}
+			return false;
+		}
 	}
 
 	private static class LocationTask {
@@ -323,8 +340,10 @@ public abstract class AbstractIndexerTask extends PDOMWriter {
 	private Set<String> fHeadersToIndexAllVersions = Collections.emptySet();
 	private Pattern fPragmaPrivatePattern;
 	private List<LinkageTask> fRequestsPerLinkage = new ArrayList<>();
-	private Map<IIndexFile, IndexFileContent> fIndexContentCache = new LRUCache<>(500);
-	private Map<IIndexFileLocation, IIndexFragmentFile[]> fIndexFilesCache = new LRUCache<>(5000);
+	// The caches are accessed by the parser threads, see parseSourcesInParallel().
+	private Map<IIndexFile, IndexFileContent> fIndexContentCache = Collections.synchronizedMap(new LRUCache<>(500));
+	private Map<IIndexFileLocation, IIndexFragmentFile[]> fIndexFilesCache = Collections
+			.synchronizedMap(new LRUCache<>(5000));
 	private Map<IIndexFileLocation, LocationTask> fOneLinkageTasks = new HashMap<>();
 
 	private Object[] fFilesToUpdate;
@@ -339,6 +358,7 @@ public abstract class AbstractIndexerTask extends PDOMWriter {
 	private long fIncludedFileSizeLimit;
 	private InternalFileContentProvider fCodeReaderFactory;
 	private int fSwallowOutOfMemoryError = 5;
+	private int fParserThreads = 1;
 	/**
 	 * A queue of urgent indexing tasks that contribute additional files to this task.
 	 * The files from the urgent tasks are indexed before all not yet processed files.
@@ -398,6 +418,15 @@ public abstract class AbstractIndexerTask extends PDOMWriter {
 		fPragmaPrivatePattern = pattern;
 	}
 
+	/**
+	 * Sets the number of threads used for parsing source files. With more than one thread
+	 * the sources are parsed concurrently, while the index is still written by the thread
+	 * running the task.
+	 */
+	public final void setParserThreads(int threads) {
+		fParserThreads = Math.max(1, threads);
+	}
+
 	/**
 	 * @see IPDOMIndexerTask#acceptUrgentTask(IPDOMIndexerTask)
 	 */
@@ -545,6 +574,9 @@ public abstract class AbstractIndexerTask extends PDOMWriter {
 			if (getSkipReferences() == SKIP_ALL_REFERENCES) {
 				fASTOptions |= ILanguage.OPTION_SKIP_FUNCTION_BODIES;
 			}
+			if (isIncludesOnly()) {
+				fASTOptions |= ILanguage.OPTION_PREPROCESS_ONLY;
+			}
 
 			fIndex.resetCacheCounters();
 			fIndex.acquireReadLock();
@@ -649,6 +681,7 @@ public abstract class AbstractIndexerTask extends PDOMWriter {
 		final boolean checkTimestamps = (fUpdateFlags & IIndexManager.UPDATE_CHECK_TIMESTAMPS) != 0;
 		final boolean checkFileContentsHash = (fUpdateFlags & IIndexManager.UPDATE_CHECK_CONTENTS_HASH) != 0;
 		final boolean forceUnresolvedIncludes = (fUpdateFlags & IIndexManager.UPDATE_UNRESOLVED_INCLUDES) != 0;
+		final boolean upgradeIncludesOnly = !isIncludesOnly();
 		final boolean both = fIndexHeadersWithoutContext == UnusedHeaderStrategy.useBoth;
 		int count = 0;
 		int forceFirst = fForceNumberFiles;
@@ -681,6 +714,7 @@ public abstract class AbstractIndexerTask extends PDOMWriter {
 								foundInLinkage = true;
 								indexFiles[i] = null; // Take the file.
 								boolean update = force || (forceUnresolvedIncludes && ifile.hasUnresolvedInclude())
+										|| (upgradeIncludesOnly && ifile.isIncludesOnly())
 										|| isModified(checkTimestamps, checkFileContentsHash, ifl, tu, ifile);
 								if (update && requestUpdate(linkageID, ifl, ifile, tu, updateKind)) {
 									count++;
@@ -705,6 +739,7 @@ public abstract class AbstractIndexerTask extends PDOMWriter {
 						count++;
 					} else {
 						boolean update = force || (forceUnresolvedIncludes && ifile.hasUnresolvedInclude())
+								|| (upgradeIncludesOnly && ifile.isIncludesOnly())
 								|| isModified(checkTimestamps, checkFileContentsHash, ifl, tu, ifile);
 						final int linkageID = ifile.getLinkageID();
 						if (update && requestUpdate(linkageID, ifl, ifile, tu, UpdateKind.OTHER_HEADER)) {
@@ -734,6 +769,14 @@ public abstract class AbstractIndexerTask extends PDOMWriter {
 		list.add(ifl);
 	}
 
+	/**
+	 * Returns whether the translation units are preprocessed, only.
+	 * @see IIndexManager#UPDATE_INCLUDES_ONLY
+	 */
+	private boolean isIncludesOnly() {
+		return (fUpdateFlags & IIndexManager.UPDATE_INCLUDES_ONLY) != 0;
+	}
+
 	private boolean isRequiredInIndex(Object tu, IIndexFileLocation ifl, boolean isSourceUnit) {
 		// External files are never required
 		if (fResolver.isIndexedOnlyIfIncluded(tu))
@@ -897,17 +940,24 @@ public abstract class AbstractIndexerTask extends PDOMWriter {
 				continue;
 
 			// First parse the required sources.
-			for (Iterator<IIndexFileLocation> it = filesAtPriority.iterator(); it.hasNext();) {
-				IIndexFileLocation ifl = it.next();
-				LocationTask locTask = map.find(ifl);
-				if (locTask == null || locTask.isCompleted()) {
-					it.remove();
-				} else if (locTask.fKind == UpdateKind.REQUIRED_SOURCE) {
-					if (hasUrgentTasks())
-						return;
-					final Object tu = locTask.fTu;
-					final IScannerInfo scannerInfo = getScannerInfo(linkageID, tu);
-					parseFile(tu, getLanguage(tu, linkageID), ifl, scannerInfo, null, progress.split(1));
+			if (fParserThreads > 1 && !map.hasVersionTasks()) {
+				// Writing an AST to the index only adds files, such that the ASTs parsed
+				// concurrently stay valid.
+				if (!parseSourcesInParallel(linkageID, map, filesAtPriority, progress))
+					return;
+			} else {
+				for (Iterator<IIndexFileLocation> it = filesAtPriority.iterator(); it.hasNext();) {
+					IIndexFileLocation ifl = it.next();
+					LocationTask locTask = map.find(ifl);
+					if (locTask == null || locTask.isCompleted()) {
+						it.remove();
+					} else if (locTask.fKind == UpdateKind.REQUIRED_SOURCE) {
+						if (hasUrgentTasks())
+							return;
+						final Object tu = locTask.fTu;
+						final IScannerInfo scannerInfo = getScannerInfo(linkageID, tu);
+						parseFile(tu, getLanguage(tu, linkageID), ifl, scannerInfo, null, progress.split(1));
+					}
 				}
 			}
 
@@ -1141,6 +1191,238 @@ public abstract class AbstractIndexerTask extends PDOMWriter {
 		return null;
 	}
 
+	/**
+	 * Parses the required sources among the given files using {@link #fParserThreads} threads.
+	 * The thread running the task remains the only writer of the index, it stores the ASTs in
+	 * the order they are parsed. This must be used only if no existing versions of files in the
+	 * index are updated, otherwise writing one AST could invalidate index bindings referenced
+	 * by another one.
+	 *
+	 * @return {@code false} if parsing was stopped because of urgent tasks.
+	 */
+	private boolean parseSourcesInParallel(int linkageID, LinkageTask map, List<IIndexFileLocation> files,
+			SubMonitor progress) throws CoreException, InterruptedException {
+		Deque<ParseRequest> requests = new ArrayDeque<>();
+		for (Iterator<IIndexFileLocation> it = files.iterator(); it.hasNext();) {
+			IIndexFileLocation ifl = it.next();
+			LocationTask locTask = map.find(ifl);
+			if (locTask == null || locTask.isCompleted()) {
+				it.remove();
+			} else if (locTask.fKind == UpdateKind.REQUIRED_SOURCE) {
+				requests.add(new ParseRequest(ifl, locTask.fTu, getLanguage(locTask.fTu, linkageID)));
+			}
+		}
+		final int count = requests.size();
+		if (count == 0)
+			return true;
+
+		ParserThreads threads = new ParserThreads(linkageID, requests, Math.min(fParserThreads, count));
+		threads.start();
+		try {
+			for (int i = 0; i < count; i++) {
+				if (hasUrgentTasks())
+					return false;
+				writeParsedSource(linkageID, threads.take(), progress.split(1));
+			}
+		} finally {
+			threads.stop();
+		}
+		return true;
+	}
+
+	/**
+	 * Writes a source file parsed by one of the {@link ParserThreads} to the index. The errors
+	 * are handled the same way as in {@link #parseFile}.
+	 */
+	private void writeParsedSource(int linkageID, ParseRequest request, IProgressMonitor monitor)
+			throws CoreException, InterruptedException {
+		SubMonitor progress = SubMonitor.convert(monitor, 11);
+		boolean resultCacheCleared = false;
+		IPath path = getLabel(request.fLocation);
+		Throwable th = request.fException;
+		if (th == null) {
+			try {
+				progress.subTask(getMessage(MessageKind.parsingFileTask, path.lastSegment(),
+						path.removeLastSegments(1).toString()));
+				fStatistics.fParsingTime += request.fParsingTime;
+				if (request.fAST == null) {
+					++fStatistics.fTooManyTokensCount;
+				} else {
+					long start = System.currentTimeMillis();
+					writeToIndex(linkageID, request.fAST, request.fCodeReader, null, progress.split(10));
+					resultCacheCleared = true; // The cache was cleared while writing to the index.
+					if (fShowActivity) {
+						long time = System.currentTimeMillis() - start + request.fParsingTime;
+						trace("Indexer: processed " + path.toOSString() + " [" + time + " ms]"); //$NON-NLS-1$ //$NON-NLS-2$ //$NON-NLS-3$
+					}
+				}
+			} catch (OperationCanceledException e) {
+			} catch (RuntimeException | StackOverflowError | CoreException | AssertionError e) {
+				th = e;
+			} catch (OutOfMemoryError e) {
+				if (--fSwallowOutOfMemoryError < 0)
+					throw e;
+				th = e;
+			}
+		} else if (th instanceof OutOfMemoryError) {
+			if (--fSwallowOutOfMemoryError < 0)
+				throw (OutOfMemoryError) th;
+		} else if (th instanceof InterruptedException) {
+			throw (InterruptedException) th;
+		} else if (th instanceof Error && !(th instanceof StackOverflowError) && !(th instanceof AssertionError)) {
+			throw (Error) th;
+		}
+		if (th != null && !(th instanceof OperationCanceledException)) {
+			swallowError(path, th);
+		}
+
+		if (!resultCacheCleared) {
+			fIndex.acquireWriteLock(progress.split(1));
+			try {
+				fIndex.clearResultCache();
+			} finally {
+				fIndex.releaseWriteLock();
+			}
+		}
+	}
+
+	/**
+	 * A source file to be parsed by one of the {@link ParserThreads}, and the outcome of parsing it.
+	 */
+	private static class ParseRequest {
+		final IIndexFileLocation fLocation;
+		final Object fTu;
+		final AbstractLanguage fLanguage;
+		FileContent fCodeReader;
+		IASTTranslationUnit fAST;
+		long fParsingTime;
+		Throwable fException;
+
+		ParseRequest(IIndexFileLocation location, Object tu, AbstractLanguage language) {
+			fLocation = location;
+			fTu = tu;
+			fLanguage = language;
+		}
+	}
+
+	/**
+	 * Threads parsing source files for {@link #parseSourcesInParallel}. Each file is parsed with its
+	 * own {@link CIndex}. A thread holds a read lock while parsing a file and resolving its names,
+	 * such that the writer can acquire the write lock in between. A thread does not start on the
+	 * next file while the writer is waiting for the write lock. The parsed files are handed over to
+	 * the writer by a bounded queue, which limits the number of ASTs kept in memory.
+	 */
+	private class ParserThreads {
+		private final int fLinkageID;
+		private final Deque<ParseRequest> fRequests;
+		private final BlockingQueue<ParseRequest> fResults;
+		private final Thread[] fThreads;
+		private volatile boolean fStopped;
+
+		ParserThreads(int linkageID, Deque<ParseRequest> requests, int threads) {
+			fLinkageID = linkageID;
+			fRequests = requests;
+			fResults = new ArrayBlockingQueue<>(threads);
+			fThreads = new Thread[threads];
+			for (int i = 0; i < threads; i++) {
+				fThreads[i] = new Thread(this::run, "CDT Indexer Parser " + (i + 1)); //$NON-NLS-1$
+				fThreads[i].setDaemon(true);
+			}
+		}
+
+		void start() {
+			for (Thread thread : fThreads) {
+				thread.start();
+			}
+		}
+
+		ParseRequest take() throws InterruptedException {
+			return fResults.take();
+		}
+
+		void stop() throws InterruptedException {
+			fStopped = true;
+			for (Thread thread : fThreads) {
+				while (thread.isAlive()) {
+					// Make room for a thread waiting to hand over an AST.
+					fResults.clear();
+					thread.join(10);
+				}
+			}
+			fResults.clear();
+		}
+
+		private ParseRequest nextRequest() {
+			synchronized (fRequests) {
+				return fStopped ? null : fRequests.poll();
+			}
+		}
+
+		private void run() {
+			final IIndexFragment fragment = fIndex.getWritableFragment();
+			InternalFileContentProvider provider = null;
+			ParseRequest request;
+			try {
+				while ((request = nextRequest()) != null) {
+					try {
+						if (fShowActivity) {
+							trace("Indexer: parsing " + getLabel(request.fLocation).toOSString()); //$NON-NLS-1$
+						}
+						long start = System.currentTimeMillis();
+						request.fCodeReader = fResolver.getCodeReader(request.fTu);
+						if (isParseable(request.fCodeReader)) {
+							final IScannerInfo scannerInfo = getScannerInfo(fLinkageID, request.fTu);
+							// The AST keeps using the index after the lock is released, its caches must not
+							// be shared with the next file.
+							final CIndex index = new CIndex(new IIndexFragment[] { fragment });
+							if (fragment instanceof PDOM) {
+								((PDOM) fragment).awaitWaitingWriter();
+							}
+							index.acquireReadLock();
+							try {
+								provider = prepareFileContentProvider(provider, index, request.fLanguage, null);
+								request.fAST = request.fLanguage.getASTTranslationUnit(request.fCodeReader,
+										scannerInfo, provider, index, fASTOptions, getLogService());
+								if (request.fAST != null) {
+									resolveBindings(request.fAST);
+								}
+							} finally {
+								index.releaseReadLock();
+							}
+						}
+						request.fParsingTime = System.currentTimeMillis() - start;
+					} catch (Throwable e) {
+						request.fException = e;
+					}
+					fResults.put(request);
+				}
+			} catch (InterruptedException e) {
+			}
+		}
+	}
+
+	/**
+	 * Resolves the names of an AST parsed by one of the {@link ParserThreads} while the thread
+	 * holds the read lock. Errors are ignored, they are reported when the AST is written to
+	 * the index.
+	 */
+	private static void resolveBindings(IASTTranslationUnit ast) {
+		ast.accept(new ASTVisitor() {
+			{
+				shouldVisitNames = true;
+			}
+
+			@Override
+			public int visit(IASTName name) {
+				try {
+					name.resolveBinding();
+				} catch (RuntimeException | StackOverflowError e) {
+				}
+				return PROCESS_CONTINUE;
+			}
+		});
+	}
+
 	private AbstractLanguage getLanguage(Object tu, int linkageID) {
 		for (AbstractLanguage language : fResolver.getLanguages(tu, UnusedHeaderStrategy.useBoth)) {
 			if (language.getLinkageID() == linkageID) {
@@ -1210,43 +1492,60 @@ public abstract class AbstractIndexerTask extends PDOMWriter {
 
 	private final IASTTranslationUnit createAST(AbstractLanguage language, FileContent codeReader,
 			IScannerInfo scanInfo, int options, FileContext ctx, IProgressMonitor monitor) throws CoreException {
-		if (codeReader == null) {
+		if (!isParseable(codeReader)) {
 			return null;
 		}
+		final IIndexFile[] ctx2header = ctx == null ? null : new IIndexFile[] { ctx.fContext, ctx.fOldFile };
+		fCodeReaderFactory = prepareFileContentProvider(fCodeReaderFactory, fIndex, language, ctx2header);
+
+		IASTTranslationUnit ast = language.getASTTranslationUnit(codeReader, scanInfo, fCodeReaderFactory, fIndex,
+				options, getLogService());
+		if (monitor.isCanceled()) {
+			throw new OperationCanceledException();
+		}
+		return ast;
+	}
+
+	private boolean isParseable(FileContent codeReader) {
+		if (codeReader == null) {
+			return false;
+		}
 		if (fTranslationUnitSizeLimit > 0
 				&& fResolver.getFileSize(codeReader.getFileLocation()) > fTranslationUnitSizeLimit) {
 			if (fShowActivity) {
 				trace("Indexer: Skipping large file " + codeReader.getFileLocation()); //$NON-NLS-1$
 			}
-			return null;
+			return false;
 		}
-		final IIndexFile[] ctx2header = ctx == null ? null : new IIndexFile[] { ctx.fContext, ctx.fOldFile };
-		if (fCodeReaderFactory == null) {
+		return true;
+	}
+
+	/**
+	 * Creates the file content provider for parsing a file with the given language, or prepares
+	 * the provider used for parsing the previous file.
+	 */
+	private InternalFileContentProvider prepareFileContentProvider(InternalFileContentProvider provider,
+			IIndex index, AbstractLanguage language, IIndexFile[] ctx2header) {
+		if (provider == null) {
 			InternalFileContentProvider fileContentProvider = createInternalFileContentProvider();
 			if (fIsFastIndexer) {
-				IndexBasedFileContentProvider ibfcp = new IndexBasedFileContentProvider(fIndex, fResolver,
+				IndexBasedFileContentProvider ibfcp = new IndexBasedFileContentProvider(index, fResolver,
 						language.getLinkageID(), fileContentProvider, this);
 				ibfcp.setContextToHeaderGap(ctx2header);
 				ibfcp.setFileSizeLimit(fIncludedFileSizeLimit);
 				ibfcp.setHeadersToIndexAllVersions(fHeadersToIndexAllVersions);
 				ibfcp.setIndexAllHeaderVersions(fIndexAllHeaderVersions);
-				fCodeReaderFactory = ibfcp;
+				provider = ibfcp;
 			} else {
-				fCodeReaderFactory = fileContentProvider;
+				provider = fileContentProvider;
 			}
-			fCodeReaderFactory.setIncludeResolutionHeuristics(createIncludeHeuristics());
+			provider.setIncludeResolutionHeuristics(createIncludeHeuristics());
 		} else if (fIsFastIndexer) {
-			final IndexBasedFileContentProvider ibfcp = (IndexBasedFileContentProvider) fCodeReaderFactory;
+			final IndexBasedFileContentProvider ibfcp = (IndexBasedFileContentProvider) provider;
 			ibfcp.setContextToHeaderGap(ctx2header);
 			ibfcp.setLinkage(language.getLinkageID());
 		}
-
-		IASTTranslationUnit ast = language.getASTTranslationUnit(codeReader, scanInfo, fCodeReaderFactory, fIndex,
-				options, getLogService());
-		if (monitor.isCanceled()) {
-			throw new OperationCanceledException();
-		}
-		return ast;
+		return provider;
 	}
 
 	private InternalFileContentProvider createInternalFileContentProvider() {
@@ -1287,6 +1586,7 @@ public abstract class AbstractIndexerTask extends PDOMWriter {
 		try {
 			// The default processing is handled by the indexer task.
 			PDOMWriter.Data data = new PDOMWriter.Data(ast, fileKeys, fIndex);
+			data.fIncludesOnly = isIncludesOnly();
 			int storageLinkageID = process(ast, data);
 			if (storageLinkageID != ILinkage.NO_LINKAGE_ID) {
 				IASTComment[] comments = ast.getComments();
@@ -1309,6 +1609,7 @@ public abstract class AbstractIndexerTask extends PDOMWriter {
 			progress.setWorkRemaining(processors.size());
 			for (IPDOMASTProcessor processor : processors) {
 				data = new PDOMWriter.Data(ast, fileKeys, fIndex);
+				data.fIncludesOnly = isIncludesOnly();
 				storageLinkageID = processor.process(ast, data);
 				if (storageLinkageID != ILinkage.NO_LINKAGE_ID)
 					addSymbols(data, storageLinkageID, ctx, progress.split(1));
@@ -1444,6 +1745,12 @@ public abstract class AbstractIndexerTask extends PDOMWriter {
 					throw new DependsOnOutdatedFileException(request.fTu, task.fIndexFile);
 			}
 		}
+		if (!isIncludesOnly() && file instanceof IIndexFragmentFile && ((IIndexFragmentFile) file).isIncludesOnly()) {
+			// The file lacks the names, it has to be parsed.
+			Object tu = fResolver.getInputFile(ifl);
+			if (tu != null)
+				throw new DependsOnOutdatedFileException(tu, (IIndexFragmentFile) file);
+		}
 		IndexFileContent fc = fIndexContentCache.get(file);
 		if (fc == null) {
 			fc = new IndexFileContent(file);
@@ -1503,8 +1810,9 @@ public abstract class AbstractIndexerTask extends PDOMWriter {
 		if (files == null) {
 			IIndexFragmentFile[] fragFiles = fIndex.getWritableFiles(linkageID, ifl);
 			int j = 0;
+			final boolean includesOnly = isIncludesOnly();
 			for (int i = 0; i < fragFiles.length; i++) {
-				if (fragFiles[i].hasContent()) {
+				if (fragFiles[i].hasContent() && (includesOnly || !fragFiles[i].isIncludesOnly())) {
 					if (j != i)
 						fragFiles[j] = fragFiles[i];
 					j++;
@@ -32,6 +32,8 @@ import java.util.LinkedList;
 import java.util.List;
 import java.util.Map;
 import java.util.Set;
+import java.util.WeakHashMap;
+import java.util.concurrent.atomic.AtomicIntegerArray;
 import java.util.regex.Pattern;
 
 import org.eclipse.cdt.core.CCorePlugin;
@@ -81,6 +83,7 @@ import org.eclipse.cdt.internal.core.pdom.db.DBProperties;
 import org.eclipse.cdt.internal.core.pdom.db.Database;
 import org.eclipse.cdt.internal.core.pdom.db.IBTreeComparator;
 import org.eclipse.cdt.internal.core.pdom.db.IBTreeVisitor;
+import org.eclipse.cdt.internal.core.pdom.db.TrigramIndex;
 import org.eclipse.cdt.internal.core.pdom.dom.BindingCollector;
 import org.eclipse.cdt.internal.core.pdom.dom.CompoundRecordIterator;
 import org.eclipse.cdt.internal.core.pdom.dom.FindBinding;
@@ -308,10 +311,12 @@ public class PDOM extends PlatformObject implements IPDOM {
 	 *  217.0 - Added nodiscard class/struct information, bug 534420
 	 *  218.0 - Added nodiscard enums information, bug 534420
 	 *  219.0 - Fix enums nodiscard information in the index from 8 byte to 1 byte, bug 534420
+	 *  219.1 - Optional trigram index of binding names for pattern searches
+	 *  220.0 - Configurable alignment of record pointers for databases larger than 32 GB
 	 */
-	private static final int MIN_SUPPORTED_VERSION = version(219, 0);
-	private static final int MAX_SUPPORTED_VERSION = version(219, Short.MAX_VALUE);
-	private static final int DEFAULT_VERSION = version(219, 0);
+	private static final int MIN_SUPPORTED_VERSION = version(220, 0);
+	private static final int MAX_SUPPORTED_VERSION = version(220, Short.MAX_VALUE);
+	private static final int DEFAULT_VERSION = version(220, 0);
 
 	private static int version(int major, int minor) {
 		return (major << 16) + minor;
@@ -348,9 +353,10 @@ public class PDOM extends PlatformObject implements IPDOM {
 	public static final int INDEX_OF_FILES_WITH_UNRESOLVED_INCLUDES = Database.DATA_AREA + 12;
 	public static final int PROPERTIES = Database.DATA_AREA + 16;
 	public static final int TAG_INDEX = Database.DATA_AREA + 20;
-	public static final int END = Database.DATA_AREA + 24;
+	public static final int NAME_TRIGRAM_INDEX = Database.DATA_AREA + 24;
+	public static final int END = Database.DATA_AREA + 28;
 	static {
-		assert END <= Database.CHUNK_SIZE;
+		assert END <= Database.FORMAT_OFFSET;
 	}
 
 	public static class ChangeEvent {
@@ -410,14 +416,20 @@ public class PDOM extends PlatformObject implements IPDOM {
 	protected Database db;
 	private BTree fileIndex;
 	private PDOMTagIndex tagIndex;
+	private TrigramIndex nameTrigramIndex;
 	private BTree indexOfDefectiveFiles;
 	private BTree indexOfFiledWithUnresolvedIncludes;
 	private final Map<Integer, PDOMLinkage> fLinkageIDCache = new HashMap<>();
 	private File fPath;
 	private final IIndexLocationConverter locationConverter;
 	private final Map<String, IPDOMLinkageFactory> fPDOMLinkageFactoryCache;
+	private final boolean fMemoryMapped;
+	// Results computed from the contents of the database, cleared when the database is modified.
 	private final HashMap<Object, Object> fResultCache = new HashMap<>();
 	private final Map<Long, WeakReference<IValue>> fVariableResultCache = new HashMap<>();
+	// Maps bindings of ASTs and of other index fragments to the bindings they have been adapted to.
+	// The keys are referenced weakly, such that the entries of an AST go away together with the AST.
+	private final Map<IBinding, AdaptedBinding> fAdaptedBindings = new WeakHashMap<>();
 	private List<IListener> listeners;
 	protected ChangeEvent fEvent = new ChangeEvent();
 
@@ -428,7 +440,17 @@ public class PDOM extends PlatformObject implements IPDOM {
 
 	public PDOM(File dbPath, IIndexLocationConverter locationConverter, ChunkCache cache,
 			Map<String, IPDOMLinkageFactory> linkageFactoryMappings) throws CoreException {
+		this(dbPath, locationConverter, cache, linkageFactoryMappings, false);
+	}
+
+	/**
+	 * @param memoryMapped whether the database file is accessed through memory mapped regions,
+	 *     see {@link Database#isMemoryMapped()}.
+	 */
+	public PDOM(File dbPath, IIndexLocationConverter locationConverter, ChunkCache cache,
+			Map<String, IPDOMLinkageFactory> linkageFactoryMappings, boolean memoryMapped) throws CoreException {
 		fPDOMLinkageFactoryCache = linkageFactoryMappings;
+		fMemoryMapped = memoryMapped;
 		loadDatabase(dbPath, cache);
 		this.locationConverter = locationConverter;
 		if (sDEBUG_LOCKS) {
@@ -446,10 +468,10 @@ public class PDOM extends PlatformObject implements IPDOM {
 
 	private void loadDatabase(File dbPath, ChunkCache cache) throws CoreException {
 		fPath = dbPath;
-		final boolean lockDB = db == null || lockCount != 0;
+		final boolean lockDB = db == null || isLocked();
 
 		clearCaches();
-		db = new Database(fPath, cache, getDefaultVersion(), isPermanentlyReadOnly());
+		db = new Database(fPath, cache, getDefaultVersion(), isPermanentlyReadOnly(), fMemoryMapped);
 
 		db.setLocked(lockDB);
 		try {
@@ -457,10 +479,14 @@ public class PDOM extends PlatformObject implements IPDOM {
 				readLinkages();
 			}
 		} finally {
-			db.setLocked(lockCount != 0);
+			db.setLocked(isLocked());
 		}
 	}
 
+	private boolean isLocked() {
+		return fWriteLocked || fReadLocks.sum() != 0;
+	}
+
 	public IIndexLocationConverter getLocationConverter() {
 		return locationConverter;
 	}
@@ -549,6 +575,20 @@ public class PDOM extends PlatformObject implements IPDOM {
 		return tagIndex;
 	}
 
+	/**
+	 * Returns the index of the trigrams of binding names, or <code>null</code> if the PDOM does not
+	 * maintain such an index.
+	 */
+	public TrigramIndex getNameTrigramIndex() throws CoreException {
+		if (nameTrigramIndex == null) {
+			long record = db.getRecPtr(NAME_TRIGRAM_INDEX);
+			if (record != 0) {
+				nameTrigramIndex = new TrigramIndex(db, record);
+			}
+		}
+		return nameTrigramIndex;
+	}
+
 	/**
 	 * Returns the index of files that were read with I/O errors.
 	 */
@@ -657,7 +697,7 @@ public class PDOM extends PlatformObject implements IPDOM {
 	}
 
 	protected void clear() throws CoreException {
-		assert lockCount < 0; // needs write-lock.
+		assert fWriteLocked; // needs write-lock.
 
 		// Clear out the database, everything is set to zero.
 		int vers = getDefaultVersion();
@@ -667,7 +707,7 @@ public class PDOM extends PlatformObject implements IPDOM {
 	}
 
 	void reloadFromFile(File file) throws CoreException {
-		assert lockCount < 0; // must have write lock.
+		assert fWriteLocked; // must have write lock.
 		File oldFile = fPath;
 		clearCaches();
 		try {
@@ -813,6 +853,14 @@ public class PDOM extends PlatformObject implements IPDOM {
 			if (prefix != null) {
 				return findBindingsForPrefix(prefix, isFullyQualified, caseSensitive, filter, monitor);
 			}
+
+			if (patterns.length == 1) {
+				IIndexFragmentBinding[] result = findBindingsViaTrigrams(patterns[0], isFullyQualified, filter,
+						monitor);
+				if (result != null) {
+					return result;
+				}
+			}
 		}
 
 		BindingFinder finder = new BindingFinder(patterns, isFullyQualified, filter, monitor);
@@ -885,6 +933,74 @@ public class PDOM extends PlatformObject implements IPDOM {
 		return null;
 	}
 
+	/**
+	 * Uses the trigram index of binding names to find the bindings matching the pattern. Returns
+	 * <code>null</code> if there is no such index or the pattern does not contain a literal that can
+	 * be looked up.
+	 */
+	private IIndexFragmentBinding[] findBindingsViaTrigrams(Pattern pattern, boolean isFullyQualified,
+			IndexFilter filter, IProgressMonitor monitor) throws CoreException {
+		TrigramIndex index = getNameTrigramIndex();
+		if (index == null)
+			return null;
+		char[][] literals = extractLiterals(pattern);
+		if (literals == null)
+			return null;
+		long[] candidates = index.findCandidates(literals);
+		if (candidates == null)
+			return null;
+
+		List<IIndexFragmentBinding> result = new ArrayList<>();
+		for (long candidate : candidates) {
+			if (monitor.isCanceled())
+				return IIndexFragmentBinding.EMPTY_INDEX_BINDING_ARRAY;
+			char[] name = db.getString(candidate).getChars();
+			if (pattern.matcher(new String(name)).matches()) {
+				result.addAll(Arrays.asList(findBindings(name, isFullyQualified, true, filter, monitor)));
+			}
+		}
+		return result.toArray(new IIndexFragmentBinding[result.size()]);
+	}
+
+	/**
+	 * Returns the runs of identifier characters every match of the pattern has to contain, or
+	 * <code>null</code> if the pattern uses constructs other than '.' and the quantifiers '*',
+	 * '+' and '?'.
+	 */
+	private char[][] extractLiterals(Pattern pattern) {
+		List<char[]> result = new ArrayList<>();
+		String p = pattern.pattern();
+		StringBuilder literal = new StringBuilder();
+		for (int i = 0; i < p.length(); i++) {
+			char c = p.charAt(i);
+			char next = i + 1 < p.length() ? p.charAt(i + 1) : 0;
+			if (Character.isLetterOrDigit(c) || c == '_') {
+				if (next == '*' || next == '?') {
+					// The character is optional.
+					i++;
+				} else {
+					literal.append(c);
+					if (next != '+')
+						continue;
+					i++;
+				}
+			} else if (c == '.') {
+				if (next == '*' || next == '?' || next == '+')
+					i++;
+			} else {
+				return null;
+			}
+			if (literal.length() > 0) {
+				result.add(literal.toString().toCharArray());
+				literal.setLength(0);
+			}
+		}
+		if (literal.length() > 0) {
+			result.add(literal.toString().toCharArray());
+		}
+		return result.toArray(new char[result.size()][]);
+	}
+
 	@Override
 	public IIndexFragmentBinding[] findMacroContainers(Pattern pattern, IndexFilter filter, IProgressMonitor monitor)
 			throws CoreException {
@@ -999,29 +1115,82 @@ public class PDOM extends PlatformObject implements IPDOM {
 
 	// Read-write lock rules. Readers don't conflict with other readers,
 	// Writers conflict with readers, and everyone conflicts with writers.
+	// Read locks are counted in striped counters, so that readers don't contend on a shared
+	// monitor while no writer is around. A writer announces itself via fWriterPresent and then
+	// waits for the read lock count to drop. Readers that see the flag back off and wait on the
+	// mutex. Waiting readers still go first, the writer withdraws while readers are waiting.
 	private final Object mutex = new Object();
-	private int lockCount;
-	private int waitingReaders;
+	private final ReadLockCount fReadLocks = new ReadLockCount();
+	private volatile boolean fWriterPresent; // A writer holds or is about to take the write lock.
+	private volatile boolean fWriterWaiting; // A writer waits for read locks to be released.
+	private boolean fWriteLocked; // Protected by mutex.
+	private int waitingReaders; // Protected by mutex.
+	private final PDOMLockStatistics fLockStatistics = new PDOMLockStatistics(this);
 	private long lastWriteAccess = 0;
 	private long lastReadAccess = 0;
 	private long timeWriteLockAcquired;
 
+	/**
+	 * Number of read locks held, spread over slots on separate cache lines. A lock may be
+	 * released by a different thread than the one that acquired it, therefore individual
+	 * slots may become negative, only the sum is meaningful.
+	 */
+	private static final class ReadLockCount {
+		private static final int SLOT_DISTANCE = 16; // 64 bytes between slots.
+		private final int fMask;
+		private final AtomicIntegerArray fSlots;
+
+		ReadLockCount() {
+			int slots = 1;
+			while (slots < 2 * Runtime.getRuntime().availableProcessors() && slots < 256) {
+				slots <<= 1;
+			}
+			fMask = slots - 1;
+			fSlots = new AtomicIntegerArray(slots * SLOT_DISTANCE);
+		}
+
+		void add(int delta) {
+			if (delta != 0) {
+				fSlots.addAndGet(((int) Thread.currentThread().getId() & fMask) * SLOT_DISTANCE, delta);
+			}
+		}
+
+		int sum() {
+			int sum = 0;
+			for (int i = 0; i < fSlots.length(); i += SLOT_DISTANCE) {
+				sum += fSlots.get(i);
+			}
+			return sum;
+		}
+	}
+
 	@Override
 	public void acquireReadLock() throws InterruptedException {
-		long t = sDEBUG_LOCKS ? System.nanoTime() : 0;
-		synchronized (mutex) {
-			++waitingReaders;
-			try {
-				while (lockCount < 0)
-					mutex.wait();
-			} finally {
-				--waitingReaders;
+		final long start = System.nanoTime();
+		long waitTime = 0;
+		fReadLocks.add(1);
+		if (fWriterPresent) {
+			// Back off and wait for the writer.
+			fReadLocks.add(-1);
+			synchronized (mutex) {
+				mutex.notifyAll(); // The writer may be waiting for the read lock count to drop.
+				++waitingReaders;
+				try {
+					while (fWriterPresent)
+						mutex.wait();
+				} finally {
+					--waitingReaders;
+				}
+				fReadLocks.add(1);
 			}
-			++lockCount;
-			db.setLocked(true);
+			waitTime = System.nanoTime() - start;
+		}
+		db.setLocked(true);
+		fLockStatistics.readLockAcquired(start + waitTime, waitTime);
 
-			if (sDEBUG_LOCKS) {
-				t = (System.nanoTime() - t) / 1000000;
+		if (sDEBUG_LOCKS) {
+			synchronized (mutex) {
+				long t = waitTime / 1000000;
 				if (t >= LONG_READ_LOCK_WAIT_REPORT_THRESHOLD) {
 					System.out.println("Acquired index read lock after " + t + " ms wait."); //$NON-NLS-1$//$NON-NLS-2$
 				}
@@ -1032,25 +1201,46 @@ public class PDOM extends PlatformObject implements IPDOM {
 
 	@Override
 	public void releaseReadLock() {
-		synchronized (mutex) {
-			assert lockCount > 0 : "No lock to release"; //$NON-NLS-1$
-			if (sDEBUG_LOCKS) {
+		if (sDEBUG_LOCKS) {
+			synchronized (mutex) {
 				decReadLock(fLockDebugging);
 			}
+		}
+		assert fReadLocks.sum() > 0 : "No lock to release"; //$NON-NLS-1$
+		fLockStatistics.readLocksReleased(System.nanoTime(), 1);
+		fReadLocks.add(-1);
+		if (fWriterWaiting) {
+			synchronized (mutex) {
+				mutex.notifyAll();
+			}
+		} else if (!fWriterPresent && fReadLocks.sum() == 0) {
+			synchronized (mutex) {
+				if (!fWriteLocked && fReadLocks.sum() == 0) {
+					db.setLocked(false);
+					// Readers don't take the mutex, one may have acquired a lock in the meantime.
+					if (fReadLocks.sum() != 0) {
+						db.setLocked(true);
+					}
+				}
+			}
+		}
+		final long now = System.currentTimeMillis();
+		if (lastReadAccess != now)
+			lastReadAccess = now;
+	}
 
-			lastReadAccess = System.currentTimeMillis();
-			if (lockCount > 0)
-				--lockCount;
-			mutex.notifyAll();
-			db.setLocked(lockCount != 0);
-		}
-		// A lock release probably means that some AST is going away. The result cache has to be
-		// cleared since it may contain objects belonging to the AST that is going away. A failure
-		// to release an AST object would cause a memory leak since the whole AST would remain
-		// pinned to memory.
-		// TODO(sprigogin): It would be more efficient to replace the global result cache with
-		// separate caches for each AST.
-		clearResultCache();
+	/**
+	 * Returns the number of read locks currently held.
+	 */
+	int getReadLockCount() {
+		return fReadLocks.sum();
+	}
+
+	/**
+	 * Returns the statistics on wait and hold times of the locks of this PDOM.
+	 */
+	public PDOMLockStatistics getLockStatistics() {
+		return fLockStatistics;
 	}
 
 	/**
@@ -1070,6 +1260,7 @@ public class PDOM extends PlatformObject implements IPDOM {
 	 */
 	public void acquireWriteLock(int giveupReadLocks, IProgressMonitor monitor) throws InterruptedException {
 		assert !isPermanentlyReadOnly();
+		final long startTime = System.nanoTime();
 		synchronized (mutex) {
 			if (sDEBUG_LOCKS) {
 				incWriteLock(giveupReadLocks);
@@ -1077,6 +1268,7 @@ public class PDOM extends PlatformObject implements IPDOM {
 
 			if (giveupReadLocks > 0) {
 				// give up on read locks
+				final int lockCount = fReadLocks.sum();
 				assert lockCount >= giveupReadLocks : "Not enough locks to release"; //$NON-NLS-1$
 				if (lockCount < giveupReadLocks) {
 					giveupReadLocks = lockCount;
@@ -1085,25 +1277,50 @@ public class PDOM extends PlatformObject implements IPDOM {
 				giveupReadLocks = 0;
 			}
 
-			// Let the readers go first
 			long start = sDEBUG_LOCKS ? System.currentTimeMillis() : 0;
 			int count = 0;
-			while (lockCount > giveupReadLocks || waitingReaders > 0) {
-				mutex.wait(CANCELLATION_CHECK_INTERVAL);
-				if (monitor != null && monitor.isCanceled()) {
-					throw new OperationCanceledException();
-				}
-				count++;
-				if (monitor != null && count == LONG_WRITE_LOCK_REPORT_THRESHOLD / CANCELLATION_CHECK_INTERVAL) {
-					monitor.subTask(Messages.PDOM_waitingForWriteLock);
+			boolean acquired = false;
+			fWriterWaiting = true;
+			try {
+				while (true) {
+					if (!fWriteLocked) {
+						if (waitingReaders == 0) {
+							fWriterPresent = true;
+							if (fReadLocks.sum() <= giveupReadLocks)
+								break;
+						} else if (fWriterPresent) {
+							// Let the readers go first
+							fWriterPresent = false;
+							mutex.notifyAll();
+						}
+					}
+					mutex.wait(CANCELLATION_CHECK_INTERVAL);
+					if (monitor != null && monitor.isCanceled()) {
+						throw new OperationCanceledException();
+					}
+					count++;
+					if (monitor != null && count == LONG_WRITE_LOCK_REPORT_THRESHOLD / CANCELLATION_CHECK_INTERVAL) {
+						monitor.subTask(Messages.PDOM_waitingForWriteLock);
+					}
+					if (sDEBUG_LOCKS) {
+						start = reportBlockedWriteLock(start, giveupReadLocks);
+					}
 				}
-				if (sDEBUG_LOCKS) {
-					start = reportBlockedWriteLock(start, giveupReadLocks);
+				acquired = true;
+			} finally {
+				fWriterWaiting = false;
+				mutex.notifyAll(); // Wake up the threads in awaitWaitingWriter().
+				if (!acquired && !fWriteLocked && fWriterPresent) {
+					fWriterPresent = false;
+					mutex.notifyAll();
 				}
 			}
-			lockCount = -1;
-			if (sDEBUG_LOCKS)
-				timeWriteLockAcquired = System.currentTimeMillis();
+			fReadLocks.add(-giveupReadLocks);
+			fWriteLocked = true;
+			final long now = System.nanoTime();
+			fLockStatistics.readLocksReleased(now, giveupReadLocks);
+			fLockStatistics.writeLockAcquired(now - startTime);
+			timeWriteLockAcquired = now;
 			db.setExclusiveLock();
 		}
 		if (monitor != null)
@@ -1116,37 +1333,63 @@ public class PDOM extends PlatformObject implements IPDOM {
 
 	@SuppressWarnings("nls")
 	public void releaseWriteLock(int establishReadLocks, boolean flush) {
-		// When all locks are released we can clear the result cache.
 		if (establishReadLocks == 0) {
 			clearResultCache();
+		} else {
+			// The writer continues to work with its AST, the adapted bindings of other ASTs may
+			// have become stale.
+			clearIndexResultCache();
+			retainAdaptedBindingsOfCurrentThread();
 		}
 		try {
 			db.giveUpExclusiveLock(flush);
 		} catch (CoreException e) {
 			CCorePlugin.log(e);
 		}
-		assert lockCount == -1;
+		assert fWriteLocked;
 		if (!fEvent.isTrivial())
 			lastWriteAccess = System.currentTimeMillis();
 		final ChangeEvent event = fEvent;
 		fEvent = new ChangeEvent();
 		synchronized (mutex) {
+			final long now = System.nanoTime();
+			final long timeHeld = now - timeWriteLockAcquired;
 			if (sDEBUG_LOCKS) {
-				long timeHeld = lastWriteAccess - timeWriteLockAcquired;
-				if (timeHeld >= LONG_WRITE_LOCK_REPORT_THRESHOLD) {
-					System.out.println("Index write lock held for " + timeHeld + " ms");
+				if (timeHeld / 1000000 >= LONG_WRITE_LOCK_REPORT_THRESHOLD) {
+					System.out.println("Index write lock held for " + timeHeld / 1000000 + " ms");
 				}
 				decWriteLock(establishReadLocks);
 			}
+			fLockStatistics.writeLockReleased(timeHeld);
 
-			if (lockCount < 0)
-				lockCount = establishReadLocks;
+			if (fWriteLocked) {
+				fWriteLocked = false;
+				fReadLocks.add(establishReadLocks);
+				fLockStatistics.readLocksEstablished(now, establishReadLocks);
+			}
+			db.setLocked(establishReadLocks != 0);
+			fWriterPresent = false;
 			mutex.notifyAll();
-			db.setLocked(lockCount != 0);
 		}
 		fireChange(event);
 	}
 
+	/**
+	 * Blocks while a writer is waiting for the read locks to be released. Allows threads that
+	 * repeatedly acquire read locks to give a waiting writer priority over their next read lock,
+	 * because otherwise the writer lets waiting readers go first.
+	 * Must be called without holding a lock on this PDOM.
+	 */
+	public void awaitWaitingWriter() throws InterruptedException {
+		if (!fWriterWaiting)
+			return;
+		synchronized (mutex) {
+			while (fWriterWaiting) {
+				mutex.wait(CANCELLATION_CHECK_INTERVAL);
+			}
+		}
+	}
+
 	@Override
 	public boolean hasWaitingReaders() {
 		synchronized (mutex) {
@@ -1511,6 +1754,7 @@ public class PDOM extends PlatformObject implements IPDOM {
 	private void clearCaches() {
 		fileIndex = null;
 		tagIndex = null;
+		nameTrigramIndex = null;
 		indexOfDefectiveFiles = null;
 		indexOfFiledWithUnresolvedIncludes = null;
 		fLinkageIDCache.clear();
@@ -1519,6 +1763,13 @@ public class PDOM extends PlatformObject implements IPDOM {
 
 	@Override
 	public void clearResultCache() {
+		clearIndexResultCache();
+		synchronized (fAdaptedBindings) {
+			fAdaptedBindings.clear();
+		}
+	}
+
+	private void clearIndexResultCache() {
 		synchronized (fResultCache) {
 			fResultCache.clear();
 		}
@@ -1527,6 +1778,13 @@ public class PDOM extends PlatformObject implements IPDOM {
 		}
 	}
 
+	private void retainAdaptedBindingsOfCurrentThread() {
+		final long threadID = Thread.currentThread().getId();
+		synchronized (fAdaptedBindings) {
+			fAdaptedBindings.values().removeIf(adapted -> adapted.fThreadID != threadID);
+		}
+	}
+
 	@Override
 	public long getCacheHits() {
 		return db.getCacheHits();
@@ -1537,6 +1795,13 @@ public class PDOM extends PlatformObject implements IPDOM {
 		return db.getCacheMisses();
 	}
 
+	/**
+	 * Returns the number of chunks of the database evicted from the cache.
+	 */
+	public long getCacheEvictions() {
+		return db.getCacheEvictions();
+	}
+
 	@Override
 	public void resetCacheCounters() {
 		db.resetCacheCounters();
@@ -1575,6 +1840,28 @@ public class PDOM extends PlatformObject implements IPDOM {
 		}
 	}
 
+	/**
+	 * Returns the binding of this PDOM the given binding has been adapted to, or {@code null}.
+	 * The result is cached until the database is modified or the AST of the binding is garbage
+	 * collected, whatever comes first.
+	 */
+	public PDOMBinding getCachedAdaptedBinding(IBinding binding) {
+		synchronized (fAdaptedBindings) {
+			AdaptedBinding adapted = fAdaptedBindings.get(binding);
+			return adapted != null ? adapted.fBinding : null;
+		}
+	}
+
+	/**
+	 * Caches the binding of this PDOM the given binding has been adapted to.
+	 */
+	public void putCachedAdaptedBinding(IBinding binding, PDOMBinding result) {
+		AdaptedBinding adapted = new AdaptedBinding(result);
+		synchronized (fAdaptedBindings) {
+			fAdaptedBindings.put(binding, adapted);
+		}
+	}
+
 	public IValue getCachedVariableResult(Long key) {
 		synchronized (fVariableResultCache) {
 			WeakReference<IValue> variableResult = fVariableResultCache.get(key);
@@ -1886,7 +2173,7 @@ public class PDOM extends PlatformObject implements IPDOM {
 		if (now >= start + BLOCKED_WRITE_LOCK_OUTPUT_INTERVAL) {
 			System.out.println();
 			System.out.println("Blocked writeLock");
-			System.out.println("  lockcount= " + lockCount + ", giveupReadLocks=" + giveupReadLocks
+			System.out.println("  lockcount= " + fReadLocks.sum() + ", giveupReadLocks=" + giveupReadLocks
 					+ ", waitingReaders=" + waitingReaders);
 			outputReadLocks(fLockDebugging);
 			start = now;
@@ -1936,4 +2223,15 @@ public class PDOM extends PlatformObject implements IPDOM {
 	public boolean isFullyInitialized() {
 		return true;
 	}
+
+	private static final class AdaptedBinding {
+		final PDOMBinding fBinding;
+		// The thread that adapted the binding, the writer retains its entries across write locks.
+		final long fThreadID;
+
+		AdaptedBinding(PDOMBinding binding) {
+			fBinding = binding;
+			fThreadID = Thread.currentThread().getId();
+		}
+	}
 }
@@ -0,0 +1,121 @@
+/*******************************************************************************
+ * Copyright (c) 2026 Eclipse CDT contributors and others.
+ *
+ * This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License 2.0
+ * which accompanies this distribution, and is available at
+ * https://www.eclipse.org/legal/epl-2.0/
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ *******************************************************************************/
+package org.eclipse.cdt.internal.core.pdom;
+
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Wait and hold times of the read and write locks of a {@link PDOM}. All times are in nanoseconds.
+ * The counters are updated without synchronization, so a snapshot taken while locks are acquired
+ * or released concurrently may be slightly inconsistent.
+ */
+public final class PDOMLockStatistics {
+	private final LongAdder fReadLocks = new LongAdder();
+	private final LongAdder fBlockedReadLocks = new LongAdder();
+	private final LongAdder fReadLockWaitTime = new LongAdder();
+	// Sum of release minus acquisition times, see getReadLockHoldTime().
+	private final LongAdder fReadLockHoldTime = new LongAdder();
+	private final LongAdder fWriteLocks = new LongAdder();
+	private final LongAdder fWriteLockWaitTime = new LongAdder();
+	private final LongAdder fWriteLockHoldTime = new LongAdder();
+	private final PDOM fPDOM;
+
+	PDOMLockStatistics(PDOM pdom) {
+		fPDOM = pdom;
+	}
+
+	void readLockAcquired(long now, long waitTime) {
+		fReadLocks.increment();
+		if (waitTime > 0) {
+			fBlockedReadLocks.increment();
+			fReadLockWaitTime.add(waitTime);
+		}
+		fReadLockHoldTime.add(-now);
+	}
+
+	void readLocksReleased(long now, int count) {
+		fReadLockHoldTime.add(now * count);
+	}
+
+	void readLocksEstablished(long now, int count) {
+		fReadLockHoldTime.add(-now * count);
+	}
+
+	void writeLockAcquired(long waitTime) {
+		fWriteLocks.increment();
+		fWriteLockWaitTime.add(waitTime);
+	}
+
+	void writeLockReleased(long holdTime) {
+		fWriteLockHoldTime.add(holdTime);
+	}
+
+	/**
+	 * Returns the number of read locks acquired.
+	 */
+	public long getReadLockCount() {
+		return fReadLocks.sum();
+	}
+
+	/**
+	 * Returns the number of read locks that had to wait for a writer.
+	 */
+	public long getBlockedReadLockCount() {
+		return fBlockedReadLocks.sum();
+	}
+
+	/**
+	 * Returns the total time readers waited for the read lock.
+	 */
+	public long getReadLockWaitTime() {
+		return fReadLockWaitTime.sum();
+	}
+
+	/**
+	 * Returns the total time read locks were held, including the locks that are currently held.
+	 */
+	public long getReadLockHoldTime() {
+		// Every acquisition subtracts and every release adds the current time, the locks that
+		// are still held are accounted for as if they were released right now.
+		return fReadLockHoldTime.sum() + fPDOM.getReadLockCount() * System.nanoTime();
+	}
+
+	/**
+	 * Returns the number of write locks acquired.
+	 */
+	public long getWriteLockCount() {
+		return fWriteLocks.sum();
+	}
+
+	/**
+	 * Returns the total time writers waited for the write lock.
+	 */
+	public long getWriteLockWaitTime() {
+		return fWriteLockWaitTime.sum();
+	}
+
+	/**
+	 * Returns the total time write locks were held, not including a write lock currently held.
+	 */
+	public long getWriteLockHoldTime() {
+		return fWriteLockHoldTime.sum();
+	}
+
+	@Override
+	@SuppressWarnings("nls")
+	public String toString() {
+		final long ms = 1000000;
+		return getReadLockCount() + " read locks (" + getBlockedReadLockCount() + " blocked, "
+				+ getReadLockWaitTime() / ms + " ms waited, " + getReadLockHoldTime() / ms + " ms held), "
+				+ getWriteLockCount() + " write locks (" + getWriteLockWaitTime() / ms + " ms waited, "
+				+ getWriteLockHoldTime() / ms + " ms held)";
+	}
+}
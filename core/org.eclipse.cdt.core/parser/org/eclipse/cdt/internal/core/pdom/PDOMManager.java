@@ -386,9 +386,11 @@ public class PDOMManager implements IWritableIndexManager, IListener {
 				fromScratch = true;
 			}
 
+			final boolean memoryMapped = isMemoryMappedDatabase(project);
 			WritablePDOM pdom;
 			try {
-				pdom = new WritablePDOM(dbFile, new PDOMProjectIndexLocationConverter(project), getLinkageFactories());
+				pdom = new WritablePDOM(dbFile, new PDOMProjectIndexLocationConverter(project),
+						ChunkCache.getSharedInstance(), getLinkageFactories(), memoryMapped);
 			} catch (CoreException | RuntimeException e) {
 				// Index file is likely corrupted. Recover by rebuilding the index.
 				// See http://bugs.eclipse.org/510054
@@ -396,7 +398,8 @@ public class PDOMManager implements IWritableIndexManager, IListener {
 						+ " - rebuilding the index", e); //$NON-NLS-1$
 				dbFile.delete();
 				fromScratch = true;
-				pdom = new WritablePDOM(dbFile, new PDOMProjectIndexLocationConverter(project), getLinkageFactories());
+				pdom = new WritablePDOM(dbFile, new PDOMProjectIndexLocationConverter(project),
+						ChunkCache.getSharedInstance(), getLinkageFactories(), memoryMapped);
 			}
 
 			if (!pdom.isSupportedVersion() || fromScratch) {
@@ -418,6 +421,7 @@ public class PDOMManager implements IWritableIndexManager, IListener {
 					pdom.releaseWriteLock();
 				}
 			}
+			pdom.getDB().setPageSize(getDatabasePageSize(project));
 			pdom.setASTFilePathResolver(new ProjectIndexerInputAdapter(cProject, false));
 			pdom.addListener(this);
 
@@ -430,6 +434,28 @@ public class PDOMManager implements IWritableIndexManager, IListener {
 		}
 	}
 
+	/**
+	 * Returns whether the index database of the project shall be accessed through memory
+	 * mapped regions. The setting takes effect when the database is opened.
+	 */
+	private boolean isMemoryMappedDatabase(IProject project) {
+		return Boolean.parseBoolean(IndexerPreferences.get(project, IndexerPreferences.KEY_MEMORY_MAPPED_DATABASE,
+				Boolean.FALSE.toString()));
+	}
+
+	/**
+	 * Returns the number of bytes of the index database of the project that shall be read or
+	 * written at once.
+	 */
+	private int getDatabasePageSize(IProject project) {
+		try {
+			return Integer.parseInt(IndexerPreferences.get(project, IndexerPreferences.KEY_DATABASE_PAGE_SIZE_KB,
+					String.valueOf(IndexerPreferences.DEFAULT_DATABASE_PAGE_SIZE_KB))) * 1024;
+		} catch (NumberFormatException e) {
+			return IndexerPreferences.DEFAULT_DATABASE_PAGE_SIZE_KB * 1024;
+		}
+	}
+
 	private Map<String, IPDOMLinkageFactory> getLinkageFactories() {
 		return LanguageManager.getInstance().getPDOMLinkageFactoryMappings();
 	}
@@ -65,9 +65,11 @@ import org.eclipse.cdt.core.parser.IProblem;
 import org.eclipse.cdt.core.parser.ISignificantMacros;
 import org.eclipse.cdt.core.parser.util.CharArrayUtils;
 import org.eclipse.cdt.internal.core.dom.parser.ASTInternal;
+import org.eclipse.cdt.internal.core.dom.parser.cpp.CPPASTTranslationUnit;
 import org.eclipse.cdt.internal.core.dom.parser.cpp.ICPPInternalDeclaredVariable;
 import org.eclipse.cdt.internal.core.dom.parser.cpp.ICPPUnknownBinding;
 import org.eclipse.cdt.internal.core.dom.parser.cpp.semantics.CPPSemantics;
+import org.eclipse.cdt.internal.core.dom.parser.cpp.semantics.NameLookupCache;
 import org.eclipse.cdt.internal.core.index.FileContentKey;
 import org.eclipse.cdt.internal.core.index.IIndexFragmentFile;
 import org.eclipse.cdt.internal.core.index.IWritableIndex;
@@ -92,6 +94,9 @@ import org.eclipse.osgi.util.NLS;
  */
 public abstract class PDOMWriter implements IPDOMASTProcessor {
 	private static final boolean REPORT_UNKNOWN_BUILTINS = false;
+	// Interval in milliseconds at which the files written to the index are committed, such that
+	// they survive a crash.
+	private static final long COMMIT_INTERVAL = 10000;
 
 	public static class FileInAST {
 		final IASTPreprocessorIncludeStatement includeStatement;
@@ -161,6 +166,7 @@ public abstract class PDOMWriter implements IPDOMASTProcessor {
 		final Set<IASTPreprocessorIncludeStatement> fContextIncludes = new HashSet<>();
 		final List<IStatus> fStatuses = new ArrayList<>();
 		Map<String, String> fReplacementHeaders; // Replacement headers keyed by file paths.
+		boolean fIncludesOnly; // The AST was preprocessed, only.
 
 		public Data(IASTTranslationUnit ast, FileInAST[] selectedFiles, IWritableIndex index) {
 			fAST = ast;
@@ -218,10 +224,12 @@ public abstract class PDOMWriter implements IPDOMASTProcessor {
 	protected final ICanceler fCancelState = new Canceler();
 
 	private int fSkipReferences = SKIP_NO_REFERENCES;
+	private long fLastCommitTime;
 
 	public PDOMWriter(IndexerInputAdapter resolver) {
 		fStatistics = new IndexerStatistics();
 		fResolver = resolver;
+		fLastCommitTime = System.currentTimeMillis();
 	}
 
 	protected IndexerInputAdapter getInputAdapter() {
@@ -320,7 +328,9 @@ public abstract class PDOMWriter implements IPDOMASTProcessor {
 					trace("Indexer: adding " + fileInAST.fileContentKey.getLocation().getURI()); //$NON-NLS-1$
 				}
 				Throwable th = null;
-				YieldableIndexLock lock = new YieldableIndexLock(data.fIndex, false, progress.split(1));
+				// The index is consistent after the last file of the AST has been stored.
+				final boolean commit = i == data.fSelectedFiles.length - 1 && isCommitDue();
+				YieldableIndexLock lock = new YieldableIndexLock(data.fIndex, commit, progress.split(1));
 				lock.acquire();
 				try {
 					final boolean isReplacement = ctx != null && fileInAST.includeStatement == null;
@@ -363,6 +373,14 @@ public abstract class PDOMWriter implements IPDOMASTProcessor {
 		}
 	}
 
+	private boolean isCommitDue() {
+		final long now = System.currentTimeMillis();
+		if (now - fLastCommitTime < COMMIT_INTERVAL)
+			return false;
+		fLastCommitTime = now;
+		return true;
+	}
+
 	private void resolveNames(Data data, IProgressMonitor monitor) {
 		long start = System.currentTimeMillis();
 		Set<ICPPInternalDeclaredVariable> variables = new HashSet<>();
@@ -445,6 +463,11 @@ public abstract class PDOMWriter implements IPDOMASTProcessor {
 			}
 		}
 
+		if (data.fAST instanceof CPPASTTranslationUnit) {
+			NameLookupCache lookupCache = ((CPPASTTranslationUnit) data.fAST).getNameLookupCache();
+			fStatistics.fNameLookupCacheHits += lookupCache.getHitCount();
+			fStatistics.fNameLookupCacheMisses += lookupCache.getMissCount();
+		}
 		fStatistics.fResolutionTime += System.currentTimeMillis() - start;
 	}
 
@@ -636,6 +659,7 @@ public abstract class PDOMWriter implements IPDOMASTProcessor {
 		try {
 			boolean pragmaOnce = owner != null ? owner.hasPragmaOnceSemantics() : data.fAST.hasPragmaOnceSemantics();
 			file.setPragmaOnceSemantics(pragmaOnce);
+			file.setIncludesOnly(data.fIncludesOnly);
 
 			if (data.fReplacementHeaders != null) {
 				String headerKey = IndexLocationFactory.getAbsolutePath(location).toOSString();
@@ -686,6 +710,15 @@ public abstract class PDOMWriter implements IPDOMASTProcessor {
 		} finally {
 			index.clearUncommittedFile();
 		}
+		if (!data.fIncludesOnly) {
+			// Versions of the file that were preprocessed only may depend on fewer significant macros
+			// and would not be replaced by this version.
+			for (IIndexFragmentFile other : index.getWritableFiles(storageLinkageID, location)) {
+				if (!other.equals(file) && other.hasContent() && other.isIncludesOnly()) {
+					index.clearFile(other);
+				}
+			}
+		}
 		return file;
 	}
 
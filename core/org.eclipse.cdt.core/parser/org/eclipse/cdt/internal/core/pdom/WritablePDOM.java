@@ -37,9 +37,11 @@ import org.eclipse.cdt.internal.core.index.IIndexFragmentFile;
 import org.eclipse.cdt.internal.core.index.IWritableIndex.IncludeInformation;
 import org.eclipse.cdt.internal.core.index.IWritableIndexFragment;
 import org.eclipse.cdt.internal.core.model.TranslationUnit;
+import org.eclipse.cdt.internal.core.pdom.db.BTree;
 import org.eclipse.cdt.internal.core.pdom.db.ChunkCache;
 import org.eclipse.cdt.internal.core.pdom.db.DBProperties;
 import org.eclipse.cdt.internal.core.pdom.db.IBTreeVisitor;
+import org.eclipse.cdt.internal.core.pdom.db.TrigramIndex;
 import org.eclipse.cdt.internal.core.pdom.dom.IPDOMLinkageFactory;
 import org.eclipse.cdt.internal.core.pdom.dom.PDOMBinding;
 import org.eclipse.cdt.internal.core.pdom.dom.PDOMFile;
@@ -48,8 +50,16 @@ import org.eclipse.cdt.internal.core.pdom.dom.PDOMMacro;
 import org.eclipse.cdt.internal.core.pdom.dom.PDOMMacroReferenceName;
 import org.eclipse.cdt.internal.core.pdom.dom.PDOMName;
 import org.eclipse.core.runtime.CoreException;
+import org.eclipse.core.runtime.IProgressMonitor;
 
 public class WritablePDOM extends PDOM implements IWritableIndexFragment {
+	private static final String PROPERTY_DEFRAGMENTED_SIZE = "org.eclipse.cdt.internal.core.pdom.defragmentedSize"; //$NON-NLS-1$
+	// Number of chunks examined for estimating the fragmentation of the database.
+	private static final int FRAGMENTATION_SAMPLE_SIZE = 1024;
+	private static final double MAX_FREE_SPACE_RATIO = 0.4;
+	// Maximum number of b-tree nodes written or freed while holding the write lock for compacting.
+	private static final int COMPACTION_BATCH_SIZE = 4096;
+
 	private boolean fClearedBecauseOfVersionMismatch = false;
 	private boolean fCreatedFromScratch = false;
 	private ASTFilePathResolver fPathResolver;
@@ -67,6 +77,11 @@ public class WritablePDOM extends PDOM implements IWritableIndexFragment {
 		super(dbPath, locationConverter, cache, linkageFactoryMappings);
 	}
 
+	public WritablePDOM(File dbPath, IIndexLocationConverter locationConverter, ChunkCache cache,
+			Map<String, IPDOMLinkageFactory> linkageFactoryMappings, boolean memoryMapped) throws CoreException {
+		super(dbPath, locationConverter, cache, linkageFactoryMappings, memoryMapped);
+	}
+
 	public void setASTFilePathResolver(ASTFilePathResolver resolver) {
 		fPathResolver = resolver;
 	}
@@ -232,15 +247,19 @@ public class WritablePDOM extends PDOM implements IWritableIndexFragment {
 
 		clearFileIndex();
 		final List<PDOMFile> notConverted = new ArrayList<>();
+		final long[] converted = new long[pdomfiles.size()];
+		int count = 0;
 		for (PDOMFile file : pdomfiles) {
 			String internalFormat = newConverter.toInternalFormat(file.getLocation());
 			if (internalFormat != null) {
 				file.setInternalLocation(internalFormat);
-				getFileIndex().insert(file.getRecord());
+				converted[count++] = file.getRecord();
 			} else {
 				notConverted.add(file);
 			}
 		}
+		// The file index is rebuilt from scratch, build it bottom-up.
+		getFileIndex().insertAll(converted, count);
 
 		// remove content where converter returns null
 		for (PDOMFile file : notConverted) {
@@ -249,6 +268,94 @@ public class WritablePDOM extends PDOM implements IWritableIndexFragment {
 		}
 	}
 
+	/**
+	 * Rebuilds the file index and the name and macro indexes of the linkages, such that their
+	 * nodes are filled completely. Inserting records one by one leaves the nodes of a b-tree
+	 * partially filled, therefore this is worthwhile after the entire index has been rebuilt.
+	 * Afterwards the database is defragmented if the freed nodes make up a large part of it.
+	 * <p>
+	 * Must be called without holding a lock on the PDOM. The trees are rebuilt in batches of
+	 * nodes, between the batches the changes are flushed and the write lock is yielded to readers.
+	 * The method keeps a read lock in between, such that no other writer can modify the trees.
+	 */
+	public void compactIndexes(IProgressMonitor monitor) throws CoreException, InterruptedException {
+		acquireReadLock();
+		try {
+			List<BTree> trees = new ArrayList<>();
+			trees.add(getFileIndex());
+			for (PDOMLinkage linkage : getLinkageImpls()) {
+				trees.add(linkage.getIndex());
+				trees.add(linkage.getMacroIndex());
+			}
+			for (BTree tree : trees) {
+				if (monitor.isCanceled())
+					return;
+				BTree.Compaction compaction = tree.startCompaction();
+				boolean done;
+				do {
+					// A compaction that has been started is completed, otherwise the nodes of the
+					// partially built tree would be lost.
+					acquireWriteLock(1, null);
+					try {
+						done = compaction.step(COMPACTION_BATCH_SIZE);
+					} finally {
+						releaseWriteLock(1, true);
+					}
+				} while (!done);
+			}
+		} finally {
+			releaseReadLock();
+		}
+
+		acquireWriteLock(monitor);
+		try {
+			if (needsDefragmentation()) {
+				defragment();
+			}
+		} finally {
+			releaseWriteLock();
+		}
+	}
+
+	/**
+	 * Returns whether a large part of the database consists of free blocks and the file has grown
+	 * since it was last defragmented, such that {@link #defragment()} is worthwhile.
+	 */
+	public boolean needsDefragmentation() throws CoreException {
+		String defragmentedSize = getProperty(PROPERTY_DEFRAGMENTED_SIZE);
+		if (defragmentedSize != null) {
+			try {
+				if (db.getSizeBytes() < Long.parseLong(defragmentedSize) * 5 / 4)
+					return false;
+			} catch (NumberFormatException e) {
+			}
+		}
+		return db.estimateFreeSpaceRatio(FRAGMENTATION_SAMPLE_SIZE) > MAX_FREE_SPACE_RATIO;
+	}
+
+	/**
+	 * Merges adjacent free blocks of the database, such that they are reused before the file is
+	 * extended, and removes the free chunks at the end of the file.
+	 * @return the number of bytes by which the file has shrunk.
+	 */
+	public long defragment() throws CoreException {
+		long shrunk = db.compact();
+		setProperty(PROPERTY_DEFRAGMENTED_SIZE, String.valueOf(db.getSizeBytes()));
+		return shrunk;
+	}
+
+	/**
+	 * Creates the index of the trigrams of binding names, which is maintained while bindings are
+	 * added and used for pattern searches. Must be called while the PDOM is still empty, because
+	 * names of existing bindings are not added to the index.
+	 */
+	public void createNameTrigramIndex() throws CoreException {
+		assert isEmpty();
+		if (db.getRecPtr(NAME_TRIGRAM_INDEX) == 0) {
+			db.putRecPtr(NAME_TRIGRAM_INDEX, TrigramIndex.create(db));
+		}
+	}
+
 	boolean isClearedBecauseOfVersionMismatch() {
 		return fClearedBecauseOfVersionMismatch;
 	}
@@ -17,6 +17,7 @@
 package org.eclipse.cdt.internal.core.pdom.db;
 
 import java.text.MessageFormat;
+import java.util.Arrays;
 
 import org.eclipse.cdt.core.CCorePlugin;
 import org.eclipse.core.runtime.CoreException;
@@ -215,6 +216,295 @@ public class BTree {
 		return db.malloc((2 * MAX_RECORDS + 1) * Database.INT_SIZE);
 	}
 
+	/**
+	 * Inserts the records into the b-tree. Rather than inserting the records one by one, the
+	 * tree is built bottom-up from the sorted records and the records already stored in the
+	 * tree, writing each node exactly once. The resulting nodes are filled completely, except
+	 * for the last ones on each level. Like {@link #insert(long)}, a record is not inserted if
+	 * an equal record is already stored in the tree or precedes it in the given array.
+	 *
+	 * @param records the records to insert, the array is sorted by this method
+	 * @param length the number of records to insert from the start of the array
+	 */
+	public void insertAll(long[] records, int length) throws CoreException {
+		sort(records, length);
+		long[] existing = removeAllNodes();
+		long[] merged = new long[existing.length + length];
+		int count = 0;
+		int i = 0;
+		int j = 0;
+		while (i < existing.length || j < length) {
+			long record;
+			if (j == length || (i < existing.length && cmp.compare(existing[i], records[j]) <= 0)) {
+				record = existing[i++];
+			} else {
+				record = records[j++];
+			}
+			if (count == 0 || cmp.compare(merged[count - 1], record) != 0) {
+				merged[count++] = record;
+			}
+		}
+		TreeBuilder builder = new TreeBuilder(merged, count);
+		builder.build(Integer.MAX_VALUE);
+		db.putRecPtr(rootPointer, builder.getRoot());
+	}
+
+	/**
+	 * Rebuilds the b-tree such that all of its nodes, except for the last ones on each level,
+	 * are filled completely. This reduces the number of nodes after the records were inserted
+	 * one by one, which leaves the nodes about two thirds full on average.
+	 */
+	public void compact() throws CoreException {
+		startCompaction().step(Integer.MAX_VALUE);
+	}
+
+	/**
+	 * Starts to rebuild the b-tree like {@link #compact()}, in steps that each write a bounded
+	 * number of nodes. The records of the tree are read by this method, it requires a read lock.
+	 * The new tree is built next to the existing one, which remains intact and can be read between
+	 * the steps, until it is replaced by the last step.
+	 * <p>
+	 * The tree must not be modified by anyone else until the compaction is done.
+	 */
+	public Compaction startCompaction() throws CoreException {
+		RecordList records = new RecordList(MAX_RECORDS);
+		RecordList nodes = new RecordList(MAX_RECORDS);
+		final long root = getRoot();
+		if (root != 0) {
+			collectNodes(root, records, nodes);
+		}
+		return new Compaction(records.toArray(), nodes.toArray());
+	}
+
+	/**
+	 * The rebuilding of a b-tree in steps, see {@link #startCompaction()}.
+	 */
+	public final class Compaction {
+		private final TreeBuilder fBuilder;
+		private final long[] fOldNodes;
+		private int fFreedNodes;
+		private boolean fReplaced;
+
+		Compaction(long[] records, long[] oldNodes) {
+			fBuilder = new TreeBuilder(records, records.length);
+			fOldNodes = oldNodes;
+		}
+
+		/**
+		 * Performs the next step of the compaction, it requires a write lock. The step writes the
+		 * next nodes of the new tree, and once the new tree is complete, replaces the existing tree
+		 * and frees its nodes.
+		 *
+		 * @param maxNodes the maximum number of nodes written or freed by the step
+		 * @return whether the compaction is done
+		 */
+		public boolean step(int maxNodes) throws CoreException {
+			int budget = maxNodes - fBuilder.build(maxNodes);
+			if (!fBuilder.isDone())
+				return false;
+			if (!fReplaced) {
+				db.putRecPtr(rootPointer, fBuilder.getRoot());
+				fReplaced = true;
+			}
+			for (; budget > 0 && fFreedNodes < fOldNodes.length; budget--) {
+				db.free(fOldNodes[fFreedNodes++]);
+			}
+			return fFreedNodes == fOldNodes.length;
+		}
+	}
+
+	/**
+	 * Sorts the records using the comparator of this tree. A merge sort is used, because the
+	 * comparator may throw a {@link CoreException}.
+	 */
+	private void sort(long[] records, int length) throws CoreException {
+		long[] src = records;
+		long[] dst = new long[length];
+		for (int width = 1; width < length; width *= 2) {
+			for (int lower = 0; lower < length; lower += 2 * width) {
+				final int middle = Math.min(lower + width, length);
+				final int upper = Math.min(lower + 2 * width, length);
+				int i = lower;
+				int j = middle;
+				for (int k = lower; k < upper; k++) {
+					if (j == upper || (i < middle && cmp.compare(src[i], src[j]) <= 0)) {
+						dst[k] = src[i++];
+					} else {
+						dst[k] = src[j++];
+					}
+				}
+			}
+			long[] tmp = src;
+			src = dst;
+			dst = tmp;
+		}
+		if (src != records) {
+			System.arraycopy(src, 0, records, 0, length);
+		}
+	}
+
+	/**
+	 * Removes all nodes of the tree and returns the records that were stored in it in ascending order.
+	 */
+	private long[] removeAllNodes() throws CoreException {
+		final long root = getRoot();
+		if (root == 0)
+			return new long[0];
+
+		RecordList records = new RecordList(MAX_RECORDS);
+		RecordList nodes = new RecordList(MAX_RECORDS);
+		collectNodes(root, records, nodes);
+		for (long node : nodes.toArray()) {
+			db.free(node);
+		}
+		db.putRecPtr(rootPointer, 0);
+		return records.toArray();
+	}
+
+	/**
+	 * Adds the records of the subtree of the given node to the records in ascending order, and its
+	 * nodes to the nodes.
+	 */
+	private void collectNodes(long node, RecordList records, RecordList nodes) throws CoreException {
+		final Chunk chunk = db.getChunk(node);
+		int i = 0;
+		for (; i < MAX_RECORDS; i++) {
+			long record = getRecord(chunk, node, i);
+			if (record == 0)
+				break;
+			long child = getChild(chunk, node, i);
+			if (child != 0) {
+				collectNodes(child, records, nodes);
+			}
+			records.add(record);
+		}
+		long child = getChild(chunk, node, i);
+		if (child != 0) {
+			collectNodes(child, records, nodes);
+		}
+		nodes.add(node);
+	}
+
+	private static class RecordList {
+		private long[] fRecords;
+		private int fCount;
+
+		RecordList(int capacity) {
+			fRecords = new long[capacity];
+		}
+
+		void add(long record) {
+			if (fCount == fRecords.length) {
+				fRecords = Arrays.copyOf(fRecords, fCount * 2);
+			}
+			fRecords[fCount++] = record;
+		}
+
+		long[] toArray() {
+			return Arrays.copyOf(fRecords, fCount);
+		}
+	}
+
+	/**
+	 * Builds a tree of sorted records level by level, starting with the leaves. On each level the
+	 * records are distributed evenly among the smallest possible number of nodes, the records
+	 * separating the nodes form the next level. The nodes can be written in several steps.
+	 */
+	private final class TreeBuilder {
+		private long[] fRecords;
+		private int fLength;
+		private long[] fChildren;
+		private long fRoot;
+		private boolean fDone;
+
+		// The state of the level being built, fNode is -1 before the level is started.
+		private int fNode = -1;
+		private int fNodeCount;
+		private int fRecordsPerNode;
+		private int fRemainder;
+		private int fRecordOffset;
+		private int fChildOffset;
+		private long[] fParentRecords;
+		private long[] fParentChildren;
+
+		TreeBuilder(long[] records, int length) {
+			fRecords = records;
+			fLength = length;
+			fDone = length == 0;
+		}
+
+		boolean isDone() {
+			return fDone;
+		}
+
+		/**
+		 * Returns the root node of the new tree, once it is done.
+		 */
+		long getRoot() {
+			return fRoot;
+		}
+
+		/**
+		 * Writes up to the given number of nodes.
+		 *
+		 * @return the number of nodes written
+		 */
+		int build(int maxNodes) throws CoreException {
+			int written = 0;
+			while (!fDone && written < maxNodes) {
+				written++;
+				if (fLength <= MAX_RECORDS) {
+					fRoot = allocateNode();
+					fillNode(fRoot, fRecords, 0, fLength, fChildren, 0);
+					fDone = true;
+					break;
+				}
+				if (fNode < 0) {
+					// m nodes hold m * MAX_RECORDS records and are separated by m - 1 records. Even
+					// distribution among the smallest number of nodes satisfies the minimum number of
+					// records for each node.
+					fNodeCount = (fLength + 1 + MAX_RECORDS) / (MAX_RECORDS + 1);
+					fRecordsPerNode = (fLength - fNodeCount + 1) / fNodeCount;
+					fRemainder = (fLength - fNodeCount + 1) % fNodeCount;
+					fParentRecords = new long[fNodeCount - 1];
+					fParentChildren = new long[fNodeCount];
+					fRecordOffset = 0;
+					fChildOffset = 0;
+					fNode = 0;
+				}
+				final int count = fNode < fRemainder ? fRecordsPerNode + 1 : fRecordsPerNode;
+				long node = allocateNode();
+				fillNode(node, fRecords, fRecordOffset, count, fChildren, fChildOffset);
+				fRecordOffset += count;
+				fChildOffset += count + 1;
+				fParentChildren[fNode] = node;
+				if (fNode < fNodeCount - 1) {
+					fParentRecords[fNode] = fRecords[fRecordOffset++];
+				}
+				if (++fNode == fNodeCount) {
+					fRecords = fParentRecords;
+					fLength = fParentRecords.length;
+					fChildren = fParentChildren;
+					fNode = -1;
+				}
+			}
+			return written;
+		}
+	}
+
+	private void fillNode(long node, long[] records, int recordOffset, int count, long[] children, int childOffset)
+			throws CoreException {
+		final Chunk chunk = db.getChunk(node);
+		for (int i = 0; i < count; i++) {
+			putRecord(chunk, node, i, records[recordOffset + i]);
+		}
+		if (children != null) {
+			for (int i = 0; i <= count; i++) {
+				putChild(chunk, node, i, children[childOffset + i]);
+			}
+		}
+	}
+
 	/**
 	 * Deletes the specified record from the B-tree.
 	 * <p>
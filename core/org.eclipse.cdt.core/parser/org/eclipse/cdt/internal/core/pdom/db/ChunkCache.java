@@ -13,12 +13,21 @@
  *******************************************************************************/
 package org.eclipse.cdt.internal.core.pdom.db;
 
+/**
+ * Page cache shared by databases. The cache is split into segments, each of which evicts its
+ * chunks using the CLOCK algorithm and is protected by its own lock. A chunk is always assigned
+ * to the same segment, such that databases faulting in chunks concurrently rarely contend for
+ * the same lock.
+ */
 public final class ChunkCache {
 	private static ChunkCache sSharedInstance = new ChunkCache();
 
-	private Chunk[] fPageTable;
-	private boolean fTableIsFull;
-	private int fPointer;
+	// A segment shall hold at least this many chunks for the CLOCK algorithm to be effective.
+	private static final int MIN_SEGMENT_LENGTH = 64;
+	private static final int MAX_SEGMENTS = 64;
+
+	private final Segment[] fSegments;
+	private final int fSegmentMask;
 
 	public static ChunkCache getSharedInstance() {
 		return sSharedInstance;
@@ -29,82 +38,60 @@ public final class ChunkCache {
 	}
 
 	public ChunkCache(long maxSize) {
-		fPageTable = new Chunk[computeLength(maxSize)];
+		this(maxSize, Runtime.getRuntime().availableProcessors() * 2);
 	}
 
-	public synchronized void add(Chunk chunk, boolean locked) {
-		if (locked) {
-			chunk.fLocked = true;
-		}
-		if (chunk.fCacheIndex >= 0) {
-			chunk.fCacheHitFlag = true;
-			return;
+	/**
+	 * Creates a cache with the given maximum size in bytes split into at most the given number
+	 * of segments.
+	 */
+	public ChunkCache(long maxSize, int maxSegments) {
+		final int length = computeLength(maxSize);
+		int segments = 1;
+		while (segments * 2 <= Math.min(maxSegments, MAX_SEGMENTS) && length / (segments * 2) >= MIN_SEGMENT_LENGTH) {
+			segments *= 2;
 		}
-		if (fTableIsFull) {
-			evictChunk();
-			chunk.fCacheIndex = fPointer;
-			fPageTable[fPointer] = chunk;
-		} else {
-			chunk.fCacheIndex = fPointer;
-			fPageTable[fPointer] = chunk;
-
-			fPointer++;
-			if (fPointer == fPageTable.length) {
-				fPointer = 0;
-				fTableIsFull = true;
-			}
+		fSegments = new Segment[segments];
+		fSegmentMask = segments - 1;
+		for (int i = 0; i < segments; i++) {
+			fSegments[i] = new Segment(segmentLength(length, i));
 		}
 	}
 
+	private Segment getSegment(Chunk chunk) {
+		// Consecutive chunks of a database go to different segments.
+		return fSegments[(chunk.fSequenceNumber ^ chunk.fDatabase.hashCode()) & fSegmentMask];
+	}
+
 	/**
-	 * Evicts a chunk from the page table and the chunk table.
-	 * After this method returns, {@link #fPointer}  will contain
-	 * the index of the evicted chunk within the page table.
+	 * Adds the chunk to the cache or marks it as recently used, if it is cached already.
+	 * @param locked whether the chunk shall be locked, locked chunks are not released from the
+	 *     database when they are evicted from the cache.
 	 */
-	private void evictChunk() {
-		/*
-		 * Use the CLOCK algorithm to determine which chunk to evict.
-		 * i.e., if the chunk in the current slot of the page table has been
-		 * recently referenced (i.e. the reference flag is set), unset the
-		 * reference flag and move to the next slot.  Otherwise, evict the
-		 * chunk in the current slot.
-		 */
-		while (true) {
-			Chunk chunk = fPageTable[fPointer];
-			if (chunk.fCacheHitFlag) {
-				chunk.fCacheHitFlag = false;
-				fPointer = (fPointer + 1) % fPageTable.length;
-			} else {
-				chunk.fDatabase.releaseChunk(chunk);
-				chunk.fCacheIndex = -1;
-				fPageTable[fPointer] = null;
-				return;
-			}
-		}
+	public void add(Chunk chunk, boolean locked) {
+		getSegment(chunk).add(chunk, locked);
 	}
 
-	public synchronized void remove(Chunk chunk) {
-		final int idx = chunk.fCacheIndex;
-		if (idx >= 0) {
-			if (fTableIsFull) {
-				fPointer = fPageTable.length - 1;
-				fTableIsFull = false;
-			} else {
-				fPointer--;
-			}
-			chunk.fCacheIndex = -1;
-			final Chunk move = fPageTable[fPointer];
-			fPageTable[idx] = move;
-			move.fCacheIndex = idx;
-			fPageTable[fPointer] = null;
-		}
+	public void remove(Chunk chunk) {
+		getSegment(chunk).remove(chunk);
+	}
+
+	/**
+	 * Returns the number of segments of this cache.
+	 */
+	public int getSegmentCount() {
+		return fSegments.length;
 	}
 
 	/**
 	 * Returns the maximum size of the chunk cache in bytes.
 	 */
-	public synchronized long getMaxSize() {
-		return (long) fPageTable.length * Database.CHUNK_SIZE;
+	public long getMaxSize() {
+		long length = 0;
+		for (Segment segment : fSegments) {
+			length += segment.getLength();
+		}
+		return length * Database.CHUNK_SIZE;
 	}
 
 	/**
@@ -112,31 +99,127 @@ public final class ChunkCache {
 	 * maximum total memory of <code>maxSize</code>.
 	 * @param maxSize the total size of the chunks in bytes.
 	 */
-	public synchronized void setMaxSize(long maxSize) {
-		final int newLength = computeLength(maxSize);
-		final int oldLength = fTableIsFull ? fPageTable.length : fPointer;
-		if (newLength > oldLength) {
-			Chunk[] newTable = new Chunk[newLength];
-			System.arraycopy(fPageTable, 0, newTable, 0, oldLength);
-			fTableIsFull = false;
-			fPointer = oldLength;
-			fPageTable = newTable;
-		} else {
-			for (int i = newLength; i < oldLength; i++) {
-				final Chunk chunk = fPageTable[i];
-				chunk.fDatabase.releaseChunk(chunk);
-				chunk.fCacheIndex = -1;
-			}
-			Chunk[] newTable = new Chunk[newLength];
-			System.arraycopy(fPageTable, 0, newTable, 0, newLength);
-			fTableIsFull = true;
-			fPointer = 0;
-			fPageTable = newTable;
+	public void setMaxSize(long maxSize) {
+		final int length = computeLength(maxSize);
+		for (int i = 0; i < fSegments.length; i++) {
+			fSegments[i].setLength(segmentLength(length, i));
 		}
 	}
 
+	private int segmentLength(int length, int segment) {
+		final int segments = fSegments.length;
+		return Math.max(1, length / segments + (segment < length % segments ? 1 : 0));
+	}
+
 	private int computeLength(long maxSize) {
 		long maxLength = Math.min(maxSize / Database.CHUNK_SIZE, Integer.MAX_VALUE);
 		return Math.max(1, (int) maxLength);
 	}
+
+	private static final class Segment {
+		private Chunk[] fPageTable;
+		private boolean fTableIsFull;
+		private int fPointer;
+
+		Segment(int length) {
+			fPageTable = new Chunk[length];
+		}
+
+		synchronized void add(Chunk chunk, boolean locked) {
+			if (locked) {
+				chunk.fLocked = true;
+			}
+			if (chunk.fCacheIndex >= 0) {
+				chunk.fCacheHitFlag = true;
+				return;
+			}
+			if (fTableIsFull) {
+				evictChunk();
+				chunk.fCacheIndex = fPointer;
+				fPageTable[fPointer] = chunk;
+				// Advance the hand, otherwise the chunk is the first candidate for the next eviction,
+				// e.g. when the chunks of a page are added.
+				fPointer = (fPointer + 1) % fPageTable.length;
+			} else {
+				chunk.fCacheIndex = fPointer;
+				fPageTable[fPointer] = chunk;
+
+				fPointer++;
+				if (fPointer == fPageTable.length) {
+					fPointer = 0;
+					fTableIsFull = true;
+				}
+			}
+		}
+
+		/**
+		 * Evicts a chunk from the page table and the chunk table.
+		 * After this method returns, {@link #fPointer}  will contain
+		 * the index of the evicted chunk within the page table.
+		 */
+		private void evictChunk() {
+			/*
+			 * Use the CLOCK algorithm to determine which chunk to evict.
+			 * i.e., if the chunk in the current slot of the page table has been
+			 * recently referenced (i.e. the reference flag is set), unset the
+			 * reference flag and move to the next slot.  Otherwise, evict the
+			 * chunk in the current slot.
+			 */
+			while (true) {
+				Chunk chunk = fPageTable[fPointer];
+				if (chunk.fCacheHitFlag) {
+					chunk.fCacheHitFlag = false;
+					fPointer = (fPointer + 1) % fPageTable.length;
+				} else {
+					chunk.fCacheIndex = -1;
+					chunk.fDatabase.releaseChunk(chunk);
+					fPageTable[fPointer] = null;
+					return;
+				}
+			}
+		}
+
+		synchronized void remove(Chunk chunk) {
+			final int idx = chunk.fCacheIndex;
+			if (idx >= 0) {
+				if (fTableIsFull) {
+					fPointer = fPageTable.length - 1;
+					fTableIsFull = false;
+				} else {
+					fPointer--;
+				}
+				chunk.fCacheIndex = -1;
+				final Chunk move = fPageTable[fPointer];
+				fPageTable[idx] = move;
+				move.fCacheIndex = idx;
+				fPageTable[fPointer] = null;
+			}
+		}
+
+		synchronized int getLength() {
+			return fPageTable.length;
+		}
+
+		synchronized void setLength(int newLength) {
+			final int oldLength = fTableIsFull ? fPageTable.length : fPointer;
+			if (newLength > oldLength) {
+				Chunk[] newTable = new Chunk[newLength];
+				System.arraycopy(fPageTable, 0, newTable, 0, oldLength);
+				fTableIsFull = false;
+				fPointer = oldLength;
+				fPageTable = newTable;
+			} else {
+				for (int i = newLength; i < oldLength; i++) {
+					final Chunk chunk = fPageTable[i];
+					chunk.fCacheIndex = -1;
+					chunk.fDatabase.releaseChunk(chunk);
+				}
+				Chunk[] newTable = new Chunk[newLength];
+				System.arraycopy(fPageTable, 0, newTable, 0, newLength);
+				fTableIsFull = true;
+				fPointer = 0;
+				fPageTable = newTable;
+			}
+		}
+	}
 }
@@ -26,13 +26,19 @@ import java.lang.ref.Reference;
 import java.lang.ref.ReferenceQueue;
 import java.lang.ref.SoftReference;
 import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
 import java.nio.channels.ClosedByInterruptException;
 import java.nio.channels.ClosedChannelException;
 import java.nio.channels.FileChannel;
+import java.nio.channels.FileChannel.MapMode;
 import java.text.MessageFormat;
 import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
 import java.util.Map;
 import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.zip.CRC32;
 
 import org.eclipse.cdt.core.CCorePlugin;
 import org.eclipse.core.runtime.CoreException;
@@ -60,6 +66,7 @@ import org.eclipse.osgi.util.NLS;
  * ..               | ...
  * INT_SIZE * m (1) | pointer to head of linked list of blocks of size (m + MIN_BLOCK_DELTAS) * BLOCK_SIZE_DELTA
  * DATA_AREA        | undefined (PDOM stores its own house-keeping data in this area)
+ * FORMAT_OFFSET    | pointer shift, 0 for BLOCK_SIZE_DELTA_BITS
  *
  * (1) where 2 <= m <= CHUNK_SIZE / BLOCK_SIZE_DELTA - MIN_BLOCK_DELTAS + 1
  *
@@ -71,6 +78,59 @@ import org.eclipse.osgi.util.NLS;
  * PREV_OFFSET      | pointer to previous block (of same size) (only in free blocks)
  * NEXT_OFFSET      | pointer to next block (of same size) (only in free blocks)
  *
+ * ===== record pointers
+ *
+ * Record pointers are stored in PTR_SIZE bytes by shifting the address of the block to the right by
+ * the pointer shift of the database. Blocks are aligned accordingly, thus the maximum size of the
+ * database is 2^(32 + pointer shift) bytes. The pointer shift is chosen when the database is cleared
+ * and defaults to BLOCK_SIZE_DELTA_BITS, where blocks are not aligned beyond BLOCK_SIZE_DELTA and the
+ * database is limited to MAX_DB_SIZE.
+ *
+ * ===== pages
+ *
+ * Chunks that are not in memory are read in pages of consecutive chunks, the other chunks of a page
+ * are added to the cache. Consecutive dirty chunks are written back with a single write operation,
+ * up to the size of a page. By default a page consists of one chunk.
+ *
+ * ===== memory-mapped mode
+ *
+ * When opened in memory-mapped mode the file is mapped in regions of MAPPED_REGION_SIZE bytes and
+ * chunks that exist on disk are views onto the mapped pages rather than copies. Such chunks bypass
+ * the ChunkCache, they are cheap to keep and the operating system takes care of paging. Chunks that
+ * have not yet been written to the file (i.e. newly created ones) are regular heap chunks until
+ * they have been flushed and are read again. Because the operating system may write back modified
+ * pages at any time, the file is marked incomplete as soon as a mapped chunk is handed out under
+ * the exclusive lock, the mapped regions are forced to disk in flush() before the version number
+ * is restored.
+ *
+ * ===== journal
+ *
+ * When not memory-mapped, a writable database does not write modified chunks into its file before
+ * they are committed by a complete flush. Until then they are written to the journal, a file next
+ * to the database with the suffix JOURNAL_SUFFIX, from where they are read back when they are
+ * needed again. A chunk occupies at most one record of the journal, it is overwritten when the
+ * chunk is written again.
+ *
+ * offset            content
+ * 	                 _____________________________
+ * 0                | sequence number of the chunk
+ * INT_SIZE         | checksum of the sequence number and the content of the chunk
+ * 2 * INT_SIZE     | content of the chunk (CHUNK_SIZE bytes)
+ *
+ * A flush appends the header chunk and a commit record holding JOURNAL_COMMIT_MARKER, the number of
+ * chunks of the database, the number of journal records and a checksum of the former, and forces
+ * the journal to the disk. Afterwards the committed chunks are copied to the database file and the
+ * journal is truncated. When the database is opened with a journal that ends with a valid commit
+ * record, the copying is completed, any other journal is discarded. Thus the file of the database
+ * always reflects the state of the last completed flush.
+ *
+ * ===== synchronization
+ *
+ * The table of chunks is protected by fChunkTableLock, the state of a chunk within the ChunkCache
+ * by the lock of the cache segment it belongs to. The cache calls back into the database while
+ * holding the segment lock to release evicted chunks, therefore the database must not call into
+ * the cache while holding fChunkTableLock. Readers find chunks that are cached already without
+ * acquiring any lock.
  */
 public class Database {
 	// Public for tests only, you shouldn't need these.
@@ -99,12 +159,36 @@ public class Database {
 	private static final int BLOCK_PREV_OFFSET = BLOCK_HEADER_SIZE;
 	private static final int BLOCK_NEXT_OFFSET = BLOCK_HEADER_SIZE + INT_SIZE;
 
+	private static final int MAPPED_REGION_SIZE = 64 * 1024 * 1024; // must be a multiple of CHUNK_SIZE
+	private static final int CHUNKS_PER_MAPPED_REGION = MAPPED_REGION_SIZE / CHUNK_SIZE;
+	private static final MappedByteBuffer[] NO_REGIONS = {};
+	private static final int MAX_LOCKED_CHUNKS_WHILE_COMPACTING = 4096;
+	public static final int FORMAT_OFFSET = CHUNK_SIZE - INT_SIZE;
+	private static final int MAX_POINTER_SHIFT = 6;
+	private static final int MAX_CHUNKS_PER_PAGE = 256;
+
+	public static final String JOURNAL_SUFFIX = ".journal"; //$NON-NLS-1$
+	private static final int JOURNAL_COMMIT_MARKER = -1;
+	private static final int JOURNAL_RECORD_HEADER_SIZE = 2 * INT_SIZE;
+	private static final int JOURNAL_RECORD_SIZE = JOURNAL_RECORD_HEADER_SIZE + CHUNK_SIZE;
+	private static final int JOURNAL_COMMIT_SIZE = 4 * INT_SIZE;
+
 	private final File fLocation;
 	private final boolean fReadOnly;
+	private final boolean fMemoryMapped;
+	private MappedByteBuffer[] fMappedRegions = NO_REGIONS;
 	private RandomAccessFile fFile;
+	private final File fJournalLocation; // null, if the database is not journaled.
+	private RandomAccessFile fJournal;
+	// Maps the sequence numbers of the chunks in the journal to the offsets of their records.
+	private final Map<Integer, Long> fJournalRecords = new ConcurrentHashMap<>();
+	private long fJournalLength;
 	private boolean fExclusiveLock; // Necessary for any write operation.
-	private boolean fLocked; // Necessary for any operation.
+	private volatile boolean fLocked; // Necessary for any operation.
 	private boolean fIsMarkedIncomplete;
+	int fPointerShift = BLOCK_SIZE_DELTA_BITS; // Read by the chunks when accessing record pointers.
+	private int fPointerShiftAfterClear;
+	private int fChunksPerPage = 1;
 
 	private int fVersion;
 	private final Chunk fHeaderChunk;
@@ -112,11 +196,13 @@ public class Database {
 	private int fChunksUsed;
 	private int fChunksAllocated;
 	private ChunkCache fCache;
+	private final Object fChunkTableLock = new Object();
 
 	private long malloced;
 	private long freed;
-	private long cacheHits;
-	private long cacheMisses;
+	private final LongAdder cacheHits = new LongAdder();
+	private final LongAdder cacheMisses = new LongAdder();
+	private final LongAdder cacheEvictions = new LongAdder();
 
 	/** Soft reference wrapper to keep track of the record for disposed strings. */
 	private static class SoftStringRef extends SoftReference<IString> {
@@ -145,11 +231,33 @@ public class Database {
 	 * @throws CoreException
 	 */
 	public Database(File location, ChunkCache cache, int version, boolean openReadOnly) throws CoreException {
+		this(location, cache, version, openReadOnly, false);
+	}
+
+	/**
+	 * Construct a new Database object, creating a backing file if necessary.
+	 * @param location the local file path for the database
+	 * @param cache the cache to be used optimization
+	 * @param version the version number to store in the database (only applicable for new databases)
+	 * @param openReadOnly whether this Database object will ever need writing to
+	 * @param memoryMapped whether the chunks of the database file shall be accessed through memory
+	 *     mapped regions rather than being read into the cache. Writable databases that are not
+	 *     memory-mapped use a journal to keep their file consistent in case of a crash.
+	 * @throws CoreException
+	 */
+	public Database(File location, ChunkCache cache, int version, boolean openReadOnly, boolean memoryMapped)
+			throws CoreException {
 		try {
 			fLocation = location;
 			fReadOnly = openReadOnly;
+			fMemoryMapped = memoryMapped;
 			fCache = cache;
+			final File journalLocation = new File(location.getPath() + JOURNAL_SUFFIX);
+			fJournalLocation = openReadOnly || memoryMapped ? null : journalLocation;
 			openFile();
+			if (!openReadOnly) {
+				recoverFromJournal(journalLocation);
+			}
 
 			int nChunksOnDisk = (int) (fFile.length() / CHUNK_SIZE);
 			fHeaderChunk = new Chunk(this, 0);
@@ -161,9 +269,14 @@ public class Database {
 			} else {
 				fHeaderChunk.read();
 				fVersion = fHeaderChunk.getInt(VERSION_OFFSET);
+				final int pointerShift = fHeaderChunk.getInt(FORMAT_OFFSET);
+				if (pointerShift > BLOCK_SIZE_DELTA_BITS && pointerShift <= MAX_POINTER_SHIFT) {
+					fPointerShift = pointerShift;
+				}
 				fChunks = new Chunk[nChunksOnDisk]; // chunk[0] is unused.
 				fChunksUsed = fChunksAllocated = nChunksOnDisk;
 			}
+			fPointerShiftAfterClear = fPointerShift;
 		} catch (IOException e) {
 			throw new CoreException(new DBStatus(e));
 		}
@@ -174,6 +287,17 @@ public class Database {
 	}
 
 	void read(ByteBuffer buf, long position) throws IOException {
+		if (fJournalLocation != null) {
+			final Long record = fJournalRecords.get((int) (position / CHUNK_SIZE));
+			if (record != null) {
+				getJournal().read(buf, record + JOURNAL_RECORD_HEADER_SIZE);
+				return;
+			}
+		}
+		readFromFile(buf, position);
+	}
+
+	private void readFromFile(ByteBuffer buf, long position) throws IOException {
 		int retries = 0;
 		do {
 			try {
@@ -187,6 +311,14 @@ public class Database {
 	}
 
 	void write(ByteBuffer buf, long position) throws IOException {
+		if (fJournalLocation != null) {
+			writeToJournal(buf, (int) (position / CHUNK_SIZE));
+		} else {
+			writeToFile(buf, position);
+		}
+	}
+
+	private void writeToFile(ByteBuffer buf, long position) throws IOException {
 		int retries = 0;
 		while (true) {
 			try {
@@ -207,6 +339,154 @@ public class Database {
 		openFile();
 	}
 
+	private FileChannel getJournal() throws IOException {
+		synchronized (fChunkTableLock) {
+			if (fJournal == null || !fJournal.getChannel().isOpen()) {
+				fJournal = new RandomAccessFile(fJournalLocation, "rw"); //$NON-NLS-1$
+			}
+			return fJournal.getChannel();
+		}
+	}
+
+	/**
+	 * Writes the content of a chunk into its record of the journal, a new record is appended if
+	 * the chunk is not yet part of the journal.
+	 */
+	private void writeToJournal(ByteBuffer buf, int sequenceNumber) throws IOException {
+		Long record = fJournalRecords.get(sequenceNumber);
+		if (record == null) {
+			record = fJournalLength;
+			fJournalLength += JOURNAL_RECORD_SIZE;
+		}
+		final ByteBuffer header = ByteBuffer.allocate(JOURNAL_RECORD_HEADER_SIZE);
+		header.putInt(sequenceNumber).putInt(checksum(sequenceNumber, buf.array(), buf.position())).flip();
+		final FileChannel journal = getJournal();
+		journal.write(header, record);
+		journal.write(buf, record + JOURNAL_RECORD_HEADER_SIZE);
+		fJournalRecords.put(sequenceNumber, record);
+	}
+
+	/**
+	 * Commits the chunks written to the journal together with the header chunk and copies them
+	 * to the database file.
+	 */
+	private void commitJournal() throws CoreException {
+		fHeaderChunk.flush();
+		try {
+			final FileChannel journal = getJournal();
+			final int records = (int) (fJournalLength / JOURNAL_RECORD_SIZE);
+			final ByteBuffer commit = ByteBuffer.allocate(JOURNAL_COMMIT_SIZE);
+			commit.putInt(JOURNAL_COMMIT_MARKER).putInt(fChunksUsed).putInt(records)
+					.putInt(checksum(fChunksUsed, records)).flip();
+			journal.write(commit, fJournalLength);
+			journal.force(false);
+			copyFromJournal(journal, fJournalRecords, fChunksUsed);
+			truncateJournal();
+		} catch (IOException e) {
+			throw new CoreException(new DBStatus(e));
+		}
+	}
+
+	/**
+	 * Removes all records from the journal. Chunks are read while holding {@link #fChunkTableLock},
+	 * the records are dropped under the same lock, such that no chunk is read from a record of the
+	 * truncated journal.
+	 */
+	private void truncateJournal() throws IOException {
+		synchronized (fChunkTableLock) {
+			fJournalRecords.clear();
+			// The journal may contain a commit without records.
+			if (fJournalLength > 0 || fJournal != null) {
+				getJournal().truncate(0);
+			}
+			fJournalLength = 0;
+		}
+	}
+
+	/**
+	 * Copies the chunks in the given records of the journal to the database file, which is
+	 * truncated to the given number of chunks.
+	 */
+	private void copyFromJournal(FileChannel journal, Map<Integer, Long> records, int chunksUsed)
+			throws IOException {
+		final Integer[] sequenceNumbers = records.keySet().toArray(new Integer[records.size()]);
+		Arrays.sort(sequenceNumbers);
+		final ByteBuffer buf = ByteBuffer.allocate(CHUNK_SIZE);
+		for (Integer sequenceNumber : sequenceNumbers) {
+			if (sequenceNumber < chunksUsed) {
+				buf.clear();
+				journal.read(buf, records.get(sequenceNumber) + JOURNAL_RECORD_HEADER_SIZE);
+				buf.flip();
+				writeToFile(buf, (long) sequenceNumber * CHUNK_SIZE);
+			}
+		}
+		final FileChannel channel = fFile.getChannel();
+		if (channel.size() > (long) chunksUsed * CHUNK_SIZE) {
+			channel.truncate((long) chunksUsed * CHUNK_SIZE);
+		}
+		channel.force(false);
+	}
+
+	/**
+	 * Completes copying the committed chunks from a journal left behind by a database that was
+	 * not closed, or discards the journal if it does not end with a valid commit record.
+	 */
+	private void recoverFromJournal(File journalLocation) throws IOException {
+		if (!journalLocation.exists())
+			return;
+		try (RandomAccessFile file = new RandomAccessFile(journalLocation, "rw")) { //$NON-NLS-1$
+			final FileChannel journal = file.getChannel();
+			final long length = journal.size();
+			final ByteBuffer buf = ByteBuffer.allocate(JOURNAL_RECORD_SIZE);
+			final Map<Integer, Long> records = new HashMap<>();
+			int chunksUsed = -1;
+			for (long position = 0; position + JOURNAL_COMMIT_SIZE <= length; position += JOURNAL_RECORD_SIZE) {
+				buf.clear();
+				journal.read(buf, position);
+				final int sequenceNumber = buf.getInt(0);
+				if (sequenceNumber == JOURNAL_COMMIT_MARKER) {
+					final int chunks = buf.getInt(INT_SIZE);
+					final int count = buf.getInt(2 * INT_SIZE);
+					if (count == position / JOURNAL_RECORD_SIZE
+							&& buf.getInt(3 * INT_SIZE) == checksum(chunks, count)) {
+						chunksUsed = chunks;
+					}
+					break;
+				}
+				if (sequenceNumber < 0 || buf.position() < JOURNAL_RECORD_SIZE
+						|| buf.getInt(INT_SIZE) != checksum(sequenceNumber, buf.array(), JOURNAL_RECORD_HEADER_SIZE)) {
+					break; // Torn write.
+				}
+				records.put(sequenceNumber, position);
+			}
+			if (chunksUsed >= 0) {
+				copyFromJournal(journal, records, chunksUsed);
+			}
+			journal.truncate(0);
+		}
+	}
+
+	private static int checksum(int sequenceNumber, byte[] content, int offset) {
+		final CRC32 crc = new CRC32();
+		update(crc, sequenceNumber);
+		crc.update(content, offset, CHUNK_SIZE);
+		return (int) crc.getValue();
+	}
+
+	private static int checksum(int chunks, int records) {
+		final CRC32 crc = new CRC32();
+		update(crc, chunks);
+		update(crc, records);
+		return (int) crc.getValue();
+	}
+
+	private static void update(CRC32 crc, int value) {
+		crc.update(value >> 24);
+		crc.update(value >> 16);
+		crc.update(value >> 8);
+		crc.update(value);
+	}
+
 	public void transferTo(FileChannel target) throws IOException {
 		assert fLocked;
 		final FileChannel from = fFile.getChannel();
@@ -227,6 +507,40 @@ public class Database {
 		return fVersion;
 	}
 
+	/**
+	 * Returns the maximum size of the database in bytes, which depends on the alignment of the
+	 * record pointers.
+	 */
+	public long getMaxSize() {
+		return 1L << (Integer.SIZE + fPointerShift);
+	}
+
+	/**
+	 * Selects the alignment of record pointers such that the database can grow to at least the
+	 * given number of bytes. Larger alignments waste more space, the alignment is changed when the
+	 * database is cleared next.
+	 */
+	public void setMaxSizeAfterClear(long maxSize) {
+		int pointerShift = BLOCK_SIZE_DELTA_BITS;
+		while (pointerShift < MAX_POINTER_SHIFT && 1L << (Integer.SIZE + pointerShift) < maxSize) {
+			pointerShift++;
+		}
+		fPointerShiftAfterClear = pointerShift;
+	}
+
+	/**
+	 * Sets the number of bytes read from or written to the file at once, which is rounded to a power
+	 * of two multiple of {@link #CHUNK_SIZE}. Larger pages speed up reading the chunks in the order
+	 * in which they are stored, at the expense of reading chunks that are not needed.
+	 */
+	public void setPageSize(int pageSize) {
+		int chunksPerPage = 1;
+		while (chunksPerPage < MAX_CHUNKS_PER_PAGE && chunksPerPage * 2 * CHUNK_SIZE <= pageSize) {
+			chunksPerPage *= 2;
+		}
+		fChunksPerPage = chunksPerPage;
+	}
+
 	public void setVersion(int version) throws CoreException {
 		assert fExclusiveLock;
 		fHeaderChunk.putInt(VERSION_OFFSET, version);
@@ -244,12 +558,26 @@ public class Database {
 		fVersion = version;
 		// Clear the first chunk.
 		fHeaderChunk.clear(0, CHUNK_SIZE);
+		fPointerShift = fPointerShiftAfterClear;
+		if (fPointerShift != BLOCK_SIZE_DELTA_BITS) {
+			fHeaderChunk.putInt(FORMAT_OFFSET, fPointerShift);
+		}
 		// Chunks have been removed from the cache, so we may just reset the array of chunks.
 		fChunks = new Chunk[] { null };
 		fChunksUsed = fChunksAllocated = fChunks.length;
 		try {
-			fHeaderChunk.flush(); // Zero out header chunk.
-			fFile.getChannel().truncate(CHUNK_SIZE); // Truncate database.
+			if (fJournalLocation != null) {
+				// Changes that have not been committed are obsolete, the commit truncates the database.
+				truncateJournal();
+				commitJournal();
+			} else {
+				fHeaderChunk.flush(); // Zero out header chunk.
+				// Mapped regions cannot be unmapped, and on some platforms a file with a mapping cannot
+				// be truncated. The space is reused then, new chunks are written before they are mapped.
+				if (!fMemoryMapped) {
+					fFile.getChannel().truncate(CHUNK_SIZE); // Truncate database.
+				}
+			}
 		} catch (IOException e) {
 			CCorePlugin.log(e);
 		}
@@ -274,15 +602,19 @@ public class Database {
 	}
 
 	private void removeChunksFromCache() {
-		synchronized (fCache) {
+		ArrayList<Chunk> chunks = new ArrayList<>();
+		synchronized (fChunkTableLock) {
 			for (int i = 1; i < fChunks.length; i++) {
 				Chunk chunk = fChunks[i];
 				if (chunk != null) {
-					fCache.remove(chunk);
+					chunks.add(chunk);
 					fChunks[i] = null;
 				}
 			}
 		}
+		for (Chunk chunk : chunks) {
+			fCache.remove(chunk);
+		}
 	}
 
 	/**
@@ -295,28 +627,211 @@ public class Database {
 		}
 		long long_index = offset / CHUNK_SIZE;
 		assert long_index < Integer.MAX_VALUE;
+		final int index = (int) long_index;
+
+		// A chunk in the cache can be used right away by readers, reading the volatile fCacheIndex
+		// makes its content visible. The writer can use the chunks it has locked, they are not
+		// dropped from the table.
+		final Chunk[] chunks = fChunks;
+		if (index > 0 && index < chunks.length) {
+			final Chunk chunk = chunks[index];
+			if (chunk != null
+					&& (fExclusiveLock ? chunk.fLocked : chunk.fMapped || chunk.fCacheIndex >= 0)) {
+				cacheHits.increment();
+				if (!chunk.fCacheHitFlag) {
+					chunk.fCacheHitFlag = true;
+				}
+				return chunk;
+			}
+		}
 
-		synchronized (fCache) {
-			assert fLocked;
-			final int index = (int) long_index;
-			if (index < 0 || index >= fChunks.length) {
-				databaseCorruptionDetected();
+		while (true) {
+			Chunk chunk;
+			ArrayList<Chunk> pageChunks = null;
+			synchronized (fChunkTableLock) {
+				assert fLocked;
+				if (index < 0 || index >= fChunks.length) {
+					databaseCorruptionDetected();
+				}
+				chunk = fChunks[index];
+				if (chunk == null) {
+					cacheMisses.increment();
+					if (fMemoryMapped) {
+						chunk = mapChunk(index);
+					}
+					if (chunk == null) {
+						chunk = new Chunk(this, index);
+						if (fChunksPerPage > 1) {
+							pageChunks = readPage(chunk);
+						} else {
+							chunk.read();
+						}
+					}
+					// Put the chunk in fChunks after it was read successfully.
+					fChunks[index] = chunk;
+				} else {
+					cacheHits.increment();
+				}
+				if (chunk.fMapped) {
+					if (fExclusiveLock) {
+						// The operating system may write back the page at any time.
+						markFileIncomplete();
+						chunk.fLocked = true;
+					}
+					return chunk;
+				}
 			}
-			Chunk chunk = fChunks[index];
-			if (chunk == null) {
-				cacheMisses++;
-				chunk = new Chunk(this, index);
-				chunk.read();
-				// Put the chunk in fChunks after it was read successfully.
-				fChunks[index] = chunk;
-			} else {
-				cacheHits++;
+			if (pageChunks != null) {
+				for (Chunk pageChunk : pageChunks) {
+					fCache.add(pageChunk, false);
+				}
 			}
 			fCache.add(chunk, fExclusiveLock);
-			return chunk;
+			if (!fExclusiveLock) {
+				return chunk;
+			}
+			synchronized (fChunkTableLock) {
+				// The chunk may have been evicted and dropped from the table before it was locked,
+				// changes to it would get lost.
+				if (fChunks[index] == chunk) {
+					return chunk;
+				}
+			}
+		}
+	}
+
+	/**
+	 * Reads the page containing the given chunk. The other chunks of the page that are neither in
+	 * memory nor in the journal are entered into the table of chunks and returned, such that they
+	 * can be added to the cache. Must be called while holding {@link #fChunkTableLock}.
+	 */
+	private ArrayList<Chunk> readPage(Chunk chunk) throws CoreException {
+		final int index = chunk.fSequenceNumber;
+		final int start = index & -fChunksPerPage;
+		try {
+			final int end = (int) Math.min(start + fChunksPerPage, fFile.length() / CHUNK_SIZE);
+			if (index >= end || fJournalRecords.containsKey(index)) {
+				chunk.read();
+				return null;
+			}
+			final ByteBuffer page = ByteBuffer.allocate((end - start) * CHUNK_SIZE);
+			readFromFile(page, (long) start * CHUNK_SIZE);
+			chunk.read(page.array(), (index - start) * CHUNK_SIZE);
+			ArrayList<Chunk> pageChunks = new ArrayList<>(end - start);
+			for (int i = Math.max(start, 1); i < end && i < fChunksUsed; i++) {
+				if (i != index && fChunks[i] == null && !fJournalRecords.containsKey(i)) {
+					final Chunk pageChunk = new Chunk(this, i);
+					pageChunk.read(page.array(), (i - start) * CHUNK_SIZE);
+					fChunks[i] = pageChunk;
+					pageChunks.add(pageChunk);
+				}
+			}
+			return pageChunks;
+		} catch (IOException e) {
+			throw new CoreException(new DBStatus(e));
+		}
+	}
+
+	/**
+	 * Writes the given chunks, consecutive chunks are written with a single write operation.
+	 */
+	private void flushChunks(ArrayList<Chunk> chunks) throws CoreException {
+		try {
+			for (int i = 0; i < chunks.size();) {
+				final Chunk first = chunks.get(i);
+				int end = i + 1;
+				if (!first.fMapped && fJournalLocation == null) {
+					while (end < chunks.size() && end - i < fChunksPerPage && !chunks.get(end).fMapped
+							&& chunks.get(end).fSequenceNumber == first.fSequenceNumber + end - i) {
+						end++;
+					}
+				}
+				if (end - i == 1) {
+					if (first.fDirty) {
+						first.flush();
+					}
+				} else {
+					final ByteBuffer page = ByteBuffer.allocate((end - i) * CHUNK_SIZE);
+					for (int j = i; j < end; j++) {
+						chunks.get(j).flush(page.array(), (j - i) * CHUNK_SIZE);
+					}
+					writeToFile(page, (long) first.fSequenceNumber * CHUNK_SIZE);
+				}
+				i = end;
+			}
+		} catch (IOException e) {
+			throw new CoreException(new DBStatus(e));
+		}
+	}
+
+	/**
+	 * Returns a chunk that is a view onto the mapped region of the file containing it, or
+	 * {@code null} if the chunk is not yet part of the file.
+	 * Must be called while holding {@link #fChunkTableLock}.
+	 */
+	private Chunk mapChunk(int index) throws CoreException {
+		final int regionIndex = index / CHUNKS_PER_MAPPED_REGION;
+		final int base = (index % CHUNKS_PER_MAPPED_REGION) * CHUNK_SIZE;
+		MappedByteBuffer region = regionIndex < fMappedRegions.length ? fMappedRegions[regionIndex] : null;
+		if (region == null || region.capacity() < base + CHUNK_SIZE) {
+			region = mapRegion(regionIndex);
+			if (region == null || region.capacity() < base + CHUNK_SIZE) {
+				return null;
+			}
+		}
+		return new Chunk(this, index, region, base);
+	}
+
+	private MappedByteBuffer mapRegion(int regionIndex) throws CoreException {
+		try {
+			final FileChannel channel = fFile.getChannel();
+			final long start = (long) regionIndex * MAPPED_REGION_SIZE;
+			// Only map what is in the file, the file is extended by flushing heap chunks.
+			final long size = Math.min(MAPPED_REGION_SIZE, channel.size() - start);
+			if (size < CHUNK_SIZE) {
+				return null;
+			}
+			MappedByteBuffer region = channel.map(fReadOnly ? MapMode.READ_ONLY : MapMode.READ_WRITE, start, size);
+			if (regionIndex >= fMappedRegions.length) {
+				MappedByteBuffer[] newRegions = new MappedByteBuffer[regionIndex + 1];
+				System.arraycopy(fMappedRegions, 0, newRegions, 0, fMappedRegions.length);
+				fMappedRegions = newRegions;
+			}
+			fMappedRegions[regionIndex] = region;
+			return region;
+		} catch (IOException e) {
+			throw new CoreException(new DBStatus(e));
 		}
 	}
 
+	/**
+	 * Forces the content of the mapped regions containing the given chunks to the disk.
+	 */
+	private void forceMappedRegions(ArrayList<Chunk> chunks) {
+		if (!fMemoryMapped)
+			return;
+		final boolean[] forced = new boolean[fMappedRegions.length];
+		for (Chunk chunk : chunks) {
+			if (chunk.fMapped) {
+				final int regionIndex = chunk.fSequenceNumber / CHUNKS_PER_MAPPED_REGION;
+				if (regionIndex < forced.length && !forced[regionIndex]) {
+					forced[regionIndex] = true;
+					MappedByteBuffer region = fMappedRegions[regionIndex];
+					if (region != null) {
+						region.force();
+					}
+				}
+			}
+		}
+	}
+
+	/**
+	 * Returns whether the chunks of this database are accessed through memory mapped regions.
+	 */
+	public boolean isMemoryMapped() {
+		return fMemoryMapped;
+	}
+
 	private void databaseCorruptionDetected() throws CoreException {
 		String msg = MessageFormat.format(Messages.getString("Database.CorruptedDatabase"), //$NON-NLS-1$
 				new Object[] { fLocation.getName() });
@@ -330,7 +845,10 @@ public class Database {
 		assert fExclusiveLock;
 		assert datasize >= 0 && datasize <= MAX_MALLOC_SIZE;
 
-		int needDeltas = (datasize + BLOCK_HEADER_SIZE + BLOCK_SIZE_DELTA - 1) / BLOCK_SIZE_DELTA;
+		// Blocks are aligned for the record pointers, all of their sizes are multiples of the alignment.
+		final int alignmentDeltas = 1 << (fPointerShift - BLOCK_SIZE_DELTA_BITS);
+		final int alignment = alignmentDeltas * BLOCK_SIZE_DELTA;
+		int needDeltas = (datasize + BLOCK_HEADER_SIZE + alignment - 1) / alignment * alignmentDeltas;
 		if (needDeltas < MIN_BLOCK_DELTAS) {
 			needDeltas = MIN_BLOCK_DELTAS;
 		}
@@ -338,7 +856,7 @@ public class Database {
 		// Which block size.
 		long freeblock = 0;
 		int useDeltas;
-		for (useDeltas = needDeltas; useDeltas <= MAX_BLOCK_DELTAS; useDeltas++) {
+		for (useDeltas = needDeltas; useDeltas <= MAX_BLOCK_DELTAS; useDeltas += alignmentDeltas) {
 			freeblock = getFirstBlock(useDeltas * BLOCK_SIZE_DELTA);
 			if (freeblock != 0)
 				break;
@@ -376,11 +894,13 @@ public class Database {
 
 	private long createNewChunk() throws CoreException {
 		assert fExclusiveLock;
-		synchronized (fCache) {
+		final Chunk chunk;
+		synchronized (fChunkTableLock) {
 			final int newChunkIndex = fChunksUsed; // fChunks.length;
 
-			final Chunk chunk = new Chunk(this, newChunkIndex);
+			chunk = new Chunk(this, newChunkIndex);
 			chunk.fDirty = true;
+			chunk.fLocked = true;
 
 			if (newChunkIndex >= fChunksAllocated) {
 				int increment = Math.max(1024, fChunksAllocated / 20);
@@ -392,24 +912,23 @@ public class Database {
 			}
 			fChunksUsed += 1;
 			fChunks[newChunkIndex] = chunk;
+		}
+		fCache.add(chunk, true);
+		long address = (long) chunk.fSequenceNumber * CHUNK_SIZE;
 
-			fCache.add(chunk, true);
-			long address = (long) newChunkIndex * CHUNK_SIZE;
-
-			/*
-			 * Non-dense pointers are at most 31 bits dense pointers are at most 35 bits Check the sizes here
-			 * and throw an exception if the address is too large. By throwing the CoreException with the
-			 * special status, the indexing operation should be stopped. This is desired since generally, once
-			 * the max size is exceeded, there are lots of errors.
-			 */
-			if (address >= MAX_DB_SIZE) {
-				Object bindings[] = { this.getLocation().getAbsolutePath(), MAX_DB_SIZE };
-				throw new CoreException(
-						new Status(IStatus.ERROR, CCorePlugin.PLUGIN_ID, CCorePlugin.STATUS_PDOM_TOO_LARGE,
-								NLS.bind(CCorePlugin.getResourceString("pdom.DatabaseTooLarge"), bindings), null)); //$NON-NLS-1$
-			}
-			return address;
+		/*
+		 * Non-dense pointers are at most 31 bits dense pointers are at most 35 bits Check the sizes here
+		 * and throw an exception if the address is too large. By throwing the CoreException with the
+		 * special status, the indexing operation should be stopped. This is desired since generally, once
+		 * the max size is exceeded, there are lots of errors.
+		 */
+		if (address >= getMaxSize()) {
+			Object bindings[] = { this.getLocation().getAbsolutePath(), getMaxSize() };
+			throw new CoreException(
+					new Status(IStatus.ERROR, CCorePlugin.PLUGIN_ID, CCorePlugin.STATUS_PDOM_TOO_LARGE,
+							NLS.bind(CCorePlugin.getResourceString("pdom.DatabaseTooLarge"), bindings), null)); //$NON-NLS-1$
 		}
+		return address;
 	}
 
 	/**
@@ -417,22 +936,24 @@ public class Database {
 	 */
 	private long createNewChunks(int numChunks) throws CoreException {
 		assert fExclusiveLock;
-		synchronized (fCache) {
+		final Chunk chunk;
+		synchronized (fChunkTableLock) {
 			final int oldLen = fChunks.length;
 			Chunk[] newchunks = new Chunk[oldLen + numChunks];
 			System.arraycopy(fChunks, 0, newchunks, 0, oldLen);
 			for (int i = oldLen; i < oldLen + numChunks; i++) {
 				newchunks[i] = null;
 			}
-			final Chunk chunk = new Chunk(this, oldLen + numChunks - 1);
+			chunk = new Chunk(this, oldLen + numChunks - 1);
 			chunk.fDirty = true;
+			chunk.fLocked = true;
 			newchunks[oldLen + numChunks - 1] = chunk;
 			fChunks = newchunks;
-			fCache.add(chunk, true);
 			fChunksAllocated = oldLen + numChunks;
 			fChunksUsed = oldLen + numChunks;
-			return (long) (oldLen + numChunks - 1) * CHUNK_SIZE;
 		}
+		fCache.add(chunk, true);
+		return (long) chunk.fSequenceNumber * CHUNK_SIZE;
 	}
 
 	private long getFirstBlock(int blocksize) throws CoreException {
@@ -494,6 +1015,181 @@ public class Database {
 		stringCache.remove(offset); // also remove record from string cache (if it exists)
 	}
 
+	/**
+	 * Estimates the fraction of the space of the database that is occupied by free blocks. Examines
+	 * at most the given number of chunks, evenly spread over the database.
+	 */
+	public double estimateFreeSpaceRatio(int maxChunks) throws CoreException {
+		assert fLocked;
+		final int chunksUsed = fChunksUsed;
+		if (chunksUsed <= 1)
+			return 0;
+		final double step = Math.max(1.0, (double) (chunksUsed - 1) / maxChunks);
+		long free = 0;
+		int count = 0;
+		for (double i = 1; i < chunksUsed; i += step) {
+			final Chunk chunk = getChunkForScan((int) i);
+			final long start = (long) chunk.fSequenceNumber * CHUNK_SIZE;
+			for (long block = start; block < start + CHUNK_SIZE;) {
+				final int blocksize = chunk.getShort(block);
+				if (blocksize == 0)
+					break; // Chunk that has never been used for blocks.
+				if (blocksize > 0)
+					free += blocksize;
+				block += Math.abs(blocksize);
+			}
+			count++;
+		}
+		return (double) free / ((long) count * CHUNK_SIZE);
+	}
+
+	/**
+	 * Defragments the free space of the database. Adjacent free blocks are merged, the lists of
+	 * free blocks are rebuilt such that blocks at lower addresses are reused first, and chunks at
+	 * the end of the database that are entirely free are removed from the file.
+	 * <p>
+	 * Records in use are not moved, the database does not know which of their fields are pointers.
+	 * @return the number of bytes by which the file has shrunk.
+	 */
+	public long compact() throws CoreException {
+		assert fExclusiveLock;
+		final int chunksUsed = fChunksUsed;
+
+		// Find the runs of adjacent free blocks.
+		long[] runs = new long[1024];
+		int[] runSizes = new int[runs.length];
+		int runCount = 0;
+		int lastUsedChunk = 0;
+		for (int i = 1; i < chunksUsed; i++) {
+			final Chunk chunk = getChunkForScan(i);
+			final long start = (long) i * CHUNK_SIZE;
+			final int runCountOfChunk = runCount;
+			long run = 0;
+			boolean used = false;
+			for (long block = start; block < start + CHUNK_SIZE;) {
+				final int blocksize = chunk.getShort(block);
+				if (blocksize == 0) {
+					// Chunk that has never been used for blocks, leave it alone.
+					used = true;
+					runCount = runCountOfChunk;
+					break;
+				}
+				final int size = Math.abs(blocksize);
+				if (size % BLOCK_SIZE_DELTA != 0 || block + size > start + CHUNK_SIZE) {
+					databaseCorruptionDetected();
+				}
+				if (blocksize > 0) {
+					if (run == 0) {
+						run = block;
+						if (runCount == runs.length) {
+							runs = Arrays.copyOf(runs, runCount * 2);
+							runSizes = Arrays.copyOf(runSizes, runCount * 2);
+						}
+						runs[runCount] = block;
+						runSizes[runCount++] = 0;
+					}
+					runSizes[runCount - 1] += size;
+				} else {
+					run = 0;
+					used = true;
+				}
+				block += size;
+			}
+			if (used) {
+				lastUsedChunk = i;
+			}
+		}
+
+		// Free blocks in the chunks at the end of the file are dropped.
+		while (runCount > 0 && runs[runCount - 1] >= (long) (lastUsedChunk + 1) * CHUNK_SIZE) {
+			runCount--;
+		}
+
+		// Link the runs of each size in the order of their addresses.
+		final int[] nextRun = new int[runCount];
+		final int[] lastRunOfSize = new int[MAX_BLOCK_DELTAS + 1];
+		Arrays.fill(lastRunOfSize, -1);
+		for (int i = runCount; --i >= 0;) {
+			final int deltas = runSizes[i] / BLOCK_SIZE_DELTA;
+			nextRun[i] = lastRunOfSize[deltas];
+			lastRunOfSize[deltas] = i;
+		}
+		for (int deltas = MIN_BLOCK_DELTAS; deltas <= MAX_BLOCK_DELTAS; deltas++) {
+			final int first = lastRunOfSize[deltas];
+			setFirstBlock(deltas * BLOCK_SIZE_DELTA, first < 0 ? 0 : runs[first]);
+		}
+		Arrays.fill(lastRunOfSize, -1);
+		int lockedChunks = 0;
+		Chunk chunk = null;
+		for (int i = 0; i < runCount; i++) {
+			final long block = runs[i];
+			if (chunk == null || chunk.fSequenceNumber != block / CHUNK_SIZE) {
+				if (++lockedChunks > MAX_LOCKED_CHUNKS_WHILE_COMPACTING) {
+					// Don't keep all of the chunks in memory, the file remains marked incomplete.
+					releaseLockedChunks(true, false);
+					lockedChunks = 0;
+				}
+				chunk = getChunk(block);
+			}
+			final int deltas = runSizes[i] / BLOCK_SIZE_DELTA;
+			final int prev = lastRunOfSize[deltas];
+			final int next = nextRun[i];
+			chunk.putShort(block, (short) runSizes[i]);
+			chunk.putFreeRecPtr(block + BLOCK_PREV_OFFSET, prev < 0 ? 0 : runs[prev]);
+			chunk.putFreeRecPtr(block + BLOCK_NEXT_OFFSET, next < 0 ? 0 : runs[next]);
+			lastRunOfSize[deltas] = i;
+		}
+
+		if (lastUsedChunk + 1 == chunksUsed || fMemoryMapped) {
+			// Mapped regions cannot be unmapped, accessing them beyond the end of the file fails.
+			return 0;
+		}
+		ArrayList<Chunk> removed = new ArrayList<>();
+		synchronized (fChunkTableLock) {
+			for (int i = lastUsedChunk + 1; i < chunksUsed; i++) {
+				if (fChunks[i] != null) {
+					removed.add(fChunks[i]);
+					fChunks[i] = null;
+				}
+			}
+			fChunksUsed = lastUsedChunk + 1;
+		}
+		for (Chunk c : removed) {
+			fCache.remove(c);
+		}
+		if (fJournalLocation != null) {
+			// The file is truncated when the removal of the chunks is committed.
+			return (long) (chunksUsed - fChunksUsed) * CHUNK_SIZE;
+		}
+		markFileIncomplete();
+		try {
+			final long oldLength = fFile.length();
+			fFile.getChannel().truncate((long) fChunksUsed * CHUNK_SIZE);
+			return Math.max(0, oldLength - (long) fChunksUsed * CHUNK_SIZE);
+		} catch (IOException e) {
+			throw new CoreException(new DBStatus(e));
+		}
+	}
+
+	/**
+	 * Returns the chunk with the given index for reading it without holding on to it. Chunks that
+	 * are not in memory are read from the file without adding them to the cache.
+	 */
+	private Chunk getChunkForScan(int index) throws CoreException {
+		synchronized (fChunkTableLock) {
+			Chunk chunk = fChunks[index];
+			if (chunk == null && fMemoryMapped) {
+				chunk = mapChunk(index);
+			}
+			if (chunk != null) {
+				return chunk;
+			}
+		}
+		Chunk chunk = new Chunk(this, index);
+		chunk.read();
+		return chunk;
+	}
+
 	public void putByte(long offset, byte value) throws CoreException {
 		getChunk(offset).putByte(offset, value);
 	}
@@ -674,8 +1370,15 @@ public class Database {
 		fHeaderChunk.fDirty = false;
 		fChunks = new Chunk[] { null };
 		fChunksUsed = fChunksAllocated = fChunks.length;
+		fMappedRegions = NO_REGIONS;
 		try {
 			fFile.close();
+			if (fJournal != null) {
+				fJournal.close();
+			}
+			if (fJournalLocation != null) {
+				fJournalLocation.delete();
+			}
 		} catch (IOException e) {
 			throw new CoreException(new DBStatus(e));
 		}
@@ -690,11 +1393,16 @@ public class Database {
 	}
 
 	/**
-	 * Called from any thread via the cache, protected by {@link #fCache}.
+	 * Called from any thread via the cache when the chunk is evicted, while holding the lock of
+	 * the cache segment.
 	 */
 	void releaseChunk(final Chunk chunk) {
-		if (!chunk.fLocked) {
-			fChunks[chunk.fSequenceNumber] = null;
+		cacheEvictions.increment();
+		synchronized (fChunkTableLock) {
+			// The table may hold a newer copy of the chunk if it was read again concurrently.
+			if (!chunk.fLocked && fChunks[chunk.fSequenceNumber] == chunk) {
+				fChunks[chunk.fSequenceNumber] = null;
+			}
 		}
 	}
 
@@ -722,40 +1430,57 @@ public class Database {
 	public void giveUpExclusiveLock(final boolean flush) throws CoreException {
 		if (fExclusiveLock) {
 			try {
-				ArrayList<Chunk> dirtyChunks = new ArrayList<>();
-				synchronized (fCache) {
-					for (int i = 1; i < fChunksUsed; i++) {
-						Chunk chunk = fChunks[i];
-						if (chunk != null) {
-							if (chunk.fCacheIndex < 0) {
-								// Locked chunk that has been removed from cache.
-								if (chunk.fDirty) {
-									dirtyChunks.add(chunk); // Keep in fChunks until it is flushed.
-								} else {
-									chunk.fLocked = false;
-									fChunks[i] = null;
-								}
-							} else if (chunk.fLocked) {
-								// Locked chunk, still in cache.
-								if (chunk.fDirty) {
-									if (flush) {
-										dirtyChunks.add(chunk);
-									}
-								} else {
-									chunk.fLocked = false;
-								}
-							} else {
-								assert !chunk.fDirty; // Dirty chunks must be locked.
+				releaseLockedChunks(flush, flush);
+			} finally {
+				fExclusiveLock = false;
+			}
+		}
+	}
+
+	/**
+	 * Unlocks the chunks modified under the exclusive lock, after writing them to the file if
+	 * requested. The file is marked complete only when <code>isComplete</code> is set.
+	 */
+	private void releaseLockedChunks(final boolean flush, final boolean isComplete) throws CoreException {
+		ArrayList<Chunk> dirtyChunks = new ArrayList<>();
+		synchronized (fChunkTableLock) {
+			for (int i = 1; i < fChunksUsed; i++) {
+				Chunk chunk = fChunks[i];
+				if (chunk != null) {
+					if (chunk.fMapped) {
+						// Mapped chunk, never in cache.
+						if (chunk.fDirty) {
+							if (flush) {
+								dirtyChunks.add(chunk);
+							}
+						} else {
+							chunk.fLocked = false;
+						}
+					} else if (chunk.fCacheIndex < 0) {
+						// Locked chunk that has been removed from cache.
+						if (chunk.fDirty) {
+							dirtyChunks.add(chunk); // Keep in fChunks until it is flushed.
+						} else {
+							chunk.fLocked = false;
+							fChunks[i] = null;
+						}
+					} else if (chunk.fLocked) {
+						// Locked chunk, still in cache.
+						if (chunk.fDirty) {
+							if (flush) {
+								dirtyChunks.add(chunk);
 							}
+						} else {
+							chunk.fLocked = false;
 						}
+					} else {
+						assert !chunk.fDirty; // Dirty chunks must be locked.
 					}
 				}
-				// Also handles header chunk.
-				flushAndUnlockChunks(dirtyChunks, flush);
-			} finally {
-				fExclusiveLock = false;
 			}
 		}
+		// Also handles header chunk.
+		flushAndUnlockChunks(dirtyChunks, isComplete);
 	}
 
 	public void flush() throws CoreException {
@@ -771,7 +1496,7 @@ public class Database {
 
 		// Be careful as other readers may access chunks concurrently.
 		ArrayList<Chunk> dirtyChunks = new ArrayList<>();
-		synchronized (fCache) {
+		synchronized (fChunkTableLock) {
 			for (int i = 1; i < fChunksUsed; i++) {
 				Chunk chunk = fChunks[i];
 				if (chunk != null && chunk.fDirty) {
@@ -794,24 +1519,21 @@ public class Database {
 	}
 
 	private void flushAndUnlockChunks(final ArrayList<Chunk> dirtyChunks, boolean isComplete) throws CoreException {
-		assert !Thread.holdsLock(fCache);
+		assert !Thread.holdsLock(fChunkTableLock);
 		synchronized (fHeaderChunk) {
 			final boolean haveDirtyChunks = !dirtyChunks.isEmpty();
-			if (haveDirtyChunks || fHeaderChunk.fDirty) {
+			if (fJournalLocation == null && (haveDirtyChunks || fHeaderChunk.fDirty)) {
 				markFileIncomplete();
 			}
 			if (haveDirtyChunks) {
-				for (Chunk chunk : dirtyChunks) {
-					if (chunk.fDirty) {
-						chunk.flush();
-					}
-				}
+				flushChunks(dirtyChunks);
+				forceMappedRegions(dirtyChunks);
 
 				// Only after the chunks are flushed we may unlock and release them.
-				synchronized (fCache) {
+				synchronized (fChunkTableLock) {
 					for (Chunk chunk : dirtyChunks) {
 						chunk.fLocked = false;
-						if (chunk.fCacheIndex < 0) {
+						if (chunk.fCacheIndex < 0 && !chunk.fMapped) {
 							fChunks[chunk.fSequenceNumber] = null;
 						}
 					}
@@ -819,7 +1541,12 @@ public class Database {
 			}
 
 			if (isComplete) {
-				if (fHeaderChunk.fDirty || fIsMarkedIncomplete) {
+				if (fJournalLocation != null) {
+					if (fHeaderChunk.fDirty || fJournalLength > 0) {
+						fHeaderChunk.putInt(VERSION_OFFSET, fVersion);
+						commitJournal();
+					}
+				} else if (fHeaderChunk.fDirty || fIsMarkedIncomplete) {
 					fHeaderChunk.putInt(VERSION_OFFSET, fVersion);
 					fHeaderChunk.flush();
 					fIsMarkedIncomplete = false;
@@ -841,18 +1568,31 @@ public class Database {
 	}
 
 	public void resetCacheCounters() {
-		cacheHits = cacheMisses = 0;
+		cacheHits.reset();
+		cacheMisses.reset();
+		cacheEvictions.reset();
 	}
 
 	public long getCacheHits() {
-		return cacheHits;
+		return cacheHits.sum();
 	}
 
 	public long getCacheMisses() {
-		return cacheMisses;
+		return cacheMisses.sum();
+	}
+
+	/**
+	 * Returns the number of chunks of this database evicted from the cache.
+	 */
+	public long getCacheEvictions() {
+		return cacheEvictions.sum();
 	}
 
 	public long getSizeBytes() {
+		if (fJournalLocation != null) {
+			// The file is extended and truncated when changes are committed.
+			return (long) fChunksUsed * CHUNK_SIZE;
+		}
 		try {
 			return fFile.length();
 		} catch (IOException e) {
@@ -864,8 +1604,8 @@ public class Database {
 	 * A Record Pointer is a pointer as returned by Database.malloc().
 	 * This is a pointer to a block + BLOCK_HEADER_SIZE.
 	 */
-	public static void putRecPtr(final long value, byte[] buffer, int idx) {
-		final int denseValue = value == 0 ? 0 : Chunk.compressFreeRecPtr(value - BLOCK_HEADER_SIZE);
+	public void putRecPtr(final long value, byte[] buffer, int idx) {
+		final int denseValue = value == 0 ? 0 : Chunk.compressFreeRecPtr(value - BLOCK_HEADER_SIZE, fPointerShift);
 		Chunk.putInt(denseValue, buffer, idx);
 	}
 
@@ -873,9 +1613,9 @@ public class Database {
 	 * A Record Pointer is a pointer as returned by Database.malloc().
 	 * This is a pointer to a block + BLOCK_HEADER_SIZE.
 	 */
-	public static long getRecPtr(byte[] buffer, final int idx) {
+	public long getRecPtr(byte[] buffer, final int idx) {
 		int value = Chunk.getInt(buffer, idx);
-		long address = Chunk.expandToFreeRecPtr(value);
+		long address = Chunk.expandToFreeRecPtr(value, fPointerShift);
 		return address != 0 ? (address + BLOCK_HEADER_SIZE) : address;
 	}
 }
@@ -0,0 +1,302 @@
+/*******************************************************************************
+ * Copyright (c) 2026 Eclipse CDT contributors and others.
+ *
+ * This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License 2.0
+ * which accompanies this distribution, and is available at
+ * https://www.eclipse.org/legal/epl-2.0/
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ *******************************************************************************/
+package org.eclipse.cdt.internal.core.pdom.db;
+
+import java.util.Arrays;
+
+import org.eclipse.core.runtime.CoreException;
+
+/**
+ * A set of strings stored in the database together with posting lists that map each trigram
+ * (sequence of three characters) to the strings containing it. Allows for finding the strings
+ * that contain a number of literals without visiting all of them.
+ * <p>
+ * Trigrams are computed from the lower-case characters of a string and may collide, such that
+ * the candidates returned by {@link #findCandidates(char[][])} have to be verified by the caller.
+ * Strings shorter than a trigram are not stored and strings are never removed from the index.
+ */
+public class TrigramIndex {
+	public static final int TRIGRAM_LENGTH = 3;
+
+	private static final int STRINGS = 0;
+	private static final int POSTINGS = Database.PTR_SIZE;
+	public static final int RECORD_SIZE = POSTINGS + Database.PTR_SIZE;
+
+	// A posting list is a chain of blocks, the most recently allocated block is the head of the list.
+	private static final int POSTING_KEY = 0;
+	private static final int POSTING_SIZE = POSTING_KEY + Database.INT_SIZE;
+	private static final int POSTING_HEAD = POSTING_SIZE + Database.INT_SIZE;
+	private static final int POSTING_RECORD_SIZE = POSTING_HEAD + Database.PTR_SIZE;
+
+	private static final int BLOCK_NEXT = 0;
+	private static final int BLOCK_CAPACITY = BLOCK_NEXT + Database.PTR_SIZE;
+	private static final int BLOCK_COUNT = BLOCK_CAPACITY + Database.INT_SIZE;
+	private static final int BLOCK_ENTRIES = BLOCK_COUNT + Database.INT_SIZE;
+	private static final int MIN_BLOCK_CAPACITY = 4;
+	private static final int MAX_BLOCK_CAPACITY = 256;
+
+	// Intersecting with a posting list is more expensive than verifying this many candidates per entry.
+	private static final int VERIFY_RATIO = 8;
+
+	private final Database db;
+	private final long record;
+	private BTree fStrings;
+	private BTree fPostings;
+
+	/**
+	 * Creates an empty index in the database and returns its record.
+	 */
+	public static long create(Database db) throws CoreException {
+		return db.malloc(RECORD_SIZE);
+	}
+
+	public TrigramIndex(Database db, long record) {
+		this.db = db;
+		this.record = record;
+	}
+
+	private BTree getStrings() {
+		if (fStrings == null) {
+			fStrings = new BTree(db, record + STRINGS, new IBTreeComparator() {
+				@Override
+				public int compare(long record1, long record2) throws CoreException {
+					return db.getString(record1).compare(db.getString(record2), true);
+				}
+			});
+		}
+		return fStrings;
+	}
+
+	private BTree getPostings() {
+		if (fPostings == null) {
+			fPostings = new BTree(db, record + POSTINGS, new IBTreeComparator() {
+				@Override
+				public int compare(long record1, long record2) throws CoreException {
+					return Integer.compare(db.getInt(record1 + POSTING_KEY), db.getInt(record2 + POSTING_KEY));
+				}
+			});
+		}
+		return fPostings;
+	}
+
+	/**
+	 * Adds the string to the index, unless it is stored already.
+	 * @return whether the string was added.
+	 */
+	public boolean add(char[] chars) throws CoreException {
+		if (chars.length < TRIGRAM_LENGTH || findString(chars) != 0)
+			return false;
+
+		final long stringRecord = db.newString(chars).getRecord();
+		getStrings().insert(stringRecord);
+		int[] keys = new int[chars.length - TRIGRAM_LENGTH + 1];
+		int count = addKeys(chars, keys, 0);
+		for (int i = 0; i < count; i++) {
+			addPosting(keys[i], stringRecord);
+		}
+		return true;
+	}
+
+	/**
+	 * Returns the records of the stored strings that may contain all of the given literals, ignoring
+	 * case, or <code>null</code> when none of the literals is long enough to be looked up. The result
+	 * is a superset of the strings containing the literals.
+	 */
+	public long[] findCandidates(char[][] literals) throws CoreException {
+		int length = 0;
+		for (char[] literal : literals) {
+			length += Math.max(0, literal.length - TRIGRAM_LENGTH + 1);
+		}
+		if (length == 0)
+			return null;
+
+		int[] keys = new int[length];
+		length = 0;
+		for (char[] literal : literals) {
+			length = addKeys(literal, keys, length);
+		}
+
+		long[] postings = new long[length];
+		for (int i = 0; i < length; i++) {
+			final long posting = findPosting(keys[i]);
+			if (posting == 0)
+				return new long[0];
+			postings[i] = posting;
+		}
+
+		// Start with the shortest posting lists.
+		final int[] sizes = new int[length];
+		for (int i = 0; i < length; i++) {
+			sizes[i] = db.getInt(postings[i] + POSTING_SIZE);
+		}
+		Integer[] order = new Integer[length];
+		for (int i = 0; i < length; i++) {
+			order[i] = i;
+		}
+		Arrays.sort(order, (i1, i2) -> Integer.compare(sizes[i1], sizes[i2]));
+
+		long[] result = readPosting(postings[order[0]]);
+		for (int i = 1; i < length && result.length > 0; i++) {
+			final int next = order[i];
+			if (sizes[next] > result.length * VERIFY_RATIO)
+				break;
+			result = intersect(result, readPosting(postings[next]));
+		}
+		return result;
+	}
+
+	/**
+	 * Returns the number of strings stored in the index.
+	 */
+	public int size() throws CoreException {
+		final int[] count = { 0 };
+		getStrings().accept(new IBTreeVisitor() {
+			@Override
+			public int compare(long rec) throws CoreException {
+				return 0;
+			}
+
+			@Override
+			public boolean visit(long rec) throws CoreException {
+				count[0]++;
+				return true;
+			}
+		});
+		return count[0];
+	}
+
+	private long findString(final char[] chars) throws CoreException {
+		final long[] result = { 0 };
+		getStrings().accept(new IBTreeVisitor() {
+			@Override
+			public int compare(long rec) throws CoreException {
+				return db.getString(rec).compare(chars, true);
+			}
+
+			@Override
+			public boolean visit(long rec) throws CoreException {
+				result[0] = rec;
+				return false;
+			}
+		});
+		return result[0];
+	}
+
+	private long findPosting(final int key) throws CoreException {
+		final long[] result = { 0 };
+		getPostings().accept(new IBTreeVisitor() {
+			@Override
+			public int compare(long rec) throws CoreException {
+				return Integer.compare(db.getInt(rec + POSTING_KEY), key);
+			}
+
+			@Override
+			public boolean visit(long rec) throws CoreException {
+				result[0] = rec;
+				return false;
+			}
+		});
+		return result[0];
+	}
+
+	private void addPosting(int key, long stringRecord) throws CoreException {
+		long posting = findPosting(key);
+		if (posting == 0) {
+			posting = db.malloc(POSTING_RECORD_SIZE);
+			db.putInt(posting + POSTING_KEY, key);
+			getPostings().insert(posting);
+		}
+		final int size = db.getInt(posting + POSTING_SIZE);
+		long block = db.getRecPtr(posting + POSTING_HEAD);
+		int count = 0;
+		if (block != 0) {
+			count = db.getInt(block + BLOCK_COUNT);
+			if (count == db.getInt(block + BLOCK_CAPACITY)) {
+				block = 0;
+			}
+		}
+		if (block == 0) {
+			// Grow the blocks with the list, such that short lists do not waste space.
+			final int capacity = Math.min(MAX_BLOCK_CAPACITY, Math.max(MIN_BLOCK_CAPACITY, size));
+			block = db.malloc(BLOCK_ENTRIES + capacity * Database.PTR_SIZE);
+			db.putRecPtr(block + BLOCK_NEXT, db.getRecPtr(posting + POSTING_HEAD));
+			db.putInt(block + BLOCK_CAPACITY, capacity);
+			db.putRecPtr(posting + POSTING_HEAD, block);
+			count = 0;
+		}
+		db.putRecPtr(block + BLOCK_ENTRIES + count * Database.PTR_SIZE, stringRecord);
+		db.putInt(block + BLOCK_COUNT, count + 1);
+		db.putInt(posting + POSTING_SIZE, size + 1);
+	}
+
+	/**
+	 * Returns the sorted entries of a posting list.
+	 */
+	private long[] readPosting(long posting) throws CoreException {
+		long[] result = new long[db.getInt(posting + POSTING_SIZE)];
+		int length = 0;
+		for (long block = db.getRecPtr(posting + POSTING_HEAD); block != 0; block = db
+				.getRecPtr(block + BLOCK_NEXT)) {
+			final int count = db.getInt(block + BLOCK_COUNT);
+			for (int i = 0; i < count && length < result.length; i++) {
+				result[length++] = db.getRecPtr(block + BLOCK_ENTRIES + i * Database.PTR_SIZE);
+			}
+		}
+		Arrays.sort(result, 0, length);
+		return length == result.length ? result : Arrays.copyOf(result, length);
+	}
+
+	private static long[] intersect(long[] a, long[] b) {
+		long[] result = new long[Math.min(a.length, b.length)];
+		int length = 0;
+		for (int i = 0, j = 0; i < a.length && j < b.length;) {
+			if (a[i] < b[j]) {
+				i++;
+			} else if (a[i] > b[j]) {
+				j++;
+			} else {
+				result[length++] = a[i];
+				i++;
+				j++;
+			}
+		}
+		return Arrays.copyOf(result, length);
+	}
+
+	/**
+	 * Stores the distinct keys of the trigrams of the given characters in the array, starting at
+	 * the given offset, and returns the offset after the last key stored.
+	 */
+	private static int addKeys(char[] chars, int[] keys, int offset) {
+		for (int i = 0; i + TRIGRAM_LENGTH <= chars.length; i++) {
+			final int key = trigramKey(chars, i);
+			boolean found = false;
+			for (int j = 0; j < offset && !found; j++) {
+				found = keys[j] == key;
+			}
+			if (!found) {
+				keys[offset++] = key;
+			}
+		}
+		return offset;
+	}
+
+	/**
+	 * Folds the lower-case characters of a trigram into an int. The mapping is one-to-one for
+	 * characters below 1024.
+	 */
+	private static int trigramKey(char[] chars, int offset) {
+		final int c0 = Character.toLowerCase(chars[offset]);
+		final int c1 = Character.toLowerCase(chars[offset + 1]);
+		final int c2 = Character.toLowerCase(chars[offset + 2]);
+		return (c0 << 20) ^ (c1 << 10) ^ c2;
+	}
+}
@@ -87,6 +87,7 @@ public class PDOMFile implements IIndexFragmentFile {
 	private static final int RECORD_SIZE = REPLACEMENT_HEADER + Database.PTR_SIZE; // 9*PTR_SIZE + 3+1+8+8+8+4 = 68
 
 	private static final int FLAG_PRAGMA_ONCE_SEMANTICS = 0x01;
+	private static final int FLAG_INCLUDES_ONLY = 0x02;
 
 	public static class Comparator implements IBTreeComparator {
 		private Database db;
@@ -386,6 +387,23 @@ public class PDOMFile implements IIndexFragmentFile {
 		db.putByte(record + FLAGS, flags);
 	}
 
+	@Override
+	public boolean isIncludesOnly() throws CoreException {
+		return (fLinkage.getDB().getByte(record + FLAGS) & FLAG_INCLUDES_ONLY) != 0;
+	}
+
+	@Override
+	public void setIncludesOnly(boolean value) throws CoreException {
+		Database db = fLinkage.getDB();
+		byte flags = db.getByte(record + FLAGS);
+		if (value) {
+			flags |= FLAG_INCLUDES_ONLY;
+		} else {
+			flags &= ~FLAG_INCLUDES_ONLY;
+		}
+		db.putByte(record + FLAGS, flags);
+	}
+
 	private PDOMName getFirstName() throws CoreException {
 		long namerec = fLinkage.getDB().getRecPtr(record + FIRST_NAME);
 		return namerec != 0 ? new PDOMName(fLinkage, namerec) : null;
@@ -618,6 +636,7 @@ public class PDOMFile implements IIndexFragmentFile {
 		setFirstMacroReference(null);
 		setSourceReadTime(0);
 		setTimestamp(-1);
+		setIncludesOnly(false);
 	}
 
 	/**
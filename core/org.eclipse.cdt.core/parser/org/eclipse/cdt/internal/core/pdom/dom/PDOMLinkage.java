@@ -58,6 +58,7 @@ import org.eclipse.cdt.internal.core.pdom.db.Database;
 import org.eclipse.cdt.internal.core.pdom.db.IBTreeComparator;
 import org.eclipse.cdt.internal.core.pdom.db.IBTreeVisitor;
 import org.eclipse.cdt.internal.core.pdom.db.IString;
+import org.eclipse.cdt.internal.core.pdom.db.TrigramIndex;
 import org.eclipse.core.runtime.CoreException;
 import org.eclipse.core.runtime.IProgressMonitor;
 
@@ -227,7 +228,7 @@ public abstract class PDOMLinkage extends PDOMNamedNode implements IIndexLinkage
 		if (pdomBinding != null && pdomBinding.getPDOM() == fPDOM) {
 			return pdomBinding;
 		}
-		return (PDOMBinding) fPDOM.getCachedResult(binding);
+		return fPDOM.getCachedAdaptedBinding(binding);
 	}
 
 	public final PDOMBinding adaptBinding(IBinding binding) throws CoreException {
@@ -342,6 +343,17 @@ public abstract class PDOMLinkage extends PDOMNamedNode implements IIndexLinkage
 		}
 	}
 
+	/**
+	 * Callback informing the linkage that a binding has been added. Used to maintain the trigram index
+	 * of binding names, if the PDOM has one.
+	 */
+	protected final void insertIntoNameTrigramIndex(PDOMBinding pdomBinding) throws CoreException {
+		TrigramIndex index = fPDOM.getNameTrigramIndex();
+		if (index != null) {
+			index.add(pdomBinding.getNameCharArray());
+		}
+	}
+
 	/**
 	 * Call-back informing the linkage that a binding is about to be removed. Used to index nested bindings.
 	 * @param pdomBinding
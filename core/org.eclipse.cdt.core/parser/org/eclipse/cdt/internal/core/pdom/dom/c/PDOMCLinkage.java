@@ -103,7 +103,7 @@ class PDOMCLinkage extends PDOMLinkage implements IIndexCBindingConstants {
 			if (pdomBinding == null) {
 				pdomBinding = createBinding(parent, binding, localToFileHolder[0]);
 				if (pdomBinding != null) {
-					getPDOM().putCachedResult(inputBinding, pdomBinding);
+					getPDOM().putCachedAdaptedBinding(inputBinding, pdomBinding);
 				}
 
 				// Synchronize the tags associated with the persistent binding to match the set that
@@ -113,7 +113,7 @@ class PDOMCLinkage extends PDOMLinkage implements IIndexCBindingConstants {
 				return pdomBinding;
 			}
 
-			getPDOM().putCachedResult(inputBinding, pdomBinding);
+			getPDOM().putCachedAdaptedBinding(inputBinding, pdomBinding);
 		}
 
 		if (shouldUpdate(pdomBinding, fromName)) {
@@ -179,6 +179,7 @@ class PDOMCLinkage extends PDOMLinkage implements IIndexCBindingConstants {
 			if (parent != this && insertIntoIndex != this) {
 				insertIntoNestedBindingsIndex(pdomBinding);
 			}
+			insertIntoNameTrigramIndex(pdomBinding);
 		}
 		return pdomBinding;
 	}
@@ -288,7 +289,7 @@ class PDOMCLinkage extends PDOMLinkage implements IIndexCBindingConstants {
 
 		result = doAdaptBinding(parent, binding, localToFileHolder);
 		if (result != null) {
-			getPDOM().putCachedResult(inputBinding, result);
+			getPDOM().putCachedAdaptedBinding(inputBinding, result);
 		}
 		return result;
 	}
@@ -0,0 +1,165 @@
+/*******************************************************************************
+ * Copyright (c) 2026 Eclipse CDT contributors and others.
+ *
+ * This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License 2.0
+ * which accompanies this distribution, and is available at
+ * https://www.eclipse.org/legal/epl-2.0/
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ *******************************************************************************/
+package org.eclipse.cdt.internal.core.pdom.dom.cpp;
+
+import java.lang.ref.SoftReference;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+import org.eclipse.cdt.core.dom.ast.IBasicType;
+import org.eclipse.cdt.core.dom.ast.IBinding;
+import org.eclipse.cdt.core.dom.ast.IType;
+import org.eclipse.cdt.core.dom.ast.IValue;
+import org.eclipse.cdt.core.dom.ast.cpp.ICPPFunctionInstance;
+import org.eclipse.cdt.core.dom.ast.cpp.ICPPFunctionType;
+import org.eclipse.cdt.core.dom.ast.cpp.ICPPPointerToMemberType;
+import org.eclipse.cdt.core.dom.ast.cpp.ICPPTemplateArgument;
+import org.eclipse.cdt.core.dom.ast.cpp.ICPPTemplateInstance;
+import org.eclipse.cdt.internal.core.dom.parser.ITypeContainer;
+import org.eclipse.cdt.internal.core.pdom.PDOM;
+import org.eclipse.cdt.internal.core.pdom.dom.PDOMBinding;
+
+/**
+ * Keeps the most recently used template instances that were created by parsers for templates of
+ * a PDOM. {@link PDOMInstanceCache} references instances of an AST weakly, the memo keeps them
+ * reachable beyond the lifetime of the AST, such that subsequent parses instantiating the same
+ * template with the same arguments reuse the instance.
+ * <p>
+ * Only instances that can be shared by translation units are kept, see
+ * {@link #isShareable(ICPPTemplateInstance)}. The memo is bounded and references the instances
+ * softly. It is part of the result cache of the PDOM, which is cleared whenever the index is
+ * modified.
+ */
+final class InstantiationMemo {
+	private static final Object CACHE_KEY = InstantiationMemo.class;
+	private static final int MAX_SIZE = 2000;
+	private static final int MAX_TYPE_NESTING = 16;
+
+	static InstantiationMemo getMemo(PDOM pdom) {
+		Object memo = pdom.getCachedResult(CACHE_KEY);
+		if (memo instanceof InstantiationMemo) {
+			return (InstantiationMemo) memo;
+		}
+		return (InstantiationMemo) pdom.putCachedResult(CACHE_KEY, new InstantiationMemo(pdom), false);
+	}
+
+	private final PDOM fPDOM;
+	private final LinkedHashMap<String, SoftReference<ICPPTemplateInstance>> fMap;
+
+	private InstantiationMemo(PDOM pdom) {
+		fPDOM = pdom;
+		fMap = new LinkedHashMap<String, SoftReference<ICPPTemplateInstance>>(16, 0.75f, true) {
+			@Override
+			protected boolean removeEldestEntry(Map.Entry<String, SoftReference<ICPPTemplateInstance>> eldest) {
+				return size() > MAX_SIZE;
+			}
+		};
+	}
+
+	/**
+	 * Keeps the given instance of the template with the given record, if it may be shared.
+	 */
+	void retain(long templateRecord, String argumentKey, ICPPTemplateArgument[] arguments,
+			ICPPTemplateInstance instance) {
+		if (!(instance instanceof ICPPFunctionInstance) || instance.isExplicitSpecialization()
+				|| !isIndependentOfAST(arguments, 0)) {
+			return;
+		}
+		synchronized (fMap) {
+			fMap.put(templateRecord + ":" + argumentKey, new SoftReference<>(instance)); //$NON-NLS-1$
+		}
+	}
+
+	/**
+	 * Marks the instance of the template with the given record as recently used.
+	 */
+	void touch(long templateRecord, String argumentKey) {
+		synchronized (fMap) {
+			fMap.get(templateRecord + ":" + argumentKey); //$NON-NLS-1$
+		}
+	}
+
+	/**
+	 * Releases the instance of the template with the given record.
+	 */
+	void remove(long templateRecord, String argumentKey) {
+		synchronized (fMap) {
+			fMap.remove(templateRecord + ":" + argumentKey); //$NON-NLS-1$
+		}
+	}
+
+	/**
+	 * Returns whether an instance created for one translation unit may be used by another one.
+	 * This is the case for implicit instances of function templates of this PDOM whose arguments
+	 * and type consist of bindings of this PDOM only. Explicit specializations belong to the
+	 * translation unit declaring them. Class instances are not shared, their members are
+	 * specialized lazily and the result of name lookups depends on the translation unit.
+	 */
+	boolean isShareable(ICPPTemplateInstance instance) {
+		if (!(instance instanceof ICPPFunctionInstance) || instance.isExplicitSpecialization())
+			return false;
+		return isIndependentOfAST(instance.getTemplateArguments(), 0)
+				&& isIndependentOfAST(((ICPPFunctionInstance) instance).getType(), 0);
+	}
+
+	private boolean isIndependentOfAST(ICPPTemplateArgument[] arguments, int nesting) {
+		for (ICPPTemplateArgument arg : arguments) {
+			if (arg.isPackExpansion())
+				return false;
+			if (arg.isTypeValue()) {
+				if (!isIndependentOfAST(arg.getTypeValue(), nesting))
+					return false;
+			} else {
+				final IValue value = arg.getNonTypeValue();
+				if (value == null || value.numberValue() == null
+						|| !isIndependentOfAST(arg.getTypeOfNonTypeValue(), nesting)) {
+					return false;
+				}
+			}
+		}
+		return true;
+	}
+
+	private boolean isIndependentOfAST(IType type, int nesting) {
+		if (++nesting > MAX_TYPE_NESTING)
+			return false;
+		if (type instanceof PDOMBinding)
+			return ((PDOMBinding) type).getPDOM() == fPDOM;
+		if (type instanceof IBasicType)
+			return true;
+		if (type instanceof ICPPTemplateInstance) {
+			// An instance created by a parser for a template of this PDOM.
+			final ICPPTemplateInstance instance = (ICPPTemplateInstance) type;
+			final IBinding template = instance.getTemplateDefinition();
+			return template instanceof PDOMBinding && ((PDOMBinding) template).getPDOM() == fPDOM
+					&& isIndependentOfAST(instance.getTemplateArguments(), nesting);
+		}
+		if (type instanceof IBinding)
+			return false;
+		if (type instanceof ICPPPointerToMemberType) {
+			final ICPPPointerToMemberType ptm = (ICPPPointerToMemberType) type;
+			return isIndependentOfAST(ptm.getMemberOfClass(), nesting) && isIndependentOfAST(ptm.getType(), nesting);
+		}
+		if (type instanceof ICPPFunctionType) {
+			final ICPPFunctionType ft = (ICPPFunctionType) type;
+			if (!isIndependentOfAST(ft.getReturnType(), nesting))
+				return false;
+			for (IType paramType : ft.getParameterTypes()) {
+				if (!isIndependentOfAST(paramType, nesting))
+					return false;
+			}
+			return true;
+		}
+		if (type instanceof ITypeContainer)
+			return isIndependentOfAST(((ITypeContainer) type).getType(), nesting);
+		return false;
+	}
+}
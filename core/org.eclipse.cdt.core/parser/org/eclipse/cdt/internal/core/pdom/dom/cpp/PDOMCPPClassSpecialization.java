@@ -17,6 +17,7 @@
  *******************************************************************************/
 package org.eclipse.cdt.internal.core.pdom.dom.cpp;
 
+import java.lang.ref.WeakReference;
 import java.util.ArrayList;
 import java.util.Collections;
 import java.util.HashSet;
@@ -40,6 +41,7 @@ import org.eclipse.cdt.core.dom.ast.cpp.ICPPField;
 import org.eclipse.cdt.core.dom.ast.cpp.ICPPMethod;
 import org.eclipse.cdt.core.dom.ast.cpp.ICPPSpecialization;
 import org.eclipse.cdt.core.dom.ast.cpp.ICPPUsingDeclaration;
+import org.eclipse.cdt.core.index.IIndexBinding;
 import org.eclipse.cdt.core.parser.util.ObjectMap;
 import org.eclipse.cdt.internal.core.dom.parser.cpp.CPPClassSpecialization;
 import org.eclipse.cdt.internal.core.dom.parser.cpp.CPPClassSpecialization.RecursionResolvingBinding;
@@ -142,7 +144,7 @@ class PDOMCPPClassSpecialization extends PDOMCPPSpecialization
 			}
 		}
 		synchronized (specializationMap) {
-			IBinding result = (IBinding) specializationMap.get(original);
+			IBinding result = unwrap(specializationMap.get(original));
 			if (result != null)
 				return result;
 		}
@@ -158,16 +160,28 @@ class PDOMCPPClassSpecialization extends PDOMCPPSpecialization
 			recursionProtectionSet.remove(original);
 		}
 
+		// The map outlives read locks. Members of an AST are not cached, and specializations that
+		// are not stored in the index are referenced weakly, such that no AST is pinned to memory.
+		if (!(original instanceof IIndexBinding))
+			return newSpec;
 		synchronized (specializationMap) {
-			IBinding oldSpec = (IBinding) specializationMap.put(original, newSpec);
-			if (oldSpec != null) {
-				specializationMap.put(original, oldSpec);
+			IBinding oldSpec = unwrap(specializationMap.get(original));
+			if (oldSpec != null)
 				return oldSpec;
-			}
+			specializationMap.put(original,
+					newSpec instanceof IIndexBinding ? newSpec : new WeakReference<IBinding>(newSpec));
 		}
 		return newSpec;
 	}
 
+	@SuppressWarnings("unchecked")
+	private static IBinding unwrap(Object value) {
+		if (value instanceof WeakReference) {
+			return ((WeakReference<IBinding>) value).get();
+		}
+		return (IBinding) value;
+	}
+
 	@Override
 	@Deprecated
 	public IBinding specializeMember(IBinding original, IASTNode point) {
@@ -705,7 +705,7 @@ class PDOMCPPLinkage extends PDOMLinkage implements IIndexCPPBindingConstants {
 					try {
 						pdomBinding = createBinding(parent, binding, fileLocalRec[0]);
 						if (pdomBinding != null) {
-							getPDOM().putCachedResult(inputBinding, pdomBinding);
+							getPDOM().putCachedAdaptedBinding(inputBinding, pdomBinding);
 							if (inputBinding instanceof CPPClosureType) {
 								addImplicitMethods(pdomBinding, (ICPPClassType) binding);
 							}
@@ -720,7 +720,7 @@ class PDOMCPPLinkage extends PDOMLinkage implements IIndexCPPBindingConstants {
 					return pdomBinding;
 				}
 
-				getPDOM().putCachedResult(inputBinding, pdomBinding);
+				getPDOM().putCachedAdaptedBinding(inputBinding, pdomBinding);
 			}
 
 			if (fromName != null && shouldUpdate(pdomBinding, fromName)) {
@@ -889,6 +889,7 @@ class PDOMCPPLinkage extends PDOMLinkage implements IIndexCPPBindingConstants {
 			if (parent != this && parent2 != this) {
 				insertIntoNestedBindingsIndex(pdomBinding);
 			}
+			insertIntoNameTrigramIndex(pdomBinding);
 		}
 
 		return pdomBinding;
@@ -1188,7 +1189,7 @@ class PDOMCPPLinkage extends PDOMLinkage implements IIndexCPPBindingConstants {
 
 		result = doAdaptBinding(parent, binding, fileLocalRecHolder);
 		if (result != null) {
-			getPDOM().putCachedResult(inputBinding, result);
+			getPDOM().putCachedAdaptedBinding(inputBinding, result);
 		}
 		return result;
 	}
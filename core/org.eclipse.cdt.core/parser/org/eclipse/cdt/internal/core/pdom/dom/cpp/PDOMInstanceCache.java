@@ -13,13 +13,20 @@
  *******************************************************************************/
 package org.eclipse.cdt.internal.core.pdom.dom.cpp;
 
+import java.lang.ref.WeakReference;
+import java.util.ArrayList;
 import java.util.HashMap;
+import java.util.List;
 
 import org.eclipse.cdt.core.CCorePlugin;
 import org.eclipse.cdt.core.dom.ast.DOMException;
+import org.eclipse.cdt.core.dom.ast.IASTNode;
+import org.eclipse.cdt.core.dom.ast.IASTTranslationUnit;
 import org.eclipse.cdt.core.dom.ast.cpp.ICPPTemplateArgument;
 import org.eclipse.cdt.core.dom.ast.cpp.ICPPTemplateInstance;
+import org.eclipse.cdt.core.index.IIndexBinding;
 import org.eclipse.cdt.internal.core.dom.parser.cpp.ICPPDeferredClassInstance;
+import org.eclipse.cdt.internal.core.dom.parser.cpp.semantics.CPPSemantics;
 import org.eclipse.cdt.internal.core.index.IndexCPPSignatureUtil;
 import org.eclipse.cdt.internal.core.pdom.PDOM;
 import org.eclipse.cdt.internal.core.pdom.dom.NamedNodeCollector;
@@ -40,6 +47,8 @@ public class PDOMInstanceCache {
 		}
 
 		PDOMInstanceCache newCache = new PDOMInstanceCache();
+		newCache.fMemo = InstantiationMemo.getMemo(pdom);
+		newCache.fRecord = record;
 		try {
 			newCache.populate(binding);
 		} catch (CoreException e) {
@@ -50,8 +59,34 @@ public class PDOMInstanceCache {
 		return newCache;
 	}
 
-	private final HashMap<String, ICPPTemplateInstance> fMap;
+	/**
+	 * An instance that is not stored in the index, typically one of an AST, together with the
+	 * translation unit it was created for.
+	 */
+	private static final class ASTInstance extends WeakReference<ICPPTemplateInstance> {
+		private final WeakReference<IASTTranslationUnit> fTranslationUnit;
+
+		ASTInstance(ICPPTemplateInstance instance, IASTTranslationUnit tu) {
+			super(instance);
+			fTranslationUnit = tu != null ? new WeakReference<>(tu) : null;
+		}
+
+		/**
+		 * Returns whether the instance is known to be created for another translation unit than
+		 * the given one.
+		 */
+		boolean isOfOtherTranslationUnit(IASTTranslationUnit tu) {
+			return tu != null && fTranslationUnit != null && fTranslationUnit.get() != tu;
+		}
+	}
+
+	// The cache outlives read locks, instances that are not stored in the index (typically those of
+	// an AST) are referenced weakly to not pin the AST to memory.
+	private final HashMap<String, Object> fMap;
 	private ICPPDeferredClassInstance fDeferredInstance;
+	// Keeps instances of ASTs reachable for subsequent parses.
+	private InstantiationMemo fMemo;
+	private long fRecord;
 
 	public PDOMInstanceCache() {
 		fMap = new HashMap<>();
@@ -60,7 +95,14 @@ public class PDOMInstanceCache {
 	synchronized public final void addInstance(ICPPTemplateArgument[] arguments, ICPPTemplateInstance instance) {
 		try {
 			String key = IndexCPPSignatureUtil.getTemplateArgString(arguments, true);
-			fMap.put(key, instance);
+			if (instance instanceof IIndexBinding) {
+				fMap.put(key, instance);
+			} else {
+				fMap.put(key, new ASTInstance(instance, getCurrentTranslationUnit()));
+				if (fMemo != null) {
+					fMemo.retain(fRecord, key, arguments, instance);
+				}
+			}
 		} catch (CoreException e) {
 			CCorePlugin.log(e);
 		} catch (DOMException e) {
@@ -70,7 +112,26 @@ public class PDOMInstanceCache {
 	synchronized public final ICPPTemplateInstance getInstance(ICPPTemplateArgument[] arguments) {
 		try {
 			String key = IndexCPPSignatureUtil.getTemplateArgString(arguments, true);
-			return fMap.get(key);
+			Object value = fMap.get(key);
+			if (value instanceof ASTInstance) {
+				ASTInstance ref = (ASTInstance) value;
+				ICPPTemplateInstance instance = ref.get();
+				if (instance == null)
+					return null;
+				if (ref.isOfOtherTranslationUnit(getCurrentTranslationUnit())
+						&& (fMemo == null || !fMemo.isShareable(instance))) {
+					// The instance depends on the AST it was created for.
+					if (fMemo != null) {
+						fMemo.remove(fRecord, key);
+					}
+					return null;
+				}
+				if (fMemo != null) {
+					fMemo.touch(fRecord, key);
+				}
+				return instance;
+			}
+			return unwrap(value);
 		} catch (CoreException e) {
 			CCorePlugin.log(e);
 		} catch (DOMException e) {
@@ -98,7 +159,27 @@ public class PDOMInstanceCache {
 	}
 
 	synchronized public ICPPTemplateInstance[] getAllInstances() {
-		return fMap.values().toArray(new ICPPTemplateInstance[fMap.size()]);
+		List<ICPPTemplateInstance> result = new ArrayList<>(fMap.size());
+		for (Object value : fMap.values()) {
+			ICPPTemplateInstance instance = unwrap(value);
+			if (instance != null) {
+				result.add(instance);
+			}
+		}
+		return result.toArray(new ICPPTemplateInstance[result.size()]);
+	}
+
+	private static IASTTranslationUnit getCurrentTranslationUnit() {
+		IASTNode point = CPPSemantics.getCurrentLookupPoint();
+		return point != null ? point.getTranslationUnit() : null;
+	}
+
+	@SuppressWarnings("unchecked")
+	private static ICPPTemplateInstance unwrap(Object value) {
+		if (value instanceof WeakReference) {
+			return ((WeakReference<ICPPTemplateInstance>) value).get();
+		}
+		return (ICPPTemplateInstance) value;
 	}
 
 	public ICPPDeferredClassInstance getDeferredInstance() {
@@ -41,6 +41,7 @@ import org.eclipse.core.runtime.Status;
  * <li>Creates a project for export
  * <li>Exports the PDOM
  * <li>Writes new properties to the PDOM
+ * <li>Defragments the exported PDOM
  * <ul>
  */
 public class GeneratePDOM {
@@ -144,6 +145,7 @@ public class GeneratePDOM {
 						exportedPDOM.setProperty(entry.getKey(), entry.getValue());
 					}
 				}
+				exportedPDOM.defragment();
 				exportedPDOM.close();
 			} finally {
 				exportedPDOM.releaseWriteLock();
@@ -43,6 +43,9 @@ public abstract class AbstractPDOMIndexer implements IPDOMIndexer {
 		fProperties.put(IndexerPreferences.KEY_SKIP_MACRO_REFERENCES, String.valueOf(false));
 		fProperties.put(IndexerPreferences.KEY_INDEX_ALL_HEADER_VERSIONS, String.valueOf(false));
 		fProperties.put(IndexerPreferences.KEY_INDEX_ALL_VERSIONS_SPECIFIC_HEADERS, ""); //$NON-NLS-1$
+		fProperties.put(IndexerPreferences.KEY_INDEX_NAME_TRIGRAMS, String.valueOf(false));
+		fProperties.put(IndexerPreferences.KEY_DATABASE_MAX_SIZE_GB,
+				String.valueOf(IndexerPreferences.DEFAULT_DATABASE_MAX_SIZE_GB));
 	}
 
 	@Override
@@ -63,6 +63,11 @@ public class IndexerPreferences {
 	public static final String KEY_UPDATE_POLICY = "updatePolicy"; //$NON-NLS-1$
 	public static final String KEY_SKIP_FILES_LARGER_THAN_MB = "skipFilesLargerThanMB"; //$NON-NLS-1$
 	public static final String KEY_SKIP_INCLUDED_FILES_LARGER_THAN_MB = "skipIncludedFilesLargerThanMB"; //$NON-NLS-1$
+	public static final String KEY_MEMORY_MAPPED_DATABASE = "memoryMappedDatabase"; //$NON-NLS-1$
+	public static final String KEY_PARSER_THREADS = "parserThreads"; //$NON-NLS-1$
+	public static final String KEY_INDEX_NAME_TRIGRAMS = "indexNameTrigrams"; //$NON-NLS-1$
+	public static final String KEY_DATABASE_PAGE_SIZE_KB = "databasePageSizeKB"; //$NON-NLS-1$
+	public static final String KEY_DATABASE_MAX_SIZE_GB = "databaseMaxSizeGB"; //$NON-NLS-1$
 
 	private static final String KEY_INDEXER_PREFS_SCOPE = "preferenceScope"; //$NON-NLS-1$
 	private static final String KEY_INDEX_IMPORT_LOCATION = "indexImportLocation"; //$NON-NLS-1$
@@ -76,6 +81,9 @@ public class IndexerPreferences {
 	private static final int DEFAULT_UPDATE_POLICY = 0;
 	public static final int DEFAULT_FILE_SIZE_LIMIT_MB = 8;
 	public static final int DEFAULT_INCLUDED_FILE_SIZE_LIMIT_MB = 16;
+	public static final int DEFAULT_PARSER_THREADS = 1;
+	public static final int DEFAULT_DATABASE_PAGE_SIZE_KB = 4;
+	public static final int DEFAULT_DATABASE_MAX_SIZE_GB = 32;
 
 	private static final String QUALIFIER = CCorePlugin.PLUGIN_ID;
 	private static final String INDEXER_NODE = "indexer"; //$NON-NLS-1$
@@ -335,6 +343,11 @@ public class IndexerPreferences {
 		prefs.putBoolean(KEY_SKIP_MACRO_REFERENCES, false);
 		prefs.put(KEY_INDEX_IMPORT_LOCATION, DEFAULT_INDEX_IMPORT_LOCATION);
 		prefs.putBoolean(KEY_INDEX_ALL_HEADER_VERSIONS, false);
+		prefs.putBoolean(KEY_MEMORY_MAPPED_DATABASE, false);
+		prefs.putInt(KEY_PARSER_THREADS, DEFAULT_PARSER_THREADS);
+		prefs.putBoolean(KEY_INDEX_NAME_TRIGRAMS, false);
+		prefs.putInt(KEY_DATABASE_PAGE_SIZE_KB, DEFAULT_DATABASE_PAGE_SIZE_KB);
+		prefs.putInt(KEY_DATABASE_MAX_SIZE_GB, DEFAULT_DATABASE_MAX_SIZE_GB);
 	}
 
 	public static void setDefaultIndexerId(String defaultId) {
@@ -35,11 +35,13 @@ import org.eclipse.cdt.core.model.ICProject;
 import org.eclipse.cdt.core.model.ITranslationUnit;
 import org.eclipse.cdt.core.parser.IncludeExportPatterns;
 import org.eclipse.cdt.internal.core.index.IWritableIndex;
+import org.eclipse.cdt.internal.core.index.IWritableIndexFragment;
 import org.eclipse.cdt.internal.core.index.IWritableIndexManager;
 import org.eclipse.cdt.internal.core.model.CProject;
 import org.eclipse.cdt.internal.core.pdom.AbstractIndexerTask;
 import org.eclipse.cdt.internal.core.pdom.ITodoTaskUpdater;
 import org.eclipse.cdt.internal.core.pdom.IndexerProgress;
+import org.eclipse.cdt.internal.core.pdom.PDOM;
 import org.eclipse.cdt.internal.core.pdom.db.ChunkCache;
 import org.eclipse.core.resources.IResource;
 import org.eclipse.core.runtime.CoreException;
@@ -110,6 +112,7 @@ public abstract class PDOMIndexerTask extends AbstractIndexerTask implements IPD
 		setForceFirstFiles(forceFiles.length);
 
 		ICProject project = getCProject();
+		setParserThreads(getParserThreads(project));
 		String privatePattern = CCorePreferenceConstants.getPreference(CCorePreferenceConstants.INCLUDE_PRIVATE_PATTERN,
 				project, null);
 		if (privatePattern != null) {
@@ -189,6 +192,21 @@ public abstract class PDOMIndexerTask extends AbstractIndexerTask implements IPD
 		return Collections.emptySet();
 	}
 
+	/**
+	 * The number of parser threads does not affect the content of the index, therefore it is
+	 * not one of the indexer properties, which cause the index to be rebuilt when changed.
+	 */
+	private static int getParserThreads(ICProject project) {
+		String value = IndexerPreferences.get(project.getProject(), IndexerPreferences.KEY_PARSER_THREADS, null);
+		if (value != null) {
+			try {
+				return Integer.parseInt(value);
+			} catch (NumberFormatException e) {
+			}
+		}
+		return IndexerPreferences.DEFAULT_PARSER_THREADS;
+	}
+
 	private int getIntProperty(String key, int defaultValue) {
 		final String value = getIndexer().getProperty(key);
 		if (value != null) {
@@ -308,15 +326,23 @@ public abstract class PDOMIndexerTask extends AbstractIndexerTask implements IPD
 					+ fStatistics.fDeclarationCount + " declarations, " //$NON-NLS-1$
 					+ fStatistics.fReferenceCount + " references, " //$NON-NLS-1$
 					+ fStatistics.fProblemBindingCount + "(" + nfPercent.format(problemPct) + ") unresolved."); //$NON-NLS-1$ //$NON-NLS-2$
+			System.out.println(indent + " Name lookup cache: " //$NON-NLS-1$
+					+ fStatistics.fNameLookupCacheHits + " hits, " //$NON-NLS-1$
+					+ fStatistics.fNameLookupCacheMisses + " misses."); //$NON-NLS-1$
 
 			long misses = index.getCacheMisses();
 			long hits = index.getCacheHits();
 			long tries = misses + hits;
 			double missPct = tries == 0 ? 0.0 : (double) misses / (double) tries;
+			IWritableIndexFragment wf = index.getWritableFragment();
 			System.out.println(indent + " Cache[" //$NON-NLS-1$
 					+ ChunkCache.getSharedInstance().getMaxSize() / 1024 / 1024 + "MB]: " + //$NON-NLS-1$
 					+hits + " hits, " //$NON-NLS-1$
-					+ misses + "(" + nfPercent.format(missPct) + ") misses."); //$NON-NLS-1$ //$NON-NLS-2$
+					+ misses + "(" + nfPercent.format(missPct) + ") misses" //$NON-NLS-1$ //$NON-NLS-2$
+					+ (wf instanceof PDOM ? ", " + ((PDOM) wf).getCacheEvictions() + " evictions." : ".")); //$NON-NLS-1$ //$NON-NLS-2$ //$NON-NLS-3$
+			if (wf instanceof PDOM) {
+				System.out.println(indent + " Locks: " + ((PDOM) wf).getLockStatistics() + "."); //$NON-NLS-1$ //$NON-NLS-2$
+			}
 
 			if (Boolean.parseBoolean(System.getProperty("SHOW_COMPRESSED_INDEXER_INFO"))) { //$NON-NLS-1$
 				Calendar cal = Calendar.getInstance();
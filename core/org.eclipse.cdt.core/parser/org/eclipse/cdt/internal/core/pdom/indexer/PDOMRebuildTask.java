@@ -30,6 +30,7 @@ import org.eclipse.cdt.internal.core.index.IWritableIndexManager;
 import org.eclipse.cdt.internal.core.pdom.IndexerProgress;
 import org.eclipse.cdt.internal.core.pdom.PDOMManager;
 import org.eclipse.cdt.internal.core.pdom.WritablePDOM;
+import org.eclipse.cdt.internal.core.pdom.db.Database;
 import org.eclipse.core.resources.IProject;
 import org.eclipse.core.runtime.CoreException;
 import org.eclipse.core.runtime.IProgressMonitor;
@@ -72,10 +73,10 @@ public class PDOMRebuildTask implements IPDOMIndexerTask {
 
 			ICProject cproject = fIndexer.getProject();
 			IProject project = cproject.getProject();
+			IWritableIndex index = null;
 			if (project.isOpen() && project.exists()) {
 				try {
-					IWritableIndex index = ((IWritableIndexManager) CCorePlugin.getIndexManager())
-							.getWritableIndex(cproject);
+					index = ((IWritableIndexManager) CCorePlugin.getIndexManager()).getWritableIndex(cproject);
 					if (index != null) {
 						clearIndex(cproject, index);
 						if (!IPDOMManager.ID_NO_INDEXER.equals(fIndexer.getID())) {
@@ -92,26 +93,59 @@ public class PDOMRebuildTask implements IPDOMIndexerTask {
 
 			if (fDelegate != null) {
 				fDelegate.run(monitor);
+				if (index != null && !monitor.isCanceled()) {
+					compactIndex(cproject, index);
+				}
 			}
 		} finally {
 			fProgressMonitor = null;
 		}
 	}
 
+	/**
+	 * The b-trees of the index were filled one record at a time, rebuild them bottom-up to
+	 * reduce their size and depth.
+	 */
+	private void compactIndex(ICProject project, IWritableIndex index) throws InterruptedException {
+		IWritableIndexFragment wf = index.getWritableFragment();
+		if (!(wf instanceof WritablePDOM))
+			return;
+		try {
+			((WritablePDOM) wf).compactIndexes(fProgressMonitor);
+		} catch (CoreException e) {
+			CCorePlugin.log(NLS.bind(Messages.PDOMRebuildTask_0, project.getElementName()), e);
+		}
+	}
+
 	private void clearIndex(ICProject project, IWritableIndex index) throws CoreException, InterruptedException {
 		// First clear the pdom
 		index.acquireWriteLock(fProgressMonitor);
 		try {
-			index.clear();
 			IWritableIndexFragment wf = index.getWritableFragment();
+			if (wf instanceof WritablePDOM) {
+				// The alignment of the record pointers can be changed only when the database is empty.
+				((WritablePDOM) wf).getDB().setMaxSizeAfterClear(getMaxDatabaseSize());
+			}
+			index.clear();
 			if (wf instanceof WritablePDOM) {
 				PDOMManager.writeProjectPDOMProperties((WritablePDOM) wf, project.getProject());
+				if (TRUE.equals(fIndexer.getProperty(IndexerPreferences.KEY_INDEX_NAME_TRIGRAMS))) {
+					((WritablePDOM) wf).createNameTrigramIndex();
+				}
 			}
 		} finally {
 			index.releaseWriteLock();
 		}
 	}
 
+	private long getMaxDatabaseSize() {
+		try {
+			return Long.parseLong(fIndexer.getProperty(IndexerPreferences.KEY_DATABASE_MAX_SIZE_GB)) << 30;
+		} catch (NumberFormatException e) {
+			return Database.MAX_DB_SIZE;
+		}
+	}
+
 	private void createDelegate(ICProject project, IProgressMonitor monitor) throws CoreException {
 		boolean allFiles = TRUE
 				.equals(fIndexer.getProperty(IndexerPreferences.KEY_INDEX_UNUSED_HEADERS_WITH_DEFAULT_LANG))
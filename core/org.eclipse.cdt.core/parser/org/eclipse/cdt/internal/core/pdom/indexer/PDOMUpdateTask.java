@@ -34,12 +34,16 @@ import org.eclipse.cdt.core.model.ICElement;
 import org.eclipse.cdt.core.model.ICProject;
 import org.eclipse.cdt.core.model.ITranslationUnit;
 import org.eclipse.cdt.core.parser.IScannerInfo;
+import org.eclipse.cdt.internal.core.index.IWritableIndex;
+import org.eclipse.cdt.internal.core.index.IWritableIndexFragment;
+import org.eclipse.cdt.internal.core.index.IWritableIndexManager;
 import org.eclipse.cdt.internal.core.model.ExternalTranslationUnit;
 import org.eclipse.cdt.internal.core.parser.scanner.CPreprocessor;
 import org.eclipse.cdt.internal.core.parser.scanner.IncludeSearchPath;
 import org.eclipse.cdt.internal.core.parser.scanner.IncludeSearchPathElement;
 import org.eclipse.cdt.internal.core.parser.scanner.ScannerUtility;
 import org.eclipse.cdt.internal.core.pdom.IndexerProgress;
+import org.eclipse.cdt.internal.core.pdom.WritablePDOM;
 import org.eclipse.core.resources.IFile;
 import org.eclipse.core.resources.IResource;
 import org.eclipse.core.resources.ResourcesPlugin;
@@ -94,6 +98,42 @@ public class PDOMUpdateTask implements IPDOMIndexerTask {
 
 		if (fDelegate != null) {
 			fDelegate.run(monitor);
+			if (!monitor.isCanceled()) {
+				defragmentIndex(project, monitor);
+			}
+		}
+	}
+
+	/**
+	 * Incremental updates leave free blocks of many different sizes behind, merge them when
+	 * a large part of the database is free.
+	 */
+	private void defragmentIndex(ICProject project, IProgressMonitor monitor) throws InterruptedException {
+		try {
+			IWritableIndex index = ((IWritableIndexManager) CCorePlugin.getIndexManager()).getWritableIndex(project);
+			if (index == null)
+				return;
+			IWritableIndexFragment wf = index.getWritableFragment();
+			if (!(wf instanceof WritablePDOM))
+				return;
+			WritablePDOM pdom = (WritablePDOM) wf;
+			boolean needsDefragmentation;
+			index.acquireReadLock();
+			try {
+				needsDefragmentation = pdom.needsDefragmentation();
+			} finally {
+				index.releaseReadLock();
+			}
+			if (needsDefragmentation) {
+				index.acquireWriteLock(monitor);
+				try {
+					pdom.defragment();
+				} finally {
+					index.releaseWriteLock();
+				}
+			}
+		} catch (CoreException e) {
+			CCorePlugin.log(e);
 		}
 	}
 
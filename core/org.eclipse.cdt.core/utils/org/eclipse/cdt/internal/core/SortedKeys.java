@@ -0,0 +1,108 @@
+/*******************************************************************************
+ * Copyright (c) 2026 Eclipse CDT contributors and others.
+ *
+ * This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License 2.0
+ * which accompanies this distribution, and is available at
+ * https://www.eclipse.org/legal/epl-2.0/
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ *******************************************************************************/
+package org.eclipse.cdt.internal.core;
+
+/**
+ * Sorting and searching of {@code long} keys stored in a primitive array, along with values
+ * stored in parallel {@code int} arrays. Unsigned numbers, e.g. addresses, are stored with the
+ * sign bit flipped, such that they compare like signed ones.
+ */
+public final class SortedKeys {
+	private SortedKeys() {
+	}
+
+	/**
+	 * Returns the position of the last key that is less than or equal to the given one, or
+	 * {@code -1}.
+	 */
+	public static int findLastLessOrEqual(long[] keys, long key) {
+		return findLastLessOrEqual(keys, 0, keys.length, key);
+	}
+
+	/**
+	 * Returns the position of the last key in the given range that is less than or equal to the
+	 * given one, or {@code from - 1}.
+	 */
+	public static int findLastLessOrEqual(long[] keys, int from, int to, long key) {
+		int low = from;
+		int high = to;
+		while (low < high) {
+			final int mid = (low + high) >>> 1;
+			if (keys[mid] <= key) {
+				low = mid + 1;
+			} else {
+				high = mid;
+			}
+		}
+		return low - 1;
+	}
+
+	/**
+	 * Sorts the keys and moves the values along. Equal keys are ordered by their ranks, the sort
+	 * is stable otherwise.
+	 *
+	 * @param keys the keys to sort.
+	 * @param ranks the ranks of the keys, moved along with the keys, or {@code null}.
+	 * @param values arrays with the values of the keys, of the same length as the keys.
+	 */
+	public static void sort(long[] keys, int[] ranks, int[]... values) {
+		final int n = keys.length;
+		long[] keyBuffer = null;
+		int[] rankBuffer = null;
+		int[][] valueBuffers = null;
+		for (int width = 1; width < n; width <<= 1) {
+			for (int low = 0; low < n - width; low += width << 1) {
+				final int mid = low + width;
+				final int high = Math.min(mid + width, n);
+				if (!less(keys, ranks, mid, mid - 1))
+					continue; // The runs are in order already.
+				if (keyBuffer == null) {
+					keyBuffer = new long[n];
+					rankBuffer = ranks != null ? new int[n] : null;
+					valueBuffers = new int[values.length][n];
+				}
+				int i = low;
+				int j = mid;
+				int k = low;
+				while (i < mid && j < high) {
+					move(keys, ranks, values, less(keys, ranks, j, i) ? j++ : i++, keyBuffer, rankBuffer,
+							valueBuffers, k++);
+				}
+				while (i < mid) {
+					move(keys, ranks, values, i++, keyBuffer, rankBuffer, valueBuffers, k++);
+				}
+				// The remainder of the second run is in place already.
+				System.arraycopy(keyBuffer, low, keys, low, k - low);
+				if (ranks != null) {
+					System.arraycopy(rankBuffer, low, ranks, low, k - low);
+				}
+				for (int v = 0; v < values.length; v++) {
+					System.arraycopy(valueBuffers[v], low, values[v], low, k - low);
+				}
+			}
+		}
+	}
+
+	private static boolean less(long[] keys, int[] ranks, int i, int j) {
+		return keys[i] < keys[j] || ranks != null && keys[i] == keys[j] && ranks[i] < ranks[j];
+	}
+
+	private static void move(long[] keys, int[] ranks, int[][] values, int from, long[] keyBuffer,
+			int[] rankBuffer, int[][] valueBuffers, int to) {
+		keyBuffer[to] = keys[from];
+		if (ranks != null) {
+			rankBuffer[to] = ranks[from];
+		}
+		for (int v = 0; v < values.length; v++) {
+			valueBuffers[v][to] = values[v][from];
+		}
+	}
+}
@@ -0,0 +1,142 @@
+/*******************************************************************************
+ * Copyright (c) 2026 Eclipse CDT contributors and others.
+ *
+ * This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License 2.0
+ * which accompanies this distribution, and is available at
+ * https://www.eclipse.org/legal/epl-2.0/
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ *******************************************************************************/
+package org.eclipse.cdt.utils;
+
+import java.io.IOException;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * A {@link CPPFilt} that demangles symbols with the {@link ItaniumDemangler} instead of running
+ * {@code c++filt}. Symbols that are not mangled, or cannot be demangled, are returned unchanged,
+ * like {@code c++filt} does.
+ * <p>
+ * Like {@code c++filt}, symbols are expected to start with {@code _Z}. For the symbols of Mach-O
+ * files, which have an additional leading underscore, the underscore can be stripped.
+ * <p>
+ * The demangled names are kept in a cache shared by all instances, which holds the most recently
+ * used names. Instances are thread-safe and do not need to be disposed.
+ *
+ * @since 7.0
+ */
+public class CPPDemangler extends CPPFilt {
+	private static final String DEFAULT_COMMAND = "c++filt"; //$NON-NLS-1$
+	private static final int CACHE_SIZE = 16384;
+
+	private static final Map<String, String> fgCache = new LinkedHashMap<String, String>(256, 0.75f, true) {
+		private static final long serialVersionUID = 1L;
+
+		@Override
+		protected boolean removeEldestEntry(Map.Entry<String, String> eldest) {
+			return size() > CACHE_SIZE;
+		}
+	};
+
+	private final boolean fStripUnderscore;
+
+	public CPPDemangler() throws IOException {
+		this(false);
+	}
+
+	/**
+	 * @param stripUnderscore whether a leading underscore is removed from symbols before they are
+	 *     demangled, like {@code c++filt --strip-underscore} does.
+	 */
+	public CPPDemangler(boolean stripUnderscore) throws IOException {
+		super();
+		fStripUnderscore = stripUnderscore;
+	}
+
+	/**
+	 * Returns a {@link CPPFilt} for the given command. For the default command, {@code c++filt},
+	 * and for commands that cannot be run a {@link CPPDemangler} is returned.
+	 *
+	 * @return the {@link CPPFilt}, or {@code null} if none can be created.
+	 */
+	public static CPPFilt create(String command) {
+		return create(command, false);
+	}
+
+	/**
+	 * Returns a {@link CPPFilt} for the given command, see {@link #create(String)}.
+	 *
+	 * @param stripUnderscore whether the {@link CPPDemangler} removes a leading underscore from
+	 *     symbols, see {@link #CPPDemangler(boolean)}.
+	 * @return the {@link CPPFilt}, or {@code null} if none can be created.
+	 */
+	public static CPPFilt create(String command, boolean stripUnderscore) {
+		if (!DEFAULT_COMMAND.equals(command)) {
+			try {
+				return new CPPFilt(command);
+			} catch (IOException e) {
+				// Use the built-in demangler.
+			}
+		}
+		try {
+			return new CPPDemangler(stripUnderscore);
+		} catch (IOException e) {
+			return null;
+		}
+	}
+
+	@Override
+	protected void init(String command, String[] params) throws IOException {
+		// No process is needed.
+	}
+
+	@Override
+	public String getFunction(String symbol) {
+		String mangled = symbol;
+		if (fStripUnderscore && symbol.startsWith("__Z")) //$NON-NLS-1$
+			mangled = symbol.substring(1);
+		if (!ItaniumDemangler.isMangled(mangled))
+			return symbol;
+		String result;
+		synchronized (fgCache) {
+			result = fgCache.get(mangled);
+		}
+		if (result == null) {
+			result = demangle(mangled);
+			synchronized (fgCache) {
+				fgCache.put(mangled, result);
+			}
+		}
+		// Symbols that cannot be demangled are returned unchanged.
+		return result.equals(mangled) ? symbol : result;
+	}
+
+	@Override
+	public String[] getFunctions(String[] symbols) {
+		String[] result = new String[symbols.length];
+		for (int i = 0; i < symbols.length; i++) {
+			result[i] = getFunction(symbols[i]);
+		}
+		return result;
+	}
+
+	private static String demangle(String symbol) {
+		String result = ItaniumDemangler.demangle(symbol);
+		if (result != null)
+			return result;
+		// Like c++filt, demangle the name in front of a symbol version, e.g. _ZdlPv@GLIBCXX_3.4.
+		final int at = symbol.indexOf('@');
+		if (at > 0) {
+			result = ItaniumDemangler.demangle(symbol.substring(0, at));
+			if (result != null)
+				return result + symbol.substring(at);
+		}
+		return symbol;
+	}
+
+	@Override
+	public void dispose() {
+	}
+}
@@ -25,6 +25,12 @@ import org.eclipse.cdt.utils.spawner.ProcessFactory;
  * @noextend This class is not intended to be subclassed by clients.
  */
 public class CPPFilt {
+	/**
+	 * The number of symbols written to the process at once, small enough for the symbols and
+	 * their results to fit into the buffers of the pipes.
+	 */
+	private static final int BATCH_SIZE = 32;
+
 	private String[] args;
 	private Process cppfilt;
 	private BufferedReader stdout;
@@ -66,6 +72,31 @@ public class CPPFilt {
 		throw new IOException();
 	}
 
+	/**
+	 * Demangles the given symbols. The symbols are written to the process in chunks, rather than
+	 * waiting for the result of each symbol before writing the next.
+	 *
+	 * @return the demangled symbols, in the order of the given ones.
+	 * @since 7.0
+	 */
+	public String[] getFunctions(String[] symbols) throws IOException {
+		String[] result = new String[symbols.length];
+		for (int start = 0; start < symbols.length; start += BATCH_SIZE) {
+			final int end = Math.min(start + BATCH_SIZE, symbols.length);
+			for (int i = start; i < end; i++) {
+				stdin.write(symbols[i] + "\n"); //$NON-NLS-1$
+			}
+			stdin.flush();
+			for (int i = start; i < end; i++) {
+				String str = stdout.readLine();
+				if (str == null)
+					throw new IOException();
+				result[i] = str.trim();
+			}
+		}
+		return result;
+	}
+
 	public void dispose() {
 		try {
 			//stdin.write(-1);
@@ -32,10 +32,7 @@ public class DefaultGnuToolFactory implements IGnuToolFactory {
 		IPath addr2LinePath = getAddr2linePath();
 		Addr2line addr2line = null;
 		if (addr2LinePath != null && !addr2LinePath.isEmpty()) {
-			try {
-				addr2line = new Addr2line(addr2LinePath.toOSString(), path.toOSString());
-			} catch (IOException e1) {
-			}
+			addr2line = DwarfAddr2line.create(addr2LinePath.toOSString(), path.toOSString());
 		}
 		return addr2line;
 	}
@@ -45,10 +42,7 @@ public class DefaultGnuToolFactory implements IGnuToolFactory {
 		IPath cppFiltPath = getCPPFiltPath();
 		CPPFilt cppfilt = null;
 		if (cppFiltPath != null && !cppFiltPath.isEmpty()) {
-			try {
-				cppfilt = new CPPFilt(cppFiltPath.toOSString());
-			} catch (IOException e2) {
-			}
+			cppfilt = CPPDemangler.create(cppFiltPath.toOSString());
 		}
 		return cppfilt;
 	}
@@ -0,0 +1,253 @@
+/*******************************************************************************
+ * Copyright (c) 2026 Eclipse CDT contributors and others.
+ *
+ * This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License 2.0
+ * which accompanies this distribution, and is available at
+ * https://www.eclipse.org/legal/epl-2.0/
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ *******************************************************************************/
+package org.eclipse.cdt.utils;
+
+import java.io.File;
+import java.io.IOException;
+import java.lang.ref.SoftReference;
+import java.util.HashMap;
+import java.util.Map;
+
+import org.eclipse.cdt.core.IAddress;
+import org.eclipse.cdt.utils.debug.dwarf.DwarfLineTable;
+import org.eclipse.cdt.utils.debug.dwarf.DwarfReader;
+import org.eclipse.cdt.utils.elf.Elf;
+import org.eclipse.cdt.utils.elf.ElfSymbolTable;
+
+/**
+ * An {@link Addr2line} that maps addresses to source lines with the {@link DwarfLineTable} of an
+ * ELF file instead of running {@code addr2line}. Function names are taken from the symbol table
+ * of the file and are demangled, like {@code addr2line -C -f} does.
+ * <p>
+ * Lookups are binary searches in the line table, which is decoded when the object is created.
+ * The line tables are cached by the path, the size and the modification time of the files, so
+ * instances created for the same file share the table. {@link #getLineNumbers(IAddress[])} and
+ * {@link #getFileNames(IAddress[])} look up many addresses at once. Instances are thread-safe and
+ * must be disposed.
+ *
+ * @since 7.0
+ */
+public class DwarfAddr2line extends Addr2line {
+	private static final String DEFAULT_COMMAND = "addr2line"; //$NON-NLS-1$
+	private static final String UNKNOWN = "??"; //$NON-NLS-1$
+	/** The number of bytes following an address that are searched for a line. */
+	private static final int NEAREST_LINE_RANGE = 20;
+
+	/** The line tables of files, softly referenced such that they are dropped on memory shortage. */
+	private static final Map<String, SoftReference<CachedLineTable>> fgLineTables = new HashMap<>();
+
+	private static final class CachedLineTable {
+		final long size;
+		final long modified;
+		final DwarfLineTable table;
+
+		CachedLineTable(long size, long modified, DwarfLineTable table) {
+			this.size = size;
+			this.modified = modified;
+			this.table = table;
+		}
+	}
+
+	private Elf fElf;
+	private DwarfLineTable fLineTable;
+	private ElfSymbolTable fSymbolTable;
+	private boolean fSymbolTableLoaded;
+
+	public DwarfAddr2line(String file) throws IOException {
+		super(file);
+	}
+
+	/**
+	 * Returns an {@link Addr2line} for the given command and file. For the default command,
+	 * {@code addr2line}, and for commands that cannot be run a {@link DwarfAddr2line} is returned
+	 * if the file is an ELF file.
+	 *
+	 * @return the {@link Addr2line}, or {@code null} if none can be created.
+	 */
+	public static Addr2line create(String command, String file) {
+		if (!DEFAULT_COMMAND.equals(command)) {
+			try {
+				return new Addr2line(command, file);
+			} catch (IOException e) {
+				// Use the line table of the file.
+			}
+		}
+		try {
+			return new DwarfAddr2line(file);
+		} catch (IOException e) {
+			// Not an ELF file, e.g. a PE file on Windows.
+		}
+		if (DEFAULT_COMMAND.equals(command)) {
+			try {
+				return new Addr2line(command, file);
+			} catch (IOException e) {
+			}
+		}
+		return null;
+	}
+
+	@Override
+	protected void init(String command, String[] params, String file) throws IOException {
+		// No process is needed.
+		fElf = new Elf(file);
+		try {
+			fLineTable = getLineTable(fElf, file);
+		} catch (IOException | RuntimeException e) {
+			fElf.dispose();
+			throw e;
+		}
+	}
+
+	/**
+	 * Returns the cached line table of the file, or decodes the line table if the file is not
+	 * cached or has changed.
+	 */
+	private static DwarfLineTable getLineTable(Elf elf, String file) throws IOException {
+		final File f = new File(file);
+		final String key = f.getAbsolutePath();
+		final long size = f.length();
+		final long modified = f.lastModified();
+		synchronized (fgLineTables) {
+			SoftReference<CachedLineTable> ref = fgLineTables.get(key);
+			CachedLineTable cached = ref != null ? ref.get() : null;
+			if (cached != null && cached.size == size && cached.modified == modified)
+				return cached.table;
+		}
+		DwarfLineTable table = new DwarfReader(elf).getLineTable();
+		synchronized (fgLineTables) {
+			fgLineTables.values().removeIf(ref -> ref.get() == null);
+			fgLineTables.put(key, new SoftReference<>(new CachedLineTable(size, modified, table)));
+		}
+		return table;
+	}
+
+	/**
+	 * Returns the line table of the file.
+	 */
+	public DwarfLineTable getLineTable() {
+		return fLineTable;
+	}
+
+	/**
+	 * Returns the file name and the line number of the address in the format of
+	 * {@code addr2line}, e.g. {@code hello.c:39}, or {@code ??:0} if the address has no line
+	 * information.
+	 */
+	@Override
+	public String getLine(IAddress address) throws IOException {
+		final int row = fLineTable.findRow(address.getValue().longValue());
+		if (row < 0)
+			return UNKNOWN + ":0"; //$NON-NLS-1$
+		String fileName = fLineTable.getFileName(row);
+		return (fileName != null ? fileName : UNKNOWN) + ':' + fLineTable.getLineNumber(row);
+	}
+
+	/**
+	 * Returns the demangled name of the function symbol containing the address, or {@code ??}.
+	 */
+	@Override
+	public String getFunction(IAddress address) throws IOException {
+		ElfSymbolTable symbols = getSymbolTable();
+		if (symbols == null)
+			return UNKNOWN;
+		final long value = address.getValue().longValue();
+		final int index = symbols.findSymbol(value);
+		if (index < 0)
+			return UNKNOWN;
+		final long offset = value - symbols.getValue(index);
+		final long size = symbols.getSize(index);
+		if (size == 0 ? offset != 0 : Long.compareUnsigned(offset, size) >= 0)
+			return UNKNOWN;
+		String name = symbols.getName(index);
+		if (name.isEmpty())
+			return UNKNOWN;
+		String demangled = ItaniumDemangler.demangle(name);
+		return demangled != null ? demangled : name;
+	}
+
+	private synchronized ElfSymbolTable getSymbolTable() throws IOException {
+		if (!fSymbolTableLoaded) {
+			fSymbolTableLoaded = true;
+			Elf.Section[] sections = fElf.getSections(Elf.Section.SHT_SYMTAB);
+			if (sections.length == 0)
+				sections = fElf.getSections(Elf.Section.SHT_DYNSYM);
+			if (sections.length > 0)
+				fSymbolTable = fElf.getSymbolTable(sections[0]);
+		}
+		return fSymbolTable;
+	}
+
+	@Override
+	public String getFileName(IAddress address) throws IOException {
+		final int row = fLineTable.findRow(address.getValue().longValue());
+		return row < 0 ? null : fLineTable.getFileName(row);
+	}
+
+	/**
+	 * Returns the names of the source files of the given addresses, see {@link #getFileName(IAddress)}.
+	 */
+	public String[] getFileNames(IAddress[] addresses) {
+		int[] rows = fLineTable.findRows(toValues(addresses));
+		String[] fileNames = new String[addresses.length];
+		for (int i = 0; i < addresses.length; i++) {
+			fileNames[i] = rows[i] < 0 ? null : fLineTable.getFileName(rows[i]);
+		}
+		return fileNames;
+	}
+
+	/**
+	 * Returns the line number of the address. Like {@link Addr2line#getLineNumber(IAddress)}, the
+	 * line of a following address is returned if the address itself has no line, since symbols
+	 * may not exactly align with the debug information.
+	 *
+	 * @return the line number, or {@code -1} if no line is found.
+	 */
+	@Override
+	public int getLineNumber(IAddress address) throws IOException {
+		final long value = address.getValue().longValue();
+		return getLineNumber(value, fLineTable.findRow(value));
+	}
+
+	/**
+	 * Returns the line numbers of the given addresses, see {@link #getLineNumber(IAddress)}.
+	 */
+	public int[] getLineNumbers(IAddress[] addresses) {
+		long[] values = toValues(addresses);
+		int[] rows = fLineTable.findRows(values);
+		int[] lines = new int[addresses.length];
+		for (int i = 0; i < addresses.length; i++) {
+			lines[i] = getLineNumber(values[i], rows[i]);
+		}
+		return lines;
+	}
+
+	private static long[] toValues(IAddress[] addresses) {
+		long[] values = new long[addresses.length];
+		for (int i = 0; i < addresses.length; i++) {
+			values[i] = addresses[i].getValue().longValue();
+		}
+		return values;
+	}
+
+	private int getLineNumber(long address, int row) {
+		while (row >= 0 && fLineTable.getLineNumber(row) == 0) {
+			row = fLineTable.getNextRow(row);
+			if (row >= 0 && fLineTable.getAddress(row) - address > NEAREST_LINE_RANGE)
+				return -1;
+		}
+		return row < 0 ? -1 : fLineTable.getLineNumber(row);
+	}
+
+	@Override
+	public void dispose() {
+		fElf.dispose();
+	}
+}
@@ -0,0 +1,1917 @@
+/*******************************************************************************
+ * Copyright (c) 2026 Eclipse CDT contributors and others.
+ *
+ * This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License 2.0
+ * which accompanies this distribution, and is available at
+ * https://www.eclipse.org/legal/epl-2.0/
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ *******************************************************************************/
+package org.eclipse.cdt.utils;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Demangles symbol names according to the Itanium C++ ABI, which is used by GCC and Clang on
+ * all platforms but Windows. The output follows the format of {@code c++filt} from the GNU
+ * binutils, e.g. {@code _ZNKSt6vectorIiSaIiEE4sizeEv} is demangled to
+ * {@code std::vector<int, std::allocator<int> >::size() const}.
+ * <p>
+ * The demangler builds a tree of the components of the name, in which substitutions refer to
+ * the components they repeat, and prints the tree. Names that use constructs the demangler does
+ * not support are treated like names that are not mangled.
+ * <p>
+ * The class is thread-safe.
+ *
+ * @see CPPDemangler
+ * @since 7.0
+ */
+public final class ItaniumDemangler {
+	private static final int MAX_DEPTH = 512;
+	private static final int MAX_OUTPUT = 1 << 16;
+
+	private static final int CV_CONST = 1;
+	private static final int CV_VOLATILE = 2;
+	private static final int CV_RESTRICT = 4;
+
+	private static final int REF_NONE = 0;
+	private static final int REF_LVALUE = 1;
+	private static final int REF_RVALUE = 2;
+
+	private static final Map<String, String> OPERATORS = new HashMap<>();
+	private static final Map<String, String> BINARY_OPERATORS = new HashMap<>();
+	private static final Map<String, String> PREFIX_OPERATORS = new HashMap<>();
+	private static final Map<Character, String> BUILTIN_TYPES = new HashMap<>();
+	private static final Map<Character, String> EXTENDED_BUILTIN_TYPES = new HashMap<>();
+
+	static {
+		String[] binary = { "pl", "+", "mi", "-", "ml", "*", "dv", "/", "rm", "%", "an", "&", "or", "|", "eo", "^", //$NON-NLS-1$ //$NON-NLS-2$ //$NON-NLS-3$ //$NON-NLS-4$ //$NON-NLS-5$ //$NON-NLS-6$ //$NON-NLS-7$ //$NON-NLS-8$ //$NON-NLS-9$ //$NON-NLS-10$ //$NON-NLS-11$ //$NON-NLS-12$ //$NON-NLS-13$ //$NON-NLS-14$ //$NON-NLS-15$ //$NON-NLS-16$
+				"aS", "=", "pL", "+=", "mI", "-=", "mL", "*=", "dV", "/=", "rM", "%=", "aN", "&=", "oR", "|=", //$NON-NLS-1$ //$NON-NLS-2$ //$NON-NLS-3$ //$NON-NLS-4$ //$NON-NLS-5$ //$NON-NLS-6$ //$NON-NLS-7$ //$NON-NLS-8$ //$NON-NLS-9$ //$NON-NLS-10$ //$NON-NLS-11$ //$NON-NLS-12$ //$NON-NLS-13$ //$NON-NLS-14$ //$NON-NLS-15$ //$NON-NLS-16$
+				"eO", "^=", "ls", "<<", "rs", ">>", "lS", "<<=", "rS", ">>=", "eq", "==", "ne", "!=", "lt", "<", //$NON-NLS-1$ //$NON-NLS-2$ //$NON-NLS-3$ //$NON-NLS-4$ //$NON-NLS-5$ //$NON-NLS-6$ //$NON-NLS-7$ //$NON-NLS-8$ //$NON-NLS-9$ //$NON-NLS-10$ //$NON-NLS-11$ //$NON-NLS-12$ //$NON-NLS-13$ //$NON-NLS-14$ //$NON-NLS-15$ //$NON-NLS-16$
+				"gt", ">", "le", "<=", "ge", ">=", "ss", "<=>", "aa", "&&", "oo", "||", "cm", ",", "pm", "->*" }; //$NON-NLS-1$ //$NON-NLS-2$ //$NON-NLS-3$ //$NON-NLS-4$ //$NON-NLS-5$ //$NON-NLS-6$ //$NON-NLS-7$ //$NON-NLS-8$ //$NON-NLS-9$ //$NON-NLS-10$ //$NON-NLS-11$ //$NON-NLS-12$ //$NON-NLS-13$ //$NON-NLS-14$ //$NON-NLS-15$ //$NON-NLS-16$
+		for (int i = 0; i < binary.length; i += 2) {
+			BINARY_OPERATORS.put(binary[i], binary[i + 1]);
+			OPERATORS.put(binary[i], binary[i + 1]);
+		}
+		String[] prefix = { "ps", "+", "ng", "-", "ad", "&", "de", "*", "co", "~", "nt", "!", "pp", "++", "mm", "--" }; //$NON-NLS-1$ //$NON-NLS-2$ //$NON-NLS-3$ //$NON-NLS-4$ //$NON-NLS-5$ //$NON-NLS-6$ //$NON-NLS-7$ //$NON-NLS-8$ //$NON-NLS-9$ //$NON-NLS-10$ //$NON-NLS-11$ //$NON-NLS-12$ //$NON-NLS-13$ //$NON-NLS-14$ //$NON-NLS-15$ //$NON-NLS-16$
+		for (int i = 0; i < prefix.length; i += 2) {
+			PREFIX_OPERATORS.put(prefix[i], prefix[i + 1]);
+			OPERATORS.put(prefix[i], prefix[i + 1]);
+		}
+		String[] other = { "nw", " new", "na", " new[]", "dl", " delete", "da", " delete[]", "cl", "()", "ix", "[]", //$NON-NLS-1$ //$NON-NLS-2$ //$NON-NLS-3$ //$NON-NLS-4$ //$NON-NLS-5$ //$NON-NLS-6$ //$NON-NLS-7$ //$NON-NLS-8$ //$NON-NLS-9$ //$NON-NLS-10$ //$NON-NLS-11$ //$NON-NLS-12$
+				"qu", "?", "pt", "->", "st", " sizeof", "sz", " sizeof", "at", " alignof", "az", " alignof", //$NON-NLS-1$ //$NON-NLS-2$ //$NON-NLS-3$ //$NON-NLS-4$ //$NON-NLS-5$ //$NON-NLS-6$ //$NON-NLS-7$ //$NON-NLS-8$ //$NON-NLS-9$ //$NON-NLS-10$ //$NON-NLS-11$ //$NON-NLS-12$
+				"aw", " co_await" }; //$NON-NLS-1$ //$NON-NLS-2$
+		for (int i = 0; i < other.length; i += 2) {
+			OPERATORS.put(other[i], other[i + 1]);
+		}
+
+		String[] builtin = { "v", "void", "w", "wchar_t", "b", "bool", "c", "char", "a", "signed char", //$NON-NLS-1$ //$NON-NLS-2$ //$NON-NLS-3$ //$NON-NLS-4$ //$NON-NLS-5$ //$NON-NLS-6$ //$NON-NLS-7$ //$NON-NLS-8$ //$NON-NLS-9$ //$NON-NLS-10$
+				"h", "unsigned char", "s", "short", "t", "unsigned short", "i", "int", "j", "unsigned int", //$NON-NLS-1$ //$NON-NLS-2$ //$NON-NLS-3$ //$NON-NLS-4$ //$NON-NLS-5$ //$NON-NLS-6$ //$NON-NLS-7$ //$NON-NLS-8$ //$NON-NLS-9$ //$NON-NLS-10$
+				"l", "long", "m", "unsigned long", "x", "long long", "y", "unsigned long long", "n", "__int128", //$NON-NLS-1$ //$NON-NLS-2$ //$NON-NLS-3$ //$NON-NLS-4$ //$NON-NLS-5$ //$NON-NLS-6$ //$NON-NLS-7$ //$NON-NLS-8$ //$NON-NLS-9$ //$NON-NLS-10$
+				"o", "unsigned __int128", "f", "float", "d", "double", "e", "long double", "g", "__float128", //$NON-NLS-1$ //$NON-NLS-2$ //$NON-NLS-3$ //$NON-NLS-4$ //$NON-NLS-5$ //$NON-NLS-6$ //$NON-NLS-7$ //$NON-NLS-8$ //$NON-NLS-9$ //$NON-NLS-10$
+				"z", "..." }; //$NON-NLS-1$ //$NON-NLS-2$
+		for (int i = 0; i < builtin.length; i += 2) {
+			BUILTIN_TYPES.put(Character.valueOf(builtin[i].charAt(0)), builtin[i + 1]);
+		}
+		String[] extended = { "d", "decimal64", "e", "decimal128", "f", "decimal32", "h", "half", "i", "char32_t", //$NON-NLS-1$ //$NON-NLS-2$ //$NON-NLS-3$ //$NON-NLS-4$ //$NON-NLS-5$ //$NON-NLS-6$ //$NON-NLS-7$ //$NON-NLS-8$ //$NON-NLS-9$ //$NON-NLS-10$
+				"s", "char16_t", "u", "char8_t", "a", "auto", "c", "decltype(auto)", "n", "decltype(nullptr)" }; //$NON-NLS-1$ //$NON-NLS-2$ //$NON-NLS-3$ //$NON-NLS-4$ //$NON-NLS-5$ //$NON-NLS-6$ //$NON-NLS-7$ //$NON-NLS-8$ //$NON-NLS-9$ //$NON-NLS-10$
+		for (int i = 0; i < extended.length; i += 2) {
+			EXTENDED_BUILTIN_TYPES.put(Character.valueOf(extended[i].charAt(0)), extended[i + 1]);
+		}
+	}
+
+	private ItaniumDemangler() {
+	}
+
+	/**
+	 * Returns {@code true} if the name looks like a mangled name, i.e. starts with {@code _Z}.
+	 * Like {@code c++filt}, names with an additional leading underscore, as used by Mach-O
+	 * symbols, are not accepted, the underscore needs to be removed by the caller.
+	 */
+	public static boolean isMangled(String name) {
+		return name != null && name.startsWith("_Z"); //$NON-NLS-1$
+	}
+
+	/**
+	 * Demangles the given name.
+	 *
+	 * @return the demangled name, or {@code null} if the name is not a mangled name or cannot be
+	 *     demangled.
+	 */
+	public static String demangle(String name) {
+		if (!isMangled(name))
+			return null;
+		try {
+			return new Parser(name, 2).parse();
+		} catch (DemangleException | IndexOutOfBoundsException e) {
+			// An index out of bounds is a truncated name that was not checked for.
+			return null;
+		}
+	}
+
+	/**
+	 * Signals that a name cannot be demangled.
+	 */
+	private static final class DemangleException extends RuntimeException {
+		private static final long serialVersionUID = 1L;
+
+		DemangleException() {
+			super(null, null, false, false);
+		}
+	}
+
+	private static DemangleException fail() {
+		return new DemangleException();
+	}
+
+	/**
+	 * The output of the printing of a tree of nodes.
+	 */
+	private static final class Printer {
+		/** Marks the printing done to find out the size of a pack. */
+		static final int MEASURE_PACK = Integer.MAX_VALUE;
+
+		final StringBuilder fOut = new StringBuilder();
+		/** The index of the element of packs to print, or -1 to print all elements. */
+		int fPackIndex = -1;
+		/** The size of the pack found while measuring. */
+		int fPackSize = -1;
+		int fDepth;
+		/** The last character appended, not updated when the output is truncated. */
+		char fLast;
+		/** The arguments of the templates being printed, for resolving template parameters. */
+		final List<List<Node>> fTemplates = new ArrayList<>();
+
+		Printer append(String str) {
+			if (!str.isEmpty()) {
+				fOut.append(str);
+				fLast = str.charAt(str.length() - 1);
+				if (fOut.length() > MAX_OUTPUT)
+					throw fail();
+			}
+			return this;
+		}
+
+		Printer append(char c) {
+			fOut.append(c);
+			fLast = c;
+			return this;
+		}
+
+		char last() {
+			return fLast;
+		}
+
+		int length() {
+			return fOut.length();
+		}
+
+		void setLength(int length) {
+			fOut.setLength(length);
+		}
+	}
+
+	/**
+	 * A component of a demangled name. Types like pointers to functions or arrays are printed in
+	 * two parts, the part left of the declarator and the part right of it.
+	 */
+	private abstract static class Node {
+		abstract void printLeft(Printer p);
+
+		void printRight(Printer p) {
+		}
+
+		/** Whether the node prints something in {@link #printRight(Printer)}. */
+		boolean hasRight(Printer p) {
+			return false;
+		}
+
+		boolean hasArray(Printer p) {
+			return false;
+		}
+
+		boolean hasFunction(Printer p) {
+			return false;
+		}
+
+		/** Returns the unqualified name without template arguments, used for constructor names. */
+		String getBaseName() {
+			return null;
+		}
+
+		/** Returns the node that is printed for this one, e.g. the current element of a pack. */
+		Node resolve(Printer p) {
+			return this;
+		}
+
+		final void print(Printer p) {
+			if (++p.fDepth > MAX_DEPTH)
+				throw fail();
+			printLeft(p);
+			if (hasRight(p))
+				printRight(p);
+			p.fDepth--;
+		}
+
+		@Override
+		public String toString() {
+			Printer p = new Printer();
+			print(p);
+			return p.fOut.toString();
+		}
+	}
+
+	private static final Node EMPTY = new NameNode(""); //$NON-NLS-1$
+
+	private static final class NameNode extends Node {
+		final String fName;
+
+		NameNode(String name) {
+			fName = name;
+		}
+
+		@Override
+		void printLeft(Printer p) {
+			p.append(fName);
+		}
+
+		@Override
+		String getBaseName() {
+			return fName;
+		}
+	}
+
+	/**
+	 * A sequence of strings and nodes.
+	 */
+	private static final class Composite extends Node {
+		final Object[] fParts;
+
+		Composite(Object... parts) {
+			fParts = parts;
+		}
+
+		@Override
+		void printLeft(Printer p) {
+			for (Object part : fParts) {
+				if (part instanceof Node) {
+					((Node) part).print(p);
+				} else {
+					p.append((String) part);
+				}
+			}
+		}
+	}
+
+	/**
+	 * A comma separated list of nodes. Like in {@code c++filt} elements but the first one that print
+	 * nothing (empty packs) are omitted.
+	 */
+	private static final class NodeList extends Node {
+		final List<Node> fNodes;
+
+		NodeList(List<Node> nodes) {
+			fNodes = nodes;
+		}
+
+		@Override
+		void printLeft(Printer p) {
+			for (int i = 0; i < fNodes.size(); i++) {
+				if (i == 0) {
+					fNodes.get(i).print(p);
+					continue;
+				}
+				final int mark = p.length();
+				p.append(", "); //$NON-NLS-1$
+				fNodes.get(i).print(p);
+				if (p.length() == mark + 2)
+					p.setLength(mark);
+			}
+		}
+	}
+
+	/**
+	 * A literal, unlike names it is enclosed in parentheses when used as an operand.
+	 */
+	private static final class Literal extends Node {
+		final String fValue;
+
+		Literal(String value) {
+			fValue = value;
+		}
+
+		@Override
+		void printLeft(Printer p) {
+			p.append(fValue);
+		}
+	}
+
+	private static final class NestedName extends Node {
+		final Node fQualifier;
+		final Node fName;
+
+		NestedName(Node qualifier, Node name) {
+			fQualifier = qualifier;
+			fName = name;
+		}
+
+		@Override
+		void printLeft(Printer p) {
+			fQualifier.print(p);
+			p.append("::"); //$NON-NLS-1$
+			fName.print(p);
+		}
+
+		@Override
+		String getBaseName() {
+			return fName.getBaseName();
+		}
+	}
+
+	private static final class NameWithTemplateArgs extends Node {
+		final Node fName;
+		final Node fArgs;
+
+		NameWithTemplateArgs(Node name, Node args) {
+			fName = name;
+			fArgs = args;
+		}
+
+		@Override
+		void printLeft(Printer p) {
+			fName.print(p);
+			fArgs.print(p);
+		}
+
+		@Override
+		String getBaseName() {
+			return fName.getBaseName();
+		}
+	}
+
+	private static final class TemplateArgs extends Node {
+		final List<Node> fArgs;
+
+		TemplateArgs(List<Node> args) {
+			fArgs = args;
+		}
+
+		@Override
+		void printLeft(Printer p) {
+			// Avoid "operator<<int>" and ">>".
+			if (p.last() == '<')
+				p.append(' ');
+			p.append('<');
+			new NodeList(fArgs).print(p);
+			if (p.last() == '>')
+				p.append(' ');
+			p.append('>');
+		}
+	}
+
+	private static final class AbiTagged extends Node {
+		final Node fBase;
+		final String fTag;
+
+		AbiTagged(Node base, String tag) {
+			fBase = base;
+			fTag = tag;
+		}
+
+		@Override
+		void printLeft(Printer p) {
+			fBase.print(p);
+			p.append("[abi:").append(fTag).append(']'); //$NON-NLS-1$
+		}
+
+		@Override
+		String getBaseName() {
+			return fBase.getBaseName();
+		}
+	}
+
+	/**
+	 * One of the abbreviations {@code Sa}, {@code Sb}, {@code Ss}, {@code Si}, {@code So} or
+	 * {@code Sd}. Like {@code c++filt} the full names of the types are printed.
+	 */
+	private static final class SpecialSubstitution extends Node {
+		final String fName;
+		final String fBaseName;
+
+		SpecialSubstitution(String name, String baseName) {
+			fName = name;
+			fBaseName = baseName;
+		}
+
+		@Override
+		void printLeft(Printer p) {
+			p.append(fName);
+		}
+
+		@Override
+		String getBaseName() {
+			return fBaseName;
+		}
+	}
+
+	private static final class LocalName extends Node {
+		final Node fEncoding;
+		final Node fEntity;
+
+		LocalName(Node encoding, Node entity) {
+			fEncoding = encoding;
+			fEntity = entity;
+		}
+
+		@Override
+		void printLeft(Printer p) {
+			fEncoding.print(p);
+			p.append("::"); //$NON-NLS-1$
+			fEntity.print(p);
+		}
+
+		@Override
+		String getBaseName() {
+			return fEntity.getBaseName();
+		}
+	}
+
+	private static final class FunctionEncoding extends Node {
+		final Node fReturnType;
+		final Node fName;
+		final List<Node> fParams;
+		final int fCV;
+		final int fRef;
+
+		FunctionEncoding(Node returnType, Node name, List<Node> params, int cv, int ref) {
+			fReturnType = returnType;
+			fName = name;
+			fParams = params;
+			fCV = cv;
+			fRef = ref;
+		}
+
+		/**
+		 * Returns the arguments of the template the name refers to, or {@code null} if the name
+		 * is not the name of a template.
+		 */
+		private static List<Node> getTemplateArgs(Node name) {
+			if (name instanceof LocalName)
+				return getTemplateArgs(((LocalName) name).fEntity);
+			if (name instanceof NameWithTemplateArgs && ((NameWithTemplateArgs) name).fArgs instanceof TemplateArgs)
+				return ((TemplateArgs) ((NameWithTemplateArgs) name).fArgs).fArgs;
+			return null;
+		}
+
+		@Override
+		void printLeft(Printer p) {
+			List<Node> templateArgs = getTemplateArgs(fName);
+			if (templateArgs != null)
+				p.fTemplates.add(templateArgs);
+			if (fReturnType != null) {
+				fReturnType.printLeft(p);
+				if (!fReturnType.hasRight(p))
+					p.append(' ');
+			}
+			fName.print(p);
+			p.append('(');
+			new NodeList(fParams).print(p);
+			p.append(')');
+			if (fReturnType != null)
+				fReturnType.printRight(p);
+			printQualifiers(p, fCV, fRef);
+			if (templateArgs != null)
+				p.fTemplates.remove(p.fTemplates.size() - 1);
+		}
+
+		@Override
+		String getBaseName() {
+			return fName.getBaseName();
+		}
+	}
+
+	private static final class FunctionType extends Node {
+		final Node fReturnType;
+		final List<Node> fParams;
+		final int fCV;
+		final int fRef;
+		final String fExceptionSpec;
+
+		FunctionType(Node returnType, List<Node> params, int cv, int ref, String exceptionSpec) {
+			fReturnType = returnType;
+			fParams = params;
+			fCV = cv;
+			fRef = ref;
+			fExceptionSpec = exceptionSpec;
+		}
+
+		@Override
+		void printLeft(Printer p) {
+			fReturnType.printLeft(p);
+			p.append(' ');
+		}
+
+		@Override
+		boolean hasRight(Printer p) {
+			return true;
+		}
+
+		@Override
+		boolean hasFunction(Printer p) {
+			return true;
+		}
+
+		@Override
+		void printRight(Printer p) {
+			p.append('(');
+			new NodeList(fParams).print(p);
+			p.append(')');
+			fReturnType.printRight(p);
+			printQualifiers(p, fCV, fRef);
+			if (fExceptionSpec != null)
+				p.append(fExceptionSpec);
+		}
+	}
+
+	private static void printQualifiers(Printer p, int cv, int ref) {
+		if ((cv & CV_CONST) != 0)
+			p.append(" const"); //$NON-NLS-1$
+		if ((cv & CV_VOLATILE) != 0)
+			p.append(" volatile"); //$NON-NLS-1$
+		if ((cv & CV_RESTRICT) != 0)
+			p.append(" restrict"); //$NON-NLS-1$
+		if (ref == REF_LVALUE)
+			p.append(" &"); //$NON-NLS-1$
+		else if (ref == REF_RVALUE)
+			p.append(" &&"); //$NON-NLS-1$
+	}
+
+	/**
+	 * A pointer or reference type.
+	 */
+	private static final class PointerType extends Node {
+		final Node fPointee;
+		final String fOperator;
+
+		PointerType(Node pointee, String operator) {
+			fPointee = pointee;
+			fOperator = operator;
+		}
+
+		/**
+		 * Collapses a reference to a reference like the compiler does, e.g. {@code T& &&} is
+		 * {@code T&}.
+		 */
+		private PointerType collapse(Printer p) {
+			if (fOperator.charAt(0) != '&')
+				return this;
+			String operator = fOperator;
+			Node pointee = fPointee.resolve(p);
+			while (pointee instanceof PointerType && ((PointerType) pointee).fOperator.charAt(0) == '&') {
+				PointerType reference = (PointerType) pointee;
+				if (reference.fOperator.length() == 1)
+					operator = reference.fOperator;
+				pointee = reference.fPointee.resolve(p);
+			}
+			return pointee == fPointee ? this : new PointerType(pointee, operator);
+		}
+
+		@Override
+		void printLeft(Printer p) {
+			PointerType collapsed = collapse(p);
+			if (collapsed != this) {
+				collapsed.printLeft(p);
+				return;
+			}
+			fPointee.printLeft(p);
+			if (fPointee.hasArray(p))
+				p.append(' ');
+			if (fPointee.hasArray(p) || fPointee.hasFunction(p))
+				p.append('(');
+			p.append(fOperator);
+		}
+
+		@Override
+		boolean hasRight(Printer p) {
+			return fPointee.hasRight(p);
+		}
+
+		@Override
+		void printRight(Printer p) {
+			PointerType collapsed = collapse(p);
+			if (collapsed != this) {
+				collapsed.printRight(p);
+				return;
+			}
+			if (fPointee.hasArray(p) || fPointee.hasFunction(p))
+				p.append(')');
+			fPointee.printRight(p);
+		}
+	}
+
+	private static final class PointerToMemberType extends Node {
+		final Node fClass;
+		final Node fMember;
+
+		PointerToMemberType(Node cls, Node member) {
+			fClass = cls;
+			fMember = member;
+		}
+
+		@Override
+		void printLeft(Printer p) {
+			fMember.printLeft(p);
+			if (fMember.hasArray(p) || fMember.hasFunction(p)) {
+				p.append('(');
+			} else {
+				p.append(' ');
+			}
+			fClass.print(p);
+			p.append("::*"); //$NON-NLS-1$
+		}
+
+		@Override
+		boolean hasRight(Printer p) {
+			return fMember.hasRight(p);
+		}
+
+		@Override
+		void printRight(Printer p) {
+			if (fMember.hasArray(p) || fMember.hasFunction(p))
+				p.append(')');
+			fMember.printRight(p);
+		}
+	}
+
+	private static final class QualifiedType extends Node {
+		final Node fChild;
+		final int fCV;
+
+		QualifiedType(Node child, int cv) {
+			fChild = child;
+			fCV = cv;
+		}
+
+		@Override
+		void printLeft(Printer p) {
+			Node child = fChild.resolve(p);
+			if (child instanceof QualifiedType) {
+				// Qualifiers of a substituted template argument are not repeated.
+				QualifiedType qualified = (QualifiedType) child;
+				new QualifiedType(qualified.fChild, qualified.fCV | fCV).printLeft(p);
+				return;
+			}
+			fChild.printLeft(p);
+			if (!fChild.hasFunction(p))
+				printQualifiers(p, fCV, REF_NONE);
+		}
+
+		@Override
+		boolean hasRight(Printer p) {
+			return fChild.hasRight(p);
+		}
+
+		@Override
+		boolean hasArray(Printer p) {
+			return fChild.hasArray(p);
+		}
+
+		@Override
+		boolean hasFunction(Printer p) {
+			return fChild.hasFunction(p);
+		}
+
+		@Override
+		void printRight(Printer p) {
+			fChild.printRight(p);
+			if (fChild.hasFunction(p))
+				printQualifiers(p, fCV, REF_NONE);
+		}
+	}
+
+	private static final class ArrayType extends Node {
+		final Node fElement;
+		final Node fDimension;
+
+		ArrayType(Node element, Node dimension) {
+			fElement = element;
+			fDimension = dimension;
+		}
+
+		@Override
+		void printLeft(Printer p) {
+			fElement.printLeft(p);
+		}
+
+		@Override
+		boolean hasRight(Printer p) {
+			return true;
+		}
+
+		@Override
+		boolean hasArray(Printer p) {
+			return true;
+		}
+
+		@Override
+		void printRight(Printer p) {
+			if (p.last() != ']')
+				p.append(' ');
+			p.append('[');
+			if (fDimension != null)
+				fDimension.print(p);
+			p.append(']');
+			fElement.printRight(p);
+		}
+	}
+
+	/**
+	 * The elements of a template argument pack.
+	 */
+	private static final class PackNode extends Node {
+		final List<Node> fElements;
+
+		PackNode(List<Node> elements) {
+			fElements = elements;
+		}
+
+		@Override
+		void printLeft(Printer p) {
+			new NodeList(fElements).print(p);
+		}
+	}
+
+	/**
+	 * A pack expansion, prints its pattern once for every element of the pack it refers to.
+	 */
+	private static final class PackExpansion extends Node {
+		final Node fPattern;
+
+		PackExpansion(Node pattern) {
+			fPattern = pattern;
+		}
+
+		@Override
+		void printLeft(Printer p) {
+			final int savedIndex = p.fPackIndex;
+			final int savedSize = p.fPackSize;
+			Printer measure = new Printer();
+			measure.fPackIndex = Printer.MEASURE_PACK;
+			measure.fDepth = p.fDepth;
+			measure.fTemplates.addAll(p.fTemplates);
+			fPattern.print(measure);
+			final int size = measure.fPackSize;
+			if (size < 0) {
+				fPattern.print(p);
+				p.append("..."); //$NON-NLS-1$
+				return;
+			}
+			for (int i = 0; i < size; i++) {
+				if (i > 0)
+					p.append(", "); //$NON-NLS-1$
+				p.fPackIndex = i;
+				fPattern.print(p);
+			}
+			p.fPackIndex = savedIndex;
+			p.fPackSize = savedSize;
+		}
+	}
+
+	/**
+	 * A reference to a template parameter. Like in {@code c++filt} the parameter is resolved when
+	 * it is printed, using the arguments of the innermost template being printed.
+	 */
+	private static final class TemplateParam extends Node {
+		final int fIndex;
+
+		TemplateParam(int index) {
+			fIndex = index;
+		}
+
+		@Override
+		Node resolve(Printer p) {
+			if (p.fTemplates.isEmpty())
+				throw fail();
+			List<Node> args = p.fTemplates.get(p.fTemplates.size() - 1);
+			if (fIndex >= args.size())
+				throw fail();
+			Node arg = args.get(fIndex);
+			if (!(arg instanceof PackNode))
+				return arg.resolve(p);
+
+			// A parameter pack, print the element selected by the enclosing pack expansion.
+			final List<Node> elements = ((PackNode) arg).fElements;
+			if (p.fPackIndex == Printer.MEASURE_PACK) {
+				p.fPackSize = elements.size();
+			} else if (p.fPackIndex >= 0) {
+				return p.fPackIndex < elements.size() ? elements.get(p.fPackIndex).resolve(p) : EMPTY;
+			}
+			return arg;
+		}
+
+		@Override
+		void printLeft(Printer p) {
+			resolve(p).printLeft(p);
+		}
+
+		@Override
+		void printRight(Printer p) {
+			resolve(p).printRight(p);
+		}
+
+		@Override
+		boolean hasRight(Printer p) {
+			return resolve(p).hasRight(p);
+		}
+
+		@Override
+		boolean hasArray(Printer p) {
+			return resolve(p).hasArray(p);
+		}
+
+		@Override
+		boolean hasFunction(Printer p) {
+			return resolve(p).hasFunction(p);
+		}
+	}
+
+	/**
+	 * State of the name of an encoding needed to decode the function type.
+	 */
+	private static final class NameState {
+		int fCV;
+		int fRef = REF_NONE;
+		boolean fCtorDtorConversion;
+		boolean fEndsWithTemplateArgs;
+	}
+
+	private static final class Parser {
+		private final String fInput;
+		private int fPos;
+		private final List<Node> fSubstitutions = new ArrayList<>();
+		private boolean fTryTemplateArgs = true;
+		private boolean fParsingLambdaParams;
+		private int fDepth;
+
+		Parser(String input, int start) {
+			fInput = input;
+			fPos = start;
+		}
+
+		String parse() {
+			Node encoding = parseEncoding();
+			StringBuilder clones = new StringBuilder();
+			while (look(0) == '.' && (isLower(look(1)) || isDigit(look(1)) || look(1) == '_')) {
+				int start = fPos;
+				fPos += 2;
+				while (isLower(look(0)) || isDigit(look(0)) || look(0) == '_') {
+					fPos++;
+				}
+				while (look(0) == '.' && isDigit(look(1))) {
+					fPos += 2;
+					while (isDigit(look(0))) {
+						fPos++;
+					}
+				}
+				clones.append(" [clone ").append(fInput, start, fPos).append(']'); //$NON-NLS-1$
+			}
+			if (fPos != fInput.length())
+				throw fail();
+			Printer p = new Printer();
+			encoding.print(p);
+			return p.fOut.append(clones).toString();
+		}
+
+		private char look(int offset) {
+			final int pos = fPos + offset;
+			return pos < fInput.length() ? fInput.charAt(pos) : 0;
+		}
+
+		/**
+		 * Returns the next character and advances, fails at the end of the input.
+		 */
+		private char next() {
+			if (fPos >= fInput.length())
+				throw fail();
+			return fInput.charAt(fPos++);
+		}
+
+		private boolean consume(char c) {
+			if (look(0) == c) {
+				fPos++;
+				return true;
+			}
+			return false;
+		}
+
+		private boolean consume(String str) {
+			if (fInput.startsWith(str, fPos)) {
+				fPos += str.length();
+				return true;
+			}
+			return false;
+		}
+
+		private void expect(char c) {
+			if (!consume(c))
+				throw fail();
+		}
+
+		private boolean atEndOfEncoding() {
+			final char c = look(0);
+			return c == 0 || c == 'E' || c == '.';
+		}
+
+		private static boolean isDigit(char c) {
+			return c >= '0' && c <= '9';
+		}
+
+		private static boolean isLower(char c) {
+			return c >= 'a' && c <= 'z';
+		}
+
+		private void enter() {
+			if (++fDepth > MAX_DEPTH)
+				throw fail();
+		}
+
+		/**
+		 * Parses an optional 'n' followed by digits.
+		 */
+		private String parseNumber() {
+			final int start = fPos;
+			consume('n');
+			if (!isDigit(look(0)))
+				throw fail();
+			while (isDigit(look(0))) {
+				fPos++;
+			}
+			return fInput.substring(start, fPos).replace('n', '-');
+		}
+
+		private int parsePositiveNumber() {
+			String number = parseNumber();
+			if (number.startsWith("-") || number.length() > 9) //$NON-NLS-1$
+				throw fail();
+			return Integer.parseInt(number);
+		}
+
+		/**
+		 * Parses a base 36 number followed by an underscore, returns 0 for just an underscore and
+		 * the number plus one otherwise.
+		 */
+		private int parseSeqId() {
+			if (consume('_'))
+				return 0;
+			int id = 0;
+			while (look(0) != '_') {
+				char c = look(0);
+				int digit;
+				if (isDigit(c)) {
+					digit = c - '0';
+				} else if (c >= 'A' && c <= 'Z') {
+					digit = c - 'A' + 10;
+				} else {
+					throw fail();
+				}
+				id = id * 36 + digit;
+				if (id > 1 << 20)
+					throw fail();
+				fPos++;
+			}
+			fPos++;
+			return id + 1;
+		}
+
+		// <encoding> ::= <name> <bare-function-type> | <name> | <special-name>
+		private Node parseEncoding() {
+			enter();
+			try {
+				if (look(0) == 'G' || (look(0) == 'T' && look(1) != '_' && !isDigit(look(1))))
+					return parseSpecialName();
+
+				NameState state = new NameState();
+				Node name = parseName(state);
+				if (atEndOfEncoding())
+					return name;
+
+				Node returnType = null;
+				if (state.fEndsWithTemplateArgs && !state.fCtorDtorConversion)
+					returnType = parseType();
+
+				List<Node> params = new ArrayList<>();
+				if (!consume('v')) {
+					while (!atEndOfEncoding()) {
+						params.add(parseType());
+					}
+				}
+				return new FunctionEncoding(returnType, name, params, state.fCV, state.fRef);
+			} finally {
+				fDepth--;
+			}
+		}
+
+		private Node parseSpecialName() {
+			if (consume('T')) {
+				switch (next()) {
+				case 'V':
+					return new Composite("vtable for ", parseType()); //$NON-NLS-1$
+				case 'T':
+					return new Composite("VTT for ", parseType()); //$NON-NLS-1$
+				case 'I':
+					return new Composite("typeinfo for ", parseType()); //$NON-NLS-1$
+				case 'S':
+					return new Composite("typeinfo name for ", parseType()); //$NON-NLS-1$
+				case 'h':
+					parseCallOffset('h');
+					return new Composite("non-virtual thunk to ", parseEncoding()); //$NON-NLS-1$
+				case 'v':
+					parseCallOffset('v');
+					return new Composite("virtual thunk to ", parseEncoding()); //$NON-NLS-1$
+				case 'c':
+					parseCallOffset(next());
+					parseCallOffset(next());
+					return new Composite("covariant return thunk to ", parseEncoding()); //$NON-NLS-1$
+				case 'C': {
+					Node derived = parseType();
+					parseNumber();
+					expect('_');
+					Node base = parseType();
+					return new Composite("construction vtable for ", base, "-in-", derived); //$NON-NLS-1$ //$NON-NLS-2$
+				}
+				case 'W':
+					return new Composite("TLS wrapper function for ", parseName(null)); //$NON-NLS-1$
+				case 'H':
+					return new Composite("TLS init function for ", parseName(null)); //$NON-NLS-1$
+				default:
+					throw fail();
+				}
+			}
+			expect('G');
+			if (consume('V'))
+				return new Composite("guard variable for ", parseName(null)); //$NON-NLS-1$
+			if (consume('R')) {
+				Node name = parseName(null);
+				int id = parseSeqId();
+				return new Composite("reference temporary #" + id + " for ", name); //$NON-NLS-1$ //$NON-NLS-2$
+			}
+			if (consume("Tt")) //$NON-NLS-1$
+				return new Composite("transaction clone for ", parseEncoding()); //$NON-NLS-1$
+			if (consume("Tn")) //$NON-NLS-1$
+				return new Composite("non-transaction clone for ", parseEncoding()); //$NON-NLS-1$
+			if (consume('A'))
+				return new Composite("hidden alias for ", parseEncoding()); //$NON-NLS-1$
+			throw fail();
+		}
+
+		// <call-offset> ::= h <nv-offset> _ | v <v-offset> _
+		private void parseCallOffset(char kind) {
+			if (kind == 'h') {
+				parseNumber();
+				expect('_');
+			} else if (kind == 'v') {
+				parseNumber();
+				expect('_');
+				parseNumber();
+				expect('_');
+			} else {
+				throw fail();
+			}
+		}
+
+		// <name> ::= <nested-name> | <local-name> | <unscoped-template-name> <template-args>
+		//        ::= <unscoped-name>
+		private Node parseName(NameState state) {
+			if (look(0) == 'N')
+				return parseNestedName(state);
+			if (look(0) == 'Z')
+				return parseLocalName(state);
+
+			if (look(0) == 'S' && look(1) != 't') {
+				Node substitution = parseSubstitution();
+				if (look(0) != 'I')
+					throw fail();
+				Node args = parseTemplateArgs();
+				if (state != null)
+					state.fEndsWithTemplateArgs = true;
+				return new NameWithTemplateArgs(substitution, args);
+			}
+
+			Node name = parseUnscopedName(state);
+			if (look(0) == 'I') {
+				fSubstitutions.add(name);
+				Node args = parseTemplateArgs();
+				if (state != null)
+					state.fEndsWithTemplateArgs = true;
+				name = new NameWithTemplateArgs(name, args);
+			}
+			return name;
+		}
+
+		// <unscoped-name> ::= <unqualified-name> | St <unqualified-name>
+		private Node parseUnscopedName(NameState state) {
+			boolean std = consume("St"); //$NON-NLS-1$
+			consume('L');
+			Node name = parseUnqualifiedName(state, null);
+			return std ? new NestedName(new NameNode("std"), name) : name; //$NON-NLS-1$
+		}
+
+		// <nested-name> ::= N [<CV-qualifiers>] [<ref-qualifier>] <prefix> <unqualified-name> E
+		//               ::= N [<CV-qualifiers>] [<ref-qualifier>] <template-prefix> <template-args> E
+		private Node parseNestedName(NameState state) {
+			expect('N');
+			int cv = parseCVQualifiers();
+			int ref = REF_NONE;
+			if (consume('O')) {
+				ref = REF_RVALUE;
+			} else if (consume('R')) {
+				ref = REF_LVALUE;
+			}
+			if (state != null) {
+				state.fCV = cv;
+				state.fRef = ref;
+			}
+
+			Node soFar = null;
+			if (consume("St")) //$NON-NLS-1$
+				soFar = new NameNode("std"); //$NON-NLS-1$
+			while (!consume('E')) {
+				consume('L');
+				if (consume('M')) {
+					// The closure type of a lambda in a default member initializer.
+					if (soFar == null)
+						throw fail();
+					continue;
+				}
+				final char c = look(0);
+				if (c == 'T') {
+					if (soFar != null)
+						throw fail();
+					soFar = parseTemplateParam();
+				} else if (c == 'I') {
+					if (soFar == null)
+						throw fail();
+					Node args = parseTemplateArgs();
+					if (state != null)
+						state.fEndsWithTemplateArgs = true;
+					soFar = new NameWithTemplateArgs(soFar, args);
+				} else if (c == 'D' && (look(1) == 't' || look(1) == 'T')) {
+					if (soFar != null)
+						throw fail();
+					soFar = parseDecltype();
+				} else if (c == 'S' && look(1) != 't') {
+					if (soFar != null)
+						throw fail();
+					soFar = parseSubstitution();
+					continue;
+				} else {
+					Node name = parseUnqualifiedName(state, soFar);
+					if (state != null)
+						state.fEndsWithTemplateArgs = false;
+					soFar = soFar == null ? name : new NestedName(soFar, name);
+				}
+				fSubstitutions.add(soFar);
+			}
+			if (soFar == null || fSubstitutions.isEmpty())
+				throw fail();
+			fSubstitutions.remove(fSubstitutions.size() - 1);
+			return soFar;
+		}
+
+		// <local-name> ::= Z <encoding> E <entity name> [<discriminator>]
+		//              ::= Z <encoding> E s [<discriminator>]
+		//              ::= Z <encoding> E d [<parameter number>] _ <entity name>
+		private Node parseLocalName(NameState state) {
+			expect('Z');
+			Node encoding = parseEncoding();
+			expect('E');
+			if (encoding instanceof FunctionEncoding) {
+				// Like c++filt omit the return type of the enclosing function.
+				FunctionEncoding function = (FunctionEncoding) encoding;
+				encoding = new FunctionEncoding(null, function.fName, function.fParams, function.fCV, function.fRef);
+			}
+			if (consume('s')) {
+				parseDiscriminator();
+				return new LocalName(encoding, new NameNode("string literal")); //$NON-NLS-1$
+			}
+			if (consume('d')) {
+				if (look(0) != '_')
+					parseNumber();
+				expect('_');
+				return new LocalName(encoding, parseName(state));
+			}
+			Node entity = parseName(state);
+			parseDiscriminator();
+			return new LocalName(encoding, entity);
+		}
+
+		// <discriminator> ::= _ <digit> | __ <number> _
+		private void parseDiscriminator() {
+			if (look(0) != '_')
+				return;
+			if (isDigit(look(1))) {
+				fPos += 2;
+			} else if (look(1) == '_' && isDigit(look(2))) {
+				fPos += 2;
+				parseNumber();
+				expect('_');
+			}
+		}
+
+		// <unqualified-name> ::= <operator-name> [<abi-tags>] | <ctor-dtor-name>
+		//                    ::= <source-name> [<abi-tags>] | <unnamed-type-name> | DC <source-name>+ E
+		private Node parseUnqualifiedName(NameState state, Node scope) {
+			final char c = look(0);
+			Node name;
+			if (isDigit(c)) {
+				name = parseSourceName();
+			} else if (c == 'U') {
+				name = parseUnnamedTypeName();
+			} else if (c == 'C' || (c == 'D' && isDigit(look(1)))) {
+				name = parseCtorDtorName(state, scope);
+			} else if (c == 'D' && look(1) == 'C') {
+				fPos += 2;
+				List<Node> names = new ArrayList<>();
+				while (!consume('E')) {
+					names.add(parseSourceName());
+				}
+				name = new Composite("[", new NodeList(names), "]"); //$NON-NLS-1$ //$NON-NLS-2$
+			} else if (isLower(c)) {
+				name = parseOperatorName(state);
+			} else {
+				throw fail();
+			}
+			return parseAbiTags(name);
+		}
+
+		private Node parseAbiTags(Node name) {
+			while (consume('B')) {
+				name = new AbiTagged(name, parseIdentifier());
+			}
+			return name;
+		}
+
+		private String parseIdentifier() {
+			final int length = parsePositiveNumber();
+			if (length == 0 || fPos + length > fInput.length())
+				throw fail();
+			String id = fInput.substring(fPos, fPos + length);
+			fPos += length;
+			return id;
+		}
+
+		// <source-name> ::= <positive length number> <identifier>
+		private Node parseSourceName() {
+			String id = parseIdentifier();
+			if (id.startsWith("_GLOBAL_") && id.length() > 9 //$NON-NLS-1$
+					&& (id.charAt(8) == '.' || id.charAt(8) == '_' || id.charAt(8) == '$') && id.charAt(9) == 'N')
+				return new NameNode("(anonymous namespace)"); //$NON-NLS-1$
+			return new NameNode(id);
+		}
+
+		// <unnamed-type-name> ::= Ut [<nonnegative number>] _
+		//                     ::= Ul <lambda-sig> E [<nonnegative number>] _
+		private Node parseUnnamedTypeName() {
+			if (consume("Ut")) { //$NON-NLS-1$
+				String count = look(0) == '_' ? "1" : Integer.toString(parsePositiveNumber() + 2); //$NON-NLS-1$
+				expect('_');
+				return new NameNode("{unnamed type#" + count + "}"); //$NON-NLS-1$ //$NON-NLS-2$
+			}
+			if (consume("Ul")) { //$NON-NLS-1$
+				List<Node> params = new ArrayList<>();
+				final boolean saved = fParsingLambdaParams;
+				fParsingLambdaParams = true;
+				try {
+					if (!consume('v')) {
+						while (look(0) != 'E') {
+							params.add(parseType());
+						}
+					}
+				} finally {
+					fParsingLambdaParams = saved;
+				}
+				expect('E');
+				String count = look(0) == '_' ? "1" : Integer.toString(parsePositiveNumber() + 2); //$NON-NLS-1$
+				expect('_');
+				return new Composite("{lambda(", new NodeList(params), ")#" + count + "}"); //$NON-NLS-1$ //$NON-NLS-2$ //$NON-NLS-3$
+			}
+			throw fail();
+		}
+
+		// <ctor-dtor-name> ::= C1 | C2 | C3 | C4 | C5 | CI1 <type> | CI2 <type> | D0 | D1 | D2 | D4 | D5
+		private Node parseCtorDtorName(NameState state, Node scope) {
+			if (scope == null || scope.getBaseName() == null)
+				throw fail();
+			if (state != null)
+				state.fCtorDtorConversion = true;
+			final boolean destructor = consume('D');
+			if (!destructor) {
+				expect('C');
+				boolean inheriting = consume('I');
+				if (!isDigit(look(0)))
+					throw fail();
+				fPos++;
+				if (inheriting)
+					parseName(null);
+				return new NameNode(scope.getBaseName());
+			}
+			fPos++;
+			return new NameNode("~" + scope.getBaseName()); //$NON-NLS-1$
+		}
+
+		private Node parseOperatorName(NameState state) {
+			if (consume("cv")) { //$NON-NLS-1$
+				final boolean savedTry = fTryTemplateArgs;
+				fTryTemplateArgs = false;
+				try {
+					Node type = parseType();
+					if (state != null)
+						state.fCtorDtorConversion = true;
+					return new Composite("operator ", type); //$NON-NLS-1$
+				} finally {
+					fTryTemplateArgs = savedTry;
+				}
+			}
+			if (consume("li")) //$NON-NLS-1$
+				return new NameNode("operator\"\" " + parseIdentifier()); //$NON-NLS-1$
+			if (consume('v') && isDigit(look(0))) {
+				fPos++;
+				return new NameNode("operator " + parseIdentifier()); //$NON-NLS-1$
+			}
+			if (fPos + 2 > fInput.length())
+				throw fail();
+			String op = OPERATORS.get(fInput.substring(fPos, fPos + 2));
+			if (op == null)
+				throw fail();
+			fPos += 2;
+			return new NameNode("operator" + op); //$NON-NLS-1$
+		}
+
+		// <CV-qualifiers> ::= [r] [V] [K]
+		private int parseCVQualifiers() {
+			int cv = 0;
+			if (consume('r'))
+				cv |= CV_RESTRICT;
+			if (consume('V'))
+				cv |= CV_VOLATILE;
+			if (consume('K'))
+				cv |= CV_CONST;
+			return cv;
+		}
+
+		// <template-args> ::= I <template-arg>+ E
+		private Node parseTemplateArgs() {
+			expect('I');
+			List<Node> args = new ArrayList<>();
+			while (!consume('E')) {
+				args.add(parseTemplateArg());
+			}
+			return new TemplateArgs(args);
+		}
+
+		// <template-arg> ::= <type> | X <expression> E | <expr-primary> | J <template-arg>* E
+		private Node parseTemplateArg() {
+			switch (look(0)) {
+			case 'X': {
+				fPos++;
+				Node expr = parseExpression();
+				expect('E');
+				return expr;
+			}
+			case 'J': {
+				fPos++;
+				List<Node> elements = new ArrayList<>();
+				while (!consume('E')) {
+					elements.add(parseTemplateArg());
+				}
+				return new PackNode(elements);
+			}
+			case 'L':
+				return parseExprPrimary();
+			default:
+				return parseType();
+			}
+		}
+
+		// <template-param> ::= T_ | T <parameter-2 non-negative number> _
+		private Node parseTemplateParam() {
+			expect('T');
+			final int index = look(0) == '_' ? 0 : parsePositiveNumber() + 1;
+			expect('_');
+			if (fParsingLambdaParams)
+				return new NameNode("auto:" + (index + 1)); //$NON-NLS-1$
+			return new TemplateParam(index);
+		}
+
+		// <substitution> ::= S_ | S <seq-id> _ | Sa | Sb | Ss | Si | So | Sd
+		private Node parseSubstitution() {
+			expect('S');
+			switch (look(0)) {
+			case 'a':
+				fPos++;
+				return new SpecialSubstitution("std::allocator", "allocator"); //$NON-NLS-1$ //$NON-NLS-2$
+			case 'b':
+				fPos++;
+				return new SpecialSubstitution("std::basic_string", "basic_string"); //$NON-NLS-1$ //$NON-NLS-2$
+			case 's':
+				fPos++;
+				return new SpecialSubstitution(
+						"std::basic_string<char, std::char_traits<char>, std::allocator<char> >", "basic_string"); //$NON-NLS-1$ //$NON-NLS-2$
+			case 'i':
+				fPos++;
+				return new SpecialSubstitution("std::basic_istream<char, std::char_traits<char> >", "basic_istream"); //$NON-NLS-1$ //$NON-NLS-2$
+			case 'o':
+				fPos++;
+				return new SpecialSubstitution("std::basic_ostream<char, std::char_traits<char> >", "basic_ostream"); //$NON-NLS-1$ //$NON-NLS-2$
+			case 'd':
+				fPos++;
+				return new SpecialSubstitution("std::basic_iostream<char, std::char_traits<char> >", "basic_iostream"); //$NON-NLS-1$ //$NON-NLS-2$
+			default:
+				final int id = parseSeqId();
+				if (id >= fSubstitutions.size())
+					throw fail();
+				return fSubstitutions.get(id);
+			}
+		}
+
+		private Node parseType() {
+			enter();
+			try {
+				return doParseType();
+			} finally {
+				fDepth--;
+			}
+		}
+
+		private Node doParseType() {
+			final char c = look(0);
+			Node result;
+			switch (c) {
+			case 'r':
+			case 'V':
+			case 'K': {
+				final int cv = parseCVQualifiers();
+				if (look(0) == 'F' || (look(0) == 'D' && "oOwx".indexOf(look(1)) >= 0)) { //$NON-NLS-1$
+					// The qualifiers are part of the function type, there is no separate substitution.
+					result = parseFunctionType(cv);
+				} else {
+					result = new QualifiedType(parseType(), cv);
+				}
+				break;
+			}
+			case 'U': {
+				fPos++;
+				String qualifier = parseIdentifier();
+				if (look(0) == 'I')
+					qualifier += parseTemplateArgs().toString();
+				Node child = parseType();
+				result = new Composite(child, " " + qualifier); //$NON-NLS-1$
+				break;
+			}
+			case 'u':
+				fPos++;
+				result = new NameNode(parseIdentifier());
+				break;
+			case 'D':
+				switch (look(1)) {
+				case 'p':
+					fPos += 2;
+					result = new PackExpansion(parseType());
+					break;
+				case 't':
+				case 'T':
+					result = parseDecltype();
+					break;
+				case 'v': {
+					fPos += 2;
+					String size = parseNumber();
+					expect('_');
+					result = new Composite(parseType(), " __vector(" + size + ")"); //$NON-NLS-1$ //$NON-NLS-2$
+					break;
+				}
+				case 'F': {
+					fPos += 2;
+					String bits = parseNumber();
+					expect('_');
+					return new NameNode("_Float" + bits); //$NON-NLS-1$
+				}
+				case 'o':
+				case 'O':
+				case 'w':
+				case 'x':
+					result = parseFunctionType(0);
+					break;
+				default:
+					String name = EXTENDED_BUILTIN_TYPES.get(Character.valueOf(look(1)));
+					if (name == null)
+						throw fail();
+					fPos += 2;
+					return new NameNode(name);
+				}
+				break;
+			case 'F':
+				result = parseFunctionType(0);
+				break;
+			case 'A':
+				result = parseArrayType();
+				break;
+			case 'M': {
+				fPos++;
+				Node cls = parseType();
+				Node member = parseType();
+				result = new PointerToMemberType(cls, member);
+				break;
+			}
+			case 'T': {
+				result = parseTemplateParam();
+				if (fTryTemplateArgs && look(0) == 'I') {
+					fSubstitutions.add(result);
+					result = new NameWithTemplateArgs(result, parseTemplateArgs());
+				}
+				break;
+			}
+			case 'P':
+				fPos++;
+				result = new PointerType(parseType(), "*"); //$NON-NLS-1$
+				break;
+			case 'R':
+				fPos++;
+				result = new PointerType(parseType(), "&"); //$NON-NLS-1$
+				break;
+			case 'O':
+				fPos++;
+				result = new PointerType(parseType(), "&&"); //$NON-NLS-1$
+				break;
+			case 'C':
+				fPos++;
+				result = new Composite(parseType(), " _Complex"); //$NON-NLS-1$
+				break;
+			case 'G':
+				fPos++;
+				result = new Composite(parseType(), " _Imaginary"); //$NON-NLS-1$
+				break;
+			case 'S':
+				if (look(1) != 't') {
+					result = parseSubstitution();
+					if (look(0) != 'I')
+						return result;
+					result = new NameWithTemplateArgs(result, parseTemplateArgs());
+					break;
+				}
+				result = parseName(null);
+				break;
+			default:
+				String builtin = BUILTIN_TYPES.get(Character.valueOf(c));
+				if (builtin != null) {
+					fPos++;
+					return new NameNode(builtin);
+				}
+				if (!isDigit(c) && c != 'N' && c != 'Z')
+					throw fail();
+				result = parseName(null);
+				break;
+			}
+			fSubstitutions.add(result);
+			return result;
+		}
+
+		// <function-type> ::= [<CV-qualifiers>] [<exception-spec>] [Dx] F [Y] <bare-function-type>
+		//                     [<ref-qualifier>] E
+		private Node parseFunctionType(int cv) {
+			String exceptionSpec = null;
+			if (consume("Do")) { //$NON-NLS-1$
+				exceptionSpec = " noexcept"; //$NON-NLS-1$
+			} else if (consume("DO")) { //$NON-NLS-1$
+				exceptionSpec = " noexcept(" + parseExpression() + ")"; //$NON-NLS-1$ //$NON-NLS-2$
+				expect('E');
+			} else if (consume("Dw")) { //$NON-NLS-1$
+				List<Node> types = new ArrayList<>();
+				while (!consume('E')) {
+					types.add(parseType());
+				}
+				exceptionSpec = " throw(" + new NodeList(types) + ")"; //$NON-NLS-1$ //$NON-NLS-2$
+			}
+			consume("Dx"); //$NON-NLS-1$
+			expect('F');
+			consume('Y');
+			Node returnType = parseType();
+			List<Node> params = new ArrayList<>();
+			int ref = REF_NONE;
+			while (!consume('E')) {
+				if (look(0) == 'v' && look(1) == 'E' && params.isEmpty()) {
+					fPos++;
+				} else if (look(0) == 'R' && look(1) == 'E') {
+					fPos++;
+					ref = REF_LVALUE;
+				} else if (look(0) == 'O' && look(1) == 'E') {
+					fPos++;
+					ref = REF_RVALUE;
+				} else {
+					params.add(parseType());
+				}
+			}
+			return new FunctionType(returnType, params, cv, ref, exceptionSpec);
+		}
+
+		// <array-type> ::= A <positive dimension number> _ <element type>
+		//              ::= A [<dimension expression>] _ <element type>
+		private Node parseArrayType() {
+			expect('A');
+			Node dimension = null;
+			if (isDigit(look(0))) {
+				dimension = new NameNode(parseNumber());
+			} else if (look(0) != '_') {
+				dimension = parseExpression();
+			}
+			expect('_');
+			return new ArrayType(parseType(), dimension);
+		}
+
+		// <decltype> ::= Dt <expression> E | DT <expression> E
+		private Node parseDecltype() {
+			expect('D');
+			if (!consume('t'))
+				expect('T');
+			Node expr = parseExpression();
+			expect('E');
+			return new Composite("decltype (", expr, ")"); //$NON-NLS-1$ //$NON-NLS-2$
+		}
+
+		// <expr-primary> ::= L <type> <value number> E | L <type> <value float> E | L <mangled-name> E
+		private Node parseExprPrimary() {
+			expect('L');
+			Node result;
+			if (consume("_Z") || consume('Z')) { //$NON-NLS-1$
+				result = parseEncoding();
+			} else if (consume("DnE")) { //$NON-NLS-1$
+				return new Literal("decltype(nullptr)"); //$NON-NLS-1$
+			} else if (consume("Dn0")) { //$NON-NLS-1$
+				result = new Literal("(decltype(nullptr))0"); //$NON-NLS-1$
+			} else {
+				final char c = look(0);
+				switch (c) {
+				case 'b':
+					fPos++;
+					if (consume('0')) {
+						result = new Literal("false"); //$NON-NLS-1$
+					} else if (consume('1')) {
+						result = new Literal("true"); //$NON-NLS-1$
+					} else {
+						throw fail();
+					}
+					break;
+				case 'i':
+				case 'j':
+				case 'l':
+				case 'm':
+				case 'x':
+				case 'y': {
+					fPos++;
+					String suffix = c == 'i' ? "" //$NON-NLS-1$
+							: c == 'j' ? "u" : c == 'l' ? "l" : c == 'm' ? "ul" : c == 'x' ? "ll" : "ull"; //$NON-NLS-1$ //$NON-NLS-2$ //$NON-NLS-3$ //$NON-NLS-4$ //$NON-NLS-5$
+					result = new Literal(parseNumber() + suffix);
+					break;
+				}
+				case 'f':
+				case 'd':
+				case 'e': {
+					fPos++;
+					final int start = fPos;
+					while (look(0) != 'E' && look(0) != 0) {
+						fPos++;
+					}
+					result = new Literal("(" + BUILTIN_TYPES.get(Character.valueOf(c)) + ")[" //$NON-NLS-1$ //$NON-NLS-2$
+							+ fInput.substring(start, fPos) + "]"); //$NON-NLS-1$
+					break;
+				}
+				default:
+					Node type = parseType();
+					result = new Composite("(", type, ")" + parseNumber()); //$NON-NLS-1$ //$NON-NLS-2$
+					break;
+				}
+			}
+			expect('E');
+			return result;
+		}
+
+		private Node parseExpression() {
+			enter();
+			try {
+				return doParseExpression();
+			} finally {
+				fDepth--;
+			}
+		}
+
+		private Node doParseExpression() {
+			final char c = look(0);
+			if (c == 'L')
+				return parseExprPrimary();
+			if (c == 'T')
+				return parseTemplateParam();
+			if (c == 'f' && (look(1) == 'p' || look(1) == 'L'))
+				return parseFunctionParam();
+			if (isDigit(c) || (c == 's' && look(1) == 'r') || (c == 'g' && look(1) == 's')
+					|| (c == 'o' && look(1) == 'n') || (c == 'd' && look(1) == 'n'))
+				return parseUnresolvedName();
+			if (fPos + 2 > fInput.length())
+				throw fail();
+
+			final String code = fInput.substring(fPos, fPos + 2);
+			fPos += 2;
+			switch (code) {
+			case "st": //$NON-NLS-1$
+				return new Composite("sizeof (", parseType(), ")"); //$NON-NLS-1$ //$NON-NLS-2$
+			case "sz": //$NON-NLS-1$
+				return new Composite("sizeof (", parseExpression(), ")"); //$NON-NLS-1$ //$NON-NLS-2$
+			case "at": //$NON-NLS-1$
+				return new Composite("alignof (", parseType(), ")"); //$NON-NLS-1$ //$NON-NLS-2$
+			case "az": //$NON-NLS-1$
+				return new Composite("alignof (", parseExpression(), ")"); //$NON-NLS-1$ //$NON-NLS-2$
+			case "sZ": //$NON-NLS-1$
+				return new Composite("sizeof...(", look(0) == 'T' ? parseTemplateParam() : parseFunctionParam(), ")"); //$NON-NLS-1$ //$NON-NLS-2$
+			case "sp": //$NON-NLS-1$
+				return new PackExpansion(parseExpression());
+			case "tw": //$NON-NLS-1$
+				return new Composite("throw ", parseExpression()); //$NON-NLS-1$
+			case "tr": //$NON-NLS-1$
+				return new NameNode("throw"); //$NON-NLS-1$
+			case "te": //$NON-NLS-1$
+				return new Composite("typeid (", parseExpression(), ")"); //$NON-NLS-1$ //$NON-NLS-2$
+			case "ti": //$NON-NLS-1$
+				return new Composite("typeid (", parseType(), ")"); //$NON-NLS-1$ //$NON-NLS-2$
+			case "nx": //$NON-NLS-1$
+				return new Composite("noexcept (", parseExpression(), ")"); //$NON-NLS-1$ //$NON-NLS-2$
+			case "sc": //$NON-NLS-1$
+			case "dc": //$NON-NLS-1$
+			case "cc": //$NON-NLS-1$
+			case "rc": { //$NON-NLS-1$
+				String cast = code.equals("sc") ? "static_cast" : code.equals("dc") ? "dynamic_cast" //$NON-NLS-1$ //$NON-NLS-2$ //$NON-NLS-3$ //$NON-NLS-4$
+						: code.equals("cc") ? "const_cast" : "reinterpret_cast"; //$NON-NLS-1$ //$NON-NLS-2$ //$NON-NLS-3$
+				Node type = parseType();
+				return new Composite(cast + "<", type, ">(", parseExpression(), ")"); //$NON-NLS-1$ //$NON-NLS-2$ //$NON-NLS-3$
+			}
+			case "cv": { //$NON-NLS-1$
+				Node type = parseType();
+				if (consume('_')) {
+					List<Node> args = new ArrayList<>();
+					while (!consume('E')) {
+						args.add(parseExpression());
+					}
+					return new Composite(type, "(", new NodeList(args), ")"); //$NON-NLS-1$ //$NON-NLS-2$
+				}
+				return new Composite("(", type, ")", operand(parseExpression())); //$NON-NLS-1$ //$NON-NLS-2$
+			}
+			case "cl": { //$NON-NLS-1$
+				Node function = operand(parseExpression());
+				List<Node> args = new ArrayList<>();
+				while (!consume('E')) {
+					args.add(parseExpression());
+				}
+				return new Composite(function, "(", new NodeList(args), ")"); //$NON-NLS-1$ //$NON-NLS-2$
+			}
+			case "dt": //$NON-NLS-1$
+				return new Composite(operand(parseExpression()), ".", parseUnresolvedName()); //$NON-NLS-1$
+			case "pt": //$NON-NLS-1$
+				return new Composite(operand(parseExpression()), "->", parseUnresolvedName()); //$NON-NLS-1$
+			case "ds": //$NON-NLS-1$
+				Node object = operand(parseExpression());
+				return new Composite(object, ".*", operand(parseExpression())); //$NON-NLS-1$
+			case "qu": { //$NON-NLS-1$
+				Node condition = operand(parseExpression());
+				Node then = operand(parseExpression());
+				return new Composite(condition, "?", then, ":", operand(parseExpression())); //$NON-NLS-1$ //$NON-NLS-2$
+			}
+			case "ix": { //$NON-NLS-1$
+				Node array = operand(parseExpression());
+				return new Composite(array, "[", parseExpression(), "]"); //$NON-NLS-1$ //$NON-NLS-2$
+			}
+			default:
+				break;
+			}
+			String prefix = PREFIX_OPERATORS.get(code);
+			if (prefix != null) {
+				if ((code.equals("pp") || code.equals("mm")) && !consume('_')) //$NON-NLS-1$ //$NON-NLS-2$
+					return new Composite(operand(parseExpression()), prefix);
+				Node operand = parseExpression();
+				if (code.equals("ad") && operand instanceof FunctionEncoding //$NON-NLS-1$
+						&& ((FunctionEncoding) operand).fName instanceof NestedName) {
+					// A pointer to member function is printed without the parameters.
+					operand = ((FunctionEncoding) operand).fName;
+				}
+				return new Composite(prefix, operand(operand));
+			}
+			String binary = BINARY_OPERATORS.get(code);
+			if (binary != null) {
+				Node left = operand(parseExpression());
+				Node right = operand(parseExpression());
+				// A '>' would end the template argument list.
+				if (binary.indexOf('>') >= 0)
+					return new Composite("(", left, binary, right, ")"); //$NON-NLS-1$ //$NON-NLS-2$
+				return new Composite(left, binary, right);
+			}
+			throw fail();
+		}
+
+		/**
+		 * Encloses an operand of an expression in parentheses, unless it is a name.
+		 */
+		private static Node operand(Node expr) {
+			if (expr instanceof NameNode || expr instanceof NestedName)
+				return expr;
+			return new Composite("(", expr, ")"); //$NON-NLS-1$ //$NON-NLS-2$
+		}
+
+		// <function-param> ::= fp <CV-qualifiers> _ | fp <CV-qualifiers> <number> _
+		//                  ::= fL <number> p <CV-qualifiers> [<number>] _
+		private Node parseFunctionParam() {
+			if (consume("fL")) { //$NON-NLS-1$
+				parseNumber();
+				expect('p');
+			} else if (!consume("fp")) { //$NON-NLS-1$
+				throw fail();
+			}
+			parseCVQualifiers();
+			final int index = look(0) == '_' ? 1 : parsePositiveNumber() + 2;
+			expect('_');
+			return new NameNode("{parm#" + index + "}"); //$NON-NLS-1$ //$NON-NLS-2$
+		}
+
+		// <unresolved-name> ::= [gs] <base-unresolved-name>
+		//                   ::= sr <unresolved-type> <base-unresolved-name>
+		//                   ::= srN <unresolved-type> <unresolved-qualifier-level>+ E <base-unresolved-name>
+		//                   ::= [gs] sr <unresolved-qualifier-level>+ E <base-unresolved-name>
+		private Node parseUnresolvedName() {
+			final boolean global = consume("gs"); //$NON-NLS-1$
+			Node result;
+			if (consume("sr")) { //$NON-NLS-1$
+				Node qualifier;
+				if (consume('N')) {
+					qualifier = parseUnresolvedType();
+					while (!consume('E')) {
+						qualifier = new NestedName(qualifier, parseSimpleId());
+					}
+				} else if (isDigit(look(0))) {
+					qualifier = parseSimpleId();
+					while (!consume('E')) {
+						qualifier = new NestedName(qualifier, parseSimpleId());
+					}
+				} else {
+					// Like c++filt accept any type, GCC uses e.g. srSt7is_sameIT_T0_E5value.
+					qualifier = parseType();
+				}
+				result = new NestedName(qualifier, parseBaseUnresolvedName());
+			} else {
+				result = parseBaseUnresolvedName();
+			}
+			return global ? new Composite("::", result) : result; //$NON-NLS-1$
+		}
+
+		// <unresolved-type> ::= <template-param> [<template-args>] | <decltype> | <substitution>
+		private Node parseUnresolvedType() {
+			Node type;
+			if (look(0) == 'T') {
+				type = parseTemplateParam();
+				fSubstitutions.add(type);
+			} else if (look(0) == 'D') {
+				type = parseDecltype();
+				fSubstitutions.add(type);
+			} else if (look(0) == 'S') {
+				type = parseSubstitution();
+			} else {
+				throw fail();
+			}
+			if (look(0) == 'I')
+				type = new NameWithTemplateArgs(type, parseTemplateArgs());
+			return type;
+		}
+
+		// <simple-id> ::= <source-name> [<template-args>]
+		private Node parseSimpleId() {
+			Node name = parseSourceName();
+			if (look(0) == 'I')
+				name = new NameWithTemplateArgs(name, parseTemplateArgs());
+			return name;
+		}
+
+		// <base-unresolved-name> ::= <simple-id> | on <operator-name> [<template-args>]
+		//                        ::= dn <destructor-name>
+		private Node parseBaseUnresolvedName() {
+			if (isDigit(look(0)))
+				return parseSimpleId();
+			if (consume("dn")) { //$NON-NLS-1$
+				Node name = isDigit(look(0)) ? parseSimpleId() : parseUnresolvedType();
+				return new Composite("~", name); //$NON-NLS-1$
+			}
+			consume("on"); //$NON-NLS-1$
+			Node name = parseOperatorName(null);
+			if (look(0) == 'I')
+				name = new NameWithTemplateArgs(name, parseTemplateArgs());
+			return name;
+		}
+	}
+}
@@ -51,6 +51,8 @@ public class Dwarf {
 	final static String DWARF_DEBUG_LOC = ".debug_loc"; //$NON-NLS-1$
 	final static String DWARF_DEBUG_PUBNAMES = ".debug_pubnames"; //$NON-NLS-1$
 	final static String DWARF_DEBUG_STR = ".debug_str"; //$NON-NLS-1$
+	final static String DWARF_DEBUG_STR_OFFSETS = ".debug_str_offsets"; //$NON-NLS-1$
+	final static String DWARF_DEBUG_LINE_STR = ".debug_line_str"; //$NON-NLS-1$
 	final static String DWARF_DEBUG_FUNCNAMES = ".debug_funcnames"; //$NON-NLS-1$
 	final static String DWARF_DEBUG_TYPENAMES = ".debug_typenames"; //$NON-NLS-1$
 	final static String DWARF_DEBUG_VARNAMES = ".debug_varnames"; //$NON-NLS-1$
@@ -64,7 +66,7 @@ public class Dwarf {
 	final static String[] DWARF_SCNNAMES = { DWARF_DEBUG_INFO, DWARF_DEBUG_ABBREV, DWARF_DEBUG_ARANGES,
 			DWARF_DEBUG_LINE, DWARF_DEBUG_FRAME, DWARF_EH_FRAME, DWARF_DEBUG_LOC, DWARF_DEBUG_PUBNAMES, DWARF_DEBUG_STR,
 			DWARF_DEBUG_FUNCNAMES, DWARF_DEBUG_TYPENAMES, DWARF_DEBUG_VARNAMES, DWARF_DEBUG_WEAKNAMES,
-			DWARF_DEBUG_MACINFO };
+			DWARF_DEBUG_MACINFO, DWARF_DEBUG_STR_OFFSETS, DWARF_DEBUG_LINE_STR };
 
 	final static String[] DWARF_ALT_SCNNAMES = { DWARF_DEBUG_INFO, DWARF_DEBUG_TYPES, DWARF_DEBUG_MACRO,
 			DWARF_DEBUG_STR, };
@@ -72,6 +72,10 @@ public class DwarfConstants {
 	 * @since 5.7
 	 */
 	public final static int DW_TAG_partial_unit = 0x3c;
+	/**
+	 * @since 7.0
+	 */
+	public final static int DW_TAG_skeleton_unit = 0x4a;
 	public final static int DW_TAG_lo_user = 0x4080;
 	public final static int DW_TAG_MIPS_loop = 0x4081;
 	public final static int DW_TAG_format_label = 0x4101;
@@ -146,6 +150,10 @@ public class DwarfConstants {
 	public final static int DW_AT_variable_parameter = 0x4b;
 	public final static int DW_AT_virtuality = 0x4c;
 	public final static int DW_AT_vtable_elem_location = 0x4d;
+	/**
+	 * @since 7.0
+	 */
+	public final static int DW_AT_str_offsets_base = 0x72;
 	public final static int DW_AT_lo_user = 0x2000;
 	public final static int DW_AT_MIPS_fde = 0x2001;
 	public final static int DW_AT_MIPS_loop_begin = 0x2002;
@@ -207,10 +215,82 @@ public class DwarfConstants {
 	 * @since 5.7
 	 */
 	public final static int DW_FORM_flag_present = 0x19;
+	/**
+	 * @since 7.0
+	 */
+	public final static int DW_FORM_strx = 0x1a;
+	/**
+	 * @since 7.0
+	 */
+	public final static int DW_FORM_addrx = 0x1b;
+	/**
+	 * @since 7.0
+	 */
+	public final static int DW_FORM_ref_sup4 = 0x1c;
+	/**
+	 * @since 7.0
+	 */
+	public final static int DW_FORM_strp_sup = 0x1d;
+	/**
+	 * @since 7.0
+	 */
+	public final static int DW_FORM_data16 = 0x1e;
+	/**
+	 * @since 7.0
+	 */
+	public final static int DW_FORM_line_strp = 0x1f;
 	/**
 	 * @since 5.7
 	 */
 	public final static int DW_FORM_ref_sig8 = 0x20;
+	/**
+	 * @since 7.0
+	 */
+	public final static int DW_FORM_implicit_const = 0x21;
+	/**
+	 * @since 7.0
+	 */
+	public final static int DW_FORM_loclistx = 0x22;
+	/**
+	 * @since 7.0
+	 */
+	public final static int DW_FORM_rnglistx = 0x23;
+	/**
+	 * @since 7.0
+	 */
+	public final static int DW_FORM_ref_sup8 = 0x24;
+	/**
+	 * @since 7.0
+	 */
+	public final static int DW_FORM_strx1 = 0x25;
+	/**
+	 * @since 7.0
+	 */
+	public final static int DW_FORM_strx2 = 0x26;
+	/**
+	 * @since 7.0
+	 */
+	public final static int DW_FORM_strx3 = 0x27;
+	/**
+	 * @since 7.0
+	 */
+	public final static int DW_FORM_strx4 = 0x28;
+	/**
+	 * @since 7.0
+	 */
+	public final static int DW_FORM_addrx1 = 0x29;
+	/**
+	 * @since 7.0
+	 */
+	public final static int DW_FORM_addrx2 = 0x2a;
+	/**
+	 * @since 7.0
+	 */
+	public final static int DW_FORM_addrx3 = 0x2b;
+	/**
+	 * @since 7.0
+	 */
+	public final static int DW_FORM_addrx4 = 0x2c;
 	/* Extensions for Fission. See http://gcc.gnu.org/wiki/DebugFission. */
 	/**
 	 * @since 5.7
@@ -479,6 +559,54 @@ public class DwarfConstants {
 	public final static int DW_LNE_set_address = 2;
 	public final static int DW_LNE_define_file = 3;
 
+	/* DWARF line number header entry format encodings. */
+	/**
+	 * @since 7.0
+	 */
+	public final static int DW_LNCT_path = 1;
+	/**
+	 * @since 7.0
+	 */
+	public final static int DW_LNCT_directory_index = 2;
+	/**
+	 * @since 7.0
+	 */
+	public final static int DW_LNCT_timestamp = 3;
+	/**
+	 * @since 7.0
+	 */
+	public final static int DW_LNCT_size = 4;
+	/**
+	 * @since 7.0
+	 */
+	public final static int DW_LNCT_MD5 = 5;
+
+	/* DWARF unit header type encodings. */
+	/**
+	 * @since 7.0
+	 */
+	public final static int DW_UT_compile = 1;
+	/**
+	 * @since 7.0
+	 */
+	public final static int DW_UT_type = 2;
+	/**
+	 * @since 7.0
+	 */
+	public final static int DW_UT_partial = 3;
+	/**
+	 * @since 7.0
+	 */
+	public final static int DW_UT_skeleton = 4;
+	/**
+	 * @since 7.0
+	 */
+	public final static int DW_UT_split_compile = 5;
+	/**
+	 * @since 7.0
+	 */
+	public final static int DW_UT_split_type = 6;
+
 	/* DWARF macinfo type encodings. */
 	public final static int DW_MACINFO_define = 1;
 	public final static int DW_MACINFO_undef = 2;
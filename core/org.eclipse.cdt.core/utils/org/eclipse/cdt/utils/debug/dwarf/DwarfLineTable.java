@@ -0,0 +1,139 @@
+/*******************************************************************************
+ * Copyright (c) 2026 Eclipse CDT contributors and others.
+ *
+ * This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License 2.0
+ * which accompanies this distribution, and is available at
+ * https://www.eclipse.org/legal/epl-2.0/
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ *******************************************************************************/
+package org.eclipse.cdt.utils.debug.dwarf;
+
+import org.eclipse.cdt.internal.core.SortedKeys;
+
+/**
+ * The rows of the line tables of an executable, which map addresses to source lines.
+ * <p>
+ * The rows of all line number programs are sorted by address and stored in primitive arrays, a
+ * row covers the addresses up to the address of the next row. The ends of the sequences of the
+ * programs are rows as well, they cover the addresses without line information. Rows that do not
+ * change the file or the line of the previous row of their sequence are omitted.
+ * <p>
+ * The table is immutable and may be accessed by multiple threads.
+ *
+ * @see DwarfReader#getLineTable()
+ * @since 7.0
+ */
+public final class DwarfLineTable {
+	/** The file index of the rows that end a sequence. */
+	static final int END_OF_SEQUENCE = -1;
+	/** The file index of the rows whose file is unknown. */
+	static final int NO_FILE = -2;
+
+	/** The addresses of the rows with the sign bit flipped, sorted. */
+	private final long[] fKeys;
+	private final int[] fFileIndexes;
+	private final int[] fLines;
+	private final String[] fFileNames;
+
+	/**
+	 * Creates a table of the given rows, the arrays are sorted in place.
+	 *
+	 * @param addresses the addresses of the rows.
+	 * @param fileIndexes the indexes of the files of the rows into the file names,
+	 *     {@link #END_OF_SEQUENCE} or {@link #NO_FILE}.
+	 * @param lines the line numbers of the rows.
+	 * @param fileNames the full names of the files.
+	 */
+	DwarfLineTable(long[] addresses, int[] fileIndexes, int[] lines, String[] fileNames) {
+		// The ends of sequences precede the other rows with the same address, such that a sequence
+		// starting at the end of another one is found.
+		int[] ranks = new int[addresses.length];
+		for (int i = 0; i < addresses.length; i++) {
+			addresses[i] ^= Long.MIN_VALUE;
+			ranks[i] = fileIndexes[i] == END_OF_SEQUENCE ? 0 : 1;
+		}
+		SortedKeys.sort(addresses, ranks, fileIndexes, lines);
+		fKeys = addresses;
+		fFileIndexes = fileIndexes;
+		fLines = lines;
+		fFileNames = fileNames;
+	}
+
+	/**
+	 * Returns the number of rows of the table.
+	 */
+	public int getRowCount() {
+		return fKeys.length;
+	}
+
+	/**
+	 * Returns the index of the row covering the given address, or {@code -1} if there is no
+	 * line information for the address.
+	 *
+	 * @param address the address, interpreted as an unsigned number.
+	 */
+	public int findRow(long address) {
+		return toRow(SortedKeys.findLastLessOrEqual(fKeys, address ^ Long.MIN_VALUE));
+	}
+
+	/**
+	 * Returns the indexes of the rows covering the given addresses, {@code -1} for the addresses
+	 * without line information. Lookups are fastest when the addresses are sorted.
+	 *
+	 * @param addresses the addresses, interpreted as unsigned numbers.
+	 */
+	public int[] findRows(long[] addresses) {
+		int[] rows = new int[addresses.length];
+		long previousKey = Long.MIN_VALUE;
+		int previousPos = 0;
+		for (int i = 0; i < addresses.length; i++) {
+			final long key = addresses[i] ^ Long.MIN_VALUE;
+			// For ascending addresses, the search is restricted to the rows following the
+			// previous result.
+			final int from = key >= previousKey ? Math.max(previousPos, 0) : 0;
+			final int pos = SortedKeys.findLastLessOrEqual(fKeys, from, fKeys.length, key);
+			rows[i] = toRow(pos);
+			previousKey = key;
+			previousPos = pos;
+		}
+		return rows;
+	}
+
+	private int toRow(int pos) {
+		return pos < 0 || fFileIndexes[pos] == END_OF_SEQUENCE ? -1 : pos;
+	}
+
+	/**
+	 * Returns the start address of the given row.
+	 */
+	public long getAddress(int row) {
+		return fKeys[row] ^ Long.MIN_VALUE;
+	}
+
+	/**
+	 * Returns the full name of the source file of the given row, or {@code null} if the file is
+	 * not known.
+	 */
+	public String getFileName(int row) {
+		final int fileIndex = fFileIndexes[row];
+		return fileIndex >= 0 ? fFileNames[fileIndex] : null;
+	}
+
+	/**
+	 * Returns the line number of the given row, {@code 0} if the row has no line.
+	 */
+	public int getLineNumber(int row) {
+		return fLines[row];
+	}
+
+	/**
+	 * Returns the row following the given one in its sequence, or {@code -1} if the row is the
+	 * last row of its sequence.
+	 */
+	public int getNextRow(int row) {
+		final int next = row + 1;
+		return next < fKeys.length && fFileIndexes[next] != END_OF_SEQUENCE ? next : -1;
+	}
+}
@@ -52,7 +52,7 @@ public class DwarfReader extends Dwarf implements ISymbolReader, ICompileOptions
 	// These are sections that need be parsed to get the source file list.
 	final static String[] DWARF_SectionsToParse = { DWARF_DEBUG_INFO, DWARF_DEBUG_LINE, DWARF_DEBUG_ABBREV,
 			DWARF_DEBUG_STR, // this is optional. Some compilers don't generate it.
-			DWARF_DEBUG_MACRO, };
+			DWARF_DEBUG_MACRO, DWARF_DEBUG_STR_OFFSETS, DWARF_DEBUG_LINE_STR, };
 
 	final static String[] DWARF_ALT_SectionsToParse = { DWARF_DEBUG_STR, DWARF_DEBUG_MACRO };
 
@@ -63,7 +63,9 @@ public class DwarfReader extends Dwarf implements ISymbolReader, ICompileOptions
 	private boolean m_parsed = false;
 	private boolean m_macros_parsed = false;
 	private final ArrayList<Integer> m_parsedLineTableOffsets = new ArrayList<>();
-	private long m_parsedLineTableSize = 0;
+	// The GNU build-id of the executable as a hex string, or null.
+	private String m_buildId = null;
+	private DwarfLineTable m_lineTable = null;
 
 	public DwarfReader(String file) throws IOException {
 		super(file);
@@ -128,6 +130,7 @@ public class DwarfReader extends Dwarf implements ISymbolReader, ICompileOptions
 							// The build-id location is taken by converting the binary bytes to hex string.
 							// The first byte is used as a directory specifier (e.g. 51/a4578fe2).
 							String bName = DatatypeConverter.printHexBinary(byteArray).toLowerCase();
+							m_buildId = bName;
 							buildId = bName.substring(0, 2) + "/" + bName.substring(2) + ".debug"; //$NON-NLS-1$ //$NON-NLS-2$
 							// The build-id file should be in the special directory /usr/lib/debug/.build-id
 							IPath buildIdPath = new Path("/usr/lib/debug/.build-id").append(buildId); //$NON-NLS-1$
@@ -322,7 +325,6 @@ public class DwarfReader extends Dwarf implements ISymbolReader, ICompileOptions
 					// Note the length does not including the "length" field(s) itself.
 					InitialLengthValue length = readInitialLengthField(data);
 					dwarf64Bit = length.offsetSize == 8;
-					m_parsedLineTableSize += length.length + (dwarf64Bit ? 12 : 4);
 				} else {
 					// Compiler like ARM RVCT may produce several CUs for the
 					// same source files.
@@ -388,157 +390,33 @@ public class DwarfReader extends Dwarf implements ISymbolReader, ICompileOptions
 	}
 
 	/*
-	 * Check if there are any line tables in .debug_line section that are
-	 * not referenced by any TAG_compile_units. If yes, add source files
-	 * in those table entries to our "m_fileCollection".
-	 * If the compiler/linker is fully dwarf standard compliant, that should
-	 * not happen. But that case does exist, hence this workaround.
-	 * .................. LWang. 08/24/07
+	 * Get source file names from the compile units (CU) in .debug_info section and from
+	 * the line tables in .debug_line section, see DwarfSourceFileReader.
+	 *
+	 * The file names are cached on disk by the build-id of the executable.
 	 */
-	private void getSourceFilesFromDebugLineSection() {
-		ByteBuffer data = dwarfSections.get(DWARF_DEBUG_LINE);
-		if (data == null)
-			return;
-
-		int sectionSize = data.capacity();
-		int minHeaderSize = 16;
-
-		// Check if there is data in .debug_line section that is not parsed
-		// yet by parseSourceInCULineInfo().
-		if (m_parsedLineTableSize >= sectionSize - minHeaderSize)
-			return;
-
-		// The .debug_line section contains a list of line tables
-		// for compile_units. We'll iterate through all line tables
-		// in the section.
-		/*
-		 * Line table header for one compile_unit:
-		 *
-		 * total_length: 			4/12 bytes (excluding itself)
-		 * version:					2
-		 * prologue length:			4/8 bytes (depending on section version)
-		 * minimum_instruction_len: 1
-		 * maximum_operations_per_instruction 1 - it is defined for version >= 4
-		 * default_is_stmt:			1
-		 * line_base:				1
-		 * line_range:				1
-		 * opcode_base:				1
-		 * standard_opcode_lengths: (value of opcode_base)		 */
-
-		int lineTableStart = 0; // offset in the .debug_line section
-
-		try {
-			while (lineTableStart < sectionSize - minHeaderSize) {
-				data.position(lineTableStart);
-
-				Integer currLineTableStart = Integer.valueOf(lineTableStart);
-
-				// Read length of the line table for one compile unit
-				// Note the length does not including the "length" field(s) itself.
-				InitialLengthValue sectionLength = readInitialLengthField(data);
-
-				// Record start of next CU line table
-				boolean dwarf64Bit = sectionLength.offsetSize == 8;
-				lineTableStart += (int) (sectionLength.length + (dwarf64Bit ? 12 : 4));
-
-				m_parsedLineTableSize += sectionLength.length + (dwarf64Bit ? 12 : 4);
-
-				// According to Dwarf standard, the "tableLength" should cover the
-				// the whole CU line table. But some compilers (e.g. ARM RVCT 2.2)
-				// produce extra padding (1 to 3 bytes) beyond that in order for
-				// "lineTableStart" to be aligned at multiple of 4. The padding
-				// bytes are beyond the "tableLength" and not indicated by
-				// any flag, which I believe is not Dwarf2 standard compliant.
-				// How to determine if that type of padding exists ?
-				// I don't have a 100% safe way. But following hacking seems
-				// good enough in practice.........08/26/07
-				if (lineTableStart < sectionSize - minHeaderSize && (lineTableStart & 0x3) != 0) {
-					int savedPosition = data.position();
-					data.position(lineTableStart);
-
-					long ltLength = dwarf64Bit ? read_8_bytes(data) : read_4_bytes(data);
-
-					int dwarfVer = read_2_bytes(data);
-					int minInstLengh = data.get(data.position() + (dwarf64Bit ? 8 : 4));
-
-					boolean dataValid = ltLength > minHeaderSize && ltLength < 16 * 64 * 1024 && // One source file has that much line data ?
-							dwarfVer > 0 && dwarfVer < 5 && // ver 5 is still draft at present.
-							minInstLengh > 0 && minInstLengh <= 8;
-
-					if (!dataValid) // padding exists !
-						lineTableStart = (lineTableStart + 3) & ~0x3;
-
-					data.position(savedPosition);
-				}
-
-				if (m_parsedLineTableOffsets.contains(currLineTableStart))
-					// current line table has already been parsed, skip it.
-					continue;
-
-				short version = read_2_bytes(data);
-
-				// Skip following fields till "opcode_base"
-				short skip_bytes = 8;
-				if (version >= 4)
-					skip_bytes += 1; // see maximum_operations_per_instruction
-				if (dwarf64Bit)
-					skip_bytes += 4; // see prologue length for 64-bit DWARF format
-				data.position(data.position() + skip_bytes);
-				int opcode_base = data.get();
-				data.position(data.position() + opcode_base - 1);
-
-				// Read in directories.
-				//
-				ArrayList<String> dirList = new ArrayList<>();
-
-				String str, fileName;
-
-				// first dir should be TAG_comp_dir from CU, which we don't have here.
-				dirList.add(""); //$NON-NLS-1$
-
-				while (true) {
-					str = readString(data);
-					if (str.length() == 0)
-						break;
-					dirList.add(str);
-				}
-
-				// Read file names
-				//
-				long leb128;
-				while (true) {
-					fileName = readString(data);
-					if (fileName.length() == 0) // no more file entry
-						break;
-
-					// dir index. Note "0" is reserved for compilation directory.
-					leb128 = read_unsigned_leb128(data);
-
-					addSourceFile(dirList.get((int) leb128), fileName);
-
-					// Skip the followings
-					//
-					// modification time
-					leb128 = read_unsigned_leb128(data);
-
-					// file size in bytes
-					leb128 = read_unsigned_leb128(data);
-				}
-			}
-		} catch (IOException e) {
-			e.printStackTrace();
-			return;
-		}
-	}
-
 	@Override
 	public String[] getSourceFiles() {
 		if (!m_parsed) {
 			m_fileCollection.clear();
 
-			getSourceFilesFromDebugInfoSection();
-
-			getSourceFilesFromDebugLineSection();
+			File cacheFile = getSourceFilesCacheFile();
+			DwarfSourceFileReader.SourceFiles sourceFiles = null;
+			if (cacheFile != null)
+				sourceFiles = DwarfSourceFileReader.SourceFiles.load(cacheFile);
+			if (sourceFiles == null) {
+				sourceFiles = new DwarfSourceFileReader(dwarfSections, dwarfAltSections, isLE).read();
+				// Don't cache an empty result, the debug info may be installed separately later.
+				if (cacheFile != null && !sourceFiles.files.isEmpty()) {
+					try {
+						sourceFiles.store(cacheFile);
+					} catch (IOException e) {
+						CCorePlugin.log(e);
+					}
+				}
+			}
+			m_fileCollection.addAll(sourceFiles.files);
+			m_stmtFileMap.putAll(sourceFiles.stmtFiles);
 
 			m_parsed = true;
 
@@ -549,16 +427,28 @@ public class DwarfReader extends Dwarf implements ISymbolReader, ICompileOptions
 		return m_fileNames;
 	}
 
-	/*
-	 * Get source file names from compile units (CU) in .debug_info section,
-	 * which will also search line table for the CU in .debug_line section.
+	/**
+	 * Returns the line table of the executable, which maps addresses to source lines. The line
+	 * number programs of {@code .debug_line} are decoded on the first call.
 	 *
-	 * The file names are stored in member "m_fileCollection".
+	 * @since 7.0
 	 */
-	private void getSourceFilesFromDebugInfoSection() {
-		// This will parse the data in .debug_info section which
-		// will call this->processCompileUnit() to get source files.
-		parse(null);
+	public synchronized DwarfLineTable getLineTable() {
+		if (m_lineTable == null)
+			m_lineTable = new DwarfSourceFileReader(dwarfSections, dwarfAltSections, isLE).readLineTable();
+		return m_lineTable;
+	}
+
+	private File getSourceFilesCacheFile() {
+		CCorePlugin plugin = CCorePlugin.getDefault();
+		if (m_buildId == null || m_buildId.isEmpty() || plugin == null)
+			return null;
+		try {
+			return plugin.getStateLocation().append("dwarfSourceFiles").append(m_buildId).toFile(); //$NON-NLS-1$
+		} catch (IllegalStateException e) {
+			// No instance location.
+			return null;
+		}
 	}
 
 	private String addSourceFileWithStmt(String dir, String name, int stmt) {
@@ -568,28 +458,9 @@ public class DwarfReader extends Dwarf implements ISymbolReader, ICompileOptions
 	}
 
 	private String addSourceFile(String dir, String name) {
-		if (name == null || name.length() == 0)
-			return null;
-
-		if (name.charAt(0) == '<') //  don't count the entry "<internal>" from GCCE compiler
-			return null;
-
-		String fullName = name;
-
-		IPath dirPa = new Path(dir);
-		IPath pa = new Path(name);
-
-		// Combine dir & name if needed.
-		if (!pa.isAbsolute() && dir.length() > 0)
-			pa = dirPa.append(pa);
-
-		// This convert the path to canonical path (but not necessarily absolute, which
-		// is different from java.io.File.getCanonicalPath()).
-		fullName = pa.toOSString();
-
-		if (!m_fileCollection.contains(fullName))
+		String fullName = DwarfSourceFileReader.getFullName(dir, name);
+		if (fullName != null)
 			m_fileCollection.add(fullName);
-
 		return fullName;
 	}
 
@@ -0,0 +1,1201 @@
+/*******************************************************************************
+ * Copyright (c) 2026 Eclipse CDT contributors and others.
+ *
+ * This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License 2.0
+ * which accompanies this distribution, and is available at
+ * https://www.eclipse.org/legal/epl-2.0/
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ *******************************************************************************/
+package org.eclipse.cdt.utils.debug.dwarf;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.AtomicMoveNotSupportedException;
+import java.nio.file.Files;
+import java.nio.file.StandardCopyOption;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveAction;
+
+import org.eclipse.core.runtime.IPath;
+import org.eclipse.core.runtime.Path;
+
+/**
+ * Collects the names of the source files that contribute to an executable from its DWARF
+ * sections, versions 2 to 5.
+ * <p>
+ * Unlike {@link Dwarf#parse(org.eclipse.cdt.utils.debug.IDebugEntryRequestor)}, which decodes
+ * all debug information entries, the reader walks the unit headers of {@code .debug_info} and
+ * decodes the first entry of each unit only. The headers of the line tables referenced by the
+ * units, and of the line tables no unit refers to, are then decoded in parallel.
+ * <p>
+ * The reader also decodes the line number programs of the line tables, in parallel as well, to
+ * create the {@link DwarfLineTable} of the executable.
+ * <p>
+ * The sections are read through duplicates of the buffers, the positions of the buffers of the
+ * {@link Dwarf} object are not modified.
+ */
+final class DwarfSourceFileReader {
+	/** The number of line tables below which a task decodes the tables itself. */
+	private static final int SPLIT_THRESHOLD = 8;
+	private static final int MIN_LINE_HEADER_SIZE = 16;
+	private static final int INITIAL_ROW_CAPACITY = 64;
+	private static final int CACHE_VERSION = 1;
+	/** The number of executables whose source files are kept in the cache directory. */
+	private static final int MAX_CACHE_ENTRIES = 100;
+
+	/**
+	 * The source files of an executable.
+	 */
+	static final class SourceFiles {
+		/** The full names of the source files, without duplicates. */
+		final List<String> files;
+		/** The names of the compilation units by the offsets of their line tables. */
+		final Map<Long, String> stmtFiles;
+
+		SourceFiles(List<String> files, Map<Long, String> stmtFiles) {
+			this.files = files;
+			this.stmtFiles = stmtFiles;
+		}
+
+		/**
+		 * Reads source files stored with {@link #store(File)}, returns {@code null} if the file does
+		 * not exist, cannot be read or is damaged. The modification time of the file is updated, it
+		 * tells which entries of the cache were used least recently.
+		 */
+		static SourceFiles load(File file) {
+			if (!file.isFile())
+				return null;
+			final long length = file.length();
+			try (DataInputStream in = new DataInputStream(new BufferedInputStream(new FileInputStream(file)))) {
+				if (in.readInt() != CACHE_VERSION)
+					return null;
+				// A file name takes at least 2 bytes, an entry of a line table at least 9 bytes.
+				int count = in.readInt();
+				if (count < 0 || count > length / 2)
+					return null;
+				List<String> files = new ArrayList<>(count);
+				for (int i = 0; i < count; i++) {
+					files.add(in.readUTF());
+				}
+				count = in.readInt();
+				if (count < 0 || count > length / 9)
+					return null;
+				Map<Long, String> stmtFiles = new HashMap<>();
+				for (int i = 0; i < count; i++) {
+					Long stmt = Long.valueOf(in.readLong());
+					stmtFiles.put(stmt, in.readBoolean() ? in.readUTF() : null);
+				}
+				file.setLastModified(System.currentTimeMillis());
+				return new SourceFiles(files, stmtFiles);
+			} catch (IOException | RuntimeException e) {
+				// The entry is replaced when the source files are stored.
+				return null;
+			}
+		}
+
+		/**
+		 * Stores the source files, such that they can be read by {@link #load(File)}. Removes the
+		 * least recently used files from the directory of the file, such that it contains at most
+		 * {@value #MAX_CACHE_ENTRIES} entries.
+		 */
+		void store(File file) throws IOException {
+			File dir = file.getParentFile();
+			if (!dir.isDirectory() && !dir.mkdirs())
+				throw new IOException("Cannot create " + dir); //$NON-NLS-1$
+			// Write to a temporary file of this writer first, such that readers never see a partial file.
+			File tmp = File.createTempFile(file.getName(), ".tmp", dir); //$NON-NLS-1$
+			try {
+				try (DataOutputStream out = new DataOutputStream(new BufferedOutputStream(new FileOutputStream(tmp)))) {
+					out.writeInt(CACHE_VERSION);
+					out.writeInt(files.size());
+					for (String name : files) {
+						out.writeUTF(name);
+					}
+					out.writeInt(stmtFiles.size());
+					for (Map.Entry<Long, String> entry : stmtFiles.entrySet()) {
+						out.writeLong(entry.getKey().longValue());
+						out.writeBoolean(entry.getValue() != null);
+						if (entry.getValue() != null)
+							out.writeUTF(entry.getValue());
+					}
+				}
+				try {
+					Files.move(tmp.toPath(), file.toPath(), StandardCopyOption.ATOMIC_MOVE,
+							StandardCopyOption.REPLACE_EXISTING);
+				} catch (AtomicMoveNotSupportedException e) {
+					Files.move(tmp.toPath(), file.toPath(), StandardCopyOption.REPLACE_EXISTING);
+				}
+			} catch (IOException e) {
+				tmp.delete();
+				throw e;
+			}
+			prune(dir, MAX_CACHE_ENTRIES);
+		}
+
+		/**
+		 * Deletes the least recently used entries of the cache directory, such that at most the given
+		 * number of entries remain.
+		 */
+		static void prune(File dir, int maxEntries) {
+			File[] entries = dir.listFiles();
+			if (entries == null || entries.length <= maxEntries)
+				return;
+			// The modification times are read once, they may change while sorting.
+			long[] modified = new long[entries.length];
+			Integer[] order = new Integer[entries.length];
+			for (int i = 0; i < entries.length; i++) {
+				modified[i] = entries[i].lastModified();
+				order[i] = i;
+			}
+			Arrays.sort(order, (i1, i2) -> Long.compare(modified[i1], modified[i2]));
+			for (int i = 0; i < entries.length - maxEntries; i++) {
+				entries[order[i]].delete();
+			}
+		}
+	}
+
+	/**
+	 * A compilation unit, only the attributes needed to find its source files are decoded.
+	 */
+	private static final class Unit {
+		String name = ""; //$NON-NLS-1$
+		String compDir = ""; //$NON-NLS-1$
+		long stmtList = -1;
+	}
+
+	/**
+	 * A line table whose header is to be decoded.
+	 */
+	private static final class LineTable {
+		final int offset;
+		/** The compilation directory of the unit, or {@code null} for a table without a unit. */
+		final String compDir;
+		/** The full names of the files of the table, set when the header is decoded. */
+		List<String> files = Collections.emptyList();
+
+		/** The rows of the line number program, set when the program is decoded. */
+		int rowCount;
+		long[] addresses;
+		/** The indexes of the files of the rows into {@link #files}, -1 for the ends of sequences. */
+		int[] fileIndexes;
+		int[] lines;
+
+		LineTable(int offset, String compDir) {
+			this.offset = offset;
+			this.compDir = compDir;
+		}
+
+		void addRow(long address, int fileIndex, int line) {
+			if (addresses == null) {
+				addresses = new long[INITIAL_ROW_CAPACITY];
+				fileIndexes = new int[INITIAL_ROW_CAPACITY];
+				lines = new int[INITIAL_ROW_CAPACITY];
+			} else if (rowCount == addresses.length) {
+				addresses = Arrays.copyOf(addresses, rowCount * 2);
+				fileIndexes = Arrays.copyOf(fileIndexes, rowCount * 2);
+				lines = Arrays.copyOf(lines, rowCount * 2);
+			}
+			addresses[rowCount] = address;
+			fileIndexes[rowCount] = fileIndex;
+			lines[rowCount++] = line;
+		}
+
+		/**
+		 * Adds a row to the current sequence. Rows that do not change the result of a lookup are
+		 * merged with the previous row of the sequence.
+		 */
+		void addSequenceRow(int sequenceStart, long address, int fileIndex, int line) {
+			if (rowCount > sequenceStart) {
+				final int last = rowCount - 1;
+				if (fileIndexes[last] == fileIndex && lines[last] == line)
+					return;
+				if (addresses[last] == address) {
+					fileIndexes[last] = fileIndex;
+					lines[last] = line;
+					return;
+				}
+			}
+			addRow(address, fileIndex, line);
+		}
+	}
+
+	/**
+	 * The header of a line table, only the fields needed to decode the line number program and
+	 * the file names are kept.
+	 */
+	private static final class LineTableHeader {
+		int addressSize;
+		int minInstLength;
+		int maxOpsPerInst;
+		int lineBase;
+		int lineRange;
+		int opcodeBase;
+		int[] opcodeLengths;
+		/** The offset of the line number program. */
+		long programStart;
+		/** The offset following the table. */
+		long end;
+		/** The directories, resolved against the compilation directory. */
+		final List<String> dirs = new ArrayList<>();
+		/**
+		 * The full names of the files by the indexes used in the line number program,
+		 * {@code null} for entries that do not denote a file.
+		 */
+		final List<String> files = new ArrayList<>();
+	}
+
+	/**
+	 * A directory or file entry of a version 5 line table header.
+	 */
+	private static final class Entry {
+		String path;
+		long directoryIndex;
+	}
+
+	/**
+	 * Decodes the headers of a range of line tables, splitting the range into subtasks when it
+	 * is large.
+	 */
+	private final class LineTableTask extends RecursiveAction {
+		private static final long serialVersionUID = 1L;
+		private final LineTable[] fTables;
+		private final int fFrom;
+		private final int fTo;
+		/** Whether to decode the line number programs rather than the headers only. */
+		private final boolean fRows;
+
+		LineTableTask(LineTable[] tables, int from, int to, boolean rows) {
+			fTables = tables;
+			fFrom = from;
+			fTo = to;
+			fRows = rows;
+		}
+
+		@Override
+		protected void compute() {
+			if (fTo - fFrom <= SPLIT_THRESHOLD) {
+				Input line = input(fLine);
+				for (int i = fFrom; i < fTo; i++) {
+					LineTable table = fTables[i];
+					try {
+						if (fRows) {
+							readLineTableRows(line, table);
+						} else {
+							table.files = readLineTableFiles(line, table.offset, table.compDir);
+						}
+					} catch (IOException | RuntimeException e) {
+						// A corrupt table, ignore the remainder of the table.
+					}
+				}
+			} else {
+				final int mid = (fFrom + fTo) >>> 1;
+				invokeAll(new LineTableTask(fTables, fFrom, mid, fRows),
+						new LineTableTask(fTables, mid, fTo, fRows));
+			}
+		}
+	}
+
+	/**
+	 * Sequential access to a section, reads from a private duplicate of the buffer of the section.
+	 */
+	private static final class Input {
+		private final ByteBuffer fBuffer;
+
+		Input(ByteBuffer buffer) {
+			fBuffer = buffer;
+		}
+
+		int position() {
+			return fBuffer.position();
+		}
+
+		void position(long position) throws IOException {
+			if (position < 0 || position > fBuffer.limit())
+				throw new IOException("Invalid offset: " + position); //$NON-NLS-1$
+			fBuffer.position((int) position);
+		}
+
+		int limit() {
+			return fBuffer.limit();
+		}
+
+		byte get(int position) {
+			return fBuffer.get(position);
+		}
+
+		void skip(long count) throws IOException {
+			position(fBuffer.position() + count);
+		}
+
+		int u8() {
+			return fBuffer.get() & 0xff;
+		}
+
+		int u16() {
+			return fBuffer.getShort() & 0xffff;
+		}
+
+		int u24() {
+			int b0 = u8();
+			int b1 = u8();
+			int b2 = u8();
+			return fBuffer.order() == ByteOrder.LITTLE_ENDIAN ? b0 | b1 << 8 | b2 << 16 : b2 | b1 << 8 | b0 << 16;
+		}
+
+		long u32() {
+			return fBuffer.getInt() & 0xffffffffL;
+		}
+
+		long u64() {
+			return fBuffer.getLong();
+		}
+
+		long offset(int offsetSize) {
+			return offsetSize == 8 ? u64() : u32();
+		}
+
+		long uleb128() {
+			long result = 0;
+			for (int shift = 0;; shift += 7) {
+				int b = u8();
+				if (shift < 64)
+					result |= (long) (b & 0x7f) << shift;
+				if ((b & 0x80) == 0)
+					return result;
+			}
+		}
+
+		long sleb128() {
+			long result = 0;
+			int shift = 0;
+			int b;
+			do {
+				b = u8();
+				if (shift < 64)
+					result |= (long) (b & 0x7f) << shift;
+				shift += 7;
+			} while ((b & 0x80) != 0);
+			if (shift < 64 && (b & 0x40) != 0)
+				result |= -1L << shift;
+			return result;
+		}
+
+		void skipLeb128() {
+			while ((u8() & 0x80) != 0) {
+				// Skip the continuation bytes.
+			}
+		}
+
+		/**
+		 * Reads a null terminated UTF-8 string.
+		 */
+		String string() {
+			final int start = fBuffer.position();
+			int end = start;
+			while (fBuffer.get(end) != 0) {
+				end++;
+			}
+			fBuffer.position(end + 1);
+			return decode(fBuffer, start, end);
+		}
+	}
+
+	private final ByteBuffer fInfo;
+	private final ByteBuffer fAbbrev;
+	private final ByteBuffer fLine;
+	private final ByteBuffer fStr;
+	private final ByteBuffer fStrOffsets;
+	private final ByteBuffer fLineStr;
+	private final ByteBuffer fAltStr;
+	private final ByteOrder fOrder;
+
+	DwarfSourceFileReader(Map<String, ByteBuffer> sections, Map<String, ByteBuffer> altSections, boolean isLE) {
+		fInfo = sections.get(Dwarf.DWARF_DEBUG_INFO);
+		fAbbrev = sections.get(Dwarf.DWARF_DEBUG_ABBREV);
+		fLine = sections.get(Dwarf.DWARF_DEBUG_LINE);
+		fStr = sections.get(Dwarf.DWARF_DEBUG_STR);
+		fStrOffsets = sections.get(Dwarf.DWARF_DEBUG_STR_OFFSETS);
+		fLineStr = sections.get(Dwarf.DWARF_DEBUG_LINE_STR);
+		fAltStr = altSections.get(Dwarf.DWARF_DEBUG_STR);
+		fOrder = isLE ? ByteOrder.LITTLE_ENDIAN : ByteOrder.BIG_ENDIAN;
+	}
+
+	private Input input(ByteBuffer section) {
+		ByteBuffer buffer = section.duplicate();
+		buffer.clear();
+		buffer.order(fOrder);
+		return new Input(buffer);
+	}
+
+	/**
+	 * Reads the source files of the compilation units and of the line tables.
+	 */
+	SourceFiles read() {
+		List<Unit> units = fInfo != null && fAbbrev != null ? readUnits() : Collections.<Unit>emptyList();
+		LineTable[] array = getLineTables(units);
+		if (array.length > 0)
+			ForkJoinPool.commonPool().invoke(new LineTableTask(array, 0, array.length, false));
+
+		Set<String> files = new LinkedHashSet<>();
+		Map<Long, String> stmtFiles = new HashMap<>();
+		for (Unit unit : units) {
+			String fullName = getFullName(unit.compDir, unit.name);
+			if (fullName != null)
+				files.add(fullName);
+			stmtFiles.put(Long.valueOf(unit.stmtList), fullName);
+		}
+		for (LineTable table : array) {
+			files.addAll(table.files);
+		}
+		return new SourceFiles(new ArrayList<>(files), stmtFiles);
+	}
+
+	/**
+	 * Decodes the line number programs of all line tables and combines their rows into a single
+	 * table.
+	 */
+	DwarfLineTable readLineTable() {
+		List<Unit> units = fInfo != null && fAbbrev != null ? readUnits() : Collections.<Unit>emptyList();
+		LineTable[] array = getLineTables(units);
+		if (array.length > 0)
+			ForkJoinPool.commonPool().invoke(new LineTableTask(array, 0, array.length, true));
+
+		int rowCount = 0;
+		for (LineTable table : array) {
+			rowCount += table.rowCount;
+		}
+		long[] addresses = new long[rowCount];
+		int[] fileIndexes = new int[rowCount];
+		int[] lines = new int[rowCount];
+		// The file names of all tables, each name is stored once.
+		Map<String, Integer> fileMap = new HashMap<>();
+		List<String> fileNames = new ArrayList<>();
+		int row = 0;
+		for (LineTable table : array) {
+			int[] globalIndexes = new int[table.files.size()];
+			for (int i = 0; i < globalIndexes.length; i++) {
+				String name = table.files.get(i);
+				Integer index = name != null ? fileMap.get(name) : null;
+				if (name != null && index == null) {
+					index = Integer.valueOf(fileNames.size());
+					fileMap.put(name, index);
+					fileNames.add(name);
+				}
+				globalIndexes[i] = index != null ? index.intValue() : DwarfLineTable.NO_FILE;
+			}
+			for (int i = 0; i < table.rowCount; i++) {
+				final int fileIndex = table.fileIndexes[i];
+				addresses[row] = table.addresses[i];
+				if (fileIndex < 0) {
+					fileIndexes[row] = DwarfLineTable.END_OF_SEQUENCE;
+				} else {
+					fileIndexes[row] = fileIndex < globalIndexes.length ? globalIndexes[fileIndex]
+							: DwarfLineTable.NO_FILE;
+				}
+				lines[row++] = table.lines[i];
+			}
+		}
+		return new DwarfLineTable(addresses, fileIndexes, lines, fileNames.toArray(new String[fileNames.size()]));
+	}
+
+	/**
+	 * Returns the line tables referenced by the given units and the line tables no unit refers to.
+	 */
+	private LineTable[] getLineTables(List<Unit> units) {
+		if (fLine == null)
+			return new LineTable[0];
+
+		// Every line table is decoded once, with the compilation directory of the first unit
+		// referring to it. Compilers like ARM RVCT produce several units for the same table.
+		Map<Integer, LineTable> tables = new HashMap<>();
+		List<LineTable> allTables = new ArrayList<>();
+		for (Unit unit : units) {
+			if (unit.stmtList >= 0 && unit.stmtList < fLine.capacity()) {
+				Integer offset = Integer.valueOf((int) unit.stmtList);
+				if (!tables.containsKey(offset)) {
+					LineTable table = new LineTable(offset.intValue(), unit.compDir);
+					tables.put(offset, table);
+					allTables.add(table);
+				}
+			}
+		}
+		// If the compiler or linker is fully compliant to the DWARF standard, every line table
+		// is referenced by a compilation unit. This is not always the case, though.
+		for (int offset : findLineTables()) {
+			if (!tables.containsKey(Integer.valueOf(offset)))
+				allTables.add(new LineTable(offset, null));
+		}
+		return allTables.toArray(new LineTable[allTables.size()]);
+	}
+
+	/**
+	 * Walks the unit headers of {@code .debug_info} and decodes the first entry of each compile
+	 * or skeleton unit.
+	 */
+	private List<Unit> readUnits() {
+		List<Unit> units = new ArrayList<>();
+		Input info = input(fInfo);
+		Input abbrev = input(fAbbrev);
+		long unitStart = 0;
+		while (unitStart < info.limit()) {
+			long unitEnd;
+			try {
+				info.position(unitStart);
+				long length = info.u32();
+				int offsetSize = 4;
+				if (length == 0xffffffffL || length == 0) { // 64-bit DWARF, or IRIX.
+					length = info.u64();
+					offsetSize = 8;
+				}
+				unitEnd = info.position() + length;
+				if (length < 0 || unitEnd > info.limit())
+					break;
+				try {
+					Unit unit = readUnit(info, abbrev, offsetSize);
+					if (unit != null)
+						units.add(unit);
+				} catch (IOException | RuntimeException e) {
+					// A corrupt unit, continue with the next one.
+				}
+			} catch (IOException | RuntimeException e) {
+				break;
+			}
+			unitStart = unitEnd;
+		}
+		return units;
+	}
+
+	/**
+	 * Decodes the header and the first entry of a unit, returns {@code null} if the unit is not a
+	 * compile or skeleton unit.
+	 */
+	private Unit readUnit(Input info, Input abbrev, int offsetSize) throws IOException {
+		final int version = info.u16();
+		if (version < 2 || version > 5)
+			return null;
+		final int addressSize;
+		final long abbrevOffset;
+		if (version >= 5) {
+			int unitType = info.u8();
+			addressSize = info.u8();
+			abbrevOffset = info.offset(offsetSize);
+			switch (unitType) {
+			case DwarfConstants.DW_UT_compile:
+			case DwarfConstants.DW_UT_partial:
+				break;
+			case DwarfConstants.DW_UT_skeleton:
+			case DwarfConstants.DW_UT_split_compile:
+				info.skip(8); // dwo_id
+				break;
+			default:
+				return null;
+			}
+		} else {
+			abbrevOffset = info.offset(offsetSize);
+			addressSize = info.u8();
+		}
+
+		final long code = info.uleb128();
+		if (code == 0)
+			return null;
+
+		// Find the abbreviation of the entry, usually the first one of the table.
+		abbrev.position(abbrevOffset);
+		long tag;
+		while (true) {
+			long abbrevCode = abbrev.uleb128();
+			if (abbrevCode == 0)
+				throw new IOException("Missing abbreviation: " + code); //$NON-NLS-1$
+			tag = abbrev.uleb128();
+			abbrev.u8(); // children
+			if (abbrevCode == code)
+				break;
+			while (true) {
+				long name = abbrev.uleb128();
+				long form = abbrev.uleb128();
+				if (form == DwarfConstants.DW_FORM_implicit_const)
+					abbrev.skipLeb128();
+				if (name == 0 && form == 0)
+					break;
+			}
+		}
+		if (tag != DwarfConstants.DW_TAG_compile_unit && tag != DwarfConstants.DW_TAG_skeleton_unit)
+			return null;
+
+		Unit unit = new Unit();
+		long nameIndex = -1;
+		long compDirIndex = -1;
+		long strOffsetsBase = -1;
+		while (true) {
+			int name = (int) abbrev.uleb128();
+			int form = (int) abbrev.uleb128();
+			if (name == 0 && form == 0)
+				break;
+			if (form == DwarfConstants.DW_FORM_implicit_const) {
+				abbrev.skipLeb128();
+				continue;
+			}
+			while (form == DwarfConstants.DW_FORM_indirect) {
+				form = (int) info.uleb128();
+			}
+			switch (name) {
+			case DwarfConstants.DW_AT_name:
+			case DwarfConstants.DW_AT_comp_dir:
+				long index = readStringIndex(info, form);
+				String value = index >= 0 ? null : readString(info, form, offsetSize, addressSize, version);
+				if (name == DwarfConstants.DW_AT_name) {
+					unit.name = value;
+					nameIndex = index;
+				} else {
+					unit.compDir = value;
+					compDirIndex = index;
+				}
+				break;
+			case DwarfConstants.DW_AT_stmt_list:
+				unit.stmtList = readUnsigned(info, form, offsetSize, addressSize, version);
+				break;
+			case DwarfConstants.DW_AT_str_offsets_base:
+				strOffsetsBase = readUnsigned(info, form, offsetSize, addressSize, version);
+				break;
+			default:
+				skipForm(info, form, offsetSize, addressSize, version);
+				break;
+			}
+		}
+		if (nameIndex >= 0)
+			unit.name = readIndexedString(nameIndex, strOffsetsBase, offsetSize);
+		if (compDirIndex >= 0)
+			unit.compDir = readIndexedString(compDirIndex, strOffsetsBase, offsetSize);
+		if (unit.name == null)
+			unit.name = ""; //$NON-NLS-1$
+		if (unit.compDir == null)
+			unit.compDir = ""; //$NON-NLS-1$
+		return unit;
+	}
+
+	/**
+	 * Returns the index into {@code .debug_str_offsets} for the forms referring to it, -1 for
+	 * the other forms. The value is consumed for the forms referring to the index only.
+	 */
+	private static long readStringIndex(Input in, int form) {
+		switch (form) {
+		case DwarfConstants.DW_FORM_strx:
+		case DwarfConstants.DW_FORM_GNU_str_index:
+			return in.uleb128();
+		case DwarfConstants.DW_FORM_strx1:
+			return in.u8();
+		case DwarfConstants.DW_FORM_strx2:
+			return in.u16();
+		case DwarfConstants.DW_FORM_strx3:
+			return in.u24();
+		case DwarfConstants.DW_FORM_strx4:
+			return in.u32();
+		default:
+			return -1;
+		}
+	}
+
+	private String readIndexedString(long index, long strOffsetsBase, int offsetSize) throws IOException {
+		if (fStrOffsets == null || fStr == null)
+			return null;
+		Input offsets = input(fStrOffsets);
+		// Without a base, use the first contribution of the section, which follows an 8 byte header.
+		offsets.position((strOffsetsBase >= 0 ? strOffsetsBase : 8) + index * offsetSize);
+		return readString(fStr, offsets.offset(offsetSize));
+	}
+
+	/**
+	 * Reads an attribute value of a string form, returns {@code null} for forms that do not
+	 * denote a string or whose string section is missing.
+	 */
+	private String readString(Input in, int form, int offsetSize, int addressSize, int version)
+			throws IOException {
+		switch (form) {
+		case DwarfConstants.DW_FORM_string:
+			return in.string();
+		case DwarfConstants.DW_FORM_strp:
+			return readString(fStr, in.offset(offsetSize));
+		case DwarfConstants.DW_FORM_line_strp:
+			return readString(fLineStr, in.offset(offsetSize));
+		case DwarfConstants.DW_FORM_GNU_strp_alt:
+		case DwarfConstants.DW_FORM_strp_sup:
+			return readString(fAltStr, in.offset(offsetSize));
+		default:
+			skipForm(in, form, offsetSize, addressSize, version);
+			return null;
+		}
+	}
+
+	private static String readString(ByteBuffer section, long offset) {
+		if (section == null || offset < 0 || offset >= section.capacity())
+			return null;
+		final int start = (int) offset;
+		final int limit = section.capacity();
+		int end = start;
+		while (end < limit && section.get(end) != 0) {
+			end++;
+		}
+		return decode(section, start, end);
+	}
+
+	private static String decode(ByteBuffer buffer, int start, int end) {
+		byte[] bytes = new byte[end - start];
+		for (int i = 0; i < bytes.length; i++) {
+			bytes[i] = buffer.get(start + i);
+		}
+		return new String(bytes, StandardCharsets.UTF_8);
+	}
+
+	/**
+	 * Reads an attribute value of a constant or section offset form, returns -1 for other forms.
+	 */
+	private static long readUnsigned(Input in, int form, int offsetSize, int addressSize, int version)
+			throws IOException {
+		switch (form) {
+		case DwarfConstants.DW_FORM_data1:
+			return in.u8();
+		case DwarfConstants.DW_FORM_data2:
+			return in.u16();
+		case DwarfConstants.DW_FORM_data4:
+			return in.u32();
+		case DwarfConstants.DW_FORM_data8:
+			return in.u64();
+		case DwarfConstants.DW_FORM_udata:
+			return in.uleb128();
+		case DwarfConstants.DW_FORM_sec_offset:
+			return in.offset(offsetSize);
+		default:
+			skipForm(in, form, offsetSize, addressSize, version);
+			return -1;
+		}
+	}
+
+	/**
+	 * Skips an attribute value of the given form.
+	 */
+	private static void skipForm(Input in, int form, int offsetSize, int addressSize, int version)
+			throws IOException {
+		switch (form) {
+		case DwarfConstants.DW_FORM_flag_present:
+		case DwarfConstants.DW_FORM_implicit_const:
+			break;
+		case DwarfConstants.DW_FORM_data1:
+		case DwarfConstants.DW_FORM_ref1:
+		case DwarfConstants.DW_FORM_flag:
+		case DwarfConstants.DW_FORM_strx1:
+		case DwarfConstants.DW_FORM_addrx1:
+			in.skip(1);
+			break;
+		case DwarfConstants.DW_FORM_data2:
+		case DwarfConstants.DW_FORM_ref2:
+		case DwarfConstants.DW_FORM_strx2:
+		case DwarfConstants.DW_FORM_addrx2:
+			in.skip(2);
+			break;
+		case DwarfConstants.DW_FORM_strx3:
+		case DwarfConstants.DW_FORM_addrx3:
+			in.skip(3);
+			break;
+		case DwarfConstants.DW_FORM_data4:
+		case DwarfConstants.DW_FORM_ref4:
+		case DwarfConstants.DW_FORM_ref_sup4:
+		case DwarfConstants.DW_FORM_strx4:
+		case DwarfConstants.DW_FORM_addrx4:
+			in.skip(4);
+			break;
+		case DwarfConstants.DW_FORM_data8:
+		case DwarfConstants.DW_FORM_ref8:
+		case DwarfConstants.DW_FORM_ref_sig8:
+		case DwarfConstants.DW_FORM_ref_sup8:
+			in.skip(8);
+			break;
+		case DwarfConstants.DW_FORM_data16:
+			in.skip(16);
+			break;
+		case DwarfConstants.DW_FORM_addr:
+			in.skip(addressSize);
+			break;
+		case DwarfConstants.DW_FORM_ref_addr:
+			in.skip(version == 2 ? addressSize : offsetSize);
+			break;
+		case DwarfConstants.DW_FORM_strp:
+		case DwarfConstants.DW_FORM_line_strp:
+		case DwarfConstants.DW_FORM_strp_sup:
+		case DwarfConstants.DW_FORM_sec_offset:
+		case DwarfConstants.DW_FORM_GNU_ref_alt:
+		case DwarfConstants.DW_FORM_GNU_strp_alt:
+			in.skip(offsetSize);
+			break;
+		case DwarfConstants.DW_FORM_sdata:
+		case DwarfConstants.DW_FORM_udata:
+		case DwarfConstants.DW_FORM_ref_udata:
+		case DwarfConstants.DW_FORM_strx:
+		case DwarfConstants.DW_FORM_addrx:
+		case DwarfConstants.DW_FORM_loclistx:
+		case DwarfConstants.DW_FORM_rnglistx:
+		case DwarfConstants.DW_FORM_GNU_addr_index:
+		case DwarfConstants.DW_FORM_GNU_str_index:
+			in.skipLeb128();
+			break;
+		case DwarfConstants.DW_FORM_string:
+			in.string();
+			break;
+		case DwarfConstants.DW_FORM_block1:
+			in.skip(in.u8());
+			break;
+		case DwarfConstants.DW_FORM_block2:
+			in.skip(in.u16());
+			break;
+		case DwarfConstants.DW_FORM_block4:
+			in.skip(in.u32());
+			break;
+		case DwarfConstants.DW_FORM_block:
+		case DwarfConstants.DW_FORM_exprloc:
+			in.skip(in.uleb128());
+			break;
+		case DwarfConstants.DW_FORM_indirect:
+			skipForm(in, (int) in.uleb128(), offsetSize, addressSize, version);
+			break;
+		default:
+			throw new IOException("Unknown form: " + form); //$NON-NLS-1$
+		}
+	}
+
+	/**
+	 * Returns the offsets of the line tables of {@code .debug_line}.
+	 */
+	private List<Integer> findLineTables() {
+		List<Integer> offsets = new ArrayList<>();
+		Input line = input(fLine);
+		final int sectionSize = line.limit();
+		long lineTableStart = 0;
+		try {
+			while (lineTableStart < sectionSize - MIN_LINE_HEADER_SIZE) {
+				offsets.add(Integer.valueOf((int) lineTableStart));
+				line.position(lineTableStart);
+
+				// The length does not include the length field itself.
+				long length = line.u32();
+				boolean dwarf64Bit = false;
+				if (length == 0xffffffffL || length == 0) {
+					length = line.u64();
+					dwarf64Bit = true;
+				}
+				if (length < 0)
+					break;
+				lineTableStart = line.position() + length;
+
+				// According to the DWARF standard, the length covers the whole line table. But some
+				// compilers (e.g. ARM RVCT 2.2) produce 1 to 3 bytes of padding beyond that in order
+				// to align the next line table at a multiple of 4. There is no flag indicating the
+				// padding, it is detected by checking whether a valid header follows.
+				if (lineTableStart < sectionSize - MIN_LINE_HEADER_SIZE && (lineTableStart & 0x3) != 0) {
+					line.position(lineTableStart);
+					long nextLength = dwarf64Bit ? line.u64() : line.u32();
+					int nextVersion = line.u16();
+					int minInstLength = line.get(line.position() + (dwarf64Bit ? 8 : 4) + (nextVersion >= 5 ? 2 : 0));
+					boolean valid = nextLength > MIN_LINE_HEADER_SIZE && nextLength < 16 * 64 * 1024
+							&& nextVersion > 0 && nextVersion <= 5 && minInstLength > 0 && minInstLength <= 8;
+					if (!valid)
+						lineTableStart = (lineTableStart + 3) & ~0x3;
+				}
+			}
+		} catch (IOException | RuntimeException e) {
+			// Ignore the remainder of the section.
+		}
+		return offsets;
+	}
+
+	/**
+	 * Decodes the header of a line table and returns the full names of its files.
+	 *
+	 * @param compDir the compilation directory of the unit of the table, or {@code null} if the
+	 *     table is not referenced by a unit.
+	 */
+	private List<String> readLineTableFiles(Input line, int offset, String compDir) throws IOException {
+		LineTableHeader header = readLineTableHeader(line, offset, compDir);
+		if (header == null)
+			return Collections.emptyList();
+		List<String> files = new ArrayList<>(header.files.size());
+		for (String file : header.files) {
+			if (file != null)
+				files.add(file);
+		}
+		return files;
+	}
+
+	/**
+	 * Decodes the header of a line table, returns {@code null} for unsupported versions. The
+	 * position of the input is left at the end of the header.
+	 *
+	 * @param compDir the compilation directory of the unit of the table, or {@code null} if the
+	 *     table is not referenced by a unit.
+	 */
+	private LineTableHeader readLineTableHeader(Input line, int offset, String compDir) throws IOException {
+		line.position(offset);
+		long length = line.u32();
+		int offsetSize = 4;
+		if (length == 0xffffffffL || length == 0) {
+			length = line.u64();
+			offsetSize = 8;
+		}
+		LineTableHeader header = new LineTableHeader();
+		header.end = line.position() + length;
+		final int version = line.u16();
+		if (version < 2 || version > 5)
+			return null;
+		if (version >= 5) {
+			header.addressSize = line.u8();
+			line.u8(); // segment_selector_size
+		}
+		final long headerLength = line.offset(offsetSize);
+		header.programStart = line.position() + headerLength;
+		header.minInstLength = line.u8();
+		header.maxOpsPerInst = version >= 4 ? line.u8() : 1;
+		line.u8(); // default_is_stmt
+		header.lineBase = line.get(line.position());
+		line.skip(1);
+		header.lineRange = line.u8();
+		header.opcodeBase = line.u8();
+		header.opcodeLengths = new int[Math.max(header.opcodeBase - 1, 0)];
+		for (int i = 0; i < header.opcodeLengths.length; i++) {
+			header.opcodeLengths[i] = line.u8();
+		}
+
+		final List<String> dirs = header.dirs;
+		if (version >= 5) {
+			int[] dirFormat = readEntryFormat(line);
+			long dirCount = line.uleb128();
+			for (long i = 0; i < dirCount; i++) {
+				Entry entry = readEntry(line, dirFormat, offsetSize, header.addressSize, version);
+				dirs.add(resolveDirectory(compDir, entry.path != null ? entry.path : "")); //$NON-NLS-1$
+			}
+			int[] fileFormat = readEntryFormat(line);
+			long fileCount = line.uleb128();
+			for (long i = 0; i < fileCount; i++) {
+				Entry entry = readEntry(line, fileFormat, offsetSize, header.addressSize, version);
+				addFile(header.files, dirs, entry.directoryIndex, entry.path);
+			}
+		} else {
+			// The first directory is the compilation directory of the unit, the files are numbered
+			// from one.
+			dirs.add(compDir != null ? compDir : ""); //$NON-NLS-1$
+			header.files.add(null);
+			while (true) {
+				String dir = line.string();
+				if (dir.isEmpty())
+					break;
+				dirs.add(resolveDirectory(compDir, dir));
+			}
+			while (true) {
+				String name = line.string();
+				if (name.isEmpty())
+					break;
+				long dirIndex = line.uleb128();
+				line.skipLeb128(); // modification time
+				line.skipLeb128(); // file size
+				addFile(header.files, dirs, dirIndex, name);
+			}
+		}
+		return header;
+	}
+
+	/**
+	 * Decodes the line number program of a line table into the rows of the table. The header
+	 * is decoded as well, such that the file indexes of the rows refer to
+	 * {@link LineTable#files}.
+	 */
+	private void readLineTableRows(Input line, LineTable table) throws IOException {
+		LineTableHeader header = readLineTableHeader(line, table.offset, table.compDir);
+		if (header == null)
+			return;
+		table.files = header.files;
+		if (header.lineRange == 0)
+			return;
+		final long end = Math.min(header.end, line.limit());
+		final int minInstLength = header.minInstLength;
+		final int maxOps = Math.max(header.maxOpsPerInst, 1);
+		final int opcodeBase = header.opcodeBase;
+		final int lineRange = header.lineRange;
+		line.position(header.programStart);
+
+		// The state machine registers, the column and the flags do not affect the rows.
+		long address = 0;
+		int opIndex = 0;
+		long file = 1;
+		long lineNumber = 1;
+		int sequenceStart = table.rowCount;
+		while (line.position() < end) {
+			final int opcode = line.u8();
+			long operationAdvance = -1;
+			boolean addRow = false;
+			if (opcode >= opcodeBase) {
+				final int adjusted = opcode - opcodeBase;
+				operationAdvance = adjusted / lineRange;
+				lineNumber += header.lineBase + adjusted % lineRange;
+				addRow = true;
+			} else if (opcode == 0) {
+				final long length = line.uleb128();
+				final long next = line.position() + length;
+				if (length == 0)
+					continue;
+				switch (line.u8()) {
+				case DwarfConstants.DW_LNE_end_sequence:
+					table.addRow(address, -1, 0);
+					address = 0;
+					opIndex = 0;
+					file = 1;
+					lineNumber = 1;
+					sequenceStart = table.rowCount;
+					break;
+				case DwarfConstants.DW_LNE_set_address:
+					address = length - 1 >= 8 ? line.u64() : line.u32();
+					opIndex = 0;
+					break;
+				case DwarfConstants.DW_LNE_define_file:
+					String name = line.string();
+					long dirIndex = line.uleb128();
+					addFile(table.files, header.dirs, dirIndex, name);
+					break;
+				default:
+					break;
+				}
+				line.position(next);
+			} else {
+				switch (opcode) {
+				case DwarfConstants.DW_LNS_copy:
+					addRow = true;
+					break;
+				case DwarfConstants.DW_LNS_advance_pc:
+					operationAdvance = line.uleb128();
+					break;
+				case DwarfConstants.DW_LNS_advance_line:
+					lineNumber += line.sleb128();
+					break;
+				case DwarfConstants.DW_LNS_set_file:
+					file = line.uleb128();
+					break;
+				case DwarfConstants.DW_LNS_const_add_pc:
+					operationAdvance = (255 - opcodeBase) / lineRange;
+					break;
+				case DwarfConstants.DW_LNS_fixed_advance_pc:
+					address += line.u16();
+					opIndex = 0;
+					break;
+				default:
+					// Skip the operands of the opcode, including the opcodes not known to the reader.
+					for (int i = header.opcodeLengths[opcode - 1]; i > 0; i--) {
+						line.skipLeb128();
+					}
+					break;
+				}
+			}
+			if (operationAdvance >= 0) {
+				if (maxOps == 1) {
+					address += minInstLength * operationAdvance;
+				} else {
+					address += minInstLength * ((opIndex + operationAdvance) / maxOps);
+					opIndex = (int) ((opIndex + operationAdvance) % maxOps);
+				}
+			}
+			if (addRow) {
+				final int fileIndex = file < table.files.size() ? (int) file : Integer.MAX_VALUE;
+				final int lineValue = lineNumber > 0 && lineNumber <= Integer.MAX_VALUE ? (int) lineNumber : 0;
+				table.addSequenceRow(sequenceStart, address, fileIndex, lineValue);
+			}
+		}
+		// A sequence without an end, e.g. in a truncated table, ends with its last row.
+		if (table.rowCount > sequenceStart)
+			table.addRow(table.addresses[table.rowCount - 1], -1, 0);
+	}
+
+	/**
+	 * Adds the full name of a file to the files of a line table, {@code null} if the name does not
+	 * denote a file.
+	 */
+	private static void addFile(List<String> files, List<String> dirs, long dirIndex, String name) {
+		String dir = dirIndex >= 0 && dirIndex < dirs.size() ? dirs.get((int) dirIndex) : ""; //$NON-NLS-1$
+		files.add(getFullName(dir, name));
+	}
+
+	/**
+	 * Reads the pairs of content type and form of a directory or file entry format of a version 5
+	 * line table header.
+	 */
+	private static int[] readEntryFormat(Input line) {
+		int count = line.u8();
+		int[] format = new int[count * 2];
+		for (int i = 0; i < format.length; i++) {
+			format[i] = (int) line.uleb128();
+		}
+		return format;
+	}
+
+	/**
+	 * Reads a directory or file entry of a version 5 line table header.
+	 */
+	private Entry readEntry(Input line, int[] format, int offsetSize, int addressSize, int version)
+			throws IOException {
+		Entry entry = new Entry();
+		for (int i = 0; i < format.length; i += 2) {
+			switch (format[i]) {
+			case DwarfConstants.DW_LNCT_path:
+				entry.path = readString(line, format[i + 1], offsetSize, addressSize, version);
+				break;
+			case DwarfConstants.DW_LNCT_directory_index:
+				entry.directoryIndex = readUnsigned(line, format[i + 1], offsetSize, addressSize, version);
+				break;
+			default:
+				skipForm(line, format[i + 1], offsetSize, addressSize, version);
+				break;
+			}
+		}
+		return entry;
+	}
+
+	/**
+	 * Resolves a directory of a line table against the compilation directory of its unit.
+	 */
+	private static String resolveDirectory(String compDir, String dir) {
+		if (compDir == null)
+			return dir;
+		IPath path = new Path(dir);
+		if (!path.isAbsolute())
+			path = new Path(compDir).append(dir);
+		return path.toString();
+	}
+
+	/**
+	 * Combines a directory and a file name to the canonical name of a source file. Returns
+	 * {@code null} for empty names and for names like {@code <internal>}, which do not denote
+	 * a file.
+	 */
+	static String getFullName(String dir, String name) {
+		if (name == null || name.isEmpty() || name.charAt(0) == '<')
+			return null;
+		IPath path = new Path(name);
+		if (!path.isAbsolute() && !dir.isEmpty())
+			path = new Path(dir).append(path);
+		// Canonical, but not necessarily absolute, unlike java.io.File.getCanonicalPath().
+		return path.toOSString();
+	}
+}
@@ -23,17 +23,20 @@ import java.io.EOFException;
 import java.io.IOException;
 import java.nio.ByteBuffer;
 import java.nio.ByteOrder;
+import java.nio.MappedByteBuffer;
 import java.nio.channels.FileChannel.MapMode;
 import java.util.ArrayList;
-import java.util.Arrays;
 import java.util.Comparator;
+import java.util.HashMap;
 import java.util.Iterator;
+import java.util.Map;
 import java.util.NoSuchElementException;
 
 import org.eclipse.cdt.core.CCorePlugin;
 import org.eclipse.cdt.core.IAddress;
 import org.eclipse.cdt.core.IAddressFactory;
 import org.eclipse.cdt.core.ISymbolReader;
+import org.eclipse.cdt.internal.core.SortedKeys;
 import org.eclipse.cdt.utils.Addr32;
 import org.eclipse.cdt.utils.Addr32Factory;
 import org.eclipse.cdt.utils.Addr64;
@@ -59,6 +62,9 @@ public class Elf {
 	private Symbol[] symbolsTable;
 	/** .dynSym section */
 	private Symbol[] dynamicSymbols;
+	/** Addresses of {@link #symbols}, with the sign bit flipped for unsigned comparison. */
+	private long[] symbolKeys;
+	private Map<Section, ElfSymbolTable> symbolTables;
 	private boolean areSectionsMapped; // Have sections been mapped? Used to clean up properly in Elf.Dispose.
 
 	protected String EMPTY_STRING = ""; //$NON-NLS-1$
@@ -338,9 +344,19 @@ public class Elf {
 		 * @since 5.1
 		 */
 		public ByteBuffer mapSectionData() throws IOException {
+			return map().load().asReadOnlyBuffer();
+		}
+
+		/**
+		 * Maps the section without loading its content.
+		 */
+		private MappedByteBuffer map() throws IOException {
 			makeSureNotCompressed();
+			if (sh_size > Integer.MAX_VALUE)
+				throw new IOException("Section is too large to be mapped: " + toString()); //$NON-NLS-1$
 			areSectionsMapped = true;
-			return efile.getChannel().map(MapMode.READ_ONLY, sh_offset, sh_size).load().asReadOnlyBuffer();
+			// The offset of the section is relative to the start of the ELF, which may be a member of an archive.
+			return efile.getChannel().map(MapMode.READ_ONLY, elfOffset + sh_offset, sh_size);
 		}
 
 		public byte[] loadSectionData() throws IOException {
@@ -445,7 +461,8 @@ public class Elf {
 		public short st_other;
 		public short st_shndx;
 
-		private String name = null;
+		/** The name of the symbol, set when the symbol is decoded by an {@link ElfSymbolTable}. */
+		String name = null;
 
 		private final Section sym_section;
 
@@ -983,6 +1000,7 @@ public class Elf {
 			if (efile != null) {
 				efile.close();
 				efile = null;
+				symbolTables = null;
 				// ensure the mappings get cleaned up
 				if (areSectionsMapped)
 					System.gc();
@@ -1032,58 +1050,68 @@ public class Elf {
 				return sections;
 			}
 			final int length = ehdr.e_shnum & 0xffff; // unsigned short
-			sections = new Section[length];
-			for (int i = 0; i < length; i++) {
-				efile.seek(ehdr.e_shoff + i * (ehdr.e_shentsize & 0xffff)); // unsigned short
-				sections[i] = new Section();
-				sections[i].sh_name = efile.readIntE();
-				sections[i].sh_type = efile.readIntE();
-				switch (ehdr.e_ident[ELFhdr.EI_CLASS]) {
-				case ELFhdr.ELFCLASS32: {
-					byte[] addrArray = new byte[ELF32_ADDR_SIZE];
-					sections[i].sh_flags = efile.readIntE();
-					efile.readFullyE(addrArray);
-					sections[i].sh_addr = new Addr32(addrArray);
-					sections[i].sh_offset = efile.readIntE();
-					sections[i].sh_size = efile.readIntE();
-				}
-					break;
-				case ELFhdr.ELFCLASS64: {
-					byte[] addrArray = new byte[ELF64_ADDR_SIZE];
-					sections[i].sh_flags = efile.readLongE();
-					efile.readFullyE(addrArray);
-					sections[i].sh_addr = new Addr64(addrArray);
-					sections[i].sh_offset = readUnsignedLong(efile);
-					sections[i].sh_size = readUnsignedLong(efile);
-				}
-					break;
-				case ELFhdr.ELFCLASSNONE:
-				default:
-					throw new IOException("Unknown ELF class " + ehdr.e_ident[ELFhdr.EI_CLASS]); //$NON-NLS-1$
-				}
-
-				sections[i].sh_link = efile.readIntE();
-				sections[i].sh_info = efile.readIntE();
-				switch (ehdr.e_ident[ELFhdr.EI_CLASS]) {
-				case ELFhdr.ELFCLASS32: {
-					sections[i].sh_addralign = efile.readIntE();
-					sections[i].sh_entsize = efile.readIntE();
+			final int entrySize = ehdr.e_shentsize & 0xffff; // unsigned short
+			final boolean is64Bit;
+			switch (ehdr.e_ident[ELFhdr.EI_CLASS]) {
+			case ELFhdr.ELFCLASS32:
+				is64Bit = false;
+				break;
+			case ELFhdr.ELFCLASS64:
+				is64Bit = true;
+				break;
+			case ELFhdr.ELFCLASSNONE:
+			default:
+				if (length == 0) {
+					sections = new Section[0];
+					return sections;
 				}
-					break;
-				case ELFhdr.ELFCLASS64: {
-					sections[i].sh_addralign = efile.readLongE();
-					sections[i].sh_entsize = readUnsignedLong(efile);
+				throw new IOException("Unknown ELF class " + ehdr.e_ident[ELFhdr.EI_CLASS]); //$NON-NLS-1$
+			}
+			// Read the section header table at once rather than field by field.
+			final ByteBuffer table = readSectionHeaderTable(length, entrySize, is64Bit ? 64 : 40);
+			Section[] result = new Section[length];
+			for (int i = 0; i < length; i++) {
+				table.position(i * entrySize);
+				Section section = new Section();
+				section.sh_name = table.getInt() & 0xffffffffL;
+				section.sh_type = table.getInt() & 0xffffffffL;
+				if (is64Bit) {
+					section.sh_flags = table.getLong();
+					section.sh_addr = new Addr64(table.getLong());
+					section.sh_offset = checkUnsignedLong(table.getLong());
+					section.sh_size = checkUnsignedLong(table.getLong());
+				} else {
+					section.sh_flags = table.getInt() & 0xffffffffL;
+					section.sh_addr = new Addr32(table.getInt() & 0xffffffffL);
+					section.sh_offset = table.getInt() & 0xffffffffL;
+					section.sh_size = table.getInt() & 0xffffffffL;
 				}
-					break;
-				case ELFhdr.ELFCLASSNONE:
-				default:
-					throw new IOException("Unknown ELF class " + ehdr.e_ident[ELFhdr.EI_CLASS]); //$NON-NLS-1$
+				section.sh_link = table.getInt() & 0xffffffffL;
+				section.sh_info = table.getInt() & 0xffffffffL;
+				if (is64Bit) {
+					section.sh_addralign = table.getLong();
+					section.sh_entsize = checkUnsignedLong(table.getLong());
+				} else {
+					section.sh_addralign = table.getInt() & 0xffffffffL;
+					section.sh_entsize = table.getInt() & 0xffffffffL;
 				}
+				result[i] = section;
 			}
+			sections = result;
 		}
 		return sections;
 	}
 
+	private ByteBuffer readSectionHeaderTable(int length, int entrySize, int headerSize) throws IOException {
+		final long size = (long) (length - 1) * entrySize + headerSize;
+		if (size > Integer.MAX_VALUE)
+			throw new IOException("Invalid section header table"); //$NON-NLS-1$
+		byte[] bytes = new byte[(int) size];
+		efile.seek(ehdr.e_shoff);
+		efile.readFully(bytes);
+		return ByteBuffer.wrap(bytes).order(efile.order());
+	}
+
 	/**
 	 * Symbol iterator, iterates over an elf file. Note: the iterator must be closed at the end in order to avoid resource leaks.
 	 *
@@ -1172,23 +1200,45 @@ public class Elf {
 	}
 
 	private Symbol[] loadSymbolsBySection(Section section) throws IOException {
-		int numSyms = 1;
-		if (section.sh_entsize != 0) {
-			numSyms = (int) section.sh_size / (int) section.sh_entsize;
+		ElfSymbolTable table = getSymbolTable(section);
+		int[] sorted = table.getSortedIndexes();
+		Symbol[] results = new Symbol[sorted.length];
+		for (int i = 0; i < sorted.length; i++) {
+			results[i] = table.getSymbol(sorted[i]);
 		}
-		section.makeSureNotCompressed();
-		ArrayList<Symbol> symList = new ArrayList<>(numSyms);
-		try (ElfSectionIterator elfIterator = symbolIterator(section)) {
-			while (elfIterator.hasNext()) {
-				Symbol symbol = elfIterator.next();
-				if (symbol.st_info == 0)
-					continue;
-				symList.add(symbol);
+		return results;
+	}
+
+	/**
+	 * Returns the symbol table of the given section, which needs to be of type
+	 * {@link Section#SHT_SYMTAB} or {@link Section#SHT_DYNSYM}. The table is mapped into memory,
+	 * its symbols are decoded on access.
+	 *
+	 * @param section the section of the symbol table
+	 * @return the symbol table
+	 * @throws IOException If the section is not a valid symbol table
+	 * @since 7.0
+	 */
+	public synchronized ElfSymbolTable getSymbolTable(Section section) throws IOException {
+		if (symbolTables == null) {
+			symbolTables = new HashMap<>();
+		}
+		ElfSymbolTable table = symbolTables.get(section);
+		if (table == null) {
+			if (section.sh_type != Section.SHT_SYMTAB && section.sh_type != Section.SHT_DYNSYM)
+				throw new IOException("Not a symbol table: " + section); //$NON-NLS-1$
+			final Section[] allSections = getSections();
+			ByteBuffer strings;
+			if (section.sh_link > 0 && section.sh_link < allSections.length) {
+				strings = allSections[(int) section.sh_link].map().order(efile.order());
+			} else {
+				strings = ByteBuffer.allocate(0);
 			}
+			table = new ElfSymbolTable(this, section, section.map().order(efile.order()), strings,
+					ehdr.e_ident[ELFhdr.EI_CLASS] == ELFhdr.ELFCLASS64);
+			symbolTables.put(section, table);
 		}
-		Symbol[] results = symList.toArray(new Symbol[0]);
-		Arrays.sort(results);
-		return results;
+		return table;
 	}
 
 	/**
@@ -1244,21 +1294,20 @@ public class Elf {
 
 	/* return the address of the function that address is in */
 	public Symbol getSymbol(IAddress vma) {
-		if (symbols == null) {
+		final Symbol[] syms = symbols;
+		if (syms == null) {
 			return null;
 		}
-
-		//@@@ If this works, move it to a single instance in this class.
-		SymbolComparator symbol_comparator = new SymbolComparator();
-
-		int ndx = Arrays.binarySearch(symbols, vma, symbol_comparator);
-		if (ndx > 0)
-			return symbols[ndx];
-		if (ndx == -1) {
-			return null;
+		long[] keys = symbolKeys;
+		if (keys == null || keys.length != syms.length) {
+			keys = new long[syms.length];
+			for (int i = 0; i < syms.length; i++) {
+				keys[i] = syms[i].st_value.getValue().longValue() ^ Long.MIN_VALUE;
+			}
+			symbolKeys = keys;
 		}
-		ndx = -ndx - 1;
-		return symbols[ndx - 1];
+		int ndx = SortedKeys.findLastLessOrEqual(keys, vma.getValue().longValue() ^ Long.MIN_VALUE);
+		return ndx < 0 ? null : syms[ndx];
 	}
 
 	/*
@@ -1278,7 +1327,10 @@ public class Elf {
 	}
 
 	protected long readUnsignedLong(ERandomAccessFile file) throws IOException {
-		long result = file.readLongE();
+		return checkUnsignedLong(file.readLongE());
+	}
+
+	private static long checkUnsignedLong(long result) throws IOException {
 		if (result < 0) {
 			throw new IOException("Maximal file offset is " + Long.toHexString(Long.MAX_VALUE) + //$NON-NLS-1$
 					" given offset is " + Long.toHexString(result)); //$NON-NLS-1$
@@ -29,8 +29,10 @@ import org.eclipse.cdt.utils.elf.Elf.Symbol;
 public class ElfHelper {
 
 	private Elf elf;
-	private Elf.Symbol[] dynsyms;
-	private Elf.Symbol[] symbols;
+	// The symbols are filtered by index, only the ones returned are decoded into Elf.Symbol objects.
+	private ElfSymbolTable dynsyms;
+	private ElfSymbolTable symbols;
+	private boolean symbolsLoaded;
 	private Elf.Section[] sections;
 	private Elf.Dynamic[] dynamics;
 
@@ -57,18 +59,26 @@ public class ElfHelper {
 	}
 
 	private void loadSymbols() throws IOException {
-		if (symbols == null) {
-			elf.loadSymbols();
-			symbols = elf.getSymtabSymbols();
-			dynsyms = elf.getDynamicSymbols();
+		if (!symbolsLoaded) {
+			symbolsLoaded = true;
+			symbols = getSymbolTable(Elf.Section.SHT_SYMTAB);
+			dynsyms = getSymbolTable(Elf.Section.SHT_DYNSYM);
 
-			if (symbols.length <= 0)
+			if (symbols == null)
 				symbols = dynsyms;
-			if (dynsyms.length <= 0)
+			if (dynsyms == null)
 				dynsyms = symbols;
 		}
 	}
 
+	private ElfSymbolTable getSymbolTable(int type) throws IOException {
+		Elf.Section[] tables = elf.getSections(type);
+		if (tables.length == 0)
+			return null;
+		ElfSymbolTable table = elf.getSymbolTable(tables[0]);
+		return table.getSortedIndexes().length > 0 ? table : null;
+	}
+
 	private void loadSections() throws IOException {
 		if (sections == null)
 			sections = elf.getSections();
@@ -130,43 +140,29 @@ public class ElfHelper {
 	}
 
 	public Elf.Symbol[] getExternalFunctions() throws IOException {
-		Vector<Symbol> v = new Vector<>();
-
 		loadSymbols();
 		loadSections();
-
-		for (int i = 0; i < dynsyms.length; i++) {
-			if (dynsyms[i].st_bind() == Elf.Symbol.STB_GLOBAL && dynsyms[i].st_type() == Elf.Symbol.STT_FUNC) {
-				int idx = dynsyms[i].st_shndx;
-				if (idx < Elf.Symbol.SHN_HIPROC && idx > Elf.Symbol.SHN_LOPROC) {
-					String name = dynsyms[i].toString();
-					if (name != null && name.trim().length() > 0)
-						v.add(dynsyms[i]);
-				} else if (idx >= 0 && sections[idx].sh_type == Elf.Section.SHT_NULL) {
-					v.add(dynsyms[i]);
-				}
-			}
-		}
-
-		Elf.Symbol[] ret = v.toArray(new Elf.Symbol[v.size()]);
-		return ret;
+		return getExternal(dynsyms, Elf.Symbol.STT_FUNC);
 	}
 
 	public Elf.Symbol[] getExternalObjects() throws IOException {
-		Vector<Symbol> v = new Vector<>();
-
 		loadSymbols();
 		loadSections();
+		return getExternal(dynsyms, Elf.Symbol.STT_OBJECT);
+	}
 
-		for (int i = 0; i < dynsyms.length; i++) {
-			if (dynsyms[i].st_bind() == Elf.Symbol.STB_GLOBAL && dynsyms[i].st_type() == Elf.Symbol.STT_OBJECT) {
-				int idx = dynsyms[i].st_shndx;
-				if (idx < Elf.Symbol.SHN_HIPROC && idx > Elf.Symbol.SHN_LOPROC) {
-					String name = dynsyms[i].toString();
-					if (name != null && name.trim().length() > 0)
-						v.add(dynsyms[i]);
-				} else if (idx >= 0 && sections[idx].sh_type == Elf.Section.SHT_NULL) {
-					v.add(dynsyms[i]);
+	private Elf.Symbol[] getExternal(ElfSymbolTable table, int type) {
+		Vector<Symbol> v = new Vector<>();
+		if (table != null) {
+			for (int i : table.getSortedIndexes()) {
+				if (table.getBind(i) == Elf.Symbol.STB_GLOBAL && table.getType(i) == type) {
+					int idx = table.getSectionIndex(i);
+					if (idx < Elf.Symbol.SHN_HIPROC && idx > Elf.Symbol.SHN_LOPROC) {
+						if (!table.getName(i).trim().isEmpty())
+							v.add(table.getSymbol(i));
+					} else if (idx >= 0 && sections[idx].sh_type == Elf.Section.SHT_NULL) {
+						v.add(table.getSymbol(i));
+					}
 				}
 			}
 		}
@@ -180,9 +176,11 @@ public class ElfHelper {
 
 		loadSymbols();
 
-		for (int i = 0; i < dynsyms.length; i++) {
-			if (dynsyms[i].st_shndx == Elf.Symbol.SHN_UNDEF)
-				v.add(dynsyms[i]);
+		if (dynsyms != null) {
+			for (int i : dynsyms.getSortedIndexes()) {
+				if (dynsyms.getSectionIndex(i) == Elf.Symbol.SHN_UNDEF)
+					v.add(dynsyms.getSymbol(i));
+			}
 		}
 
 		Elf.Symbol[] ret = v.toArray(new Elf.Symbol[v.size()]);
@@ -190,43 +188,29 @@ public class ElfHelper {
 	}
 
 	public Elf.Symbol[] getLocalFunctions() throws IOException {
-		Vector<Symbol> v = new Vector<>();
-
 		loadSymbols();
 		loadSections();
-
-		for (int i = 0; i < symbols.length; i++) {
-			if (symbols[i].st_type() == Elf.Symbol.STT_FUNC) {
-				int idx = symbols[i].st_shndx;
-				if (idx < Elf.Symbol.SHN_HIPROC && idx > Elf.Symbol.SHN_LOPROC) {
-					String name = symbols[i].toString();
-					if (name != null && name.trim().length() > 0)
-						v.add(symbols[i]);
-				} else if (idx >= 0 && sections[idx].sh_type != Elf.Section.SHT_NULL) {
-					v.add(symbols[i]);
-				}
-			}
-		}
-
-		Elf.Symbol[] ret = v.toArray(new Elf.Symbol[v.size()]);
-		return ret;
+		return getLocal(symbols, Elf.Symbol.STT_FUNC);
 	}
 
 	public Elf.Symbol[] getLocalObjects() throws IOException {
-		Vector<Symbol> v = new Vector<>();
-
 		loadSymbols();
 		loadSections();
+		return getLocal(symbols, Elf.Symbol.STT_OBJECT);
+	}
 
-		for (int i = 0; i < symbols.length; i++) {
-			if (symbols[i].st_type() == Elf.Symbol.STT_OBJECT) {
-				int idx = symbols[i].st_shndx;
-				if (idx < Elf.Symbol.SHN_HIPROC && idx > Elf.Symbol.SHN_LOPROC) {
-					String name = symbols[i].toString();
-					if (name != null && name.trim().length() > 0)
-						v.add(symbols[i]);
-				} else if (idx >= 0 && sections[idx].sh_type != Elf.Section.SHT_NULL) {
-					v.add(symbols[i]);
+	private Elf.Symbol[] getLocal(ElfSymbolTable table, int type) {
+		Vector<Symbol> v = new Vector<>();
+		if (table != null) {
+			for (int i : table.getSortedIndexes()) {
+				if (table.getType(i) == type) {
+					int idx = table.getSectionIndex(i);
+					if (idx < Elf.Symbol.SHN_HIPROC && idx > Elf.Symbol.SHN_LOPROC) {
+						if (!table.getName(i).trim().isEmpty())
+							v.add(table.getSymbol(i));
+					} else if (idx >= 0 && sections[idx].sh_type != Elf.Section.SHT_NULL) {
+						v.add(table.getSymbol(i));
+					}
 				}
 			}
 		}
@@ -241,11 +225,11 @@ public class ElfHelper {
 		loadSymbols();
 		loadSections();
 
-		for (int i = 0; i < symbols.length; i++) {
-			if (symbols[i].st_bind() == Elf.Symbol.STB_GLOBAL && symbols[i].st_type() == Elf.Symbol.STT_OBJECT) {
-				int idx = symbols[i].st_shndx;
-				if (idx == Elf.Symbol.SHN_COMMON) {
-					v.add(symbols[i]);
+		if (symbols != null) {
+			for (int i : symbols.getSortedIndexes()) {
+				if (symbols.getBind(i) == Elf.Symbol.STB_GLOBAL && symbols.getType(i) == Elf.Symbol.STT_OBJECT
+						&& symbols.getSectionIndex(i) == Elf.Symbol.SHN_COMMON) {
+					v.add(symbols.getSymbol(i));
 				}
 			}
 		}
@@ -0,0 +1,242 @@
+/*******************************************************************************
+ * Copyright (c) 2026 Eclipse CDT contributors and others.
+ *
+ * This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License 2.0
+ * which accompanies this distribution, and is available at
+ * https://www.eclipse.org/legal/epl-2.0/
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ *******************************************************************************/
+package org.eclipse.cdt.utils.elf;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+
+import org.eclipse.cdt.internal.core.SortedKeys;
+import org.eclipse.cdt.utils.Addr32;
+import org.eclipse.cdt.utils.Addr64;
+
+/**
+ * A symbol table of an ELF file, i.e. the {@code .symtab} or the {@code .dynsym} section, whose
+ * entries are decoded on access.
+ * <p>
+ * The table and its string table are mapped into memory rather than read, so opening a table
+ * is cheap regardless of its size. Symbols are addressed by their index in the table, the
+ * accessors decode a single field of a single entry. {@link #getSymbol(int)} creates a
+ * {@link Elf.Symbol} for clients that need one.
+ * <p>
+ * For address lookups the table computes an index of the symbols sorted by address on first
+ * use. The index consists of primitive arrays only, it contains the symbols with a non-zero
+ * {@code st_info}.
+ * <p>
+ * The table may be accessed by multiple threads, it must not be used after the {@link Elf}
+ * it was obtained from has been disposed.
+ *
+ * @see Elf#getSymbolTable(Elf.Section)
+ * @since 7.0
+ */
+public final class ElfSymbolTable {
+	private static final int SYM32_SIZE = 16;
+	private static final int SYM64_SIZE = 24;
+
+	private final Elf fElf;
+	private final Elf.Section fSection;
+	private final ByteBuffer fData;
+	private final ByteBuffer fStrings;
+	private final boolean f64Bit;
+	private final int fEntrySize;
+	private final int fCount;
+
+	/** Indexes of the symbols with a non-zero st_info, sorted by address. */
+	private int[] fSortedIndexes;
+	/** Addresses of the symbols of fSortedIndexes, with the sign bit flipped. */
+	private long[] fSortedKeys;
+
+	ElfSymbolTable(Elf elf, Elf.Section section, ByteBuffer data, ByteBuffer strings, boolean is64Bit)
+			throws IOException {
+		final int minEntrySize = is64Bit ? SYM64_SIZE : SYM32_SIZE;
+		final long entrySize = section.sh_entsize != 0 ? section.sh_entsize : minEntrySize;
+		if (entrySize < minEntrySize || entrySize > Integer.MAX_VALUE)
+			throw new IOException("Invalid size of symbol table entries: " + section.sh_entsize); //$NON-NLS-1$
+		fElf = elf;
+		fSection = section;
+		fData = data;
+		fStrings = strings;
+		f64Bit = is64Bit;
+		fEntrySize = (int) entrySize;
+		fCount = data.capacity() / fEntrySize;
+	}
+
+	/**
+	 * Returns the section of the symbol table.
+	 */
+	public Elf.Section getSection() {
+		return fSection;
+	}
+
+	/**
+	 * Returns the number of entries of the table, including the undefined symbol at index 0.
+	 */
+	public int getSymbolCount() {
+		return fCount;
+	}
+
+	private int offset(int index) {
+		if (index < 0 || index >= fCount)
+			throw new IndexOutOfBoundsException(String.valueOf(index));
+		return index * fEntrySize;
+	}
+
+	/**
+	 * Returns the offset of the name of the symbol in the string table, {@code st_name}.
+	 */
+	public long getNameOffset(int index) {
+		return fData.getInt(offset(index)) & 0xffffffffL;
+	}
+
+	/**
+	 * Returns the name of the symbol, or an empty string if the symbol has no valid name.
+	 */
+	public String getName(int index) {
+		return getString(getNameOffset(index));
+	}
+
+	/**
+	 * Returns the value of the symbol, {@code st_value}. For 64-bit files the value is to be
+	 * interpreted as an unsigned number.
+	 */
+	public long getValue(int index) {
+		final int offset = offset(index);
+		return f64Bit ? fData.getLong(offset + 8) : fData.getInt(offset + 4) & 0xffffffffL;
+	}
+
+	/**
+	 * Returns the size of the symbol, {@code st_size}.
+	 */
+	public long getSize(int index) {
+		final int offset = offset(index);
+		return f64Bit ? fData.getLong(offset + 16) : fData.getInt(offset + 8) & 0xffffffffL;
+	}
+
+	/**
+	 * Returns the type and binding attributes of the symbol, {@code st_info}.
+	 */
+	public int getInfo(int index) {
+		return fData.get(offset(index) + (f64Bit ? 4 : 12)) & 0xff;
+	}
+
+	/**
+	 * Returns the type of the symbol, one of the {@code Elf.Symbol.STT_*} constants.
+	 */
+	public int getType(int index) {
+		return getInfo(index) & 0xf;
+	}
+
+	/**
+	 * Returns the binding of the symbol, one of the {@code Elf.Symbol.STB_*} constants.
+	 */
+	public int getBind(int index) {
+		return (getInfo(index) >> 4) & 0xf;
+	}
+
+	/**
+	 * Returns the index of the section the symbol is defined in, {@code st_shndx}. Like
+	 * {@link Elf.Symbol#st_shndx} the value is sign extended, such that the special indexes
+	 * compare equal to the {@code Elf.Symbol.SHN_*} constants.
+	 */
+	public int getSectionIndex(int index) {
+		return fData.getShort(offset(index) + (f64Bit ? 6 : 14));
+	}
+
+	/**
+	 * Decodes the symbol with the given index. The symbol does not reference the table, it
+	 * remains usable after the {@link Elf} has been disposed.
+	 */
+	public Elf.Symbol getSymbol(int index) {
+		final int offset = offset(index);
+		Elf.Symbol symbol = fElf.new Symbol(fSection);
+		symbol.st_name = getNameOffset(index);
+		symbol.name = getString(symbol.st_name);
+		if (f64Bit) {
+			symbol.st_info = fData.get(offset + 4);
+			symbol.st_other = fData.get(offset + 5);
+			symbol.st_shndx = fData.getShort(offset + 6);
+			symbol.st_value = new Addr64(fData.getLong(offset + 8));
+			symbol.st_size = fData.getLong(offset + 16);
+		} else {
+			symbol.st_value = new Addr32(fData.getInt(offset + 4) & 0xffffffffL);
+			symbol.st_size = fData.getInt(offset + 8) & 0xffffffffL;
+			symbol.st_info = fData.get(offset + 12);
+			symbol.st_other = fData.get(offset + 13);
+			symbol.st_shndx = fData.getShort(offset + 14);
+		}
+		return symbol;
+	}
+
+	/**
+	 * Returns the index of the symbol with the highest address that is less than or equal to
+	 * the given one, or {@code -1} if there is no such symbol. Only symbols with a non-zero
+	 * {@code st_info} are considered.
+	 *
+	 * @param address the address, interpreted as an unsigned number.
+	 */
+	public int findSymbol(long address) {
+		final int pos = SortedKeys.findLastLessOrEqual(getSortedKeys(), address ^ Long.MIN_VALUE);
+		return pos < 0 ? -1 : fSortedIndexes[pos];
+	}
+
+	/**
+	 * Returns the indexes of the symbols with a non-zero {@code st_info}, sorted by address.
+	 * Symbols with the same address are in the order of the table. The array is shared, it
+	 * must not be modified.
+	 */
+	int[] getSortedIndexes() {
+		getSortedKeys();
+		return fSortedIndexes;
+	}
+
+	private synchronized long[] getSortedKeys() {
+		if (fSortedKeys == null) {
+			int[] indexes = new int[fCount];
+			long[] keys = new long[fCount];
+			int n = 0;
+			for (int i = 0; i < fCount; i++) {
+				if (getInfo(i) != 0) {
+					indexes[n] = i;
+					keys[n++] = getValue(i) ^ Long.MIN_VALUE;
+				}
+			}
+			if (n < fCount) {
+				indexes = Arrays.copyOf(indexes, n);
+				keys = Arrays.copyOf(keys, n);
+			}
+			SortedKeys.sort(keys, null, indexes);
+			fSortedIndexes = indexes;
+			fSortedKeys = keys;
+		}
+		return fSortedKeys;
+	}
+
+	/**
+	 * Returns the string at the given offset of the string table.
+	 */
+	private String getString(long offset) {
+		final ByteBuffer strings = fStrings;
+		final int limit = strings.limit();
+		if (offset < 0 || offset >= limit)
+			return ""; //$NON-NLS-1$
+		final int start = (int) offset;
+		int end = start;
+		while (end < limit && strings.get(end) != 0) {
+			end++;
+		}
+		byte[] bytes = new byte[end - start];
+		for (int i = 0; i < bytes.length; i++) {
+			bytes[i] = strings.get(start + i);
+		}
+		return new String(bytes, StandardCharsets.UTF_8);
+	}
+}
@@ -18,8 +18,11 @@ import java.io.IOException;
 import java.io.InputStream;
 import java.util.ArrayList;
 import java.util.Arrays;
+import java.util.HashSet;
 import java.util.List;
+import java.util.Set;
 
+import org.eclipse.cdt.core.IAddress;
 import org.eclipse.cdt.core.IAddressFactory;
 import org.eclipse.cdt.core.IBinaryParser;
 import org.eclipse.cdt.core.IBinaryParser.IBinaryFile;
@@ -172,20 +175,24 @@ public class ElfBinaryObject extends BinaryObjectAdapter {
 	}
 
 	protected void addSymbols(Elf.Symbol[] array, int type, List<Symbol> list) {
+		Set<IAddress> addresses = null;
 		for (org.eclipse.cdt.utils.elf.Elf.Symbol element : array) {
 			// Multiple function symbol entries for the same address are generated
 			// do not add duplicate symbols with 0 size to the list
-			boolean duplicateAddressFound = false;
 			if (type == ISymbol.FUNCTION && element.st_size == 0) {
-				for (Symbol s : list) {
-					if (s.getAddress().equals(element.st_value)) {
-						duplicateAddressFound = true;
-						break;
+				if (addresses == null) {
+					addresses = new HashSet<>();
+					for (Symbol s : list) {
+						addresses.add(s.getAddress());
 					}
 				}
+				if (addresses.contains(element.st_value))
+					continue;
+			}
+			list.add(new Symbol(this, element.toString(), type, element.st_value, element.st_size));
+			if (addresses != null) {
+				addresses.add(element.st_value);
 			}
-			if (!duplicateAddressFound)
-				list.add(new Symbol(this, element.toString(), type, element.st_value, element.st_size));
 		}
 	}
 
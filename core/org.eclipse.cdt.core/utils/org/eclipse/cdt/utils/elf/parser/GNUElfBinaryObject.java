@@ -23,6 +23,7 @@ import org.eclipse.cdt.core.IBinaryParser;
 import org.eclipse.cdt.utils.AR.ARHeader;
 import org.eclipse.cdt.utils.Addr2line;
 import org.eclipse.cdt.utils.CPPFilt;
+import org.eclipse.cdt.utils.DwarfAddr2line;
 import org.eclipse.cdt.utils.IGnuToolFactory;
 import org.eclipse.cdt.utils.Objdump;
 import org.eclipse.cdt.utils.Symbol;
@@ -162,19 +163,43 @@ public class GNUElfBinaryObject extends ElfBinaryObject {
 
 	@Override
 	protected void addSymbols(Elf.Symbol[] array, int type, List<Symbol> list) {
-		for (org.eclipse.cdt.utils.elf.Elf.Symbol element : array) {
-			String name = element.toString();
-			if (symbolLoadingCPPFilt != null) {
-				try {
-					name = symbolLoadingCPPFilt.getFunction(name);
-				} catch (IOException e1) {
-					symbolLoadingCPPFilt.dispose();
-					symbolLoadingCPPFilt = null;
-				}
+		String[] names = new String[array.length];
+		for (int i = 0; i < array.length; i++) {
+			names[i] = array[i].toString();
+		}
+		if (symbolLoadingCPPFilt != null) {
+			try {
+				names = symbolLoadingCPPFilt.getFunctions(names);
+			} catch (IOException e1) {
+				symbolLoadingCPPFilt.dispose();
+				symbolLoadingCPPFilt = null;
+			}
+		}
+		String[] fileNames = null;
+		int[] startLines = null;
+		int[] endLines = null;
+		if (symbolLoadingAddr2line instanceof DwarfAddr2line) {
+			// Look up the lines of all symbols at once.
+			IAddress[] starts = new IAddress[array.length];
+			IAddress[] ends = new IAddress[array.length];
+			for (int i = 0; i < array.length; i++) {
+				starts[i] = array[i].st_value;
+				ends[i] = array[i].st_value.add(array[i].st_size - 1);
 			}
+			DwarfAddr2line addr2line = (DwarfAddr2line) symbolLoadingAddr2line;
+			fileNames = addr2line.getFileNames(starts);
+			startLines = addr2line.getLineNumbers(starts);
+			endLines = addr2line.getLineNumbers(ends);
+		}
+		for (int i = 0; i < array.length; i++) {
+			org.eclipse.cdt.utils.elf.Elf.Symbol element = array[i];
+			String name = names[i];
 			IAddress addr = element.st_value;
 			long size = element.st_size;
-			if (symbolLoadingAddr2line != null) {
+			if (fileNames != null) {
+				IPath file = fileNames[i] != null ? new Path(fileNames[i]) : Path.EMPTY;
+				list.add(new GNUSymbol(this, name, type, addr, size, file, startLines[i], endLines[i]));
+			} else if (symbolLoadingAddr2line != null) {
 				try {
 					String filename = symbolLoadingAddr2line.getFileName(addr);
 					// Addr2line returns the funny "??" when it can not find
@@ -25,6 +25,7 @@ import java.util.Set;
 
 import org.eclipse.cdt.core.CCorePlugin;
 import org.eclipse.cdt.core.ISymbolReader;
+import org.eclipse.cdt.utils.CPPDemangler;
 import org.eclipse.cdt.utils.CPPFilt;
 import org.eclipse.cdt.utils.debug.stabs.StabsReader;
 
@@ -709,7 +710,7 @@ public class MachO {
 				try {
 					if (in.indexOf("__") != -1 || in.indexOf("_._") != -1) { //$NON-NLS-1$ //$NON-NLS-2$
 						if (cppFilt == null) {
-							cppFilt = new CPPFilt();
+							cppFilt = new CPPDemangler(true);
 						}
 						return cppFilt.getFunction(in);
 					}
@@ -25,6 +25,7 @@ import java.util.Set;
 
 import org.eclipse.cdt.core.CCorePlugin;
 import org.eclipse.cdt.core.ISymbolReader;
+import org.eclipse.cdt.utils.CPPDemangler;
 import org.eclipse.cdt.utils.CPPFilt;
 import org.eclipse.cdt.utils.debug.stabs.StabConstant;
 import org.eclipse.cdt.utils.debug.stabs.StabsReader;
@@ -780,7 +781,7 @@ public class MachO64 {
 				try {
 					if (in.indexOf("__") != -1 || in.indexOf("_._") != -1) { //$NON-NLS-1$ //$NON-NLS-2$
 						if (cppFilt == null) {
-							cppFilt = new CPPFilt();
+							cppFilt = new CPPDemangler(true);
 						}
 						return cppFilt.getFunction(in);
 					}
@@ -19,6 +19,7 @@ import org.eclipse.cdt.core.AbstractCExtension;
 import org.eclipse.cdt.core.CCorePlugin;
 import org.eclipse.cdt.core.IBinaryParser;
 import org.eclipse.cdt.core.settings.model.ICConfigExtensionReference;
+import org.eclipse.cdt.utils.CPPDemangler;
 import org.eclipse.cdt.utils.CPPFilt;
 import org.eclipse.cdt.utils.macho.AR;
 import org.eclipse.cdt.utils.macho.MachO;
@@ -104,10 +105,7 @@ public class MachOParser extends AbstractCExtension implements IBinaryParser {
 		IPath cppFiltPath = getCPPFiltPath();
 		CPPFilt cppfilt = null;
 		if (cppFiltPath != null && !cppFiltPath.isEmpty()) {
-			try {
-				cppfilt = new CPPFilt(cppFiltPath.toOSString());
-			} catch (IOException e2) {
-			}
+			cppfilt = CPPDemangler.create(cppFiltPath.toOSString(), true);
 		}
 		return cppfilt;
 	}